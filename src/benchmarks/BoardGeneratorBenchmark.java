@@ -0,0 +1,34 @@
+package benchmarks;
+
+// Internal imports
+import game.BoardGenerator;
+
+/**
+ * Measures how many random boards one thread generates per second, including encoding them.
+ * <p>
+ * Usage: {@code BoardGeneratorBenchmark [boards]}
+ */
+public class BoardGeneratorBenchmark {
+    // The number of boards per round if none is given
+    public static final int DEFAULT_BOARDS = 2000000;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args May include the number of boards per round.
+     */
+    public static void main(String[] args) {
+        int boards = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_BOARDS;
+        BoardGenerator generator = new BoardGenerator();
+
+        for (int round = 1; round <= 3; round++) { // The first rounds warm up the JIT
+            long length = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < boards; i++) {
+                length += generator.nextBoard().length(); // Uses the boards so they aren't optimised away
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.println("Round " + round + ": " + boards + " boards in " + nanos / 1000000 + " ms, " +
+                boards * 1000000000L / nanos + " boards per second, " + length / boards + " characters per board");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package benchmarks;
+
+// External imports
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import bot.BotPlayer;
+import game.Game;
+import game.GameBoardPool;
+import game.RuleProfile;
+import server.Matchmaker;
+import tui.GameServerTUI;
+
+/**
+ * Load test for the board pool, comparing the garbage collector with and without it. Bots play the same games twice, each time
+ * in a new JVM started with the same options as this one, once with the pool and once with its capacity set to 0. The games are
+ * played in waves that all run at the same time, like the games of a busy server. For each the time taken, the number and the
+ * total time of garbage collections, and how many boards the pool created and reused are reported.
+ * <p>
+ * Options such as {@code -Xmx64m} or {@code -Xlog:gc} are passed on to both JVMs, so that their GC logs can be compared too.
+ * <p>
+ * Usage: {@code BoardPoolBenchmark [games] [gamesAtOnce]}
+ */
+public class BoardPoolBenchmark {
+    // The defaults for the arguments
+    public static final int DEFAULT_GAMES = 20000;
+    public static final int DEFAULT_GAMES_AT_ONCE = 256;
+
+    // The argument that makes the benchmark play the games in this JVM instead of starting new ones
+    private static final String PLAY = "play";
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args May include the number of games and how many of them are played at the same time.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 1 && args[0].equals(PLAY)) {
+            play(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+        int games = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        int gamesAtOnce = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_GAMES_AT_ONCE;
+
+        for (int capacity : new int[] {GameBoardPool.DEFAULT_CAPACITY, 0}) {
+            List<String> command = new ArrayList<>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.add("-D" + GameBoardPool.CAPACITY_PROPERTY + "=" + capacity);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(BoardPoolBenchmark.class.getName());
+            command.add(PLAY);
+            command.add(String.valueOf(games));
+            command.add(String.valueOf(gamesAtOnce));
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("The benchmark with pool capacity " + capacity + " failed");
+            }
+        }
+    }
+
+    /**
+     * Plays the games in this JVM with the board pool its system property configures, after a wave that warms up the JIT.
+     */
+    private static void play(int games, int gamesAtOnce) throws InterruptedException {
+        GameServerTUI quietView = new GameServerTUI() {
+            @Override
+            public void showMessage(String message) {
+            }
+        };
+        Matchmaker matchmaker = new Matchmaker(quietView, 0);
+        Random random = new Random(1);
+
+        playWave(matchmaker, random, gamesAtOnce);
+        long collections = 0;
+        long collectionMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections -= collector.getCollectionCount();
+            collectionMillis -= collector.getCollectionTime();
+        }
+        GameBoardPool pool = GameBoardPool.getShared();
+        long created = pool.getCreated();
+        long reused = pool.getReused();
+
+        long start = System.nanoTime();
+        for (int played = 0; played < games; played += gamesAtOnce) {
+            playWave(matchmaker, random, Math.min(gamesAtOnce, games - played));
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += collector.getCollectionCount();
+            collectionMillis += collector.getCollectionTime();
+        }
+        System.out.println((Integer.getInteger(GameBoardPool.CAPACITY_PROPERTY, GameBoardPool.DEFAULT_CAPACITY) == 0 ?
+            "Without pool" : "With pool") + ": " + games + " games in " + elapsed + " ms, " + collections +
+            " garbage collections taking " + collectionMillis + " ms, boards " + (pool.getCreated() - created) + " created and " +
+            (pool.getReused() - reused) + " reused");
+    }
+
+    /**
+     * Plays games between bots that move without delay, all at the same time, and waits until they have ended.
+     */
+    private static void playWave(Matchmaker matchmaker, Random random, int games) throws InterruptedException {
+        CountDownLatch ended = new CountDownLatch(games);
+        for (int i = 0; i < games; i++) {
+            Game game = matchmaker.createGame(RuleProfile.CLASSIC);
+            game.addGameListener(endedGame -> ended.countDown());
+            new BotPlayer("first", new Random(random.nextLong()), 0).join(game);
+            new BotPlayer("second", new Random(random.nextLong()), 0).join(game);
+        }
+        ended.await();
+    }
+}
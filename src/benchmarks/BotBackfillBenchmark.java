@@ -0,0 +1,114 @@
+package benchmarks;
+
+// External imports
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import bot.BotPlayer;
+import game.Game;
+import game.GameListener;
+import server.Matchmaker;
+import tui.GameServerTUI;
+
+/**
+ * Load test for games against bots, without sockets. Simulated clients play like bots but count as people.
+ * <p>
+ * First every client gets a bot game at once, so all games run at the same time, and the time until they have all ended,
+ * the number of threads and the heap are reported. Then clients arrive one by one at random intervals that average twice the
+ * bot wait deadline, so some find an opponent and others get a bot, and the time to first game is reported.
+ * <p>
+ * Usage: {@code BotBackfillBenchmark [games] [moveDelayMillis] [botWaitMillis] [arrivals]}
+ */
+public class BotBackfillBenchmark {
+    // The defaults for the arguments
+    public static final int DEFAULT_GAMES = 20000;
+    public static final long DEFAULT_MOVE_DELAY_MILLIS = 50;
+    public static final long DEFAULT_BOT_WAIT_MILLIS = 200;
+    public static final int DEFAULT_ARRIVALS = 200;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args May include the number of simultaneous games, the delay of every move, the bot wait deadline and the number of arrivals.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        long moveDelay = args.length >= 2 ? Long.parseLong(args[1]) : DEFAULT_MOVE_DELAY_MILLIS;
+        long botWait = args.length >= 3 ? Long.parseLong(args[2]) : DEFAULT_BOT_WAIT_MILLIS;
+        int arrivals = args.length >= 4 ? Integer.parseInt(args[3]) : DEFAULT_ARRIVALS;
+
+        GameServerTUI quietView = new GameServerTUI() {
+            @Override
+            public void showMessage(String message) {
+            }
+        };
+
+        // All games at once
+        Matchmaker matchmaker = new Matchmaker(quietView, botWait);
+        CountDownLatch ended = new CountDownLatch(games);
+        matchmaker.addGameListener(game -> ended.countDown());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            Game game = matchmaker.findBotGame(moveDelay);
+            new SimulatedClient("player" + i, moveDelay).join(game);
+        }
+        long started = System.nanoTime();
+        System.out.println(games + " bot games started in " + TimeUnit.NANOSECONDS.toMillis(started - start) + " ms");
+
+        long peakHeap = 0;
+        while (!ended.await(1, TimeUnit.SECONDS)) {
+            Runtime runtime = Runtime.getRuntime();
+            peakHeap = Math.max(peakHeap, runtime.totalMemory() - runtime.freeMemory());
+            System.out.println("  " + (games - ended.getCount()) + " games ended, " + Thread.activeCount() + " threads");
+        }
+        System.out.println("All games ended after " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms, peak threads " +
+            ManagementFactory.getThreadMXBean().getPeakThreadCount() + ", peak heap about " + (peakHeap >> 20) + " MB");
+        System.out.println("Time to first game in ms: " + matchmaker.getTimeToFirstGame());
+
+        // Clients arriving one by one
+        Matchmaker arrivalMatchmaker = new Matchmaker(quietView, botWait);
+        int[] botGames = new int[1];
+        arrivalMatchmaker.addGameListener(new GameListener() {
+            @Override
+            public void gameStarted(Game game) {
+                synchronized (botGames) {
+                    if (game.getPlayer(1).isBot() || game.getPlayer(2).isBot()) {
+                        botGames[0]++;
+                    }
+                }
+            }
+
+            @Override
+            public void gameEnded(Game game) {
+            }
+        });
+
+        Random random = new Random();
+        for (int i = 0; i < arrivals; i++) {
+            SimulatedClient client = new SimulatedClient("arrival" + i, moveDelay);
+            client.join(arrivalMatchmaker.findGame(client, client.getName()));
+            Thread.sleep((long) (-Math.log(1 - random.nextDouble()) * 2 * botWait));
+        }
+        Thread.sleep(botWait * 2); // Lets the last client get its bot
+        System.out.println(arrivals + " arrivals with a bot wait of " + botWait + " ms: " + botGames[0] + " of " +
+            arrivalMatchmaker.getGameCount() + " games against a bot");
+        System.out.println("Time to first game in ms: " + arrivalMatchmaker.getTimeToFirstGame());
+    }
+
+    /**
+     * A client that plays like a bot but counts as a person.
+     */
+    private static class SimulatedClient extends BotPlayer {
+        SimulatedClient(String name, long moveDelay) {
+            super(name, new Random(), moveDelay);
+        }
+
+        @Override
+        public boolean isBot() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package benchmarks;
+
+// External imports
+import java.util.Arrays;
+import java.util.Random;
+
+// Internal imports
+import bot.TargetingEngine;
+import constants.GameConstants;
+import game.BoardGenerator;
+import game.GameBoard;
+
+/**
+ * Measures how long the bot's targeting engine takes per decision and how often it wins against a player that shoots at random
+ * fields. Games are played directly on game boards with the game's rules: a hit gives another shot and whoever destroys all ships
+ * of the opponent first wins. Both sides get a random board and the first shooter is chosen randomly.
+ * <p>
+ * Usage: {@code BotBenchmark [games] [seed]}
+ */
+public class BotBenchmark {
+    // The number of games if none is given
+    public static final int DEFAULT_GAMES = 10000;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args May include the number of games and a seed.
+     */
+    public static void main(String[] args) {
+        int games = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        long seed = args.length >= 2 ? Long.parseLong(args[1]) : System.nanoTime();
+        Random random = new Random(seed);
+        System.out.println("Seed " + seed);
+
+        for (int round = 0; round < 3; round++) { // The first rounds warm up the JIT
+            timeDecisions(games, random, round + 1);
+        }
+
+        int botWins = 0;
+        long botShots = 0;
+        for (int i = 0; i < games; i++) {
+            int[] result = playAgainstRandomShooter(random);
+            botWins += result[0];
+            botShots += result[1];
+        }
+        System.out.println("Against a random shooter the bot won " + botWins + " of " + games + " games (" +
+            (botWins * 1000L / games) / 10.0 + "%), firing " + (botShots / games) + " shots per game on average.");
+    }
+
+    /**
+     * Lets the engine sink every ship of random boards and prints the distribution of the time per decision,
+     * which includes picking the shot and recording its result.
+     */
+    private static void timeDecisions(int games, Random random, int round) {
+        long[] times = new long[games * GameConstants.BOARD_SIZE_X * GameConstants.BOARD_SIZE_Y];
+        int decisions = 0;
+        TargetingEngine engine = new TargetingEngine(random);
+        BoardGenerator generator = new BoardGenerator(random);
+
+        for (int i = 0; i < games; i++) {
+            GameBoard board = new GameBoard(generator.nextBoard());
+            engine.reset();
+            boolean destroyed = false;
+
+            while (!destroyed) {
+                long start = System.nanoTime();
+                int shot = engine.nextShot();
+                long time = System.nanoTime() - start;
+
+                int x = shot % GameConstants.BOARD_SIZE_X;
+                int y = shot / GameConstants.BOARD_SIZE_X;
+                boolean[] result = board.makeMove(x, y); // Not timed, the board is the game's and not the bot's
+
+                start = System.nanoTime();
+                engine.recordShot(x, y, result[0], result[1]);
+                times[decisions++] = time + System.nanoTime() - start;
+                destroyed = result[2];
+            }
+        }
+
+        Arrays.sort(times, 0, decisions);
+        long total = 0;
+        for (int i = 0; i < decisions; i++) {
+            total += times[i];
+        }
+        System.out.println("Round " + round + ": " + decisions + " decisions, mean " + total / decisions + " ns, p50 " +
+            times[decisions / 2] + " ns, p99 " + times[(int) (decisions * 0.99)] + " ns, max " + times[decisions - 1] + " ns");
+    }
+
+    /**
+     * Plays one game of the bot against a random shooter.
+     * @return Whether the bot won as 1 or 0, and the number of shots the bot fired.
+     */
+    private static int[] playAgainstRandomShooter(Random random) {
+        BoardGenerator generator = new BoardGenerator(random);
+        GameBoard[] boards = {new GameBoard(generator.nextBoard()), new GameBoard(generator.nextBoard())};
+        TargetingEngine engine = new TargetingEngine(random);
+
+        // The random shooter fires at the fields in a random order
+        int[] order = new int[GameConstants.BOARD_SIZE_X * GameConstants.BOARD_SIZE_Y];
+        for (int i = 0; i < order.length; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        int randomShots = 0;
+        int botShots = 0;
+
+        int shooter = random.nextInt(2); // 0 is the bot, 1 the random shooter
+        while (true) {
+            int shot = shooter == 0 ? engine.nextShot() : order[randomShots++];
+            int x = shot % GameConstants.BOARD_SIZE_X;
+            int y = shot / GameConstants.BOARD_SIZE_X;
+            boolean[] result = boards[1 - shooter].makeMove(x, y);
+
+            if (shooter == 0) {
+                engine.recordShot(x, y, result[0], result[1]);
+                botShots++;
+            }
+            if (result[2]) {
+                return new int[] {shooter == 0 ? 1 : 0, botShots};
+            }
+            if (!result[0]) {
+                shooter = 1 - shooter;
+            }
+        }
+    }
+}
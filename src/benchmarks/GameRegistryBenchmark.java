@@ -0,0 +1,165 @@
+package benchmarks;
+
+// External imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+// Internal imports
+import game.Game;
+import game.Player;
+import server.GameRegistry;
+import tui.GameServerTUI;
+
+/**
+ * Measures the game registry with a hundred thousand live games: the throughput of games starting on all cores at once, the
+ * throughput of lookups by id and by player while other threads keep ending and starting games, and the heap per game.
+ * <p>
+ * Usage: {@code GameRegistryBenchmark [games]}
+ */
+public class GameRegistryBenchmark {
+    // The number of live games if none is given
+    public static final int DEFAULT_GAMES = 100000;
+
+    // The number of lookups of each kind that every reading thread makes
+    public static final int LOOKUPS = 1000000;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args May include the number of games.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        GameServerTUI quietView = new GameServerTUI() {
+            @Override
+            public void showMessage(String message) {
+            }
+        };
+
+        // The games with both players, so the registry can read their names
+        Game[] liveGames = new Game[games];
+        for (int i = 0; i < games; i++) {
+            liveGames[i] = new Game(quietView, i + 1);
+            liveGames[i].setPlayer(new IdlePlayer("player" + (2 * i)));
+            liveGames[i].setPlayer(new IdlePlayer("player" + (2 * i + 1)));
+        }
+
+        // Every thread starts its share of the games
+        System.gc();
+        long heapBefore = usedHeap();
+        GameRegistry registry = new GameRegistry();
+        long start = System.nanoTime();
+        runOnThreads(threads, t -> {
+            for (int i = t; i < games; i += threads) {
+                registry.gameStarted(liveGames[i]);
+            }
+        });
+        long startNanos = System.nanoTime() - start;
+        System.gc();
+        System.out.println(registry.size() + " games started on " + threads + " threads: " + (games * 1000000000L / startNanos) +
+            " games/s, about " + (usedHeap() - heapBefore) / games + " bytes per game");
+
+        // Half of the threads look games up while the other half keeps ending and restarting them
+        long[] lookupNanos = new long[threads];
+        int[] misses = new int[threads];
+        start = System.nanoTime();
+        runOnThreads(threads, t -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (t % 2 == 0) {
+                long lookupStart = System.nanoTime();
+                for (int i = 0; i < LOOKUPS; i++) {
+                    int game = random.nextInt(games);
+                    if (registry.getGame(game + 1) == null || registry.getGameOfPlayer("player" + (2 * game)) == null) {
+                        misses[t]++;
+                    }
+                }
+                lookupNanos[t] = System.nanoTime() - lookupStart;
+            } else {
+                for (int i = 0; i < LOOKUPS / 10; i++) {
+                    Game game = liveGames[random.nextInt(games)];
+                    registry.gameEnded(game);
+                    registry.gameStarted(game);
+                }
+            }
+        });
+        long lookups = 0;
+        long nanos = 0;
+        int missed = 0;
+        for (int t = 0; t < threads; t += 2) {
+            lookups += 2L * LOOKUPS;
+            nanos = Math.max(nanos, lookupNanos[t]);
+            missed += misses[t];
+        }
+        System.out.println(lookups + " lookups by id and by player next to " + (threads / 2 * (LOOKUPS / 10)) + " restarts: " +
+            (lookups * 1000000000L / nanos) + " lookups/s, " + missed + " lookups hit a restarting game");
+        System.out.println("Total " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Runs a task on a number of threads and waits until they are all done.
+     */
+    private static void runOnThreads(int threads, IntConsumer task) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> task.accept(thread));
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * Gives the heap that is in use.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * A player that only has a name.
+     */
+    private static class IdlePlayer implements Player {
+        private String name;
+
+        IdlePlayer(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void enemyName(String playerName) {
+        }
+
+        @Override
+        public void gameSetup(String playerName) {
+        }
+
+        @Override
+        public void makeMove() {
+        }
+
+        @Override
+        public void update(int x, int y, boolean isHit, boolean isSunk, boolean isLate, String lastPlayerName, String nextPlayerName) {
+        }
+
+        @Override
+        public void gameOver(String playerName, boolean winType) {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+// External imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Internal imports
+import leaderboard.Leaderboard;
+
+/**
+ * Measures the leaderboard with a million ranked players: the throughput of concurrent score updates from all cores
+ * and the latency of top-K, rank-of-player and players-around-rank queries.
+ * <p>
+ * Usage: {@code LeaderboardBenchmark [players]}
+ */
+public class LeaderboardBenchmark {
+    // The number of ranked players if none is given
+    public static final int DEFAULT_PLAYERS = 1000000;
+
+    // The number of queries of each kind that are timed
+    public static final int QUERIES = 100000;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args May include the number of players.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int players = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_PLAYERS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String[] names = new String[players];
+        for (int i = 0; i < players; i++) {
+            names[i] = "player" + i;
+        }
+
+        Leaderboard leaderboard = new Leaderboard();
+
+        // Every player plays ten games on a random thread, like games finishing all over the server
+        long start = System.nanoTime();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < players * 10 / threads; i++) {
+                    int outcome = random.nextInt(3);
+                    leaderboard.addPoints(names[random.nextInt(players)], outcome == 0 ? Leaderboard.WIN_POINTS : outcome == 1 ? Leaderboard.TIE_POINTS : 0);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long updates = (long) players * 10 / threads * threads;
+        long updateNanos = System.nanoTime() - start;
+        System.out.println(leaderboard.size() + " ranked players, " + updates + " updates on " + threads + " threads: " +
+            (updates * 1000000000L / updateNanos) + " updates/s");
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long sink = 0;
+
+        for (int round = 0; round < 3; round++) { // The first rounds warm up the JIT
+            start = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                sink += leaderboard.getTop(10).size();
+            }
+            long topNanos = (System.nanoTime() - start) / QUERIES;
+
+            start = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                sink += leaderboard.getRank(names[random.nextInt(players)]);
+            }
+            long rankNanos = (System.nanoTime() - start) / QUERIES;
+
+            start = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                sink += leaderboard.getAroundRank(1 + random.nextInt(leaderboard.size()), 5).size();
+            }
+            long aroundNanos = (System.nanoTime() - start) / QUERIES;
+
+            System.out.println("Round " + (round + 1) + ": top 10 " + topNanos + " ns, rank of player " + rankNanos +
+                " ns, 11 players around rank " + aroundNanos + " ns");
+        }
+        System.out.println("(" + sink + ")");
+    }
+}
@@ -0,0 +1,260 @@
+package benchmarks;
+
+// External imports
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Internal imports
+import constants.GameConstants;
+import game.BoardGenerator;
+import server.GameClientHandler;
+import server.GameServer;
+import server.ProtocolMessages;
+
+/**
+ * Load test for the lobby, over real sockets on the loopback interface. The same number of clients play the same number of
+ * games twice: once connecting again for every game, as clients had to before the lobby, and once staying connected and asking
+ * for a rematch. For each the connections the server accepted, the connections it refused for connecting too often and the
+ * time taken are reported. Every client connects from its own loopback address, so that the rate limit applies per client
+ * like it would for clients on different machines.
+ * <p>
+ * The clients know each other's boards and shoot only at ships, so games end after one player's ship fields, and they move
+ * just under the message limit of the server.
+ * <p>
+ * Usage: {@code LobbyBenchmark [clients] [gamesPerClient]}
+ */
+public class LobbyBenchmark {
+    // The defaults for the arguments
+    public static final int DEFAULT_CLIENTS = 16;
+    public static final int DEFAULT_GAMES_PER_CLIENT = 5;
+
+    // The time between the moves of a client, which keeps it under the message limit of the server
+    private static final long MOVE_INTERVAL_MILLIS = 1000 / ((long) GameClientHandler.MESSAGES_PER_SECOND - 10);
+
+    // How long a client that reconnects waits before trying again after it was refused
+    private static final long RETRY_MILLIS = 200;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args May include the number of clients, which is rounded up to an even number, and the games every client plays.
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_CLIENTS;
+        clients += clients % 2;
+        int games = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_GAMES_PER_CLIENT;
+
+        PrintStream results = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // The server writes every event to standard out
+
+        for (boolean lobby : new boolean[] {false, true}) {
+            int port;
+            try (ServerSocket free = new ServerSocket(0)) {
+                port = free.getLocalPort();
+            }
+            GameServer server = new GameServer(new String[] {String.valueOf(port), "0"}, null, null);
+            while (server.getServerSocket() == null) {
+                Thread.sleep(10);
+            }
+
+            Map<String, String> boards = new ConcurrentHashMap<>();
+            AtomicInteger clientGames = new AtomicInteger();
+            AtomicInteger refused = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < clients; i++) {
+                BenchmarkClient client = new BenchmarkClient("client" + i, InetAddress.getByName("127.0.1." + (i + 1)), port, lobby,
+                    games, clients * games, boards, clientGames, refused);
+                Thread thread = new Thread(client, "Client " + i);
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            int accepted = server.getAcceptedConnections();
+            results.println((lobby ? "Lobby" : "Reconnecting") + ": " + clients + " clients played " + clientGames.get() / 2 +
+                " games in " + elapsed + " ms, " + accepted + " connections accepted (" +
+                String.format("%.2f", (double) accepted / clientGames.get()) + " per client per game), " + refused.get() +
+                " refused for connecting too often, " + server.getLobbyGames() + " games joined from the lobby");
+            server.shutdownServer();
+        }
+    }
+
+    /**
+     * A client that plays its games by the protocol, either reconnecting for every game or asking for a rematch in the lobby.
+     */
+    private static class BenchmarkClient implements Runnable {
+        private String name;
+        private InetAddress address;
+        private int port;
+        private boolean lobby;
+        private int games;
+        private int totalClientGames;
+        private Map<String, String> boards;
+        private AtomicInteger clientGames;
+        private AtomicInteger refused;
+        private BoardGenerator generator;
+
+        private Socket socket;
+        private BufferedReader in;
+        private BufferedWriter out;
+
+        BenchmarkClient(String name, InetAddress address, int port, boolean lobby, int games, int totalClientGames,
+                Map<String, String> boards, AtomicInteger clientGames, AtomicInteger refused) {
+            this.name = name;
+            this.address = address;
+            this.port = port;
+            this.lobby = lobby;
+            this.games = games;
+            this.totalClientGames = totalClientGames;
+            this.boards = boards;
+            this.clientGames = clientGames;
+            this.refused = refused;
+            this.generator = new BoardGenerator(name.hashCode());
+        }
+
+        @Override
+        public void run() {
+            try {
+                connect();
+                for (int played = 0; ; ) {
+                    String opponent = awaitOpponent();
+                    if (opponent == null) { // Every game has been played, nobody is left to play
+                        break;
+                    }
+                    String board = generator.nextBoard();
+                    boards.put(name, board);
+                    send(board);
+                    play(opponent);
+                    played++;
+                    clientGames.incrementAndGet();
+
+                    if (lobby) {
+                        if (played == games) {
+                            send(ProtocolMessages.EXIT);
+                            break;
+                        }
+                        send(ProtocolMessages.REMATCH);
+                    } else {
+                        socket.close();
+                        if (clientGames.get() >= totalClientGames) {
+                            break;
+                        }
+                        connect();
+                    }
+                }
+                socket.close();
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(name + " failed", e);
+            }
+        }
+
+        /**
+         * Connects from the address of this client and sends the handshake, trying again while the server refuses.
+         */
+        private void connect() throws IOException, InterruptedException {
+            while (true) {
+                socket = new Socket(InetAddress.getLoopbackAddress(), port, address, 0);
+                socket.setSoTimeout((int) RETRY_MILLIS * 5);
+                in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
+                try {
+                    send(ProtocolMessages.HANDSHAKE + ProtocolMessages.DELIMITER + name);
+                    if (in.readLine() != null) { // The handshake
+                        return;
+                    }
+                } catch (IOException e) { // Reset by the server
+                }
+                refused.incrementAndGet();
+                socket.close();
+                Thread.sleep(RETRY_MILLIS);
+            }
+        }
+
+        /**
+         * Waits for the name of the next opponent, or gives up once every game has been played.
+         */
+        private String awaitOpponent() throws IOException {
+            while (true) {
+                try {
+                    String line = in.readLine();
+                    if (line == null) {
+                        throw new IOException(name + " was disconnected");
+                    }
+                    if (line.startsWith(ProtocolMessages.ENEMYNAME + ProtocolMessages.DELIMITER)) {
+                        return line.split(ProtocolMessages.DELIMITER)[1];
+                    }
+                } catch (SocketTimeoutException e) {
+                    if (clientGames.get() >= totalClientGames) {
+                        return null;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Plays until the game is over, shooting at the ship fields of the opponent in order.
+         */
+        private void play(String opponent) throws IOException, InterruptedException {
+            String[] fields = null; // The opponent's board, which it has sent by the time the game is set up
+            int next = 1;
+            while (true) {
+                String[] message;
+                try {
+                    String line = in.readLine();
+                    if (line == null) {
+                        throw new IOException(name + " was disconnected");
+                    }
+                    message = line.split(ProtocolMessages.DELIMITER);
+                } catch (SocketTimeoutException e) { // The opponent is slow
+                    continue;
+                }
+
+                String nextPlayer;
+                if (message[0].equals(ProtocolMessages.SETUP)) {
+                    nextPlayer = message[1];
+                    fields = boards.get(opponent).split(ProtocolMessages.DELIMITER);
+                } else if (message[0].equals(ProtocolMessages.UPDATE)) {
+                    nextPlayer = message[7];
+                } else if (message[0].equals(ProtocolMessages.GAMEOVER)) {
+                    return;
+                } else {
+                    continue;
+                }
+
+                while (next < fields.length && fields[next].equals(GameConstants.FIELD_TYPE_WATER)) {
+                    next++;
+                }
+                if (nextPlayer.equals(name) && next < fields.length) { // After the last ship the game over message follows
+                    int field = next++ - 1;
+                    Thread.sleep(MOVE_INTERVAL_MILLIS);
+                    send(ProtocolMessages.MOVE + ProtocolMessages.DELIMITER + (field % GameConstants.BOARD_SIZE_X) +
+                        ProtocolMessages.DELIMITER + (field / GameConstants.BOARD_SIZE_X));
+                }
+            }
+        }
+
+        private void send(String message) throws IOException {
+            out.write(message);
+            out.newLine();
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package benchmarks;
+
+// External imports
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Internal imports
+import stats.PlayerStats;
+import stats.PlayerStatsStore;
+import tui.GameServerTUI;
+
+/**
+ * Measures the player statistics with a million players: how long recording a game of every player takes, how long loading
+ * them from the stats file takes when the server starts, the heap they need and the latency of random lookups by name.
+ * <p>
+ * Usage: {@code PlayerStatsStoreBenchmark [players]}
+ */
+public class PlayerStatsStoreBenchmark {
+    // The number of players if none is given
+    public static final int DEFAULT_PLAYERS = 1000000;
+
+    // The number of lookups that are timed in each round
+    public static final int LOOKUPS = 1000000;
+
+    // The number of names of players without statistics that are looked up
+    public static final int UNKNOWN_NAMES = 65536;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args May include the number of players.
+     */
+    public static void main(String[] args) throws IOException {
+        int players = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_PLAYERS;
+        String[] names = new String[players];
+        for (int i = 0; i < players; i++) {
+            names[i] = "player" + i;
+        }
+        String[] unknownNames = new String[UNKNOWN_NAMES];
+        for (int i = 0; i < UNKNOWN_NAMES; i++) {
+            unknownNames[i] = "unknown" + i;
+        }
+        File file = File.createTempFile("player-stats", ".dat");
+        file.deleteOnExit();
+        file.delete(); // The store starts empty without a file
+        GameServerTUI view = new GameServerTUI();
+
+        PlayerStatsStore store = new PlayerStatsStore(file, view);
+        long start = System.nanoTime();
+        for (int i = 0; i < players; i++) {
+            store.recordGame(names[i], i % 2 == 0, false, false, 40, 20, 120000);
+        }
+        long recordNanos = System.nanoTime() - start;
+        store.close();
+        System.out.println(players + " games recorded in " + recordNanos / 1000000 + " ms, stats file " + file.length() / 1024 +
+            " KiB");
+
+        store = null;
+        System.gc();
+        long heapBefore = usedHeap();
+        start = System.nanoTime();
+        store = new PlayerStatsStore(file, view);
+        long loadNanos = System.nanoTime() - start;
+        System.gc();
+        System.out.println(store.size() + " players loaded in " + loadNanos / 1000000 + " ms, about " +
+            (usedHeap() - heapBefore) / players + " bytes per player");
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long sink = 0;
+        for (int round = 0; round < 3; round++) { // The first rounds warm up the JIT
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                PlayerStats stats = store.getStats(names[random.nextInt(players)]);
+                sink += stats.getGamesPlayed();
+            }
+            long lookupNanos = (System.nanoTime() - start) / LOOKUPS;
+
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (store.getStats(unknownNames[random.nextInt(UNKNOWN_NAMES)]) == null) {
+                    sink++;
+                }
+            }
+            long missNanos = (System.nanoTime() - start) / LOOKUPS;
+
+            System.out.println("Round " + (round + 1) + ": lookup of a player " + lookupNanos + " ns, of an unknown name " +
+                missNanos + " ns");
+        }
+        store.close();
+        System.out.println("(" + sink + ")");
+    }
+
+    /**
+     * Gives the heap that is in use.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
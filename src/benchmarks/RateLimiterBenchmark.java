@@ -0,0 +1,78 @@
+package benchmarks;
+
+// External imports
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Internal imports
+import server.GameServer;
+import server.RateLimiter;
+
+/**
+ * Measures the connection limiter with a hundred thousand source addresses: the throughput of connection attempts from all
+ * cores, the heap per tracked address, and how the limiter holds up when twice as many addresses connect as it tracks.
+ * <p>
+ * Usage: {@code RateLimiterBenchmark [addresses] [attempts per thread]}
+ */
+public class RateLimiterBenchmark {
+    // The defaults for the arguments
+    public static final int DEFAULT_ADDRESSES = 100000;
+    public static final int DEFAULT_ATTEMPTS = 2000000;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args May include the number of addresses and the number of attempts every thread makes.
+     */
+    public static void main(String[] args) throws InterruptedException, UnknownHostException {
+        int addresses = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_ADDRESSES;
+        int attempts = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_ATTEMPTS;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        InetAddress[] sources = new InetAddress[addresses * 2];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = InetAddress.getByAddress(new byte[] {10, (byte) (i >> 16), (byte) (i >> 8), (byte) i});
+        }
+
+        for (int round = 0; round < 2; round++) {
+            int sourceCount = round == 0 ? addresses : sources.length; // The second round has more addresses than are tracked
+            RateLimiter<InetAddress> limiter = new RateLimiter<>(GameServer.CONNECTIONS_PER_SECOND, GameServer.CONNECTION_BURST, addresses);
+
+            System.gc();
+            long heapBefore = usedHeap();
+            long start = System.nanoTime();
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread worker = new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < attempts; i++) {
+                        limiter.tryAcquire(sources[random.nextInt(sourceCount)]);
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            long nanos = System.nanoTime() - start;
+            System.gc();
+
+            long total = (long) attempts * threads;
+            System.out.println(sourceCount + " addresses, " + total + " attempts on " + threads + " threads: " +
+                (total * 1000000000L / nanos) + " attempts/s, " + limiter.size() + " tracked, about " +
+                (usedHeap() - heapBefore) / Math.max(1, limiter.size()) + " bytes per address, " + limiter.getRejected() +
+                " refused, " + limiter.getEvictedBusy() + " busy buckets evicted");
+        }
+    }
+
+    /**
+     * Gives the heap that is in use.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
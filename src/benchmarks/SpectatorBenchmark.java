@@ -0,0 +1,105 @@
+package benchmarks;
+
+// External imports
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Internal imports
+import server.ProtocolMessages;
+import server.Spectator;
+import server.SpectatorFeed;
+
+/**
+ * Measures the fan-out of one game to ten thousand spectators: how long publishing a move takes for the game, and how long
+ * it takes until every spectator has been written the move. The moves are then published again with some spectators whose
+ * sockets have stopped taking data, which hold their writer threads until their write timeout drops them.
+ * <p>
+ * Usage: {@code SpectatorBenchmark [spectators] [stalled spectators]}
+ */
+public class SpectatorBenchmark {
+    // The number of spectators of the game and of them how many stall if none are given
+    public static final int DEFAULT_SPECTATORS = 10000;
+    public static final int DEFAULT_STALLED = 8;
+
+    // The number of moves that are published and timed in each round
+    public static final int MOVES = 200;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args May include the number of spectators and the number of them that stall.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int spectators = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_SPECTATORS;
+        int stalled = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_STALLED;
+
+        for (int round = 0; round < 3; round++) { // The first rounds warm up the JIT
+            run("Round " + (round + 1), spectators, 0);
+        }
+        run("With " + stalled + " stalled", spectators, stalled);
+    }
+
+    /**
+     * Publishes the moves to a new feed, each once the one before has reached every spectator that keeps up, and prints the
+     * time of publishing and of the fan-out.
+     */
+    private static void run(String label, int spectators, int stalled) throws InterruptedException {
+        SpectatorFeed feed = new SpectatorFeed();
+        AtomicLong delivered = new AtomicLong(); // Frames written to the spectators that keep up
+        for (int i = 0; i < spectators - stalled; i++) {
+            feed.add(new Spectator(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) {
+                    delivered.incrementAndGet(); // A frame is written whole and ends with its line ending
+                }
+            }, () -> {}));
+        }
+        AtomicInteger drops = new AtomicInteger();
+        for (int i = 0; i < stalled; i++) {
+            CountDownLatch closed = new CountDownLatch(1);
+            feed.add(new Spectator(new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    try {
+                        closed.await(); // Like a socket whose buffer is full until it is closed
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IOException("Socket closed");
+                }
+            }, () -> {
+                drops.incrementAndGet();
+                closed.countDown();
+            }));
+        }
+
+        long[] publishNanos = new long[MOVES];
+        long[] fanOutNanos = new long[MOVES];
+        long start = System.nanoTime();
+        for (int move = 0; move < MOVES; move++) {
+            long expected = (long) (move + 1) * (spectators - stalled);
+            long published = System.nanoTime();
+            feed.publish(ProtocolMessages.UPDATE, move % 10, move / 10, false, false, false, "alice", "bob");
+            publishNanos[move] = System.nanoTime() - published;
+            while (delivered.get() < expected) {
+                Thread.onSpinWait();
+            }
+            fanOutNanos[move] = System.nanoTime() - published;
+        }
+        long totalMillis = (System.nanoTime() - start) / 1000000;
+
+        Arrays.sort(publishNanos);
+        Arrays.sort(fanOutNanos);
+        System.out.println(label + ": " + spectators + " spectators, " + MOVES + " moves in " + totalMillis + " ms. Publish " +
+            publishNanos[MOVES / 2] / 1000 + " us median, " + publishNanos[MOVES * 99 / 100] / 1000 + " us p99. Fan-out " +
+            fanOutNanos[MOVES / 2] / 1000 + " us median, " + fanOutNanos[MOVES * 99 / 100] / 1000 + " us p99, " +
+            fanOutNanos[MOVES - 1] / 1000 + " us max. " + drops.get() + " spectators dropped, " + feed.size() + " left.");
+    }
+}
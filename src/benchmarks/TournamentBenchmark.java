@@ -0,0 +1,65 @@
+package benchmarks;
+
+// External imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import game.RuleProfile;
+import server.Matchmaker;
+import tournament.Bracket;
+import tournament.BotEntrant;
+import tournament.EliminationBracket;
+import tournament.Entrant;
+import tournament.SwissBracket;
+import tournament.Tournament;
+import tui.GameServerTUI;
+
+/**
+ * Load test for tournaments, played out by bots without sockets. A single elimination and a Swiss tournament of the same
+ * entrants are played one after the other, with all games of a round at the same time. For each the total time, the number of
+ * rounds and the time from the end of a round until all games of the next round had been started are reported, which should
+ * stay well under a second.
+ * <p>
+ * Usage: {@code TournamentBenchmark [entrants] [moveDelayMillis]}
+ */
+public class TournamentBenchmark {
+    // The defaults for the arguments
+    public static final int DEFAULT_ENTRANTS = 4096;
+    public static final long DEFAULT_MOVE_DELAY_MILLIS = 0;
+
+    /**
+     * Runs the benchmark and prints the results.
+     * @param args May include the number of entrants and the delay of every move.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_ENTRANTS;
+        long moveDelay = args.length >= 2 ? Long.parseLong(args[1]) : DEFAULT_MOVE_DELAY_MILLIS;
+
+        GameServerTUI quietView = new GameServerTUI() {
+            @Override
+            public void showMessage(String message) {
+                if (message.startsWith("Tournament")) {
+                    System.out.println("  " + message);
+                }
+            }
+        };
+
+        List<Entrant> entrants = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entrants.add(new BotEntrant("bot" + i, i, moveDelay));
+        }
+
+        for (Bracket bracket : new Bracket[] {new EliminationBracket(entrants), new SwissBracket(entrants)}) {
+            Tournament tournament = new Tournament(bracket.getFormat(), bracket, new Matchmaker(quietView, 0), RuleProfile.CLASSIC,
+                quietView);
+            long start = System.nanoTime();
+            tournament.start();
+            tournament.awaitFinish(1, TimeUnit.DAYS);
+            System.out.println(count + " entrants, " + bracket.getFormat() + ": " + tournament.getRound() + " rounds in " +
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms, won by " + tournament.getStandings().get(0).getName());
+            System.out.println("Time from the end of a round to the start of the next in ms: " + tournament.getRoundStartDelays());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package bot;
+
+// External imports
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import game.BoardGenerator;
+import game.Game;
+import game.Player;
+
+/**
+ * A player that runs on the server instead of a client. It places its ships randomly and picks its shots with a
+ * {@link TargetingEngine}. Bots have no socket and no thread of their own: when it is a bot's move, the move is scheduled on an
+ * executor that all bots share, so one thread can serve thousands of bot games.
+ * <p>
+ * The game tells a player that it is their move before it sends the update about the previous move, so a bot decides when the
+ * update arrives instead of in {@link #makeMove()}.
+ * @inv name != null, random != null, moveDelay >= 0, engine != null once the bot has joined a game
+ */
+public class BotPlayer implements Player {
+    // How long a bot waits before making its move, so that a person playing against it can follow the game
+    public static final long DEFAULT_MOVE_DELAY_MILLIS = 500;
+
+    // The threads on which all bots make their moves
+    private static final ScheduledExecutorService EXECUTOR = Executors.newScheduledThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        runnable -> {
+            Thread thread = new Thread(runnable, "BotPlayer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
+    // The bot's name in the game
+    private String name;
+
+    // The game the bot plays in
+    private Game game;
+
+    // Decides where to shoot, created for the rules of the game the bot joins
+    private TargetingEngine engine;
+
+    // Used for the bot's board and for breaking ties between shots
+    private Random random;
+
+    // How long to wait before each move in milliseconds
+    private long moveDelay;
+
+    // Whether the game is over for this bot
+    private volatile boolean over;
+
+    /**
+     * Creates a bot.
+     * @param name The bot's name, which must differ from the opponent's name.
+     * @param random Used for the bot's board and its choice between equally good shots.
+     * @param moveDelay How long to wait before each move in milliseconds.
+     * @pre name != null, random != null, moveDelay >= 0
+     * @post ensures that the bot is ready to join a game
+     */
+    public BotPlayer(String name, Random random, long moveDelay) {
+        this.name = name;
+        this.random = random;
+        this.moveDelay = moveDelay;
+    }
+
+    /**
+     * Joins a game as the next player and submits a random board that fits the rules of the game.
+     * @param game The game to join.
+     * @pre game != null
+     * @post ensures that the bot is a player of the game with a board, unless the game was abandoned before it started
+     */
+    public void join(Game game) {
+        this.game = game;
+        engine = new TargetingEngine(random, game.getRules());
+        game.setPlayer(this);
+        if (name.equals(game.getPlayerName(1)) || name.equals(game.getPlayerName(2))) {
+            game.setBoard(new BoardGenerator(random, game.getRules()).nextBoard(), name);
+        }
+    }
+
+    /**
+     * Schedules the bot's next move on the shared executor.
+     */
+    private void scheduleMove() {
+        EXECUTOR.schedule(this::move, moveDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Picks a shot and makes it in the game.
+     */
+    private void move() {
+        if (over) {
+            return;
+        }
+
+        int shot;
+        synchronized (this) {
+            shot = engine.nextShot();
+        }
+        if (shot >= 0) {
+            int width = game.getRules().getWidth();
+            game.makeMove(shot % width, shot / width, false);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     * A bot never disconnects.
+     */
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isBot() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * A bot doesn't care who its opponent is.
+     */
+    @Override
+    public void enemyName(String playerName) {
+    }
+
+    /**
+     * {@inheritDoc}
+     * @post ensures that the first move is scheduled if it is the bot's
+     */
+    @Override
+    public void gameSetup(String playerName) {
+        if (name.equals(playerName)) {
+            scheduleMove();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Does nothing, since the bot schedules its move when the update about the previous move arrives.
+     */
+    @Override
+    public void makeMove() {
+    }
+
+    /**
+     * {@inheritDoc}
+     * @post ensures that the result of the bot's own shots is known to its engine and that its next move is scheduled
+     */
+    @Override
+    public void update(int x, int y, boolean isHit, boolean isSunk, boolean isLate, String lastPlayerName, String nextPlayerName) {
+        if (name.equals(lastPlayerName) && !isLate) {
+            synchronized (this) {
+                engine.recordShot(x, y, isHit, isSunk);
+            }
+        }
+        if (name.equals(nextPlayerName)) {
+            scheduleMove();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @post ensures that the bot makes no more moves
+     */
+    @Override
+    public void gameOver(String playerName, boolean winType) {
+        over = true;
+    }
+}
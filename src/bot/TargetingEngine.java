@@ -0,0 +1,321 @@
+package bot;
+
+// External imports
+import java.util.Arrays;
+import java.util.Random;
+
+// Internal imports
+import game.RuleProfile;
+
+/**
+ * This class decides where a bot shoots. It keeps a probability density over the opponent's board: for every field and every
+ * ship length it counts the horizontal placements of such a ship that cover the field and don't contain a missed field or a
+ * field of a ship that is already sunk. Weighted by the number of ships of each length that are still afloat, that count is
+ * proportional to the chance that a ship is on the field.
+ * <p>
+ * The counts are updated incrementally: a miss or a sunk ship only removes the placements through the changed fields, which
+ * are at most a few dozen. While there are hits that don't belong to a sunk ship the engine targets: it only scores placements
+ * in the rows of those hits that cover at least one of them, so it finishes off the ship before hunting again.
+ * Picking a shot looks at every field once, which takes a few microseconds.
+ * <p>
+ * The game only tells whether a hit sank a ship, not which ship. When a ship sinks, the engine assumes it is the longest ship
+ * still afloat that fits in the row of unresolved hits around the last shot.
+ * @inv state != null, coverage != null, lengths != null, remaining != null, rowHits != null, scores != null, random != null
+ */
+public class TargetingEngine {
+    // What is known about a field of the opponent's board
+    private static final byte UNKNOWN = 0;
+    private static final byte MISS = 1;
+    private static final byte HIT = 2; // Hit, but not known to belong to a sunk ship
+    private static final byte SUNK = 3;
+
+    // The board dimensions
+    private int width;
+    private int height;
+
+    // The fleet: each ship of length shipLengths[i] appears shipCounts[i] times, and the different lengths in it
+    private int[] shipLengths;
+    private int[] shipCounts;
+    private int[] lengths;
+
+    // What is known about every field, indexed by y * width + x
+    private byte[] state;
+
+    // For every ship length in the fleet, the number of possible placements of such a ship that cover each field.
+    // Null for lengths that aren't in the fleet.
+    private int[][] coverage;
+
+    // The number of ships of each length that haven't been sunk
+    private int[] remaining;
+
+    // The number of unresolved hits in every row and in total
+    private int[] rowHits;
+    private int unresolvedHits;
+
+    // Re-usable scores of the fields while targeting
+    private int[] scores;
+
+    // Breaks ties between equally good fields
+    private Random random;
+
+    /**
+     * Creates an engine for a new game with the classic rules.
+     * @param random Used to choose between equally good fields.
+     * @pre random != null
+     * @post ensures that nothing is known about the opponent's board
+     */
+    public TargetingEngine(Random random) {
+        this(random, RuleProfile.CLASSIC);
+    }
+
+    /**
+     * Creates an engine for a new game with the board size and fleet of a rule profile.
+     * @param random Used to choose between equally good fields.
+     * @param rules The rules of the game.
+     * @pre random != null, rules != null
+     * @post ensures that nothing is known about the opponent's board
+     */
+    public TargetingEngine(Random random, RuleProfile rules) {
+        this.random = random;
+        width = rules.getWidth();
+        height = rules.getHeight();
+        shipLengths = rules.getShipLengths();
+        shipCounts = rules.getShipCounts();
+        lengths = Arrays.stream(shipLengths).distinct().sorted().toArray();
+
+        state = new byte[width * height];
+        coverage = new int[rules.getLongestShip() + 1][];
+        for (int length : lengths) {
+            coverage[length] = new int[width * height];
+        }
+        remaining = new int[rules.getLongestShip() + 1];
+        rowHits = new int[height];
+        scores = new int[width * height];
+        reset();
+    }
+
+    /**
+     * Forgets everything about the opponent's board so the engine can be used for another game.
+     * @post ensures that every field is unknown and every ship is afloat
+     */
+    public void reset() {
+        Arrays.fill(state, UNKNOWN);
+        Arrays.fill(rowHits, 0);
+        Arrays.fill(remaining, 0);
+        unresolvedHits = 0;
+
+        for (int i = 0; i < shipLengths.length; i++) {
+            remaining[shipLengths[i]] += shipCounts[i];
+        }
+
+        for (int length : lengths) {
+            int[] lengthCoverage = coverage[length];
+            Arrays.fill(lengthCoverage, 0);
+            for (int y = 0; y < height; y++) {
+                for (int start = 0; start + length <= width; start++) {
+                    for (int x = start; x < start + length; x++) {
+                        lengthCoverage[y * width + x]++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks the next field to shoot at. It is never a field that has been shot at before.
+     * @return The field as y * width + x, or -1 if every field has been shot at.
+     * @post ensures that the returned field is unknown and has the highest score, choosing randomly between equal fields
+     */
+    public int nextShot() {
+        if (unresolvedHits > 0) {
+            int target = target();
+            if (target >= 0) {
+                return target;
+            }
+        }
+        return hunt();
+    }
+
+    /**
+     * Tells the engine the result of its last shot. Shots at fields that are already known are ignored.
+     * @param x The X coordinate of the shot.
+     * @param y The Y coordinate of the shot.
+     * @param isHit Whether the shot hit a ship.
+     * @param isSunk Whether the shot sank the ship.
+     * @pre x >= 0 && x < width, y >= 0 && y < height
+     * @post ensures that the density no longer counts placements that the result rules out
+     */
+    public void recordShot(int x, int y, boolean isHit, boolean isSunk) {
+        int field = y * width + x;
+        if (state[field] != UNKNOWN) {
+            return;
+        }
+
+        if (!isHit) {
+            block(field, MISS);
+            return;
+        }
+
+        state[field] = HIT;
+        rowHits[y]++;
+        unresolvedHits++;
+
+        if (isSunk) {
+            sink(x, y);
+        }
+    }
+
+    /**
+     * Picks the unknown field with the highest density of placements weighted by the ships still afloat.
+     * @return The field, or -1 if there is no unknown field.
+     */
+    private int hunt() {
+        int best = -1;
+        int bestScore = -1;
+        int ties = 0;
+
+        for (int field = 0; field < state.length; field++) {
+            if (state[field] != UNKNOWN) {
+                continue;
+            }
+
+            int score = 0;
+            for (int length : lengths) {
+                score += remaining[length] * coverage[length][field];
+            }
+
+            if (score > bestScore) {
+                best = field;
+                bestScore = score;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = field;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Scores the unknown fields next to unresolved hits by the placements of ships afloat that cover them and at least one hit.
+     * A placement scores more the more hits it covers.
+     * @return The best field, or -1 if no placement fits around the hits.
+     */
+    private int target() {
+        int best = -1;
+        int bestScore = 0;
+        int ties = 0;
+
+        for (int y = 0; y < height; y++) {
+            if (rowHits[y] == 0) {
+                continue;
+            }
+
+            int rowStart = y * width;
+            Arrays.fill(scores, rowStart, rowStart + width, 0);
+
+            for (int length : lengths) {
+                if (remaining[length] == 0) {
+                    continue;
+                }
+
+                for (int start = rowStart; start + length <= rowStart + width; start++) {
+                    int hits = 0;
+                    boolean valid = true;
+                    for (int field = start; field < start + length && valid; field++) {
+                        valid = state[field] == UNKNOWN || state[field] == HIT;
+                        if (state[field] == HIT) {
+                            hits++;
+                        }
+                    }
+
+                    if (valid && hits > 0) {
+                        int weight = remaining[length] * hits;
+                        for (int field = start; field < start + length; field++) {
+                            scores[field] += weight;
+                        }
+                    }
+                }
+            }
+
+            for (int field = rowStart; field < rowStart + width; field++) {
+                if (state[field] != UNKNOWN) {
+                    continue;
+                }
+                if (scores[field] > bestScore) {
+                    best = field;
+                    bestScore = scores[field];
+                    ties = 1;
+                } else if (scores[field] > 0 && scores[field] == bestScore && random.nextInt(++ties) == 0) {
+                    best = field;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Marks the ship that the shot on the given field sank. It is taken to be the longest ship afloat that fits in the run of
+     * unresolved hits around the field and contains the field.
+     * @param x The X coordinate of the shot that sank the ship.
+     * @param y The Y coordinate of the shot that sank the ship.
+     */
+    private void sink(int x, int y) {
+        int rowStart = y * width;
+        int first = x;
+        int last = x;
+        while (first > 0 && state[rowStart + first - 1] == HIT) {
+            first--;
+        }
+        while (last < width - 1 && state[rowStart + last + 1] == HIT) {
+            last++;
+        }
+
+        int run = last - first + 1;
+        int length = Math.min(run, remaining.length - 1);
+        while (length > 1 && remaining[length] == 0) {
+            length--;
+        }
+        if (remaining[length] > 0) {
+            remaining[length]--;
+        }
+
+        // The ship contains the field and lies within the run, as centred on the field as the run allows
+        int start = Math.max(first, Math.min(x - (length - 1) / 2, last - length + 1));
+        for (int i = start; i < start + length; i++) {
+            rowHits[y]--;
+            unresolvedHits--;
+            block(rowStart + i, SUNK);
+        }
+    }
+
+    /**
+     * Marks a field as missed or sunk and removes every placement through it that was still possible from the coverage.
+     * @param field The field.
+     * @param newState MISS or SUNK.
+     * @pre state[field] == UNKNOWN || state[field] == HIT
+     */
+    private void block(int field, byte newState) {
+        int rowStart = field - field % width;
+
+        for (int length : lengths) {
+            int[] lengthCoverage = coverage[length];
+            int firstStart = Math.max(rowStart, field - length + 1);
+            int lastStart = Math.min(field, rowStart + width - length);
+
+            for (int start = firstStart; start <= lastStart; start++) {
+                boolean possible = true;
+                for (int i = start; i < start + length && possible; i++) {
+                    possible = state[i] != MISS && state[i] != SUNK;
+                }
+
+                if (possible) {
+                    for (int i = start; i < start + length; i++) {
+                        lengthCoverage[i]--;
+                    }
+                }
+            }
+        }
+
+        state[field] = newState;
+    }
+}
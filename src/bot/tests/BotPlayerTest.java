@@ -0,0 +1,128 @@
+package bot.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Random;
+
+// Internal imports
+import bot.BotPlayer;
+import bot.TargetingEngine;
+import constants.GameConstants;
+import game.BoardGenerator;
+import game.Game;
+import game.GameBoard;
+import tui.GameServerTUI;
+
+/**
+ * Tests the bot's board, its targeting engine and a whole game between two bots.
+ */
+public class BotPlayerTest {
+    private static final long SEED = 42;
+    private static final int GAMES = 200;
+
+    /**
+     * Tests that a random board contains every ship of the fleet.
+     */
+    @Test
+    void testRandomBoard() {
+        GameBoard board = new GameBoard(new BoardGenerator(SEED).nextBoard());
+
+        int shipFields = 0;
+        for (String[] column : board.getBoard()) {
+            for (String field : column) {
+                if (!field.equals(GameConstants.FIELD_TYPE_WATER)) {
+                    shipFields++;
+                }
+            }
+        }
+
+        int fleetFields = 0;
+        for (int i = 0; i < GameConstants.SHIP_LENGTHS.length; i++) {
+            fleetFields += GameConstants.SHIP_LENGTHS[i] * GameConstants.SHIP_COUNTS[i];
+        }
+        assertEquals(fleetFields, shipFields);
+    }
+
+    /**
+     * Tests that the engine never shoots at the same field twice and destroys every ship without running out of fields.
+     */
+    @Test
+    void testEngineDestroysAllShips() {
+        Random random = new Random(SEED);
+        TargetingEngine engine = new TargetingEngine(random);
+        BoardGenerator generator = new BoardGenerator(random);
+
+        for (int i = 0; i < GAMES; i++) {
+            GameBoard board = new GameBoard(generator.nextBoard());
+            boolean[] shot = new boolean[GameConstants.BOARD_SIZE_X * GameConstants.BOARD_SIZE_Y];
+            engine.reset();
+
+            boolean destroyed = false;
+            while (!destroyed) {
+                int field = engine.nextShot();
+                assertTrue(field >= 0 && !shot[field]);
+                shot[field] = true;
+
+                int x = field % GameConstants.BOARD_SIZE_X;
+                int y = field / GameConstants.BOARD_SIZE_X;
+                boolean[] result = board.makeMove(x, y);
+                engine.recordShot(x, y, result[0], result[1]);
+                destroyed = result[2];
+            }
+        }
+    }
+
+    /**
+     * Tests that the engine hits ships more often than shooting at random would, which hits 63 of 150 fields.
+     */
+    @Test
+    void testEngineBeatsRandomHitRate() {
+        Random random = new Random(SEED);
+        TargetingEngine engine = new TargetingEngine(random);
+        BoardGenerator generator = new BoardGenerator(random);
+        int shots = 0;
+        int hits = 0;
+
+        for (int i = 0; i < GAMES; i++) {
+            GameBoard board = new GameBoard(generator.nextBoard());
+            engine.reset();
+
+            // Only the first 60 shots, after that there are hardly any fields left to choose from
+            for (int shot = 0; shot < 60; shot++) {
+                int field = engine.nextShot();
+                int x = field % GameConstants.BOARD_SIZE_X;
+                int y = field / GameConstants.BOARD_SIZE_X;
+                boolean[] result = board.makeMove(x, y);
+                engine.recordShot(x, y, result[0], result[1]);
+                shots++;
+                if (result[0]) {
+                    hits++;
+                }
+            }
+        }
+
+        assertTrue(hits * 150L > shots * 63L * 12 / 10); // At least 20% more hits than random
+    }
+
+    /**
+     * Tests a whole game between two bots without delay.
+     */
+    @Test
+    void testBotGame() throws InterruptedException {
+        Game game = new Game(new GameServerTUI(), 1);
+        new BotPlayer("bot1", new Random(SEED), 0).join(game);
+        new BotPlayer("bot2", new Random(SEED + 1), 0).join(game);
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (game.getWinnerName() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertNotNull(game.getWinnerName());
+        assertTrue(game.getWinType());
+        assertTrue(game.getWinnerName().equals("bot1") || game.getWinnerName().equals("bot2"));
+    }
+}
@@ -8,6 +8,29 @@ public class GameConstants {
     public static final int BOARD_SIZE_X = 15;
     public static final int BOARD_SIZE_Y = 10;
 
+    // The largest width and height of a board in a rule profile
+    public static final int MAX_BOARD_SIZE = 64;
+
+    // The length of a game in milliseconds
+    public static final long GAME_DURATION = 300000;
+
+    // How long a player has for a move in milliseconds before a late move is made for them
+    public static final long TURN_TIMEOUT = 30000;
+
+    // The fleet of every player. Each ship of length SHIP_LENGTHS[i] appears SHIP_COUNTS[i] times. Ships are placed horizontally.
+    public static final int[] SHIP_LENGTHS = {5, 4, 3, 2, 1};
+    public static final int[] SHIP_COUNTS = {2, 3, 5, 8, 10};
+
+    // File with the rule profiles that games can be played with, and the profile used when a client doesn't choose one
+    public static final String RULE_PROFILES_FILE = "rule-profiles.properties";
+    public static final String DEFAULT_RULE_PROFILE = "classic";
+
+    // Directory in which finished games are recorded for replays
+    public static final String REPLAY_DIRECTORY = "replays";
+
+    // File in which player statistics are persisted
+    public static final String STATS_FILE = "player-stats.dat";
+
     // Field types in client boards 
     public static final String FIELD_TYPE_WATER = "WATER";
 
@@ -31,6 +54,18 @@ public class GameConstants {
     public static final String FIELD_TYPE_CARRIER_BACK_MID = "CARRIER_BACK_MID";
     public static final String FIELD_TYPE_CARRIER_BACK = "CARRIER_BACK";
 
+    // Ships longer than a carrier have the field types SHIP_<length>_<part>, where part 0 is the front
+    public static final String FIELD_TYPE_SHIP_PREFIX = "SHIP_";
+
+    // The field types of a ship of length i + 1 from its front to its back
+    public static final String[][] SHIP_FIELD_TYPES = {
+        {FIELD_TYPE_PATROL},
+        {FIELD_TYPE_SUPER_PATROL_FRONT, FIELD_TYPE_SUPER_PATROL_BACK},
+        {FIELD_TYPE_DESTROYER_FRONT, FIELD_TYPE_DESTROYER_MID, FIELD_TYPE_DESTROYER_BACK},
+        {FIELD_TYPE_BATTLESHIP_FRONT, FIELD_TYPE_BATTLESHIP_FRONT_MID, FIELD_TYPE_BATTLESHIP_BACK_MID, FIELD_TYPE_BATTLESHIP_BACK},
+        {FIELD_TYPE_CARRIER_FRONT, FIELD_TYPE_CARRIER_FRONT_MID, FIELD_TYPE_CARRIER_MID, FIELD_TYPE_CARRIER_BACK_MID, FIELD_TYPE_CARRIER_BACK}
+    };
+
     // Field types that are marked as hit in the client boards
     public static final String FIELD_TYPE_HIT_EXTENSION = "_HIT";
 
@@ -0,0 +1,236 @@
+package game;
+
+// External imports
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+// Internal imports
+import constants.GameConstants;
+
+/**
+ * Generates random legal boards encoded like a client sends them, for bots, tests and load tests.
+ * <p>
+ * Every row of the board is kept as a bit mask of the fields that are taken. The fields where a ship can start are found for
+ * all rows at once by shifting and combining the masks of free fields, so the ships are placed without trying out and rejecting
+ * positions. The ships are placed from the longest to the shortest, and each ship is placed uniformly at random on one of the
+ * positions that are still free. Ships are horizontal, since that is the only orientation the game supports. The board and
+ * fleet are those of a {@link RuleProfile}, with rows of up to 64 fields.
+ * <p>
+ * A generator reuses its buffers and is not thread-safe, so every thread should have its own. Given the same seed it always
+ * generates the same boards.
+ * @inv random != null, shipLengths != null, shipCounts != null, fieldChars != null, rows != null, starts != null, fields != null, buffer != null
+ */
+public class BoardGenerator {
+    // Decides where the ships go
+    private Random random;
+
+    // The board dimensions
+    private int width;
+    private int height;
+
+    // The fleet from the longest to the shortest ship: each ship of length shipLengths[i] appears shipCounts[i] times
+    private int[] shipLengths;
+    private int[] shipCounts;
+
+    // The characters of every field type in the fleet including the separator in front of it, all of them ASCII. Index 0 is
+    // water and index code(length, part) is the given part of a ship of the given length.
+    private byte[][] fieldChars;
+
+    // The taken fields of every row, bit x is the field in column x
+    private long[] rows;
+
+    // For every row the columns in which a ship of startsLength can start, and the number of such columns in all rows
+    private long[] starts;
+    private int startsLength;
+    private int totalStarts;
+
+    // The field type code of every field, indexed by y * width + x
+    private short[] fields;
+
+    // Re-usable buffer for the encoded board, one byte per character
+    private byte[] buffer;
+
+    /**
+     * Creates a generator for the classic rules that is seeded differently every time.
+     * @post ensures that the generator is ready to generate boards
+     */
+    public BoardGenerator() {
+        this(ThreadLocalRandomService.shared());
+    }
+
+    /**
+     * Creates a generator for the classic rules that always generates the same boards for the same seed.
+     * @param seed The seed.
+     * @post ensures that the generator is ready to generate boards
+     */
+    public BoardGenerator(long seed) {
+        this(new Random(seed));
+    }
+
+    /**
+     * Creates a generator for the classic rules.
+     * @param random Decides where the ships go.
+     * @pre random != null
+     * @post ensures that the generator is ready to generate boards
+     */
+    public BoardGenerator(Random random) {
+        this(random, RuleProfile.CLASSIC);
+    }
+
+    /**
+     * Creates a generator for the board size and fleet of a rule profile.
+     * @param random Decides where the ships go.
+     * @param rules The rules of the game.
+     * @pre random != null, rules != null
+     * @post ensures that the generator is ready to generate boards
+     */
+    public BoardGenerator(Random random, RuleProfile rules) {
+        this.random = random;
+        width = rules.getWidth();
+        height = rules.getHeight();
+
+        // Sorts the fleet from the longest to the shortest ship
+        int[] lengths = rules.getShipLengths();
+        int[] counts = rules.getShipCounts();
+        Integer[] order = new Integer[lengths.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> lengths[second] - lengths[first]);
+        shipLengths = new int[lengths.length];
+        shipCounts = new int[lengths.length];
+        for (int i = 0; i < order.length; i++) {
+            shipLengths[i] = lengths[order[i]];
+            shipCounts[i] = counts[order[i]];
+        }
+
+        int longestChars = GameConstants.FIELD_TYPE_WATER.length() + 1;
+        fieldChars = new byte[code(rules.getLongestShip() + 1, 0)][];
+        fieldChars[0] = (";" + GameConstants.FIELD_TYPE_WATER).getBytes(StandardCharsets.ISO_8859_1);
+        for (int length : shipLengths) {
+            for (int part = 0; part < length; part++) {
+                fieldChars[code(length, part)] = (";" + RuleProfile.fieldType(length, part)).getBytes(StandardCharsets.ISO_8859_1);
+                longestChars = Math.max(longestChars, fieldChars[code(length, part)].length);
+            }
+        }
+
+        rows = new long[height];
+        starts = new long[height];
+        fields = new short[width * height];
+        buffer = new byte[1 + width * height * longestChars];
+    }
+
+    /**
+     * Generates a random board.
+     * @return The board encoded like a client sends it.
+     * @post ensures that the returned board contains every ship of the fleet without overlaps
+     */
+    public String nextBoard() {
+        placeShips();
+
+        int length = 0;
+        buffer[length++] = 'b';
+        for (short field : fields) {
+            byte[] chars = fieldChars[field];
+            System.arraycopy(chars, 0, buffer, length, chars.length);
+            length += chars.length;
+        }
+        return new String(buffer, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Places the fleet randomly on an empty board. In the very rare case that a ship doesn't fit anywhere any more, it starts over.
+     */
+    private void placeShips() {
+        boolean placed = false;
+        while (!placed) {
+            for (int y = 0; y < height; y++) {
+                rows[y] = 0;
+            }
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = 0;
+            }
+
+            placed = true;
+            for (int i = 0; i < shipLengths.length && placed; i++) {
+                findStarts(shipLengths[i]);
+                for (int ship = 0; ship < shipCounts[i] && placed; ship++) {
+                    placed = placeShip();
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the columns in which a ship of a length can start in every row.
+     */
+    private void findStarts(int length) {
+        startsLength = length;
+        totalStarts = 0;
+        for (int y = 0; y < height; y++) {
+            findRowStarts(y);
+            totalStarts += Long.bitCount(starts[y]);
+        }
+    }
+
+    /**
+     * Finds the columns in which a ship of startsLength can start in a row.
+     */
+    private void findRowStarts(int y) {
+        long free = ~rows[y] & ones(width);
+        long rowStarts = free;
+        for (int part = 1; part < startsLength; part++) {
+            rowStarts &= free >>> part; // The next field must be free as well
+        }
+        starts[y] = rowStarts;
+    }
+
+    /**
+     * Places a ship of startsLength on one of the free positions, each with the same chance. Only the starts in the row of
+     * the ship change, so only that row is searched again.
+     * @return Whether there was a free position.
+     */
+    private boolean placeShip() {
+        if (totalStarts == 0) {
+            return false;
+        }
+
+        int choice = random.nextInt(totalStarts);
+        int y = 0;
+        while (choice >= Long.bitCount(starts[y])) {
+            choice -= Long.bitCount(starts[y]);
+            y++;
+        }
+        long rowStarts = starts[y];
+        for (int i = 0; i < choice; i++) {
+            rowStarts &= rowStarts - 1; // Clears the lowest start
+        }
+        int x = Long.numberOfTrailingZeros(rowStarts);
+        int length = startsLength;
+
+        rows[y] |= ones(length) << x;
+        for (int part = 0; part < length; part++) {
+            fields[y * width + x + part] = (short) code(length, part);
+        }
+
+        totalStarts -= Long.bitCount(starts[y]);
+        findRowStarts(y);
+        totalStarts += Long.bitCount(starts[y]);
+        return true;
+    }
+
+    /**
+     * Creates a mask with the lowest bits set.
+     */
+    private static long ones(int bits) {
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+
+    /**
+     * Calculates the index in fieldChars of a part of a ship.
+     */
+    private static int code(int length, int part) {
+        return length * (length - 1) / 2 + part + 1;
+    }
+}
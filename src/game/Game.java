@@ -1,27 +1,43 @@
 package game;
 
 // External imports
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 // Internal imports
-import server.GameClientHandler;
+import metrics.BoardDecodeEvent;
+import metrics.GameEndedEvent;
+import metrics.GameStartedEvent;
+import metrics.LockProfiler;
+import metrics.LockTimer;
+import metrics.MoveEvent;
+import metrics.MoveTrace;
+import server.ProtocolMessages;
+import server.Spectator;
+import server.SpectatorFeed;
 import tui.GameServerTUI;
 
 /**
- * This class represents an instance of a game. Each game runs on a separate thread, or more precisely the 5 minute game
- * loop runs on the thread. This class keeps track of player moves and updates them on the respective game boards. It also keeps track
+ * This class represents an instance of a game, played with the rules of a {@link RuleProfile}. The start of the game and its time limit run on the timers of its {@link GameScheduler},
+ * by default timer threads that all games share, so a game doesn't need a thread of its own. This class keeps track of player moves and updates them on the respective game boards. It also keeps track
  * of player points. This class mainly communicates with game client handle threads to inform clients about what's going on in the game and
  * receive moves from them.
- * @inv view != null, gameId >= 0, player1Point >= 0, player2Points >= 0, random != null
+ * @inv view != null, gameId >= 0, rules != null, player1Point >= 0, player2Points >= 0, random != null, scheduler != null
  */
 public class Game implements Runnable {
     // The id of the game
     private int gameId;
 
-    // Player names
-    private GameClientHandler player1;
-    private GameClientHandler player2;
+    // The rules the game is played with
+    private RuleProfile rules;
+
+    // The players, either clients or bots
+    private Player player1;
+    private Player player2;
 
     // Player boards
     private GameBoard player1Board;
@@ -37,88 +53,202 @@ public class Game implements Runnable {
     // Indicator whether the game has started. True if game is going on and false when it ends and before it starts.
     private boolean gameStarted;
 
-    // Re-usable random
+    // Where the random generator of this game and of its bots come from, and the generator of this game
+    private RandomService randomService;
     private Random random;
 
+    // The clock and timers of this game and of the move timers of its players
+    private GameScheduler scheduler;
+
     // Indicates which players move it is. The player's names are used for this indicator.
     private String currentMove;
 
     // Indicates which player made the previous move before current move. Also uses players names.
     private String previousMove;
 
-    // The thread on which 5 minute game loop runs
-    private Thread gameThread;
+    // Ends the game when its time is up. Null until the game has been set up.
+    private ScheduledFuture<?> timeLimit;
+
+    // When each player joined the game, in nanoseconds from System.nanoTime()
+    private long player1JoinTime;
+    private long player2JoinTime;
 
     // Indicates whether a player has quit before the game has started
     private boolean quitBeforeStart;
+
+    // Whether a player forfeited before the game started, after which it never starts
+    private boolean forfeited;
+
+    // The recording of this game's boards and moves that is saved for replays when the game ends
+    private GameRecording recording;
+
+    // Where the recording is saved when the game ends, null if it isn't saved
+    private volatile ReplayArchive replays;
+
+    // Shots fired and ships hit by each player, used for player statistics
+    private int player1Shots;
+    private int player1Hits;
+    private int player2Shots;
+    private int player2Hits;
+
+    // When the game started and ended in milliseconds since epoch
+    private long startTime;
+    private long endTime;
+
+    // The result of the game. Winner is an empty string for a tie and null until the game has ended.
+    private String winnerName;
+    private boolean winType;
+
+    // Listeners that are informed when the game starts and ends
+    private List<GameListener> listeners;
+
+    // The clients watching this game
+    private SpectatorFeed spectators;
     
     /**
-     * Constructor that initialises this game's id, the terminal view, and sets the game started to false
-     * since the game only starts after both players have sent in their boards. Also initialises both player's points to 0.
+     * Creates a game with the classic rules.
      * @param view The server's TUI.
      * @param gameId The id of this game given by the server.
      * @pre view != null, gameid >= 0
-     * @post ensures that gameId, view, random are initialised. player1Points == 0, player2Points == 0, gameStarted == false 
+     * @post ensures that gameId, view, random, recording are initialised. player1Points == 0, player2Points == 0, gameStarted == false 
      */
     public Game(GameServerTUI view, int gameId) {
+        this(view, gameId, RuleProfile.CLASSIC);
+    }
+
+    /**
+     * Constructor that initialises this game's id, rules, the terminal view, and sets the game started to false
+     * since the game only starts after both players have sent in their boards. Also initialises both player's points to 0.
+     * @param view The server's TUI.
+     * @param gameId The id of this game given by the server.
+     * @param rules The rules the game is played with.
+     * @pre view != null, gameid >= 0, rules != null
+     * @post ensures that gameId, rules, view, random, recording are initialised. player1Points == 0, player2Points == 0, gameStarted == false 
+     */
+    public Game(GameServerTUI view, int gameId, RuleProfile rules) {
+        this(view, gameId, rules, RandomService.fast());
+    }
+
+    /**
+     * Creates a game whose random decisions come from a random service. If the service gives the game a seeded generator, its
+     * seed is stored in the recording.
+     * @param view The server's TUI.
+     * @param gameId The id of this game given by the server.
+     * @param rules The rules the game is played with.
+     * @param randomService The service that gives the game its random generator.
+     * @pre view != null, gameid >= 0, rules != null, randomService != null
+     * @post ensures that gameId, rules, view, random, recording are initialised. player1Points == 0, player2Points == 0, gameStarted == false 
+     */
+    public Game(GameServerTUI view, int gameId, RuleProfile rules, RandomService randomService) {
+        this(view, gameId, rules, randomService, GameScheduler.system());
+    }
+
+    /**
+     * Creates a game whose random decisions come from a random service and whose time is kept by a scheduler. If the service
+     * gives the game a seeded generator, its seed is stored in the recording.
+     * @param view The server's TUI.
+     * @param gameId The id of this game given by the server.
+     * @param rules The rules the game is played with.
+     * @param randomService The service that gives the game its random generator.
+     * @param scheduler The clock and timers of the game, also used by its players for their move timers.
+     * @pre view != null, gameid >= 0, rules != null, randomService != null, scheduler != null
+     * @post ensures that gameId, rules, view, random, scheduler, recording are initialised. player1Points == 0, player2Points == 0, gameStarted == false 
+     */
+    public Game(GameServerTUI view, int gameId, RuleProfile rules, RandomService randomService, GameScheduler scheduler) {
         this.gameId = gameId; 
+        this.rules = rules;
         this.view = view;
-        random = new Random();
+        this.randomService = randomService;
+        this.scheduler = scheduler;
+        random = randomService.forGame(gameId);
+        recording = new GameRecording(gameId, rules);
+        if (random instanceof SeededRandom) {
+            recording.setSeed(((SeededRandom) random).getSeed());
+        }
+        listeners = new CopyOnWriteArrayList<>();
+        spectators = new SpectatorFeed();
         gameStarted = false;
         player1Points = 0;
         player2Points = 0;
     }
 
     /**
-     * The game loop thread. A while loop is set to end in 5 minutes or when the thread is interrupted because
-     * the game ended due to some other reason. The loop sleeps for one second every loop to  
-     * to be more efficient for the processor since it doesn't really
-     * have to be accurate to milliseconds. It is also decided in this thread which player goes first 
+     * Sets up the game on a timer thread. It is decided which player goes first 
      * and that's randomly found by the {@link #decideWhoStart()} methods. Then both players are informed 
-     * about this with the game setup message. 
+     * about this with the game setup message. Finally the time limit of the rules is scheduled, after which the game ends
+     * unless it has ended due to some other reason before.
      * @pre player1 != null, player2 != null, view != null
      * @post ensures that it is decided which player goes first and both players are informed of that, 
-     * And that a 5 minute game loop is started after which both players are informed of the results of the game if it ended due to time running out.
+     * And that the game ends after the game duration of the rules if it hasn't ended before.
      */
     @Override
-	public void run() {
+	public synchronized void run() {
+        if (!gameStarted) { // A player quit before the game was set up
+            return;
+        }
+
         // Randomly chooses which players goes first and informs them about that
         currentMove = decideWhoStart();
         player1.gameSetup(currentMove);
         player2.gameSetup(currentMove);
+        spectators.publish(ProtocolMessages.SETUP, currentMove);
         
         view.showMessage("Game " + gameId + ": started");
-        
-        long t = System.currentTimeMillis(); 
-        long end = t + 300000; // Ends in 5 minutes
-
-        // The game loop
-        while(System.currentTimeMillis() < end && !gameThread.isInterrupted()) {
-            try {
-                  TimeUnit.SECONDS.sleep(1);
-			} catch (InterruptedException e) {
-                gameThread.interrupt();
-                break;
-            }
-        }
+        GameStartedEvent.emit(gameId, player1.getName(), player2.getName(), currentMove, rules.getName());
 
-        if (!gameThread.isInterrupted()) { // If the game ended because timer ran out 
-            endGame(true, null, null);
-        }
+        timeLimit = scheduler.schedule(this::timeUp, rules.getGameDuration(), TimeUnit.MILLISECONDS);
+    }
 
-        view.showMessage("Game " + gameId + ": ended!");
+    /**
+     * Ends the game because the time of the game is up, or because the server shuts down and the game ends as if its time were up.
+     * Synchronized so that it can't happen in the middle of a move.
+     * @post ensures that the game has ended
+     */
+    public synchronized void timeUp() {
+        endGame(true, null, null);
     }
 
+    /**
+     * Ends the game as if a player quit, for example because they didn't turn up in time for a tournament game. If the game
+     * hasn't started yet, it never starts and the players that have joined are told that the game is over, won by the other one.
+     * @param playerName The name of the player that forfeits.
+     * @pre playerName != null
+     * @post ensures that the game is over, or never starts
+     */
+    public synchronized void forfeit(String playerName) {
+        if (gameStarted) {
+            endGame(false, playerName, null);
+            return;
+        }
+        if (forfeited || winnerName != null) { // The game is already over
+            return;
+        }
+        forfeited = true;
+        quitBeforeStart = true;
+
+        Player other = player1 != null && !player1.getName().equals(playerName) ? player1 : player2;
+        String winner = other != null && !other.getName().equals(playerName) ? other.getName() : "";
+        for (Player player : new Player[] {player1, player2}) {
+            if (player != null) {
+                player.gameOver(winner, false);
+            }
+        }
+    }
 
     /**
-     * Method to start the game by creating a separate thread for it. This is only called
+     * Method to start the game by setting it up on a timer thread. This is only called
      * after both players have submitted their boards.
-     * @post ensures that the game loop thread is started
+     * @post ensures that the game set up is scheduled and the listeners are informed
      */
     private void startGame() {
         gameStarted = true;
-        gameThread = new Thread(this);
-        gameThread.start();
+        startTime = scheduler.currentTimeMillis();
+
+        for (GameListener listener : listeners) {
+            listener.gameStarted(this);
+        }
+
+        scheduler.execute(this);
     }
 
     /**
@@ -127,21 +257,25 @@ public class Game implements Runnable {
      * @param quitPlayerName Indicates whether the game is over because one of the players quit.
      * @param winnerName Indicates who won in the case that all ships are destroyed in the game for one of the players.
      * @post ensures that both players are informed of the results of the game and quitBeforeStarting is set to true if one of the players
-     * quit before game began. Also sets the gameStarted to false since calling endGame indicates that the game has ended.
+     * quit before game began. Also sets the gameStarted to false since calling endGame indicates that the game has ended. The result is
+     * added to the game recording, the recording is saved for replays and the game listeners are informed.
+     * Synchronized so that a player quitting, the time limit and the last move can't end the game at the same time, which
+     * would inform the players and listeners twice.
      */
-    public void endGame(boolean timeFinished, String quitPlayerName, String winnerName) {
+    public synchronized void endGame(boolean timeFinished, String quitPlayerName, String winnerName) {
 
         if (gameStarted) { // If game has not yet ended. Prevents from being called after game has already once ended.
 
             if (quitPlayerName != null) { // If one of the players has quit the game
-                gameThread.interrupt(); // Stops the 5 minute game loop from continuing. 
 
                 if (player1.getName().equals(quitPlayerName)) { // If player 1 quit
                     
+                    setResult(player2.getName(), false);
                     player2.gameOver(player2.getName(), false);
 
                 } else { // If player 2 quit
 
+                    setResult(player1.getName(), false);
                     player1.gameOver(player1.getName(), false);
                 
                 }
@@ -150,48 +284,102 @@ public class Game implements Runnable {
     
                 if (player1Points > player2Points) { // Player 1 wins
 
+                    setResult(player1.getName(), true);
                     player1.gameOver(player1.getName(), true);
                     player2.gameOver(player1.getName(), true);                
                 
                 } else if (player1Points < player2Points) { // Player 2 wins
 
+                    setResult(player2.getName(), true);
                     player1.gameOver(player2.getName(), true);
                     player2.gameOver(player2.getName(), true); 
                 
                 } else { // Tie
                 
+                    setResult("", true);
                     player1.gameOver("", true);
                     player2.gameOver("", true); 
                 
                 }
     
             } else { // Game finished because all ships were destroyed
-                gameThread.interrupt(); // Stops the 5 minute game loop from continuing.
                 
                 if (player1.getName().equals(winnerName)) { // If player 1 wins
     
+                    setResult(player1.getName(), true);
                     player1.gameOver(player1.getName(), true);
                     player2.gameOver(player1.getName(), true);
 
                 } else { // If player 2 wins
     
+                    setResult(player2.getName(), true);
                     player1.gameOver(player2.getName(), true);
                     player2.gameOver(player2.getName(), true);
                 }
             }
+
+            if (timeLimit != null) { // Stops the 5 minute time limit
+                timeLimit.cancel(false);
+            }
+            endTime = scheduler.currentTimeMillis();
+            view.showMessage("Game " + gameId + ": ended!");
+            GameEndedEvent.emit(gameId,
+                quitPlayerName != null ? GameEndedEvent.REASON_QUIT : timeFinished ? GameEndedEvent.REASON_TIME_UP : GameEndedEvent.REASON_SUNK,
+                this.winnerName, endTime - startTime, recording.getMoveCount());
+            spectators.publish(ProtocolMessages.GAMEOVER, this.winnerName, winType);
+            spectators.clear();
+            if (replays != null) {
+                replays.addInBackground(recording, view);
+            }
+
+            for (GameListener listener : listeners) {
+                listener.gameEnded(this);
+            }
+            gameStarted = false; // Before the boards are given back, so that no move is made on them
+            releaseBoards();
         } else {
             quitBeforeStart = true;
         }
         gameStarted = false;
     }
 
+
+    /**
+     * Sends the update about a move to both players and to the spectators. The spectators share a single encoded message.
+     * @param x X coordinate of the move.
+     * @param y Y coordinate of the move.
+     * @param isHit Whether a ship was hit.
+     * @param isSunk Whether a ship was sunk.
+     * @param isLate Whether the move was late.
+     * @pre player1 != null, player2 != null, previousMove != null, currentMove != null
+     * @post ensures that both players and all spectators are sent the update
+     */
+    private void sendUpdate(int x, int y, boolean isHit, boolean isSunk, boolean isLate) {
+        player1.update(x, y, isHit, isSunk, isLate, previousMove, currentMove);
+        player2.update(x, y, isHit, isSunk, isLate, previousMove, currentMove);
+        spectators.publish(ProtocolMessages.UPDATE, x, y, isHit, isSunk, isLate, previousMove, currentMove);
+    }
+
+    /**
+     * Stores the result of the game and adds it to the game recording.
+     * @param winnerName The name of the winner or an empty string if it was a tie.
+     * @param winType True if the game ended normally, false if one of the players quit.
+     * @pre winnerName != null
+     * @post ensures that winnerName and winType are set and recorded
+     */
+    private void setResult(String winnerName, boolean winType) {
+        this.winnerName = winnerName;
+        this.winType = winType;
+        recording.setResult(winnerName, winType);
+    }
   
     /**
-     * Method that is called by GameClientHandler threads when their respective client has made a move
-     * or didn't make a move (late move). This method then updates both player's board and then sends those updates to both players.
+     * Method that is called by GameClientHandler threads and bots when their respective player has made a move
+     * or didn't make a move (late move). This method then updates both player's board and then sends those updates to both players
+     * and the spectators.
      * It also changes the currentMove and previousMove variables as well as calls the makeMove() method for the respective client thread
-     * to start the move timer. And also it adds points for hit and sunk ships. This method is synchronized because it could potentially be called 
-     * by both client threads at once.
+     * to start the move timer. And also it adds points for hit and sunk ships. Every move is added to the game recording. This method is 
+     * synchronized because it could potentially be called by both client threads at once.
      * @param x X coordinate of the move. 
      * @param y Y coordinate of the move.
      * @param isLate Indicates whether the move was actually made by the client or the timer sent it due to late move.
@@ -199,38 +387,91 @@ public class Game implements Runnable {
      * @post ensures that a move is made on behalf of one of the clients. Calls endGame if one player quits or destroyes opponents ships. Also,
      * updates currentMove and previousMove as appropriate and starts the move timer on the player that goes next.
      */
-    public synchronized void makeMove(int x, int y, boolean isLate) {
-        if (player1.getSocket() == null) {
+    public void makeMove(int x, int y, boolean isLate) {
+        makeMove(x, y, isLate, null);
+    }
+
+    /**
+     * Makes a move like {@link #makeMove(int, int, boolean)}, and times its stages for the trace of the move. The trace is
+     * the current trace of the calling thread while the move is made, so that the players can time their updates.
+     * @param x X coordinate of the move.
+     * @param y Y coordinate of the move.
+     * @param isLate Indicates whether the move was actually made by the client or the timer sent it due to late move.
+     * @param trace The trace of the move the client sent, or null if the move isn't traced.
+     * @pre player1 != null, player2 != null, currentMove != null
+     * @throws IllegalArgumentException if the move is off the board of the rules, nothing is changed or recorded then.
+     * @post ensures that the move is made as by makeMove(x, y, isLate) and the trace is finished
+     */
+    public void makeMove(int x, int y, boolean isLate, MoveTrace trace) {
+        if (x < 0 || x >= rules.getWidth() || y < 0 || y >= rules.getHeight()) { // A field index would wrap onto another field
+            throw new IllegalArgumentException("Move off the board: " + x + ", " + y);
+        }
+        LockTimer timer = LockProfiler.getShared().getMakeMove();
+        long waiting = System.nanoTime();
+        synchronized (this) {
+            long acquired = timer.acquired(waiting);
+            if (trace != null) {
+                trace.locked();
+            }
+            try {
+                playMove(x, y, isLate, trace);
+            } finally {
+                if (trace != null) {
+                    trace.finish(gameId);
+                }
+                timer.released(acquired);
+            }
+        }
+    }
+
+    /**
+     * Makes a move, see {@link #makeMove(int, int, boolean)}.
+     * @pre the caller holds the lock of this game
+     */
+    private void playMove(int x, int y, boolean isLate, MoveTrace trace) {
+        if (!player1.isConnected()) {
             endGame(false, player2.getName(), null);
-        } else if (player2.getSocket() == null) {
+        } else if (!player2.isConnected()) {
             endGame(false, player1.getName(), null);
         }
 
         if (gameStarted) { // If game is actually going on. Prevents from making moves before game and after it has ended.
+
+            MoveEvent event = MoveEvent.start(); // Times the move for Flight Recorder, free unless a recording is running
+            String mover = currentMove;
             
             // The array for information about the move that will be received from on of the players boards.
             // It includes result[0]: isHit (whether a ship was hit), result[1]: isSunk (whether a ships was sunk)
             // and result[2]: areAllShipsDestryoed which indicates that one of the players has won.
             boolean[] result; 
             
+            int version = recording.getMoveCount() + 1; // Every move, also a late one, is a new version of the game
+
             if (currentMove.equals(player1.getName())) { // If player 1 made the move
                 
                 if (isLate) { // If player 1 made a late move
 
+                    recording.addMove(0, x, y, isLate);
                     currentMove = player2.getName();
                     previousMove = player1.getName();
-                    player1.update(x, y, false, false, isLate, previousMove, currentMove);
-                    player2.update(x, y, false, false, isLate, previousMove, currentMove);
+                    sendUpdate(x, y, false, false, isLate);
                     player2.makeMove();
                 
                 } else { // If player 1 made a move on time
 
-                    result = player2Board.makeMove(x, y); // Update the player 2 board and receive the results from that move.
+                    result = player2Board.makeMove(x, y, version); // Update the player 2 board and receive the results from that move.
+                    recording.addMove(0, x, y, isLate); // Only once the board has taken the move
+                    if (trace != null) {
+                        trace.logicDone();
+                    }
+                    player1Shots++;
+                    if (result[0]) {
+                        player1Hits++;
+                    }
                     
                     if (result[2]) { // If player 1's move destroyed all ships
 
-                        player1.update(x, y, result[0], result[1], isLate, previousMove, currentMove);
-                        player2.update(x, y, result[0], result[1], isLate, previousMove, currentMove);
+                        sendUpdate(x, y, result[0], result[1], isLate);
                         endGame(false, null, player1.getName());
 
                     } else { // If player 1's move didn't destroy all ships
@@ -255,8 +496,7 @@ public class Game implements Runnable {
 
                         } 
         
-                        player1.update(x, y, result[0], result[1], isLate, previousMove, currentMove);
-                        player2.update(x, y, result[0], result[1], isLate, previousMove, currentMove);
+                        sendUpdate(x, y, result[0], result[1], isLate);
                         
                     }
                 
@@ -267,20 +507,27 @@ public class Game implements Runnable {
 
                 if (isLate) { // If player 2 made a late move
 
+                    recording.addMove(1, x, y, isLate);
                     currentMove = player1.getName();
                     previousMove = player2.getName();
-                    player1.update(x, y, false, false, isLate, previousMove, currentMove);
-                    player2.update(x, y, false, false, isLate, previousMove, currentMove);
+                    sendUpdate(x, y, false, false, isLate);
                     player1.makeMove();
 
                 } else { // If player 2 made a move on time
 
-                    result = player1Board.makeMove(x, y); // Update the player 1 board and receive the results from that move.
+                    result = player1Board.makeMove(x, y, version); // Update the player 1 board and receive the results from that move.
+                    recording.addMove(1, x, y, isLate); // Only once the board has taken the move
+                    if (trace != null) {
+                        trace.logicDone();
+                    }
+                    player2Shots++;
+                    if (result[0]) {
+                        player2Hits++;
+                    }
         
                     if (result[2]) { // If player 2's move destroyed all ships
                         
-                        player1.update(x, y, result[0], result[1], isLate, previousMove, currentMove);  
-                        player2.update(x, y, result[0], result[1], isLate, previousMove, currentMove);
+                        sendUpdate(x, y, result[0], result[1], isLate);
                         endGame(false, null, player2.getName());
                         
                     } else { // If player 2's move didn't destroy all ships
@@ -305,14 +552,15 @@ public class Game implements Runnable {
 
                         } 
         
-                        player1.update(x, y, result[0], result[1], isLate, previousMove, currentMove);
-                        player2.update(x, y, result[0], result[1], isLate, previousMove, currentMove);
+                        sendUpdate(x, y, result[0], result[1], isLate);
                     }
                 
                 }
  
     
             }
+
+            event.finish(gameId, mover, x, y, isLate);
         }
 
         
@@ -320,21 +568,42 @@ public class Game implements Runnable {
 
     /**
      * After a succesful handshake with the client whereby a uniqe name is gotten
-     * this method is called by the GameClientHandler thread to add the client to the game. 
+     * this method is called by the GameClientHandler thread to add the client to the game, and a bot is added the same way.
      * Starting from player1. So player1 will always be the first connected, then player 2.
      * @param player The player instance to be added to the game.
      * @pre player != null, view != null
      * @post ensures that the given player is set as player1 if player1 == null or as player2 if player2 == null.
      */
-    public synchronized void setPlayer(GameClientHandler player) {
+    public void setPlayer(Player player) {
+        LockTimer timer = LockProfiler.getShared().getSetPlayer();
+        long waiting = System.nanoTime();
+        synchronized (this) {
+            long acquired = timer.acquired(waiting);
+            try {
+                addPlayer(player);
+            } finally {
+                timer.released(acquired);
+            }
+        }
+    }
+
+    /**
+     * Adds a player, see {@link #setPlayer(Player)}.
+     * @pre the caller holds the lock of this game
+     */
+    private void addPlayer(Player player) {
         if (player1 == null) {
             player1 = player;
+            player1JoinTime = System.nanoTime();
+            recording.setPlayerName(0, player.getName());
             view.showMessage("Game " + gameId + ": Player 1 added. Player name: " + player1.getName());
         } else if (player2 == null) {
             if (quitBeforeStart) {
                 player.gameOver(player.getName(), false);
             } else {
                 player2 = player;
+                player2JoinTime = System.nanoTime();
+                recording.setPlayerName(1, player.getName());
                 view.showMessage("Game " + gameId + ": Player 2 added. Player name: " + player2.getName());
                 sendEnemyName();
             }
@@ -359,28 +628,51 @@ public class Game implements Runnable {
      * and player2 to know which player is setting their board, the names are compared with the one provided when calling method
      * to the names of the players in this game. This method is synchronized since it can be called by both player1 and player2 GameClientHandler
      * threads at the same time. But that should not be possible as the last one to call this method starts up the game so the calls for setting board
-     * must be synchronized.
+     * must be synchronized. The board is also added to the game recording. Once the game has ended boards are ignored, so that
+     * a game can't be started again.
      * @param board The board to be set.
      * @param playerName The name of the player for which the board is to be set.
      * @pre encodedBoard != null, playerName != null, player1 != null, player2 != null
      * @post sets the respective clients decoded board
      */
-    public synchronized void setBoard(String encodedBoard, String playerName) {
+    public void setBoard(String encodedBoard, String playerName) {
+        LockTimer timer = LockProfiler.getShared().getSetBoard();
+        long waiting = System.nanoTime();
+        synchronized (this) {
+            long acquired = timer.acquired(waiting);
+            try {
+                placeBoard(encodedBoard, playerName);
+            } finally {
+                timer.released(acquired);
+            }
+        }
+    }
+
+    /**
+     * Sets a board, see {@link #setBoard(String, String)}.
+     * @pre the caller holds the lock of this game
+     */
+    private void placeBoard(String encodedBoard, String playerName) {
+        if (winnerName != null) { // The game is over
+            return;
+        }
         if (player1.getName().equals(playerName)) {
 
-            player1Board = new GameBoard(encodedBoard);
+            player1Board = replaceBoard(player1Board, encodedBoard, playerName);
+            recording.setBoard(0, encodedBoard);
             
-            if (player2Board != null && !gameStarted) {
+            if (player2Board != null && !gameStarted && !forfeited) {
             
                 startGame();
             
             }
 
-        } else if (player2.getName().equals(playerName)) {
+        } else if (player2 != null && player2.getName().equals(playerName)) { // The board may come before the opponent has joined
             
-            player2Board = new GameBoard(encodedBoard);
+            player2Board = replaceBoard(player2Board, encodedBoard, playerName);
+            recording.setBoard(1, encodedBoard);
             
-            if (player1Board != null && !gameStarted) {
+            if (player1Board != null && !gameStarted && !forfeited) {
             
                 startGame();
             
@@ -388,6 +680,39 @@ public class Game implements Runnable {
         }
     }
 
+    /**
+     * Gives a player a board from the board pool, and gives back the board the player had submitted before, if any.
+     * @param previous The board the player had, or null.
+     * @param encodedBoard The new encoded board.
+     * @param playerName The name of the player, for the decode event.
+     * @return The new board.
+     * @pre encodedBoard != null, the caller holds the lock of this game
+     */
+    private GameBoard replaceBoard(GameBoard previous, String encodedBoard, String playerName) {
+        BoardDecodeEvent event = BoardDecodeEvent.start();
+        GameBoard board = GameBoardPool.getShared().acquire(encodedBoard, rules);
+        event.finish(gameId, playerName, encodedBoard.length());
+        if (previous != null) {
+            GameBoardPool.getShared().release(previous);
+        }
+        return board;
+    }
+
+    /**
+     * Gives the boards of an ended game back to the board pool. Moves are no longer made once the game has ended and the
+     * recording keeps the encoded boards, so nothing reads the boards anymore; the state of the game is no longer available.
+     * @post ensures that player1Board == null, player2Board == null
+     */
+    private synchronized void releaseBoards() {
+        for (GameBoard board : new GameBoard[] {player1Board, player2Board}) {
+            if (board != null) {
+                GameBoardPool.getShared().release(board);
+            }
+        }
+        player1Board = null;
+        player2Board = null;
+    }
+
     /**
      * Used by GameClientHandler thread to check whether the client has submitted a uniqe name. 
      * Since player1 is always connected first there is a check for player1 == null and the name, whatever it is, 
@@ -429,6 +754,32 @@ public class Game implements Runnable {
         return gameId;
     }
 
+    /**
+     * Getter for the rules the game is played with.
+     * @return The rule profile.
+     */
+    public RuleProfile getRules() {
+        return rules;
+    }
+
+    /**
+     * Gives a random generator for a part of this game, such as a bot that joins it, split off the generator of the game so that
+     * a game with a seeded generator is reproduced with the same bots.
+     * @return The generator.
+     * @post ensures that the generator is derived from the generator of this game if that is seeded
+     */
+    public Random splitRandom() {
+        return randomService.split(random);
+    }
+
+    /**
+     * Getter for the clock and timers of this game, which its players use for their move timers too.
+     * @return The scheduler.
+     */
+    public GameScheduler getScheduler() {
+        return scheduler;
+    }
+
     /**
      * Getter to check whether the game has ended.
      * @return Whether the game has ended.
@@ -465,4 +816,188 @@ public class Game implements Runnable {
     public int getPlayer2Points() {
         return this.player2Points;
     }
-}
+
+    /**
+     * Getter for the recording of this game.
+     * @return The recording of the boards and moves made so far.
+     * @post ensures that the recording is returned
+     */
+    public GameRecording getRecording() {
+        return recording;
+    }
+
+    /**
+     * Sets where the recording of this game is saved when it ends. Games aren't saved unless this is set.
+     * @param replays The archive of the recordings, null to not save the recording.
+     * @post ensures that the recording is added to the archive when the game ends, unless it is null
+     */
+    public void setReplayArchive(ReplayArchive replays) {
+        this.replays = replays;
+    }
+
+    /**
+     * Adds a listener that is informed when this game ends.
+     * @param listener The listener to add.
+     * @pre listener != null
+     * @post ensures that the listener is called when the game ends
+     */
+    public void addGameListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Getter for a player's name.
+     * @param player 1 for player 1 and 2 for player 2.
+     * @return The name of the player or null if the player hasn't joined yet.
+     * @pre player == 1 || player == 2
+     * @post ensures that the name of the requested player is returned
+     */
+    public synchronized String getPlayerName(int player) {
+        Player gamePlayer = player == 1 ? player1 : player2;
+        return gamePlayer == null ? null : gamePlayer.getName();
+    }
+
+    /**
+     * Getter for a player.
+     * @param player 1 for player 1 and 2 for player 2.
+     * @return The player or null if the player hasn't joined yet.
+     * @pre player == 1 || player == 2
+     */
+    public synchronized Player getPlayer(int player) {
+        return player == 1 ? player1 : player2;
+    }
+
+    /**
+     * Checks whether a player has submitted a board, for example to find out who didn't turn up for a game that hasn't started.
+     * @param playerName The name of the player.
+     * @return Whether the player has joined and submitted a board.
+     * @pre playerName != null
+     */
+    public synchronized boolean hasBoard(String playerName) {
+        return (player1 != null && player1.getName().equals(playerName) && player1Board != null) ||
+            (player2 != null && player2.getName().equals(playerName) && player2Board != null);
+    }
+
+    /**
+     * Getter for when a player joined the game, for example to measure how long players wait for a game.
+     * @param player 1 for player 1 and 2 for player 2.
+     * @return The time in nanoseconds from System.nanoTime(), or 0 if the player hasn't joined yet.
+     * @pre player == 1 || player == 2
+     */
+    public synchronized long getJoinTime(int player) {
+        return player == 1 ? player1JoinTime : player2JoinTime;
+    }
+
+    /**
+     * Getter for the number of shots a player has fired, not counting late moves.
+     * @param player 1 for player 1 and 2 for player 2.
+     * @return The number of shots.
+     * @pre player == 1 || player == 2
+     */
+    public int getShots(int player) {
+        return player == 1 ? player1Shots : player2Shots;
+    }
+
+    /**
+     * Getter for the number of shots of a player that hit a ship.
+     * @param player 1 for player 1 and 2 for player 2.
+     * @return The number of hits.
+     * @pre player == 1 || player == 2
+     */
+    public int getHits(int player) {
+        return player == 1 ? player1Hits : player2Hits;
+    }
+
+    /**
+     * Getter for how long the game lasted.
+     * @return The duration in milliseconds, or 0 if the game hasn't ended.
+     * @post ensures that the time between the start and the end of the game is returned
+     */
+    public long getDuration() {
+        return endTime == 0 ? 0 : endTime - startTime;
+    }
+
+    /**
+     * Getter for the winner of the game.
+     * @return The winner's name, an empty string for a tie or null if the game hasn't ended.
+     */
+    public String getWinnerName() {
+        return winnerName;
+    }
+
+    /**
+     * Getter for the type of win.
+     * @return True if the game ended normally, false if one of the players quit.
+     */
+    public boolean getWinType() {
+        return winType;
+    }
+
+    /**
+     * Adds a client that watches this game from now on. If the game is going on, the spectator is first sent the full
+     * state of the game. Synchronized with {@link #makeMove(int, int, boolean)} so that no update is lost or sent twice in between.
+     * @param spectator The spectator to add.
+     * @pre spectator != null
+     * @post ensures that the spectator receives the state of the game, every following update and the game over message
+     */
+    public synchronized void addSpectator(Spectator spectator) {
+        String state = getBoardState(0);
+        if (state != null) {
+            spectator.send((state + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        spectators.add(spectator);
+    }
+
+    /**
+     * Encodes the state of the game in one message for a client that joins late or reconnects. The version of the game is the
+     * number of moves made, including late moves. If the client already knows a version, only the fields that changed after it
+     * are sent as a {@link ProtocolMessages#BOARD_DELTA} message, unless the full {@link ProtocolMessages#BOARD_STATE} message is shorter:
+     * <p>
+     * {@code bs;version;currentMove;remainingSeconds;player1Points;player2Points;board1Shots;board1Hits;board1Sunk;board2Shots;board2Hits;board2Sunk}<br>
+     * {@code bd;knownVersion;version;currentMove;remainingSeconds;player1Points;player2Points;board1Changes;board2Changes}
+     * <p>
+     * Board 1 is the board of player 1, so it shows the shots of player 2. The masks and changes are described in
+     * {@link GameBoard#appendState(StringBuilder)} and {@link GameBoard#appendChanges(StringBuilder, int)}.
+     * @param knownVersion The last version the client has seen, or 0 if it knows nothing.
+     * @return The message, or null if the game hasn't started because a board is missing, or has ended and given back its boards.
+     * @post ensures that the returned message brings a client at knownVersion up to date
+     */
+    public synchronized String getBoardState(int knownVersion) {
+        if (player1Board == null || player2Board == null) {
+            return null;
+        }
+
+        int version = recording.getMoveCount();
+        long remaining = gameStarted ? Math.max(0, startTime + rules.getGameDuration() - scheduler.currentTimeMillis()) : 0;
+
+        StringBuilder state = new StringBuilder();
+        state.append(ProtocolMessages.BOARD_STATE).append(';').append(version).append(';').append(currentMove).append(';')
+            .append(TimeUnit.MILLISECONDS.toSeconds(remaining)).append(';')
+            .append(player1Points).append(';').append(player2Points).append(';');
+        player1Board.appendState(state);
+        state.append(';');
+        player2Board.appendState(state);
+
+        if (knownVersion <= 0 || knownVersion > version) { // The client knows nothing or a version of another game
+            return state.toString();
+        }
+
+        StringBuilder delta = new StringBuilder();
+        delta.append(ProtocolMessages.BOARD_DELTA).append(';').append(knownVersion).append(';').append(version).append(';')
+            .append(currentMove).append(';').append(TimeUnit.MILLISECONDS.toSeconds(remaining)).append(';')
+            .append(player1Points).append(';').append(player2Points).append(';');
+        player1Board.appendChanges(delta, knownVersion);
+        delta.append(';');
+        player2Board.appendChanges(delta, knownVersion);
+
+        return delta.length() < state.length() ? delta.toString() : state.toString();
+    }
+
+    /**
+     * Getter for the number of clients watching this game.
+     * @return The number of spectators.
+     */
+    public int getSpectatorCount() {
+        return spectators.size();
+    }
+}
\ No newline at end of file
@@ -1,5 +1,10 @@
 package game;
 
+// External imports
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
 // Internal imports
 import constants.GameConstants;
 import tui.TerminalColors;
@@ -7,41 +12,193 @@ import tui.TerminalColors;
 /**
  * This class represents a game board for a client. It makes moves on the board and keeps track of what has been already hit
  * and whether a certain ship has sunk. It is always created from an encoded board sent in by the client which is then decoded here.
- * @inv board != null, encodedBoard != null
+ * <p>
+ * Besides the decoded fields the board keeps bit masks of the fields that were shot at, that hit a ship and that belong to a sunk
+ * ship, with one bit per field at index y * width + x. For every field it also keeps the game version in which it last changed.
+ * The masks and versions are what a client that joins a game late needs to catch up, see {@link #appendState(StringBuilder)}
+ * and {@link #appendChanges(StringBuilder, int)}.
+ * <p>
+ * The board is sized to the {@link RuleProfile} of its game. When it is decoded, the ship on every field is looked up once,
+ * so a move finds its ship and whether it sank from the masks without comparing field names. Fields of the standard field types
+ * share the constants of {@link GameConstants} instead of holding their own copy of the client's text.
+ * <p>
+ * A board can be reset in place with another encoded board of the same size, so that games can reuse boards through a
+ * {@link GameBoardPool} instead of allocating new ones.
+ * @inv board != null, encodedBoard != null, shipFront != null, shipLength != null, shotMask != null, hitMask != null, sunkMask != null,
+ * changedAt != null, remainingShipFields >= 0
  */
 public class GameBoard {
+    // Digits used to write the masks as hexadecimal
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // The length of the ship and the part of it, 0 being the front, of every named ship field type
+    private static final Map<String, int[]> SHIP_PARTS = new HashMap<>();
+
+    // The standard field types, and the type every one of them becomes once it is hit
+    private static final String[] FIELD_TYPES;
+    private static final Map<String, String> HIT_FIELD_TYPES = new HashMap<>();
+
+    static {
+        for (int length = 1; length <= GameConstants.SHIP_FIELD_TYPES.length; length++) {
+            for (int part = 0; part < length; part++) {
+                SHIP_PARTS.put(GameConstants.SHIP_FIELD_TYPES[length - 1][part], new int[] {length, part});
+            }
+        }
+        FIELD_TYPES = new String[SHIP_PARTS.size() + 1];
+        FIELD_TYPES[0] = GameConstants.FIELD_TYPE_WATER;
+        int index = 1;
+        for (String[] ship : GameConstants.SHIP_FIELD_TYPES) {
+            for (String fieldType : ship) {
+                FIELD_TYPES[index++] = fieldType;
+            }
+        }
+        for (String fieldType : FIELD_TYPES) {
+            HIT_FIELD_TYPES.put(fieldType, (fieldType + GameConstants.FIELD_TYPE_HIT_EXTENSION).intern()); // The constants, where there are any
+        }
+    }
+
     // The game board
     private String[][] board;
 
     // The encdoded game board sent in by client
     private String encodedBoard;
 
+    // For every field the X coordinate of the front of the ship on it and the length of that ship, a length of 0 being water
+    private byte[] shipFront;
+    private byte[] shipLength;
+
+    // The number of ship fields that haven't been hit
+    private int remainingShipFields;
+
+    // The fields that were shot at, that hit a ship and that are part of a sunk ship
+    private long[] shotMask;
+    private long[] hitMask;
+    private long[] sunkMask;
+
+    // The game version in which each field was last shot at or sunk, 0 if never
+    private int[] changedAt;
+
     /**
-     * Initialises the encoded, and decoded game boards.
+     * Initialises the encoded, and decoded game boards with the classic rules.
      * @param encodedBoard The encoded game board sent in by the client.
      * @pre encodedBoard != null
      * @post ensures that encodedBoard, board are initialised and that the encdodedBoard is decoded
      */
     public GameBoard(String encodedBoard) {
+        this(encodedBoard, RuleProfile.CLASSIC);
+    }
+
+    /**
+     * Initialises the encoded, and decoded game boards with the size of the given rules.
+     * @param encodedBoard The encoded game board sent in by the client.
+     * @param rules The rules of the game.
+     * @pre encodedBoard != null, rules != null
+     * @post ensures that encodedBoard, board are initialised and that the encdodedBoard is decoded
+     */
+    public GameBoard(String encodedBoard, RuleProfile rules) {
+        this.encodedBoard = encodedBoard;
+        board = new String[rules.getWidth()][rules.getHeight()];
+        shipFront = new byte[rules.getFieldCount()];
+        shipLength = new byte[rules.getFieldCount()];
+        decodeBoard(encodedBoard);
+        allocateMasks();
+    }
+
+    /**
+     * Creates a copy of another game board including the fields that have already been hit.
+     * @param other The game board to copy.
+     * @pre other != null
+     * @post ensures that this board has the same encodedBoard and the same field values as the other board
+     */
+    public GameBoard(GameBoard other) {
+        this.encodedBoard = other.encodedBoard;
+        board = new String[other.board.length][];
+        for (int i = 0; i < board.length; i++) {
+            board[i] = other.board[i].clone();
+        }
+        shipFront = other.shipFront.clone();
+        shipLength = other.shipLength.clone();
+        remainingShipFields = other.remainingShipFields;
+        shotMask = other.shotMask.clone();
+        hitMask = other.hitMask.clone();
+        sunkMask = other.sunkMask.clone();
+        changedAt = other.changedAt.clone();
+    }
+
+    /**
+     * Resets the board in place to a new encoded board of the same size, as if it had just been created from it.
+     * @param encodedBoard The encoded game board sent in by the client.
+     * @pre encodedBoard != null, the encoded board has the size of this board
+     * @post ensures that the board is decoded from encodedBoard and that no field has been shot at
+     */
+    public void reset(String encodedBoard) {
         this.encodedBoard = encodedBoard;
-        board = new String[GameConstants.BOARD_SIZE_X][GameConstants.BOARD_SIZE_Y];
         decodeBoard(encodedBoard);
+        Arrays.fill(shotMask, 0);
+        Arrays.fill(hitMask, 0);
+        Arrays.fill(sunkMask, 0);
+        Arrays.fill(changedAt, 0);
+    }
+
+    /**
+     * Checks whether this board has the size of the boards of a rule profile, so that it can be reset for a game with those rules.
+     * @param rules The rules.
+     * @return Whether the width and height are those of the rules.
+     * @pre rules != null
+     */
+    public boolean fits(RuleProfile rules) {
+        return board.length == rules.getWidth() && board[0].length == rules.getHeight();
     }
 
     /**
-     * Decodes and sets the encoded board that was sent in by the client.
+     * Creates empty masks and versions for every field of the board.
+     */
+    private void allocateMasks() {
+        int fields = board.length * board[0].length;
+        shotMask = new long[(fields + 63) / 64];
+        hitMask = new long[shotMask.length];
+        sunkMask = new long[shotMask.length];
+        changedAt = new int[fields];
+    }
+
+    /**
+     * Decodes and sets the encoded board that was sent in by the client. Besides the field types it finds the ship on every
+     * field from the field type. A field type that isn't a ship part, or a ship that doesn't fit in its row, counts as water.
+     * The fields are read from the encoded board in place, without splitting it.
      * @param encodedBoard The board to decode.
+     * @throws ArrayIndexOutOfBoundsException if the encoded board has fewer fields than the board.
      * @pre encodedBoard != null, board != null
      * @post ensures that the encodedBoard is decoded and set as the board
      */
     public void decodeBoard(String encodedBoard) {
-        String[] splitEncodedBoard = encodedBoard.split(";");
+        int width = board.length;
+        int start = encodedBoard.indexOf(';') + 1; // Skips the command
+        remainingShipFields = 0;
 
-        for (int i = 0; i < GameConstants.BOARD_SIZE_Y; i++) {
+        for (int i = 0; i < board[0].length; i++) {
 
-            for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
+            for (int j = 0; j < width; j++) {
                 
-                board[j][i] = splitEncodedBoard[((i*GameConstants.BOARD_SIZE_X)+j)+1];
+                if (start == 0 || start > encodedBoard.length()) {
+                    throw new ArrayIndexOutOfBoundsException("The board has fewer than " + (width * board[0].length) + " fields.");
+                }
+                int end = encodedBoard.indexOf(';', start);
+                if (end < 0) {
+                    end = encodedBoard.length();
+                }
+                board[j][i] = fieldType(encodedBoard, start, end);
+                start = end + 1;
+
+                int field = i * width + j;
+                int[] shipPart = shipPart(board[j][i]);
+                if (shipPart != null && j - shipPart[1] >= 0 && j - shipPart[1] + shipPart[0] <= width) {
+                    shipFront[field] = (byte) (j - shipPart[1]);
+                    shipLength[field] = (byte) shipPart[0];
+                    remainingShipFields++;
+                } else {
+                    shipFront[field] = 0;
+                    shipLength[field] = 0;
+                }
 
             }
 
@@ -49,35 +206,101 @@ public class GameBoard {
     }
 
     /**
-     * Called by the game instance to make a move on behalf of the opponent given x and y coordinates of the move.
+     * Reads a field type from an encoded board, as the shared constant if it is a standard field type.
+     * @return The field type.
+     */
+    private static String fieldType(String encodedBoard, int start, int end) {
+        int length = end - start;
+        for (String fieldType : FIELD_TYPES) {
+            if (fieldType.length() == length && encodedBoard.startsWith(fieldType, start)) {
+                return fieldType;
+            }
+        }
+        return encodedBoard.substring(start, end);
+    }
+
+    /**
+     * Finds out which part of which ship a field type is.
+     * @return The length of the ship and the part, 0 being the front, or null if the field type isn't a ship part.
+     */
+    private static int[] shipPart(String fieldType) {
+        int[] shipPart = SHIP_PARTS.get(fieldType);
+        if (shipPart == null && fieldType.startsWith(GameConstants.FIELD_TYPE_SHIP_PREFIX)) { // A ship longer than a carrier
+            String[] lengthAndPart = fieldType.substring(GameConstants.FIELD_TYPE_SHIP_PREFIX.length()).split("_");
+            try {
+                int length = Integer.parseInt(lengthAndPart[0]);
+                int part = Integer.parseInt(lengthAndPart[1]);
+                if (lengthAndPart.length == 2 && length <= GameConstants.MAX_BOARD_SIZE && part >= 0 && part < length) {
+                    shipPart = new int[] {length, part};
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                return null;
+            }
+        }
+        return shipPart;
+    }
+
+    /**
+     * Makes a move on a board that isn't synced to clients, such as a replayed board. The changed fields get version 0.
      * @param x The X coordinate of the move.
      * @param y The Y coordinate of the move.
      * @return Information about whether a ship was hit, whether that hit resulted in sinking the ship, and whether all ships have been destroyed.
-     * @pre x >= 0 && x < 15, y >= 0 && y < 10, board != null
+     * @pre x >= 0 && x < width, y >= 0 && y < height, board != null
      * @post ensures that the move is made and results of whether ship is hit and sunk and whether all ships are destroyed
      */
     public boolean[] makeMove(int x, int y) {
+        return makeMove(x, y, 0);
+    }
+
+    /**
+     * Called by the game instance to make a move on behalf of the opponent given x and y coordinates of the move.
+     * @param x The X coordinate of the move.
+     * @param y The Y coordinate of the move.
+     * @param version The version of the game after this move. It is stored for the fields that change.
+     * @return Information about whether a ship was hit, whether that hit resulted in sinking the ship, and whether all ships have been destroyed.
+     * @pre x >= 0 && x < width, y >= 0 && y < height, board != null, version >= 0
+     * @post ensures that the move is made and results of whether ship is hit and sunk and whether all ships are destroyed
+     */
+    public boolean[] makeMove(int x, int y, int version) {
         boolean[] update = new boolean[3];
         boolean isHit = false;
         boolean isSunk = false;
 
+        int field = y * board.length + x;
+        boolean alreadyShot = (shotMask[field >> 6] & 1L << field) != 0;
+
         // Checks for whether ship was hit
-        if (!board[x][y].equals(GameConstants.FIELD_TYPE_WATER) && !board[x][y].endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION)) {
+        if (shipLength[field] > 0 && !alreadyShot) {
             isHit = true;
         }
 
         // Makes the move
-        if (!board[x][y].endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION)) {  
-            board[x][y] = board[x][y] + GameConstants.FIELD_TYPE_HIT_EXTENSION;
+        if (!alreadyShot) {  
+            String hitFieldType = HIT_FIELD_TYPES.get(board[x][y]);
+            board[x][y] = hitFieldType != null ? hitFieldType : board[x][y] + GameConstants.FIELD_TYPE_HIT_EXTENSION;
         } 
 
+        shotMask[field >> 6] |= 1L << field;
+        changedAt[field] = version;
+
         // Only checks if a ship sunk in the case that a ship was hit.
          // That's because there could be a case where player fires at a field
          // that already has a sunk ship and the player shouldn't receive a point for that.
         if (isHit) {
+            hitMask[field >> 6] |= 1L << field;
+            remainingShipFields--;
             isSunk = hasSunk(x, y);
         }
 
+        if (isSunk) { // Every field of the ship is now part of a sunk ship
+            int[] ship = findShip(x, y);
+            for (int i = ship[0]; i <= ship[1]; i++) {
+                int shipField = y * board.length + i;
+                sunkMask[shipField >> 6] |= 1L << shipField;
+                changedAt[shipField] = version;
+            }
+        }
+
         update[0] = isHit;
         update[1] = isSunk;
         update[2] = allShipsDestroyed();
@@ -91,123 +314,99 @@ public class GameBoard {
      * @post ensures that a check is made for this board about whether all the ships are destroyed and returns the result
      */
     public boolean allShipsDestroyed() {
-        boolean allShipsDestroyed = true;
-
-        for (int i = 0; i < GameConstants.BOARD_SIZE_Y; i++) {
-
-            for (int j = 0; j < GameConstants.BOARD_SIZE_X; j++) {
-
-                if (!board[j][i].startsWith(GameConstants.FIELD_TYPE_WATER) && !board[j][i].endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION)) {
-                    allShipsDestroyed = false;
-                }
-                
-            }
-
-        }
-
-        return allShipsDestroyed;
+        return remainingShipFields == 0;
     }
 
     /**
      * This method checks whether whether certain coordinates are part of a sunk ship.
-     * This is only for single player because in multiplayer the server would do this instead.
      * @param x The X coordinate of the move.
      * @param y The Y coordinate of the move.
      * @return Whether a ship was sunk as a result of the move.
-     * @pre x >= 0 && x < 15, y >= 0 && y < 10, board != null
+     * @pre x >= 0 && x < width, y >= 0 && y < height, board != null
      * @post ensures that a check is made for whether a ship in given coordinates has sunk
      */
     public boolean hasSunk(int x, int y) {
-        boolean hasSunk = true; // Indicator for whether ship was sunk
-
-        String fieldName = board[x][y]; // The name of the field that the move was made upon
-
-        // The first word in the field being moved upon. This indicates what kind of field and what kind of ship it is.
-        String fieldNameBeginning = board[x][y].split("_")[0];
-
-        // All ships are placed horizontally and the ships start is on the left side. So they are placed from left to right.
-        // So to check whether a ships has sunk, the start coordinate, x1, has to be found and the end coordinate, x2,
-        // has to be found. So these two variables represent that.
-        int x1; 
-        int x2;
-
-        
-        if (fieldNameBeginning.equals(GameConstants.FIELD_TYPE_PATROL)) { // If the field is a patrol ship
-
-            x1 = x;
-            x2 = x;
+        int[] ship = findShip(x, y);
+        if (ship == null) { // If the field is water
+            return false;
+        }
 
-        } else if (fieldName.startsWith("SUPER_PATROL")) { // If the field is super patrol ship
-            
-            if (fieldName.endsWith("FRONT_HIT")) {
-                x1 = x;
-                x2 = x+1;
-            } else {
-                x1 = x-1;
-                x2 = x;
+        // Checks whether all parts of the ship, from its start to its end, are hit.
+        for (int i = ship[0]; i <= ship[1]; i++) {
+            int field = y * board.length + i;
+            if ((hitMask[field >> 6] & 1L << field) == 0) {
+                return false;
             }
+        }
+        return true;
+    }
 
-        } else if (fieldName.startsWith("DESTROYER")) { // If the field is destroyer ship
-
-            if (fieldName.endsWith("FRONT_HIT")) {
-                x1 = x;
-                x2 = x+2;
-            } else if (fieldName.endsWith("MID_HIT")) {
-                x1 = x-1;
-                x2 = x+1;
-            } else {
-                x1 = x-2;
-                x2 = x;
-            }
+    /**
+     * Finds the start and end of the ship that has a part on the given coordinates. All ships are placed horizontally with
+     * their front on the left side.
+     * @param x The X coordinate of the ship part.
+     * @param y The Y coordinate of the ship part.
+     * @return The X coordinates of the first and last part of the ship, or null if the field is water.
+     * @pre x >= 0 && x < width, y >= 0 && y < height, board != null
+     */
+    private int[] findShip(int x, int y) {
+        int field = y * board.length + x;
+        if (shipLength[field] == 0) {
+            return null;
+        }
+        return new int[] {shipFront[field], shipFront[field] + shipLength[field] - 1};
+    }
 
-        } else if (fieldName.startsWith("BATTLESHIP")) { // If the field is battleship
-
-            if (fieldName.endsWith("FRONT_HIT")) {
-                x1 = x;
-                x2 = x+3;
-            } else if (fieldName.endsWith("FRONT_MID_HIT")) {
-                x1 = x-1;
-                x2 = x+2;
-            } else if (fieldName.endsWith("BACK_MID_HIT")) {
-                x1 = x-2;
-                x2 = x+1;
-            } else {
-                x1 = x-3;
-                x2 = x;
-            }
+    /**
+     * Writes the state of the board as the shot, hit and sunk masks in hexadecimal, separated by the protocol delimiter.
+     * Each hexadecimal digit holds four fields, the lowest bit being the first field.
+     * @param message The message to append the masks to.
+     * @pre message != null
+     * @post ensures that the three masks are appended to the message
+     */
+    public void appendState(StringBuilder message) {
+        appendMask(message, shotMask);
+        message.append(';');
+        appendMask(message, hitMask);
+        message.append(';');
+        appendMask(message, sunkMask);
+    }
 
-        } else if (fieldName.startsWith("CARRIER")) { // If the field is carrier
-
-            if (fieldName.endsWith("FRONT_HIT")) {
-                x1 = x;
-                x2 = x+4;
-            } else if (fieldName.endsWith("FRONT_MID_HIT")) {
-                x1 = x-1;
-                x2 = x+3;
-            } else if (fieldName.endsWith("BACK_MID_HIT")) {
-                x1 = x-3;
-                x2 = x+1;
-            } else if (fieldName.endsWith("MID_HIT")) {
-                x1 = x-2;
-                x2 = x+2;
-            } else {
-                x1 = x-4;
-                x2 = x;
+    /**
+     * Writes the fields that changed after the given version, separated by commas. Each field is written in base 36 as
+     * its index times four, plus one if it hit a ship, plus two if it is part of a sunk ship. A field that changed is always shot at.
+     * @param message The message to append the changes to.
+     * @param sinceVersion The last version the client knows about.
+     * @pre message != null, sinceVersion >= 0
+     * @post ensures that every field changed after sinceVersion is appended to the message
+     */
+    public void appendChanges(StringBuilder message, int sinceVersion) {
+        boolean first = true;
+        for (int field = 0; field < changedAt.length; field++) {
+            if (changedAt[field] > sinceVersion) {
+                if (!first) {
+                    message.append(',');
+                }
+                int value = field << 2;
+                if ((hitMask[field >> 6] & 1L << field) != 0) {
+                    value |= 1;
+                }
+                if ((sunkMask[field >> 6] & 1L << field) != 0) {
+                    value |= 2;
+                }
+                message.append(Integer.toString(value, 36));
+                first = false;
             }
-
-        } else { // If the field is water
-            return false;
         }
+    }
 
-        // The loop that iterates from start of the ship to the end to check whether all parts of it are hit.
-        for (int i = x1; i <= x2; i++) {
-            if (!board[i][y].endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION)) {
-                hasSunk = false;
-            }
-
+    /**
+     * Writes a mask as hexadecimal digits, four fields per digit.
+     */
+    private void appendMask(StringBuilder message, long[] mask) {
+        for (int field = 0; field < changedAt.length; field += 4) {
+            message.append(HEX_DIGITS[(int) (mask[field >> 6] >>> (field & 63)) & 0xF]);
         }
-        
-        return hasSunk;
     }
 
     /**
@@ -0,0 +1,177 @@
+package game;
+
+// External imports
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the game boards of games that have ended, so that new games reset them in place instead of allocating new ones. Every
+ * thread first uses a small cache of its own, which needs no synchronization, and shares what doesn't fit in it through a pool
+ * that all threads use. The pool is bounded, boards that don't fit are left to the garbage collector, so the pool never holds
+ * more than its capacity however many games end at once. The shared pool has a queue for every board size, so that a board of
+ * the right size is claimed with a single poll, which no two threads can win for the same board.
+ * <p>
+ * A board may only be released once nothing uses it anymore, after which it may be handed to another game at any time.
+ * @inv capacity >= 0, threadCacheSize >= 0, free != null, freeCount >= 0 && freeCount <= capacity
+ */
+public class GameBoardPool {
+    // The most boards the shared pool holds if no other capacity is set with the system property
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // The most boards every thread keeps for itself
+    public static final int DEFAULT_THREAD_CACHE_SIZE = 4;
+
+    // The system property that sets the capacity of the shared pool, 0 to turn pooling off
+    public static final String CAPACITY_PROPERTY = "battleship.boardPoolCapacity";
+
+    // The pool the games of this process use
+    private static final GameBoardPool SHARED = new GameBoardPool(
+        Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY), DEFAULT_THREAD_CACHE_SIZE);
+
+    // The most boards the shared part of the pool holds
+    private int capacity;
+
+    // The most boards every thread keeps for itself
+    private int threadCacheSize;
+
+    // The boards every thread keeps for itself
+    private ThreadLocal<ArrayDeque<GameBoard>> threadCache = ThreadLocal.withInitial(ArrayDeque::new);
+
+    // The boards all threads share by their size, see sizeKey, and how many there are of all sizes
+    private Map<Integer, Queue<GameBoard>> free = new ConcurrentHashMap<>();
+    private AtomicInteger freeCount = new AtomicInteger();
+
+    // The boards that were created, reused and dropped because the pool was full
+    private LongAdder created = new LongAdder();
+    private LongAdder reused = new LongAdder();
+    private LongAdder dropped = new LongAdder();
+
+    /**
+     * Creates an empty pool.
+     * @param capacity The most boards the shared part of the pool holds, 0 to keep none.
+     * @param threadCacheSize The most boards every thread keeps for itself, 0 to keep none.
+     * @pre capacity >= 0, threadCacheSize >= 0
+     * @post ensures that the pool holds no boards
+     */
+    public GameBoardPool(int capacity, int threadCacheSize) {
+        this.capacity = capacity;
+        this.threadCacheSize = capacity == 0 ? 0 : threadCacheSize;
+    }
+
+    /**
+     * Getter for the pool the games of this process use.
+     * @return The shared pool.
+     */
+    public static GameBoardPool getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Gives a board decoded from an encoded board, reusing a board of the same size if the pool has one.
+     * @param encodedBoard The encoded game board sent in by the client.
+     * @param rules The rules of the game, which decide the size of the board.
+     * @return The board, on which no field has been shot at.
+     * @pre encodedBoard != null, rules != null
+     * @post ensures that the returned board is decoded from encodedBoard and used by nobody else
+     */
+    public GameBoard acquire(String encodedBoard, RuleProfile rules) {
+        GameBoard board = take(threadCache.get().iterator(), rules);
+        if (board == null) {
+            Queue<GameBoard> shared = free.get(sizeKey(rules.getWidth(), rules.getHeight()));
+            board = shared == null ? null : shared.poll();
+            if (board != null) {
+                freeCount.decrementAndGet();
+            }
+        }
+
+        if (board == null) {
+            created.increment();
+            return new GameBoard(encodedBoard, rules);
+        }
+        reused.increment();
+        board.reset(encodedBoard);
+        return board;
+    }
+
+    /**
+     * Takes the first board of the size of the rules out of the boards of a thread cache, which only its own thread uses.
+     * @return The board, or null if there is none of that size.
+     */
+    private static GameBoard take(Iterator<GameBoard> boards, RuleProfile rules) {
+        while (boards.hasNext()) {
+            GameBoard board = boards.next();
+            if (board.fits(rules)) {
+                boards.remove();
+                return board;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gives back a board that nothing uses anymore. It is kept by the thread if its cache has room, otherwise by the shared pool
+     * if it isn't full, otherwise it is dropped.
+     * @param board The board.
+     * @pre board != null, nothing uses the board anymore
+     * @post ensures that the board is kept for reuse unless the pool is full
+     */
+    public void release(GameBoard board) {
+        ArrayDeque<GameBoard> cache = threadCache.get();
+        if (cache.size() < threadCacheSize) {
+            cache.push(board);
+        } else if (freeCount.incrementAndGet() <= capacity) {
+            String[][] fields = board.getBoard();
+            free.computeIfAbsent(sizeKey(fields.length, fields[0].length), key -> new ConcurrentLinkedQueue<>()).add(board);
+        } else {
+            freeCount.decrementAndGet();
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Gives the key of the queue of the shared boards of a size. Widths and heights are at most {@link
+     * constants.GameConstants#MAX_BOARD_SIZE}, so they fit in 16 bits each.
+     */
+    private static Integer sizeKey(int width, int height) {
+        return (width << 16) | height;
+    }
+
+    /**
+     * Getter for the number of boards that had to be created because the pool had none to reuse.
+     * @return The number of boards.
+     */
+    public long getCreated() {
+        return created.sum();
+    }
+
+    /**
+     * Getter for the number of boards that were reset and reused.
+     * @return The number of boards.
+     */
+    public long getReused() {
+        return reused.sum();
+    }
+
+    /**
+     * Getter for the number of boards that were given back while the pool was full.
+     * @return The number of boards.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Describes how well the pool works.
+     * @return The number of boards created, reused and dropped.
+     */
+    @Override
+    public String toString() {
+        return getCreated() + " created, " + getReused() + " reused, " + getDropped() + " dropped because the pool was full";
+    }
+}
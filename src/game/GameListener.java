@@ -0,0 +1,22 @@
+package game;
+
+/**
+ * Interface that must be implemented by classes that want to be informed about the result of a game,
+ * for example to keep player statistics.
+ */
+public interface GameListener {
+
+    /**
+     * Called once when both players have submitted their boards and the game starts. Does nothing unless overridden.
+     * @param game The game that has started.
+     */
+    public default void gameStarted(Game game) {
+    }
+
+    /**
+     * Called once when a game that has started ends. The result, the players and their shots can be read from the game.
+     * This is called from the thread that ended the game while it holds the game's lock, so it should return quickly.
+     * @param game The game that has ended.
+     */
+    public void gameEnded(Game game);
+}
@@ -0,0 +1,374 @@
+package game;
+
+// External imports
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is a compact recording of a single game. It stores the rules, both players' names, both encoded boards as they were
+ * submitted, every move in the order it was made and the result of the game. A move is packed into a single short: 7 bits for x,
+ * 7 bits for y, 1 bit for which player made it and 1 bit for whether it was a late move. When the game ends the
+ * {@link ReplayArchive} writes the recording to a gzipped file in the background so that the game threads are not slowed down
+ * by disk IO.
+ * @inv rules != null, playerNames != null, encodedBoards != null, moves != null, moveCount >= 0
+ */
+public class GameRecording {
+    // Identifies a replay file and the version of its format. Version 1 didn't store the rules, its games are classic games.
+    // Version 2 didn't store the random seed.
+    private static final int MAGIC = 0x42535250; // "BSRP"
+    private static final int VERSION = 3;
+
+    // Largest coordinate that fits in a packed move
+    public static final int MAX_COORDINATE = 127;
+
+    // File extension of saved recordings
+    public static final String FILE_EXTENSION = ".replay";
+
+    // The id of the recorded game
+    private int gameId;
+
+    // The rules the game was played with
+    private RuleProfile rules;
+
+    // When the game started in milliseconds since epoch
+    private long startTime;
+
+    // Player names and their encoded boards. Index 0 is player 1 and index 1 is player 2.
+    private String[] playerNames;
+    private String[] encodedBoards;
+
+    // The packed moves and how many of them have been recorded
+    private short[] moves;
+    private int moveCount;
+
+    // The result of the game. Winner is an empty string for a tie and null if the game has not ended.
+    private String winnerName;
+    private boolean winType;
+
+    // The seed of the random generator of the game, null if the game can't be reproduced
+    private Long seed;
+
+    /**
+     * Creates an empty recording for a game with the classic rules.
+     * @param gameId The id of the recorded game.
+     * @pre gameId >= 0
+     * @post ensures that an empty recording is created for the given game
+     */
+    public GameRecording(int gameId) {
+        this(gameId, RuleProfile.CLASSIC);
+    }
+
+    /**
+     * Creates an empty recording for a game.
+     * @param gameId The id of the recorded game.
+     * @param rules The rules the game is played with.
+     * @pre gameId >= 0, rules != null
+     * @post ensures that an empty recording is created for the given game
+     */
+    public GameRecording(int gameId, RuleProfile rules) {
+        this.gameId = gameId;
+        this.rules = rules;
+        this.startTime = System.currentTimeMillis();
+        playerNames = new String[2];
+        encodedBoards = new String[2];
+        moves = new short[64];
+        moveCount = 0;
+    }
+
+    /**
+     * Records the name of one of the players.
+     * @param player 0 for player 1 and 1 for player 2.
+     * @param name The name of the player.
+     * @pre player == 0 || player == 1, name != null
+     * @post ensures that the name is recorded for the given player
+     */
+    public void setPlayerName(int player, String name) {
+        playerNames[player] = name;
+    }
+
+    /**
+     * Records the encoded board of one of the players as it was submitted.
+     * @param player 0 for player 1 and 1 for player 2.
+     * @param encodedBoard The encoded board.
+     * @pre player == 0 || player == 1, encodedBoard != null
+     * @post ensures that the board is recorded for the given player
+     */
+    public void setBoard(int player, String encodedBoard) {
+        encodedBoards[player] = encodedBoard;
+    }
+
+    /**
+     * Records the seed of the random generator of the game, from which {@link RandomService#replaying(long)} plays it again.
+     * @param seed The seed.
+     * @post ensures that the seed is recorded
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Records a move made by one of the players.
+     * @param player 0 for player 1 and 1 for player 2.
+     * @param x The X coordinate of the move.
+     * @param y The Y coordinate of the move.
+     * @param isLate Whether the move was made by the move timer.
+     * @throws IllegalArgumentException if the player or a coordinate doesn't fit in a packed move, nothing is recorded then.
+     * @pre player == 0 || player == 1, x >= 0 && x <= MAX_COORDINATE, y >= 0 && y <= MAX_COORDINATE
+     * @post ensures that the move is appended to the recording
+     */
+    public void addMove(int player, int x, int y, boolean isLate) {
+        if (player < 0 || player > 1 || x < 0 || x > MAX_COORDINATE || y < 0 || y > MAX_COORDINATE) {
+            throw new IllegalArgumentException("Move can't be recorded: player " + player + " at " + x + ", " + y);
+        }
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[moveCount++] = (short) (x | (y << 7) | (player << 14) | ((isLate ? 1 : 0) << 15));
+    }
+
+    /**
+     * Records the result of the game.
+     * @param winnerName The name of the winner or an empty string if it was a tie.
+     * @param winType True if the game ended normally, false if one of the players quit.
+     * @pre winnerName != null
+     * @post ensures that the result is recorded
+     */
+    public void setResult(String winnerName, boolean winType) {
+        this.winnerName = winnerName;
+        this.winType = winType;
+    }
+
+    /**
+     * Writes this recording to the given directory.
+     * @param directory The directory to save the recording in. It is created if it doesn't exist.
+     * @return The file the recording was written to.
+     * @throws IOException if the recording can't be written.
+     * @pre directory != null
+     * @post ensures that the recording is written to a file in the directory
+     */
+    public File save(File directory) throws IOException {
+        directory.mkdirs();
+        File file = new File(directory, "game-" + gameId + "-" + startTime + FILE_EXTENSION);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(gameId);
+            out.writeLong(startTime);
+            writeString(out, rules.describe());
+            writeString(out, playerNames[0]);
+            writeString(out, playerNames[1]);
+            writeString(out, encodedBoards[0]);
+            writeString(out, encodedBoards[1]);
+            writeString(out, winnerName);
+            out.writeBoolean(winType);
+            out.writeBoolean(seed != null);
+            out.writeLong(seed != null ? seed : 0);
+            out.writeInt(moveCount);
+            for (int i = 0; i < moveCount; i++) {
+                out.writeShort(moves[i]);
+            }
+        }
+
+        return file;
+    }
+
+    /**
+     * Reads a recording that was written by {@link #save(File)}.
+     * @param file The file to read.
+     * @return The recording.
+     * @throws IOException if the file can't be read or is not a recording.
+     * @pre file != null
+     * @post ensures that the recording stored in the file is returned
+     */
+    public static GameRecording load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            int version = in.readInt() == MAGIC ? in.readByte() : -1;
+            if (version < 1 || version > VERSION) {
+                throw new IOException(file.getName() + " is not a game recording.");
+            }
+
+            GameRecording recording = new GameRecording(in.readInt());
+            recording.startTime = in.readLong();
+            if (version >= 2) {
+                try {
+                    recording.rules = RuleProfile.parse(readString(in));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file.getName() + " has invalid rules: " + e.getMessage());
+                }
+            }
+            recording.playerNames[0] = readString(in);
+            recording.playerNames[1] = readString(in);
+            recording.encodedBoards[0] = readString(in);
+            recording.encodedBoards[1] = readString(in);
+            recording.winnerName = readString(in);
+            recording.winType = in.readBoolean();
+            if (version >= 3) {
+                boolean hasSeed = in.readBoolean();
+                long seed = in.readLong();
+                recording.seed = hasSeed ? seed : null;
+            }
+
+            int moveCount = in.readInt();
+            recording.moves = new short[Math.max(moveCount, 1)];
+            for (int i = 0; i < moveCount; i++) {
+                recording.moves[i] = in.readShort();
+            }
+            recording.moveCount = moveCount;
+
+            return recording;
+        }
+    }
+
+    /**
+     * Writes a possibly null string as its length followed by its UTF-8 bytes. The length is -1 for null.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Getter for the id of the recorded game.
+     * @return The game id.
+     */
+    public int getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Getter for the rules the recorded game was played with.
+     * @return The rule profile.
+     */
+    public RuleProfile getRules() {
+        return rules;
+    }
+
+    /**
+     * Getter for when the recorded game started.
+     * @return The start time in milliseconds since epoch.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Getter for a player's name.
+     * @param player 0 for player 1 and 1 for player 2.
+     * @return The name of the player.
+     * @pre player == 0 || player == 1
+     */
+    public String getPlayerName(int player) {
+        return playerNames[player];
+    }
+
+    /**
+     * Getter for a player's encoded board.
+     * @param player 0 for player 1 and 1 for player 2.
+     * @return The encoded board of the player.
+     * @pre player == 0 || player == 1
+     */
+    public String getBoard(int player) {
+        return encodedBoards[player];
+    }
+
+    /**
+     * Getter for the name of the winner.
+     * @return The winner's name, an empty string for a tie or null if no result was recorded.
+     */
+    public String getWinnerName() {
+        return winnerName;
+    }
+
+    /**
+     * Getter for the type of win.
+     * @return True if the game ended normally, false if one of the players quit.
+     */
+    public boolean getWinType() {
+        return winType;
+    }
+
+    /**
+     * Getter for the seed of the random generator of the game.
+     * @return The seed, or null if the game was played with generators that can't be reproduced.
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Getter for the number of recorded moves.
+     * @return The number of moves.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Getter for the X coordinate of a recorded move.
+     * @param index The index of the move.
+     * @return The X coordinate.
+     * @pre index >= 0 && index < moveCount
+     */
+    public int getMoveX(int index) {
+        return moves[index] & 0x7F;
+    }
+
+    /**
+     * Getter for the Y coordinate of a recorded move.
+     * @param index The index of the move.
+     * @return The Y coordinate.
+     * @pre index >= 0 && index < moveCount
+     */
+    public int getMoveY(int index) {
+        return (moves[index] >> 7) & 0x7F;
+    }
+
+    /**
+     * Getter for which player made a recorded move.
+     * @param index The index of the move.
+     * @return 0 for player 1 and 1 for player 2.
+     * @pre index >= 0 && index < moveCount
+     */
+    public int getMovePlayer(int index) {
+        return (moves[index] >> 14) & 1;
+    }
+
+    /**
+     * Getter for whether a recorded move was late.
+     * @param index The index of the move.
+     * @return Whether the move was made by the move timer.
+     * @pre index >= 0 && index < moveCount
+     */
+    public boolean isMoveLate(int index) {
+        return ((moves[index] >> 15) & 1) == 1;
+    }
+}
@@ -0,0 +1,46 @@
+package game;
+
+// External imports
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The clock and timers of games: when a game starts and ends, the time limit of a game and the turn timeout of every move. The
+ * server uses {@link #system()}, the wall clock with a pool of timer threads shared by all games. Tests and simulations use a
+ * {@link VirtualScheduler}, whose time only moves when it is told to, so that timeouts happen right away and in a known order.
+ */
+public interface GameScheduler {
+
+    /**
+     * Gives the current time of this scheduler.
+     * @return The time in milliseconds, since epoch for the wall clock.
+     */
+    public long currentTimeMillis();
+
+    /**
+     * Runs a task once a delay has passed on the clock of this scheduler.
+     * @param task The task.
+     * @param delay The delay, 0 to run it as soon as possible but not on the calling thread within this call.
+     * @param unit The unit of the delay.
+     * @return The future with which the task can be cancelled.
+     * @pre task != null, delay >= 0, unit != null
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit);
+
+    /**
+     * Runs a task as soon as possible, but not on the calling thread within this call.
+     * @param task The task.
+     * @pre task != null
+     */
+    public default void execute(Runnable task) {
+        schedule(task, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gives the scheduler of the server.
+     * @return The scheduler with the wall clock and the shared timer threads.
+     */
+    public static GameScheduler system() {
+        return SystemScheduler.INSTANCE;
+    }
+}
@@ -0,0 +1,74 @@
+package game;
+
+/**
+ * Interface that must be implemented by a player that takes part in a game. The game informs its players about what is going on
+ * through these methods, and a player makes its moves with {@link Game#makeMove(int, int, boolean)}. A player is either a client
+ * connected to the server or a bot running on the server.
+ */
+public interface Player {
+
+    /**
+     * Getter for the player's name, which is unique within a game.
+     * @return The name of the player.
+     */
+    public String getName();
+
+    /**
+     * Used by the game to find out whether the player has left without telling the game.
+     * @return Whether the player is still connected.
+     */
+    public boolean isConnected();
+
+    /**
+     * Used to tell bots apart from people, for example to keep bots off the leaderboard.
+     * @return Whether the player is a bot run by the server. False unless overridden.
+     */
+    public default boolean isBot() {
+        return false;
+    }
+
+    /**
+     * Tells a player that is waiting for an opponent that the server is shutting down and that it should reconnect, which takes
+     * it to the next instance of the server. Does nothing unless overridden, since bots never wait for an opponent.
+     */
+    public default void reconnect() {
+    }
+
+    /**
+     * Informs the player of the name of the opponent once both players have joined.
+     * @param playerName The name of the opponent.
+     */
+    public void enemyName(String playerName);
+
+    /**
+     * Informs the player that the game has started and who makes the first move.
+     * @param playerName The name of the player that makes the first move.
+     */
+    public void gameSetup(String playerName);
+
+    /**
+     * Called by the game when it is this player's move. The player is expected to call {@link Game#makeMove(int, int, boolean)}
+     * later, and never from within this method since the game is still in the middle of the previous move and hasn't sent
+     * its update yet.
+     */
+    public void makeMove();
+
+    /**
+     * Informs the player about a move made by either player.
+     * @param x The X coordinate of the move.
+     * @param y The Y coordinate of the move.
+     * @param isHit Whether a ship was hit.
+     * @param isSunk Whether the hit sank the ship.
+     * @param isLate Whether the move was late, in which case it didn't change the board.
+     * @param lastPlayerName The name of the player that made the move.
+     * @param nextPlayerName The name of the player that makes the next move.
+     */
+    public void update(int x, int y, boolean isHit, boolean isSunk, boolean isLate, String lastPlayerName, String nextPlayerName);
+
+    /**
+     * Informs the player that the game is over.
+     * @param playerName The name of the winner or an empty string for a tie.
+     * @param winType True if the game ended normally, false if a player quit.
+     */
+    public void gameOver(String playerName, boolean winType);
+}
@@ -0,0 +1,53 @@
+package game;
+
+// External imports
+import java.util.Random;
+
+/**
+ * Decides where the random decisions of games come from: who moves first, and the boards and shots of the bots in a game. Every
+ * game gets its generator from the service when it is created, and everything in the game that needs randomness splits its own
+ * generator off that one with {@link Game#splitRandom()}.
+ * <p>
+ * The server uses {@link #fast()}, which draws from {@link java.util.concurrent.ThreadLocalRandom} and costs neither an object
+ * per game nor contention between threads. Simulations, tests and replays use {@link SeededRandomService}, whose games are fully
+ * determined by a seed: the seed of every game is stored in its recording, and {@link #replaying(long)} plays the same game again
+ * from it.
+ */
+public interface RandomService {
+
+    /**
+     * Gives the generator of a new game.
+     * @param gameId The id of the game.
+     * @return The generator, which may be used by several threads.
+     * @post ensures that the same game id gives the same sequence if the service is deterministic
+     */
+    public Random forGame(int gameId);
+
+    /**
+     * Gives a generator for a part of a game, such as a bot, derived from the generator of the game. Generators that are split
+     * off in the same order from generators with the same seed give the same sequences.
+     * @param parent The generator of the game, given by {@link #forGame(int)}.
+     * @return The new generator, or the parent itself if it isn't seeded.
+     * @pre parent != null
+     */
+    public default Random split(Random parent) {
+        return parent instanceof SeededRandom ? ((SeededRandom) parent).split() : parent;
+    }
+
+    /**
+     * Gives the service the server uses, whose generators can't be reproduced.
+     * @return The service that draws from the random generator of the current thread.
+     */
+    public static RandomService fast() {
+        return ThreadLocalRandomService.INSTANCE;
+    }
+
+    /**
+     * Gives a service whose only game is the one that was played with the given seed, to play it again.
+     * @param gameSeed The seed of the game, as stored in its recording.
+     * @return A service that gives every game a generator with the seed.
+     */
+    public static RandomService replaying(long gameSeed) {
+        return gameId -> new SeededRandom(gameSeed);
+    }
+}
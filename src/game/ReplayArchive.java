@@ -0,0 +1,159 @@
+package game;
+
+// External imports
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import constants.GameConstants;
+import tui.GameServerTUI;
+
+/**
+ * This class is the directory in which the recordings of finished games are kept for replays. So that the directory doesn't
+ * grow for as long as the server runs, recordings older than the maximum age are deleted, and then the oldest ones until no
+ * more than the maximum number are left, every time a recording is added. Games hand their recordings to a background writer
+ * thread of the archive, which the server flushes when it shuts down so that the recordings of the games it ends aren't lost.
+ * @inv directory != null, maxFiles > 0, maxAgeMillis > 0, writer != null
+ */
+public class ReplayArchive {
+    // The system properties with the replay directory, empty to not record games, the most recordings and their maximum age
+    public static final String DIRECTORY_PROPERTY = "battleship.replayDirectory";
+    public static final String MAX_FILES_PROPERTY = "battleship.replayMaxFiles";
+    public static final String MAX_AGE_PROPERTY = "battleship.replayMaxAgeDays";
+
+    // The most recordings that are kept and how many days they are kept unless the properties are set
+    public static final int DEFAULT_MAX_FILES = 1000;
+    public static final int DEFAULT_MAX_AGE_DAYS = 30;
+
+    // The directory the recordings are written to
+    private File directory;
+
+    // The most recordings that are kept in the directory
+    private int maxFiles;
+
+    // How long a recording is kept in milliseconds
+    private long maxAgeMillis;
+
+    // The thread the recordings handed over by games are written on, so that the games don't wait for the disk
+    private ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ReplayArchiveWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates an archive in the given directory, which is created when the first recording is added.
+     * @param directory The directory of the recordings.
+     * @param maxFiles The most recordings that are kept.
+     * @param maxAgeMillis How long a recording is kept in milliseconds.
+     * @pre directory != null, maxFiles > 0, maxAgeMillis > 0
+     * @post ensures that directory, maxFiles and maxAgeMillis are initialised
+     */
+    public ReplayArchive(File directory, int maxFiles, long maxAgeMillis) {
+        this.directory = directory;
+        this.maxFiles = maxFiles;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Creates the archive that is set with the system properties. Without them the recordings are kept in the replay directory
+     * of {@link GameConstants}, at most {@link #DEFAULT_MAX_FILES} and for {@link #DEFAULT_MAX_AGE_DAYS} days.
+     * @return The archive, or null if the replay directory property is empty and games are not recorded.
+     * @post ensures that the archive of the system properties is returned, or null if recordings are switched off
+     */
+    public static ReplayArchive fromProperties() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY, GameConstants.REPLAY_DIRECTORY).trim();
+        if (directory.isEmpty()) {
+            return null;
+        }
+        return new ReplayArchive(new File(directory), Math.max(1, Integer.getInteger(MAX_FILES_PROPERTY, DEFAULT_MAX_FILES)),
+            TimeUnit.DAYS.toMillis(Math.max(1, Integer.getInteger(MAX_AGE_PROPERTY, DEFAULT_MAX_AGE_DAYS))));
+    }
+
+    /**
+     * Getter for the directory of the recordings.
+     * @return The directory.
+     * @post ensures that the directory is returned
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes a recording to the directory and then deletes the recordings that are too old or too many.
+     * @param recording The recording.
+     * @return The file the recording was written to.
+     * @throws IOException if the recording can't be written.
+     * @pre recording != null
+     * @post ensures that the recording is written and that at most maxFiles recordings younger than maxAgeMillis are left
+     */
+    public synchronized File add(GameRecording recording) throws IOException {
+        File file = recording.save(directory);
+        prune(System.currentTimeMillis());
+        return file;
+    }
+
+    /**
+     * Adds a recording on the background writer thread. Once the archive has been flushed the recording is added on the calling
+     * thread instead.
+     * @param recording The recording.
+     * @param view The server's TUI used to report failures.
+     * @pre recording != null, view != null
+     * @post ensures that the recording is added and that the user is informed if writing it fails
+     */
+    public void addInBackground(GameRecording recording, GameServerTUI view) {
+        Runnable write = () -> {
+            try {
+                add(recording);
+            } catch (IOException e) {
+                view.showMessage("Game " + recording.getGameId() + ": could not save the game recording.");
+            }
+        };
+        try {
+            writer.execute(write);
+        } catch (RejectedExecutionException e) { // Flushed already
+            write.run();
+        }
+    }
+
+    /**
+     * Stops the background writer and waits until the recordings handed to it have been written.
+     * @param timeoutMillis How long to wait at most in milliseconds.
+     * @return True if every recording was written in time, false if some were still waiting.
+     * @throws InterruptedException if the calling thread is interrupted while it waits.
+     * @post ensures that no more recordings are written in the background
+     */
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        writer.shutdown();
+        return writer.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Deletes the recordings that were written longer than maxAgeMillis before the given time, and then the oldest recordings
+     * until at most maxFiles are left. Other files in the directory are left alone.
+     * @param now The current time in milliseconds since epoch.
+     * @return The number of recordings that were deleted.
+     * @post ensures that at most maxFiles recordings are left, none of them older than maxAgeMillis
+     */
+    public int prune(long now) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(GameRecording.FILE_EXTENSION));
+        if (files == null) {
+            return 0;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed()); // Newest first
+
+        int deleted = 0;
+        for (int i = 0; i < files.length; i++) {
+            if ((i >= maxFiles || now - files[i].lastModified() > maxAgeMillis) && files[i].delete()) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+}
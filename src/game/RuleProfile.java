@@ -0,0 +1,267 @@
+package game;
+
+// External imports
+import java.util.Arrays;
+
+// Internal imports
+import constants.GameConstants;
+import server.ProtocolMessages;
+
+/**
+ * The rules a game is played with: the size of the board, the fleet of every player, how long a player has for a move and
+ * how long the game lasts. A profile can't be changed after it is created, so games can share it.
+ * <p>
+ * The field types of a ship are those of {@link GameConstants#SHIP_FIELD_TYPES} for ships up to the length of a carrier, and
+ * {@code SHIP_<length>_<part>} for longer ships, see {@link #fieldType(int, int)}.
+ * @inv name != null, 1 <= width, height <= MAX_BOARD_SIZE, shipLengths != null, shipCounts != null, turnTimeout > 0, gameDuration > 0
+ */
+public class RuleProfile {
+    // Separates the ships in a description, and the length from the count of a ship
+    private static final String SHIP_SEPARATOR = ",";
+    private static final String COUNT_SEPARATOR = "x";
+
+    // The rules of the game as the clients know it
+    public static final RuleProfile CLASSIC = new RuleProfile(GameConstants.DEFAULT_RULE_PROFILE, GameConstants.BOARD_SIZE_X,
+        GameConstants.BOARD_SIZE_Y, GameConstants.SHIP_LENGTHS, GameConstants.SHIP_COUNTS, GameConstants.TURN_TIMEOUT, GameConstants.GAME_DURATION);
+
+    // The name by which the profile is chosen
+    private String name;
+
+    // The board dimensions
+    private int width;
+    private int height;
+
+    // The fleet: each ship of length shipLengths[i] appears shipCounts[i] times
+    private int[] shipLengths;
+    private int[] shipCounts;
+
+    // The number of fields covered by the fleet
+    private int shipFieldCount;
+
+    // How long a player has for a move and how long a game lasts in milliseconds
+    private long turnTimeout;
+    private long gameDuration;
+
+    /**
+     * Creates a rule profile.
+     * @param name The name by which the profile is chosen. It can't contain the protocol delimiter.
+     * @param width The width of the board.
+     * @param height The height of the board.
+     * @param shipLengths The lengths of the ships, each at most the width of the board.
+     * @param shipCounts How many ships of every length there are.
+     * @param turnTimeout How long a player has for a move in milliseconds.
+     * @param gameDuration How long a game lasts in milliseconds.
+     * @throws IllegalArgumentException If the rules are impossible, or if the fleet covers more than half of the board,
+     * since then a random board can't be found quickly.
+     * @pre name != null, shipLengths != null, shipCounts != null
+     * @post ensures that the profile has the given rules
+     */
+    public RuleProfile(String name, int width, int height, int[] shipLengths, int[] shipCounts, long turnTimeout, long gameDuration) {
+        if (name.isEmpty() || name.contains(";") || name.contains(".")) {
+            throw new IllegalArgumentException("The name of a rule profile can't be empty or contain ';' or '.': " + name);
+        }
+        if (width < 1 || width > GameConstants.MAX_BOARD_SIZE || height < 1 || height > GameConstants.MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException(name + ": the board must be between 1x1 and " + GameConstants.MAX_BOARD_SIZE + "x" +
+                GameConstants.MAX_BOARD_SIZE + " fields.");
+        }
+        if (shipLengths.length != shipCounts.length) {
+            throw new IllegalArgumentException(name + ": every ship length needs a count.");
+        }
+        if (turnTimeout <= 0 || gameDuration <= 0) {
+            throw new IllegalArgumentException(name + ": the turn timeout and game duration must be positive.");
+        }
+
+        for (int i = 0; i < shipLengths.length; i++) {
+            if (shipLengths[i] < 1 || shipLengths[i] > width || shipCounts[i] < 0) {
+                throw new IllegalArgumentException(name + ": ships must fit in a row of the board and their count can't be negative.");
+            }
+            shipFieldCount += shipLengths[i] * shipCounts[i];
+        }
+        if (shipFieldCount == 0 || shipFieldCount * 2 > width * height) {
+            throw new IllegalArgumentException(name + ": the fleet must cover at least one field and at most half of the board.");
+        }
+
+        this.name = name;
+        this.width = width;
+        this.height = height;
+        this.shipLengths = shipLengths.clone();
+        this.shipCounts = shipCounts.clone();
+        this.turnTimeout = turnTimeout;
+        this.gameDuration = gameDuration;
+    }
+
+    /**
+     * Gives the field type of a part of a ship, as it appears in an encoded board.
+     * @param length The length of the ship.
+     * @param part The part of the ship, 0 being its front.
+     * @return The field type, without the hit extension.
+     * @pre length >= 1, 0 <= part < length
+     */
+    public static String fieldType(int length, int part) {
+        if (length <= GameConstants.SHIP_FIELD_TYPES.length) {
+            return GameConstants.SHIP_FIELD_TYPES[length - 1][part];
+        }
+        return GameConstants.FIELD_TYPE_SHIP_PREFIX + length + "_" + part;
+    }
+
+    /**
+     * Describes the profile in one line that {@link #parse(String)} turns back into the profile, for example
+     * {@code classic;15;10;30000;300000;5x2,4x3,3x5,2x8,1x10}.
+     * @return The name, width, height, turn timeout, game duration and fleet, separated by the protocol delimiter.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder(name);
+        description.append(';').append(width).append(';').append(height).append(';').append(turnTimeout).append(';').append(gameDuration).append(';');
+        for (int i = 0; i < shipLengths.length; i++) {
+            if (i > 0) {
+                description.append(SHIP_SEPARATOR);
+            }
+            description.append(shipLengths[i]).append(COUNT_SEPARATOR).append(shipCounts[i]);
+        }
+        return description.toString();
+    }
+
+    /**
+     * Turns a description made by {@link #describe()} back into a profile.
+     * @param description The description.
+     * @return The profile.
+     * @throws IllegalArgumentException If the description is malformed or the rules are impossible.
+     * @pre description != null
+     */
+    public static RuleProfile parse(String description) {
+        String[] parts = description.split(";");
+        if (parts.length != 6) {
+            throw new IllegalArgumentException("Not a rule profile: " + description);
+        }
+        int[][] fleet = parseFleet(parts[0], parts[5]);
+        return new RuleProfile(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), fleet[0], fleet[1],
+            Long.parseLong(parts[3]), Long.parseLong(parts[4]));
+    }
+
+    /**
+     * Parses a fleet written as comma separated ships of the form {@code <length>x<count>}.
+     * @param name The name of the profile, for the error message.
+     * @param fleet The fleet.
+     * @return The lengths and the counts of the ships.
+     * @throws IllegalArgumentException If the fleet is malformed.
+     * @pre name != null, fleet != null
+     */
+    public static int[][] parseFleet(String name, String fleet) {
+        String[] ships = fleet.split(SHIP_SEPARATOR);
+        int[][] lengthsAndCounts = new int[2][ships.length];
+        for (int i = 0; i < ships.length; i++) {
+            String[] ship = ships[i].trim().split(COUNT_SEPARATOR);
+            if (ship.length != 2) {
+                throw new IllegalArgumentException(name + ": ships must be written as <length>" + COUNT_SEPARATOR + "<count>: " + ships[i]);
+            }
+            lengthsAndCounts[0][i] = Integer.parseInt(ship[0].trim());
+            lengthsAndCounts[1][i] = Integer.parseInt(ship[1].trim());
+        }
+        return lengthsAndCounts;
+    }
+
+    /**
+     * Getter for the name of the profile.
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for the width of the board.
+     * @return The number of columns.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Getter for the height of the board.
+     * @return The number of rows.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Getter for the number of fields of the board.
+     * @return The width times the height.
+     */
+    public int getFieldCount() {
+        return width * height;
+    }
+
+    /**
+     * Getter for the lengths of the ships in the fleet.
+     * @return A copy of the lengths, each of which appears the number of times at the same index of {@link #getShipCounts()}.
+     */
+    public int[] getShipLengths() {
+        return shipLengths.clone();
+    }
+
+    /**
+     * Getter for the number of ships of every length in the fleet.
+     * @return A copy of the counts.
+     */
+    public int[] getShipCounts() {
+        return shipCounts.clone();
+    }
+
+    /**
+     * Getter for the number of fields covered by the fleet.
+     * @return The sum of the lengths of all ships.
+     */
+    public int getShipFieldCount() {
+        return shipFieldCount;
+    }
+
+    /**
+     * Getter for the length of the longest ship.
+     * @return The longest length.
+     */
+    public int getLongestShip() {
+        return Arrays.stream(shipLengths).max().getAsInt();
+    }
+
+    /**
+     * Gives the length of the longest board message a client can send for these rules: the board command followed by every
+     * field with the longest field type of the fleet, hit or not, each after a delimiter. Used to bound how much the server
+     * reads before a message has to end.
+     * @return The length in characters, which are single bytes since field types are ASCII.
+     */
+    public int getMaxBoardMessageLength() {
+        int longestFieldType = GameConstants.FIELD_TYPE_WATER.length();
+        for (int length : shipLengths) {
+            for (int part = 0; part < length; part++) {
+                longestFieldType = Math.max(longestFieldType, fieldType(length, part).length());
+            }
+        }
+        longestFieldType += GameConstants.FIELD_TYPE_HIT_EXTENSION.length();
+        return ProtocolMessages.CLIENTBOARD.length() + getFieldCount() * (ProtocolMessages.DELIMITER.length() + longestFieldType);
+    }
+
+    /**
+     * Getter for how long a player has for a move.
+     * @return The time in milliseconds.
+     */
+    public long getTurnTimeout() {
+        return turnTimeout;
+    }
+
+    /**
+     * Getter for how long a game lasts.
+     * @return The time in milliseconds.
+     */
+    public long getGameDuration() {
+        return gameDuration;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return describe();
+    }
+}
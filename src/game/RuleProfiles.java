@@ -0,0 +1,154 @@
+package game;
+
+// External imports
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+// Internal imports
+import constants.GameConstants;
+
+/**
+ * The rule profiles the server offers, loaded once at startup. The classic profile is always offered.
+ * <p>
+ * Profiles are read from a properties file in which every key starts with the name of a profile:
+ * <pre>
+ * large.width=64
+ * large.height=64
+ * large.ships=8x4,6x6,5x10,3x20,2x30
+ * large.turnTimeout=30
+ * large.gameDuration=900
+ * default=classic
+ * </pre>
+ * Ships are written as {@code <length>x<count>} and times in seconds. Rules that are left out are those of the classic profile.
+ * The default profile is used for clients that don't choose one, which includes every client that only knows the classic game.
+ * @inv profiles != null, defaultProfile != null
+ */
+public class RuleProfiles {
+    // The key that names the default profile
+    public static final String DEFAULT_KEY = "default";
+
+    // The profiles by name, in the order they were added
+    private Map<String, RuleProfile> profiles;
+
+    // The profile for clients that don't choose one
+    private RuleProfile defaultProfile;
+
+    /**
+     * Creates a registry with only the classic profile, which is also the default.
+     * @post ensures that the classic profile is offered and is the default
+     */
+    public RuleProfiles() {
+        profiles = new LinkedHashMap<>();
+        add(RuleProfile.CLASSIC);
+        defaultProfile = RuleProfile.CLASSIC;
+    }
+
+    /**
+     * Loads the profiles in a file, in addition to the classic profile.
+     * @param file The properties file.
+     * @return The profiles, or only the classic profile if the file doesn't exist.
+     * @throws IOException If the file can't be read.
+     * @throws IllegalArgumentException If a profile in the file is malformed or impossible, or the default profile doesn't exist.
+     * @pre file != null
+     * @post ensures that every profile in the file is offered
+     */
+    public static RuleProfiles load(File file) throws IOException {
+        RuleProfiles ruleProfiles = new RuleProfiles();
+        if (!file.exists()) {
+            return ruleProfiles;
+        }
+
+        Properties properties = new Properties();
+        try (Reader reader = new FileReader(file)) {
+            properties.load(reader);
+        }
+
+        List<String> names = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            int dot = key.indexOf('.');
+            if (dot > 0 && !names.contains(key.substring(0, dot))) {
+                names.add(key.substring(0, dot));
+            }
+        }
+        names.sort(null); // Properties are unordered, this keeps the order of the profiles the same on every start
+
+        RuleProfile classic = RuleProfile.CLASSIC;
+        for (String name : names) {
+            try {
+                int[][] fleet = properties.containsKey(name + ".ships") ?
+                    RuleProfile.parseFleet(name, properties.getProperty(name + ".ships")) :
+                    new int[][] {classic.getShipLengths(), classic.getShipCounts()};
+
+                ruleProfiles.add(new RuleProfile(
+                    name,
+                    Integer.parseInt(properties.getProperty(name + ".width", String.valueOf(classic.getWidth())).trim()),
+                    Integer.parseInt(properties.getProperty(name + ".height", String.valueOf(classic.getHeight())).trim()),
+                    fleet[0],
+                    fleet[1],
+                    seconds(properties, name + ".turnTimeout", classic.getTurnTimeout()),
+                    seconds(properties, name + ".gameDuration", classic.getGameDuration())
+                ));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + ": rules must be whole numbers, " + e.getMessage());
+            }
+        }
+
+        String defaultName = properties.getProperty(DEFAULT_KEY, GameConstants.DEFAULT_RULE_PROFILE).trim();
+        if (ruleProfiles.get(defaultName) == null) {
+            throw new IllegalArgumentException("The default rule profile " + defaultName + " doesn't exist.");
+        }
+        ruleProfiles.defaultProfile = ruleProfiles.get(defaultName);
+        return ruleProfiles;
+    }
+
+    /**
+     * Reads a time in seconds and converts it to milliseconds.
+     */
+    private static long seconds(Properties properties, String key, long defaultMillis) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultMillis : Long.parseLong(value.trim()) * 1000;
+    }
+
+    /**
+     * Offers a profile, replacing a profile with the same name.
+     * @param profile The profile.
+     * @pre profile != null
+     * @post ensures that the profile can be found by its name
+     */
+    public void add(RuleProfile profile) {
+        profiles.put(profile.getName(), profile);
+    }
+
+    /**
+     * Finds a profile by its name.
+     * @param name The name of the profile.
+     * @return The profile, or null if it isn't offered.
+     * @pre name != null
+     */
+    public RuleProfile get(String name) {
+        return profiles.get(name);
+    }
+
+    /**
+     * Getter for the profile of clients that don't choose one.
+     * @return The default profile.
+     */
+    public RuleProfile getDefault() {
+        return defaultProfile;
+    }
+
+    /**
+     * Getter for the names of the offered profiles.
+     * @return The names in the order the profiles were added.
+     */
+    public List<String> getNames() {
+        return new ArrayList<>(profiles.keySet());
+    }
+}
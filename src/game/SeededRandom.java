@@ -0,0 +1,75 @@
+package game;
+
+// External imports
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * A generator whose whole sequence is determined by its seed, which it remembers so that it can be recorded. It draws from a
+ * {@link SplittableRandom}, which is faster than the linear congruential generator of {@link Random} and has no weak low bits,
+ * and new generators for the parts of a game are split off it. It is synchronized, since a game and its players may use it
+ * from different threads, although never at the same time.
+ * @inv seed is the seed the generator was created with, generator != null
+ */
+public class SeededRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    // The seed the generator was created with
+    private final long seed;
+
+    // The generator that is drawn from
+    private final SplittableRandom generator;
+
+    /**
+     * Creates a generator.
+     * @param seed The seed, which determines every number it gives.
+     * @post ensures that getSeed() == seed
+     */
+    public SeededRandom(long seed) {
+        super(seed);
+        this.seed = seed;
+        generator = new SplittableRandom(seed);
+    }
+
+    /**
+     * Getter for the seed the generator was created with.
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Splits a new generator off this one, seeded with the next number of this one. Splitting in the same order from generators
+     * with the same seed gives generators with the same seeds.
+     * @return The new generator.
+     * @post ensures that this generator has moved on by one number
+     */
+    public synchronized SeededRandom split() {
+        return new SeededRandom(generator.nextLong());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Takes the highest bits of the next number of the splittable generator.
+     */
+    @Override
+    protected synchronized int next(int bits) {
+        return (int) (generator.nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public synchronized int nextInt(int bound) {
+        return generator.nextInt(bound);
+    }
+
+    @Override
+    public synchronized long nextLong() {
+        return generator.nextLong();
+    }
+
+    @Override
+    public synchronized double nextDouble() {
+        return generator.nextDouble();
+    }
+}
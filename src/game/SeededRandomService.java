@@ -0,0 +1,54 @@
+package game;
+
+// External imports
+import java.util.Random;
+
+/**
+ * A random service whose games are fully determined by one seed, for simulations and tests. The seed of every game is derived
+ * from the seed of the service and the id of the game, so a game gets the same generator however many games are played at the
+ * same time and in whatever order they are created.
+ * @inv seed is the seed the service was created with
+ */
+public class SeededRandomService implements RandomService {
+    // The seed from which the seed of every game is derived
+    private final long seed;
+
+    /**
+     * Creates a service.
+     * @param seed The seed from which the seed of every game is derived.
+     */
+    public SeededRandomService(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return A generator seeded with {@link #gameSeed(long, long)} of the game id.
+     */
+    @Override
+    public Random forGame(int gameId) {
+        return new SeededRandom(gameSeed(seed, gameId));
+    }
+
+    /**
+     * Derives the seed of a game from a seed and the number of the game, with the finalizer of SplitMix64 so that neighbouring
+     * games get unrelated seeds.
+     * @param seed The seed of all games.
+     * @param index The number of the game.
+     * @return The seed of the game.
+     */
+    public static long gameSeed(long seed, long index) {
+        long z = seed + (index + 1) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Getter for the seed from which the seed of every game is derived.
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,56 @@
+package game;
+
+// External imports
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scheduler of the server: the wall clock, and a pool of daemon timer threads, one per core, that all games and the move
+ * timers of all clients share, so that neither a game nor a move costs a thread of its own.
+ */
+public class SystemScheduler implements GameScheduler {
+    // The only instance, see GameScheduler.system()
+    static final SystemScheduler INSTANCE = new SystemScheduler();
+
+    // The threads that start games, end them when their time is up and make late moves
+    private static final ScheduledExecutorService TIMER = Executors.newScheduledThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        runnable -> {
+            Thread thread = new Thread(runnable, "GameTimer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
+    private SystemScheduler() {
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return The time from {@link System#currentTimeMillis()}.
+     */
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The task runs on one of the shared timer threads.
+     */
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return TIMER.schedule(task, delay, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The task runs on one of the shared timer threads.
+     */
+    @Override
+    public void execute(Runnable task) {
+        TIMER.execute(task);
+    }
+}
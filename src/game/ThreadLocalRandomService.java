@@ -0,0 +1,70 @@
+package game;
+
+// External imports
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The random service of the server. All games share one generator that draws from the {@link ThreadLocalRandom} of whichever
+ * thread uses it, so creating a game allocates nothing and threads never wait on each other's seed, unlike a {@link Random}
+ * whose seed every thread updates with compare-and-set. Its games can't be reproduced and their recordings store no seed.
+ */
+public class ThreadLocalRandomService implements RandomService {
+    // The only instance, see RandomService.fast()
+    static final ThreadLocalRandomService INSTANCE = new ThreadLocalRandomService();
+
+    // The generator shared by every game, which draws from the generator of the current thread
+    private static final Random SHARED = new Random() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected int next(int bits) {
+            return ThreadLocalRandom.current().nextInt() >>> (32 - bits);
+        }
+
+        @Override
+        public int nextInt() {
+            return ThreadLocalRandom.current().nextInt();
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return ThreadLocalRandom.current().nextInt(bound);
+        }
+
+        @Override
+        public long nextLong() {
+            return ThreadLocalRandom.current().nextLong();
+        }
+
+        @Override
+        public double nextDouble() {
+            return ThreadLocalRandom.current().nextDouble();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return ThreadLocalRandom.current().nextBoolean();
+        }
+    };
+
+    private ThreadLocalRandomService() {
+    }
+
+    /**
+     * Getter for the generator that every thread may use without creating its own.
+     * @return The generator that draws from the generator of the current thread.
+     */
+    public static Random shared() {
+        return SHARED;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return The shared generator, whatever the game.
+     */
+    @Override
+    public Random forGame(int gameId) {
+        return SHARED;
+    }
+}
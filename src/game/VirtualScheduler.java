@@ -0,0 +1,236 @@
+package game;
+
+// External imports
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scheduler with a virtual clock for tests and simulations. Time stands still until {@link #advance(long)} moves it on, and
+ * tasks never run by themselves: they run on the thread that advances the clock or calls {@link #runDue()}, in the order of
+ * their time and, for the same time, in the order they were scheduled. A turn timeout of 30 seconds or a game that runs out
+ * of time after 5 minutes thus takes no time at all, and a test decides exactly what happens before and after it.
+ * <p>
+ * Tasks may be scheduled from any thread. Tasks are run outside the lock of the scheduler, so a task may schedule more tasks.
+ * @inv now >= 0, tasks != null, sequence >= 0
+ */
+public class VirtualScheduler implements GameScheduler {
+    // The current time of the virtual clock in milliseconds
+    private long now;
+
+    // The tasks that haven't run or been cancelled, the first due first
+    private PriorityQueue<VirtualTask> tasks;
+
+    // The number of tasks that have been scheduled, which orders tasks that are due at the same time
+    private long sequence;
+
+    /**
+     * Creates a scheduler whose clock starts at 0.
+     * @post ensures that currentTimeMillis() == 0 and no task is pending
+     */
+    public VirtualScheduler() {
+        this(0);
+    }
+
+    /**
+     * Creates a scheduler whose clock starts at a given time.
+     * @param startMillis The time the clock starts at.
+     * @pre startMillis >= 0
+     * @post ensures that currentTimeMillis() == startMillis and no task is pending
+     */
+    public VirtualScheduler(long startMillis) {
+        now = startMillis;
+        tasks = new PriorityQueue<>();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return The time of the virtual clock.
+     */
+    @Override
+    public synchronized long currentTimeMillis() {
+        return now;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The task runs once the clock has been advanced by the delay.
+     */
+    @Override
+    public synchronized ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        VirtualTask scheduled = new VirtualTask(task, now + unit.toMillis(delay), sequence++);
+        tasks.add(scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Runs the tasks that are due at the current time, including those that they schedule without a delay.
+     * @return The number of tasks that ran.
+     * @post ensures that no task is due at the current time
+     */
+    public int runDue() {
+        int ran = 0;
+        VirtualTask task;
+        while ((task = takeDue(currentTimeMillis())) != null) {
+            task.run();
+            ran++;
+        }
+        return ran;
+    }
+
+    /**
+     * Moves the clock on, running every task that falls due on the way at its own time.
+     * @param millis How far to move the clock in milliseconds.
+     * @return The number of tasks that ran.
+     * @pre millis >= 0
+     * @post ensures that the clock has moved on by millis and no task is due
+     */
+    public int advance(long millis) {
+        long until;
+        synchronized (this) {
+            until = now + millis;
+        }
+        int ran = 0;
+        VirtualTask task;
+        while ((task = takeDue(until)) != null) {
+            task.run();
+            ran++;
+        }
+        synchronized (this) {
+            now = until;
+        }
+        return ran + runDue();
+    }
+
+    /**
+     * Moves the clock on to the next pending task and runs every task that is due then.
+     * @return The number of tasks that ran, 0 if no task is pending.
+     * @post ensures that the next pending task has run, if there was one
+     */
+    public int advanceToNext() {
+        synchronized (this) {
+            if (tasks.isEmpty()) {
+                return 0;
+            }
+            now = Math.max(now, tasks.peek().time);
+        }
+        return runDue();
+    }
+
+    /**
+     * Getter for the number of tasks that haven't run or been cancelled.
+     * @return The number of tasks.
+     */
+    public synchronized int getPendingTasks() {
+        return tasks.size();
+    }
+
+    /**
+     * Takes the first task that is due at a time, and moves the clock to the time of that task.
+     * @return The task, or null if none is due.
+     */
+    private synchronized VirtualTask takeDue(long until) {
+        VirtualTask task = tasks.peek();
+        if (task == null || task.time > until) {
+            return null;
+        }
+        tasks.poll();
+        now = Math.max(now, task.time);
+        return task;
+    }
+
+    /**
+     * Removes a cancelled task so that it isn't pending anymore.
+     */
+    private synchronized void remove(VirtualTask task) {
+        tasks.remove(task);
+    }
+
+    /**
+     * A task of the virtual scheduler, which is done once it has run or been cancelled.
+     */
+    private class VirtualTask implements ScheduledFuture<Object> {
+        private Runnable task;
+        private long time;
+        private long order;
+        private boolean cancelled;
+        private boolean done;
+
+        VirtualTask(Runnable task, long time, long order) {
+            this.task = task;
+            this.time = time;
+            this.order = order;
+        }
+
+        void run() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            task.run();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof VirtualTask) {
+                VirtualTask task = (VirtualTask) other;
+                return time != task.time ? Long.compare(time, task.time) : Long.compare(order, task.order);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            synchronized (this) {
+                if (done) {
+                    return false;
+                }
+                done = true;
+                cancelled = true;
+            }
+            remove(this);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public synchronized boolean isDone() {
+            return done;
+        }
+
+        /**
+         * Gives nothing once the task has run. Waiting for a virtual task would wait forever, since it only runs when the
+         * clock is advanced.
+         * @throws CancellationException if the task was cancelled.
+         * @throws IllegalStateException if the task hasn't run yet.
+         */
+        @Override
+        public synchronized Object get() {
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            if (!done) {
+                throw new IllegalStateException("A virtual task only runs when the clock is advanced.");
+            }
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            return get();
+        }
+    }
+}
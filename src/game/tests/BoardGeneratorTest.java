@@ -0,0 +1,137 @@
+package game.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Random;
+
+// Internal imports
+import constants.GameConstants;
+import game.BoardGenerator;
+import game.GameBoard;
+import game.RuleProfile;
+
+/**
+ * Tests that generated boards are legal, reproducible and uniformly random.
+ */
+public class BoardGeneratorTest {
+    private static final long SEED = 42;
+    private static final int BOARDS = 1000;
+
+    /**
+     * Tests that every generated board decodes to the fleet in {@link GameConstants}, with every ship complete and horizontal.
+     */
+    @Test
+    void testLegalFleet() {
+        BoardGenerator generator = new BoardGenerator(SEED);
+
+        for (int i = 0; i < BOARDS; i++) {
+            String[][] board = new GameBoard(generator.nextBoard()).getBoard();
+            int[] ships = new int[GameConstants.SHIP_FIELD_TYPES.length + 1];
+
+            for (int y = 0; y < GameConstants.BOARD_SIZE_Y; y++) {
+                int x = 0;
+                while (x < GameConstants.BOARD_SIZE_X) {
+                    if (board[x][y].equals(GameConstants.FIELD_TYPE_WATER)) {
+                        x++;
+                        continue;
+                    }
+
+                    // A ship starts here, its front tells its length
+                    int length = 1;
+                    while (!GameConstants.SHIP_FIELD_TYPES[length - 1][0].equals(board[x][y])) {
+                        length++;
+                    }
+                    for (int part = 0; part < length; part++) {
+                        assertEquals(GameConstants.SHIP_FIELD_TYPES[length - 1][part], board[x + part][y]);
+                    }
+                    ships[length]++;
+                    x += length;
+                }
+            }
+
+            for (int j = 0; j < GameConstants.SHIP_LENGTHS.length; j++) {
+                assertEquals(GameConstants.SHIP_COUNTS[j], ships[GameConstants.SHIP_LENGTHS[j]]);
+            }
+        }
+    }
+
+    /**
+     * Tests a 64x64 board with ships longer than a carrier: shooting at every field sinks every ship exactly once and only the
+     * last ship field destroys the fleet.
+     */
+    @Test
+    void testLargeBoard() {
+        RuleProfile large = new RuleProfile("large", 64, 64, new int[] {64, 7, 2}, new int[] {2, 50, 100}, 30000, 300000);
+        BoardGenerator generator = new BoardGenerator(new Random(SEED), large);
+
+        for (int i = 0; i < 10; i++) {
+            GameBoard board = new GameBoard(generator.nextBoard(), large);
+            int sunk = 0;
+            int hits = 0;
+            for (int y = 0; y < 64; y++) {
+                for (int x = 0; x < 64; x++) {
+                    boolean[] result = board.makeMove(x, y);
+                    hits += result[0] ? 1 : 0;
+                    sunk += result[1] ? 1 : 0;
+                    assertEquals(hits == large.getShipFieldCount(), result[2]);
+                }
+            }
+            assertEquals(152, sunk);
+            assertEquals(large.getShipFieldCount(), hits);
+        }
+    }
+
+    /**
+     * Tests that the same seed gives the same boards and another seed doesn't.
+     */
+    @Test
+    void testSeeded() {
+        BoardGenerator first = new BoardGenerator(SEED);
+        BoardGenerator second = new BoardGenerator(SEED);
+        BoardGenerator other = new BoardGenerator(SEED + 1);
+
+        String[] firstBoards = new String[10];
+        String[] secondBoards = new String[10];
+        for (int i = 0; i < 10; i++) {
+            firstBoards[i] = first.nextBoard();
+            secondBoards[i] = second.nextBoard();
+        }
+        assertArrayEquals(firstBoards, secondBoards);
+        assertNotEquals(firstBoards[0], other.nextBoard());
+    }
+
+    /**
+     * Tests that a single carrier is placed on each of its 110 possible positions equally often, with a chi-squared test.
+     * The critical value for 109 degrees of freedom at a significance of 0.1% is about 160.
+     */
+    @Test
+    void testUniformPlacement() {
+        int positions = (GameConstants.BOARD_SIZE_X - 4) * GameConstants.BOARD_SIZE_Y;
+        int perPosition = 1000;
+        RuleProfile carrier = new RuleProfile("carrier", 15, 10, new int[] {5}, new int[] {1}, 30000, 300000);
+        BoardGenerator generator = new BoardGenerator(new Random(SEED), carrier);
+        int[] counts = new int[GameConstants.BOARD_SIZE_X * GameConstants.BOARD_SIZE_Y];
+
+        for (int i = 0; i < positions * perPosition; i++) {
+            String[] fields = generator.nextBoard().split(";");
+            int field = 0;
+            while (!fields[field + 1].equals(GameConstants.FIELD_TYPE_CARRIER_FRONT)) {
+                field++;
+            }
+            assertTrue(field % GameConstants.BOARD_SIZE_X <= GameConstants.BOARD_SIZE_X - 5);
+            counts[field]++;
+        }
+
+        double chiSquared = 0;
+        for (int field = 0; field < counts.length; field++) {
+            if (field % GameConstants.BOARD_SIZE_X <= GameConstants.BOARD_SIZE_X - 5) { // A carrier can start here
+                chiSquared += (double) (counts[field] - perPosition) * (counts[field] - perPosition) / perPosition;
+            }
+        }
+        assertTrue(chiSquared < 160, "chi squared " + chiSquared);
+    }
+}
@@ -0,0 +1,142 @@
+package game.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Internal imports
+import game.BoardGenerator;
+import game.GameBoard;
+import game.GameBoardPool;
+import game.RuleProfile;
+
+/**
+ * Tests that the board pool reuses boards of the right size and never holds more than its capacity.
+ */
+public class GameBoardPoolTest {
+    private static final RuleProfile SMALL = new RuleProfile("small", 8, 8, new int[] {2}, new int[] {3}, 30000, 300000);
+
+    /**
+     * Tests that a released board is reset and handed out again, but only for rules of its size.
+     */
+    @Test
+    void testReuse() {
+        GameBoardPool pool = new GameBoardPool(4, 2);
+        BoardGenerator generator = new BoardGenerator(1);
+        GameBoard board = pool.acquire(generator.nextBoard(), RuleProfile.CLASSIC);
+        board.makeMove(0, 0);
+        pool.release(board);
+
+        GameBoard small = pool.acquire(new BoardGenerator(new Random(1), SMALL).nextBoard(), SMALL);
+        assertNotSame(board, small);
+
+        String encodedBoard = generator.nextBoard();
+        GameBoard reused = pool.acquire(encodedBoard, RuleProfile.CLASSIC);
+        assertSame(board, reused);
+        assertEquals(encodedBoard, reused.getEncodedBoard());
+        StringBuilder state = new StringBuilder();
+        reused.appendState(state);
+        StringBuilder fresh = new StringBuilder();
+        new GameBoard(encodedBoard).appendState(fresh);
+        assertEquals(fresh.toString(), state.toString());
+
+        assertEquals(2, pool.getCreated());
+        assertEquals(1, pool.getReused());
+    }
+
+    /**
+     * Tests that boards released beyond the thread cache go to the shared pool, where other threads find them, until it is full.
+     */
+    @Test
+    void testCapacity() throws InterruptedException {
+        GameBoardPool pool = new GameBoardPool(2, 1);
+        BoardGenerator generator = new BoardGenerator(1);
+        for (int i = 0; i < 4; i++) {
+            pool.release(new GameBoard(generator.nextBoard()));
+        }
+        assertEquals(1, pool.getDropped()); // One in the thread cache, two shared
+
+        AtomicReference<GameBoard> fromOtherThread = new AtomicReference<>();
+        Thread other = new Thread(() -> {
+            fromOtherThread.set(pool.acquire(generator.nextBoard(), RuleProfile.CLASSIC));
+            pool.acquire(generator.nextBoard(), RuleProfile.CLASSIC);
+            pool.acquire(generator.nextBoard(), RuleProfile.CLASSIC);
+        });
+        other.start();
+        other.join();
+        assertEquals(2, pool.getReused());
+        assertEquals(1, pool.getCreated());
+    }
+
+    /**
+     * Tests that threads acquiring at the same time from the shared pool never get the same board, so that no two games
+     * share one.
+     */
+    @Test
+    void testConcurrentAcquire() throws Exception {
+        int threads = 8;
+        GameBoardPool pool = new GameBoardPool(threads, 0); // No thread caches, so every board goes through the shared pool
+        BoardGenerator generator = new BoardGenerator(1);
+        String encodedBoard = generator.nextBoard();
+        List<GameBoard> boards = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            boards.add(new GameBoard(encodedBoard));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CyclicBarrier start = new CyclicBarrier(threads);
+            for (int round = 0; round < 500; round++) {
+                for (GameBoard board : boards) {
+                    pool.release(board);
+                }
+                List<Future<GameBoard>> acquired = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    acquired.add(executor.submit(() -> {
+                        start.await();
+                        return pool.acquire(encodedBoard, RuleProfile.CLASSIC);
+                    }));
+                }
+
+                Set<GameBoard> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+                boards.clear();
+                for (Future<GameBoard> board : acquired) {
+                    boards.add(board.get());
+                    distinct.add(board.get());
+                }
+                assertEquals(threads, distinct.size(), "round " + round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, pool.getCreated()); // Every board came from the pool, none was lost or handed out twice
+        assertEquals(0, pool.getDropped());
+    }
+
+    /**
+     * Tests that a pool without capacity keeps nothing.
+     */
+    @Test
+    void testDisabled() {
+        GameBoardPool pool = new GameBoardPool(0, 4);
+        BoardGenerator generator = new BoardGenerator(1);
+        GameBoard board = pool.acquire(generator.nextBoard(), RuleProfile.CLASSIC);
+        pool.release(board);
+        assertNotSame(board, pool.acquire(generator.nextBoard(), RuleProfile.CLASSIC));
+        assertEquals(1, pool.getDropped());
+        assertEquals(0, pool.getReused());
+    }
+}
@@ -1,6 +1,7 @@
 package game.tests;
 
 // External imports
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -199,4 +200,57 @@ public class GameBoardTest {
         }
         assertTrue(gameboard.allShipsDestroyed()); //assert that all ships on the board have been sunk
     } 
+
+    /**
+     * Test that the state and the changes since a version are encoded from the shot, hit and sunk masks
+     */
+    @Test
+    public void boardStateTest() {
+        gameboard.makeMove(0, 0, 1); // Water
+        gameboard.makeMove(7, 0, 2); // Front of a super patrol
+        gameboard.makeMove(8, 0, 3); // Back of the super patrol, which sinks it
+
+        String zeros = "00000000000000000000000000000000000";
+        StringBuilder state = new StringBuilder();
+        gameboard.appendState(state);
+        assertEquals("181" + zeros + ";081" + zeros + ";081" + zeros, state.toString());
+
+        // Field 7 changes again in version 3 because its ship sank, fields are written as index * 4 + hit + 2 * sunk in base 36
+        StringBuilder changes = new StringBuilder();
+        gameboard.appendChanges(changes, 2);
+        assertEquals("v,z", changes.toString());
+
+        changes = new StringBuilder();
+        gameboard.appendChanges(changes, 0);
+        assertEquals("0,v,z", changes.toString());
+
+        changes = new StringBuilder();
+        gameboard.appendChanges(changes, 3);
+        assertEquals("", changes.toString());
+    }
+
+    /**
+     * Test that a board reset in place with another encoded board is like a new board of it, sharing the field type constants
+     */
+    @Test
+    public void resetTest() {
+        gameboard.makeMove(7, 0, 1); // Front of a super patrol
+        gameboard.makeMove(8, 0, 2); // Back of the super patrol, which sinks it
+        String other = ENCODED_BOARD.replace("b;WATER;BATTLESHIP_FRONT", "b;PATROL;BATTLESHIP_FRONT");
+
+        gameboard.reset(other);
+        assertTrue(gameboard.getBoard() == board); // Reset in place
+        assertTrue(board[0][0] == GameConstants.FIELD_TYPE_PATROL);
+        assertTrue(board[7][0] == GameConstants.FIELD_TYPE_SUPER_PATROL_FRONT);
+        assertEquals(other, gameboard.getEncodedBoard());
+
+        StringBuilder state = new StringBuilder();
+        gameboard.appendState(state);
+        StringBuilder fresh = new StringBuilder();
+        new GameBoard(other).appendState(fresh);
+        assertEquals(fresh.toString(), state.toString()); // Nothing shot at
+
+        assertTrue(gameboard.makeMove(0, 0)[1]); // The new patrol sinks
+        assertTrue(board[0][0] == GameConstants.FIELD_TYPE_PATROL_HIT);
+    }
 }
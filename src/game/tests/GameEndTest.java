@@ -0,0 +1,106 @@
+package game.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Internal imports
+import bot.BotPlayer;
+import game.BoardGenerator;
+import game.Game;
+import game.GameListener;
+import game.RuleProfile;
+import server.Matchmaker;
+import tui.GameServerTUI;
+
+/**
+ * Tests that a game ends once, however many threads try to end it at the same time, and that it can't be started again.
+ */
+public class GameEndTest {
+    /**
+     * Tests that players quitting and the time limit running out at the same moment inform the listeners of one end only.
+     */
+    @RepeatedTest(20)
+    void testConcurrentEndsInformListenersOnce() throws InterruptedException {
+        AtomicInteger ends = new AtomicInteger();
+        Game game = startedGame(ends);
+
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String quitter = i % 2 == 0 ? "first" : "second";
+            boolean timeUp = i % 3 == 0;
+            Thread thread = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (timeUp) {
+                    game.timeUp();
+                } else {
+                    game.endGame(false, quitter, null);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join(10000);
+        }
+
+        assertEquals(1, ends.get());
+        assertTrue(game.getWinnerName() != null);
+    }
+
+    /**
+     * Tests that boards submitted after the game has ended don't start it again, which would count its result twice.
+     */
+    @Test
+    void testBoardsAfterEndDontRestart() throws InterruptedException {
+        AtomicInteger ends = new AtomicInteger();
+        Game game = startedGame(ends);
+        game.timeUp();
+
+        BoardGenerator boards = new BoardGenerator(1);
+        game.setBoard(boards.nextBoard(), "first");
+        game.setBoard(boards.nextBoard(), "second");
+        assertFalse(game.getGameStarted());
+        assertEquals(1, ends.get());
+    }
+
+    /**
+     * Starts a game between two bots that never move and waits until it has been set up.
+     * @param ends Counts how often the listeners are told that the game ended.
+     */
+    private static Game startedGame(AtomicInteger ends) throws InterruptedException {
+        Game game = new Matchmaker(new GameServerTUI(), 0).createGame(RuleProfile.CLASSIC);
+        CountDownLatch started = new CountDownLatch(1);
+        game.addGameListener(new GameListener() {
+            @Override
+            public void gameStarted(Game startedGame) {
+                started.countDown();
+            }
+
+            @Override
+            public void gameEnded(Game endedGame) {
+                ends.incrementAndGet();
+            }
+        });
+        new BotPlayer("first", game.splitRandom(), TimeUnit.DAYS.toMillis(1)).join(game); // Bots that never move
+        new BotPlayer("second", game.splitRandom(), TimeUnit.DAYS.toMillis(1)).join(game);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        while (game.getCurrentMove() == null) { // The game is set up on a timer thread
+            Thread.sleep(1);
+        }
+        return game;
+    }
+}
@@ -45,7 +45,7 @@ class GameTest {
 
     @Test
     void testWinByDestroyAllShips() {
-        GameServer server = new GameServer(new String[]{String.valueOf(GameTest.PORT)});
+        GameServer server = new GameServer(new String[]{String.valueOf(GameTest.PORT)}, null, null);
 
         Socket pingSocket1 = null;
         PrintWriter out1 = null;
@@ -0,0 +1,111 @@
+package game.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import bot.BotPlayer;
+import game.Game;
+import game.GameRecording;
+import game.RandomService;
+import game.RuleProfile;
+import game.SeededRandom;
+import game.SeededRandomService;
+import server.Matchmaker;
+import tui.GameServerTUI;
+
+/**
+ * Tests that seeded random services are deterministic, and that the seed recorded for a game plays the same game again.
+ */
+public class RandomServiceTest {
+    @TempDir
+    File directory;
+
+    /**
+     * Tests that a seeded service gives every game the same generator each time, and that generators split off it are the same.
+     */
+    @Test
+    void testSeededIsDeterministic() {
+        Random first = new SeededRandomService(7).forGame(3);
+        Random second = new SeededRandomService(7).forGame(3);
+        assertEquals(((SeededRandom) first).getSeed(), ((SeededRandom) second).getSeed());
+        assertNotEquals(((SeededRandom) first).getSeed(), ((SeededRandom) new SeededRandomService(7).forGame(4)).getSeed());
+
+        RandomService service = new SeededRandomService(7);
+        Random firstSplit = service.split(first);
+        Random secondSplit = service.split(second);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextInt(1000), second.nextInt(1000));
+            assertEquals(firstSplit.nextLong(), secondSplit.nextLong());
+        }
+    }
+
+    /**
+     * Tests that the generators of the fast service are shared and can't be reproduced, so that no seed is recorded.
+     */
+    @Test
+    void testFastHasNoSeed() {
+        Game game = new Game(new GameServerTUI(), 1);
+        assertSame(RandomService.fast().forGame(1), game.splitRandom());
+        assertNull(game.getRecording().getSeed());
+        int bound = 10;
+        for (int i = 0; i < 100; i++) {
+            int value = game.splitRandom().nextInt(bound);
+            assertTrue(value >= 0 && value < bound);
+        }
+    }
+
+    /**
+     * Tests that a game between bots is played again move for move from the seed in its recording, also after the recording has
+     * been saved and loaded.
+     */
+    @Test
+    void testRecordedSeedReproducesGame() throws Exception {
+        GameRecording original = playBotGame(new SeededRandomService(42));
+        assertNotNull(original.getSeed());
+
+        GameRecording loaded = GameRecording.load(original.save(directory));
+        assertEquals(original.getSeed(), loaded.getSeed());
+
+        GameRecording replayed = playBotGame(RandomService.replaying(loaded.getSeed()));
+        assertEquals(original.getSeed(), replayed.getSeed());
+        assertEquals(original.getBoard(0), replayed.getBoard(0));
+        assertEquals(original.getBoard(1), replayed.getBoard(1));
+        assertEquals(original.getWinnerName(), replayed.getWinnerName());
+        assertEquals(original.getMoveCount(), replayed.getMoveCount());
+        for (int i = 0; i < original.getMoveCount(); i++) {
+            assertEquals(original.getMovePlayer(i), replayed.getMovePlayer(i));
+            assertEquals(original.getMoveX(i), replayed.getMoveX(i));
+            assertEquals(original.getMoveY(i), replayed.getMoveY(i));
+        }
+
+        GameRecording other = playBotGame(new SeededRandomService(43));
+        assertNotEquals(original.getBoard(0), other.getBoard(0));
+    }
+
+    /**
+     * Plays a game between two bots that move without delay and gives its recording once it has ended.
+     */
+    private static GameRecording playBotGame(RandomService randomService) throws InterruptedException {
+        Matchmaker matchmaker = new Matchmaker(new GameServerTUI(), 0);
+        matchmaker.setRandomService(randomService);
+        Game game = matchmaker.createGame(RuleProfile.CLASSIC);
+        CountDownLatch ended = new CountDownLatch(1);
+        game.addGameListener(endedGame -> ended.countDown());
+        new BotPlayer("first", game.splitRandom(), 0).join(game);
+        new BotPlayer("second", game.splitRandom(), 0).join(game);
+        assertTrue(ended.await(30, TimeUnit.SECONDS));
+        return game.getRecording();
+    }
+}
@@ -0,0 +1,144 @@
+package game.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import bot.BotPlayer;
+import game.Game;
+import game.GameRecording;
+import game.ReplayArchive;
+import game.RuleProfile;
+import server.Matchmaker;
+import tui.GameServerTUI;
+
+/**
+ * Tests that the replay archive keeps no more and no older recordings than its limits, that games are only recorded when an
+ * archive is set, and that recording can be switched off with the system property.
+ */
+public class ReplayArchiveTest {
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @TempDir
+    File directory;
+
+    /**
+     * Tests that the oldest recordings are deleted once there are more than the maximum, and that other files are kept.
+     */
+    @Test
+    void testOldestRecordingsOverMaximumAreDeleted() throws IOException {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            recordingWrittenAt("game-" + i, now - (5 - i) * 1000);
+        }
+        File other = recordingWrittenAt("notes.txt", now - 10000);
+
+        assertEquals(2, new ReplayArchive(directory, 3, DAY).prune(now));
+        assertTrue(other.exists());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i >= 2, new File(directory, "game-" + i + GameRecording.FILE_EXTENSION).exists());
+        }
+    }
+
+    /**
+     * Tests that recordings older than the maximum age are deleted even when there are fewer than the maximum.
+     */
+    @Test
+    void testRecordingsOverMaximumAgeAreDeleted() throws IOException {
+        long now = System.currentTimeMillis();
+        File old = recordingWrittenAt("game-old", now - 2 * DAY);
+        File recent = recordingWrittenAt("game-recent", now - 1000);
+
+        assertEquals(1, new ReplayArchive(directory, 100, DAY).prune(now));
+        assertTrue(recent.exists());
+        assertFalse(old.exists());
+    }
+
+    /**
+     * Tests that a game with an archive is recorded in it when it ends, and that the recording of the game before is then deleted
+     * since the archive holds only one.
+     */
+    @Test
+    void testFinishedGamesAreArchived() throws Exception {
+        Matchmaker matchmaker = new Matchmaker(new GameServerTUI(), 0);
+        matchmaker.setReplayArchive(new ReplayArchive(directory, 1, DAY));
+        for (int i = 0; i < 2; i++) {
+            Game game = matchmaker.createGame(RuleProfile.CLASSIC);
+            CountDownLatch ended = new CountDownLatch(1);
+            game.addGameListener(endedGame -> ended.countDown());
+            new BotPlayer("first", game.splitRandom(), 0).join(game);
+            new BotPlayer("second", game.splitRandom(), 0).join(game);
+            assertTrue(ended.await(30, TimeUnit.SECONDS));
+            awaitOnlyRecording(game);
+        }
+    }
+
+    /**
+     * Tests that flushing the archive waits until the recordings handed to the background writer are written, and that
+     * recordings added after that are written right away.
+     */
+    @Test
+    void testFlushWritesHandedRecordings() throws InterruptedException {
+        ReplayArchive archive = new ReplayArchive(directory, 100, DAY);
+        GameServerTUI view = new GameServerTUI();
+        for (int gameId = 1; gameId <= 20; gameId++) {
+            archive.addInBackground(new GameRecording(gameId), view);
+        }
+        assertTrue(archive.flush(10000));
+        assertEquals(20, directory.listFiles().length);
+
+        archive.addInBackground(new GameRecording(21), view);
+        assertEquals(21, directory.listFiles().length);
+    }
+
+    /**
+     * Tests that an empty replay directory property switches recording off.
+     */
+    @Test
+    void testEmptyDirectoryPropertySwitchesRecordingOff() {
+        String previous = System.getProperty(ReplayArchive.DIRECTORY_PROPERTY);
+        System.setProperty(ReplayArchive.DIRECTORY_PROPERTY, "");
+        try {
+            assertNull(ReplayArchive.fromProperties());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(ReplayArchive.DIRECTORY_PROPERTY);
+            } else {
+                System.setProperty(ReplayArchive.DIRECTORY_PROPERTY, previous);
+            }
+        }
+    }
+
+    /**
+     * Creates a file in the directory that was last modified at the given time. The name gets the replay extension unless it
+     * has an extension.
+     */
+    private File recordingWrittenAt(String name, long time) throws IOException {
+        File file = new File(directory, name.contains(".") ? name : name + GameRecording.FILE_EXTENSION);
+        assertTrue(file.createNewFile());
+        assertTrue(file.setLastModified(time));
+        return file;
+    }
+
+    /**
+     * Waits until the background writer has saved the recording of the game and it is the only one in the directory.
+     */
+    private void awaitOnlyRecording(Game game) throws InterruptedException {
+        String prefix = "game-" + game.getGameId() + "-";
+        long deadline = System.currentTimeMillis() + 10000;
+        File[] files;
+        while ((files = directory.listFiles()).length != 1 || !files[0].getName().startsWith(prefix)) {
+            assertTrue(System.currentTimeMillis() < deadline, "The recording of game " + game.getGameId() + " wasn't saved");
+            Thread.sleep(10);
+        }
+    }
+}
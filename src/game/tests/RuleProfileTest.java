@@ -0,0 +1,101 @@
+package game.tests;
+
+// External imports
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import org.junit.jupiter.api.Test;
+
+// Internal imports
+import game.GameBoard;
+import game.RuleProfile;
+import game.RuleProfiles;
+
+public class RuleProfileTest {
+
+    /**
+     * Tests that a description turns back into the same rules.
+     */
+    @Test
+    public void testDescribeAndParse() {
+        assertEquals("classic;15;10;30000;300000;5x2,4x3,3x5,2x8,1x10", RuleProfile.CLASSIC.describe());
+
+        RuleProfile large = new RuleProfile("large", 64, 64, new int[] {8, 6}, new int[] {4, 6}, 30000, 900000);
+        RuleProfile parsed = RuleProfile.parse(large.describe());
+        assertEquals("large", parsed.getName());
+        assertEquals(64, parsed.getWidth());
+        assertEquals(64, parsed.getHeight());
+        assertArrayEquals(new int[] {8, 6}, parsed.getShipLengths());
+        assertArrayEquals(new int[] {4, 6}, parsed.getShipCounts());
+        assertEquals(68, parsed.getShipFieldCount());
+        assertEquals(30000, parsed.getTurnTimeout());
+        assertEquals(900000, parsed.getGameDuration());
+    }
+
+    /**
+     * Tests that impossible rules are refused.
+     */
+    @Test
+    public void testImpossibleRules() {
+        assertThrows(IllegalArgumentException.class, () -> new RuleProfile("a;b", 10, 10, new int[] {2}, new int[] {1}, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RuleProfile("huge", 65, 10, new int[] {2}, new int[] {1}, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RuleProfile("long", 10, 10, new int[] {11}, new int[] {1}, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RuleProfile("full", 4, 4, new int[] {4}, new int[] {3}, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RuleProfile("zero", 10, 10, new int[] {2}, new int[] {1}, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> RuleProfile.parse("classic;15;10"));
+    }
+
+    /**
+     * Tests that profiles are loaded from a file, with the classic rules for everything that is left out.
+     */
+    @Test
+    public void testLoad() throws IOException {
+        File file = File.createTempFile("rule-profiles", ".properties");
+        file.deleteOnExit();
+        try (Writer writer = new FileWriter(file)) {
+            writer.write("default=large\nlarge.width=20\nlarge.height=20\nlarge.ships=6x2,2x3\nblitz.turnTimeout=5\n");
+        }
+
+        RuleProfiles ruleProfiles = RuleProfiles.load(file);
+        assertEquals("large", ruleProfiles.getDefault().getName());
+        assertEquals(20, ruleProfiles.get("large").getWidth());
+        assertEquals(5000, ruleProfiles.get("blitz").getTurnTimeout());
+        assertEquals(RuleProfile.CLASSIC.getShipFieldCount(), ruleProfiles.get("blitz").getShipFieldCount());
+        assertTrue(ruleProfiles.getNames().contains("classic"));
+        assertNull(ruleProfiles.get("unknown"));
+
+        assertEquals("classic", RuleProfiles.load(new File(file.getPath() + ".missing")).getDefault().getName());
+    }
+
+    /**
+     * Tests that a ship longer than a carrier can be sunk on a board of a profile.
+     */
+    @Test
+    public void testLongShip() {
+        RuleProfile rules = new RuleProfile("long", 8, 2, new int[] {7}, new int[] {1}, 1000, 1000);
+        StringBuilder encoded = new StringBuilder("b");
+        for (int part = 0; part < 7; part++) {
+            encoded.append(';').append(RuleProfile.fieldType(7, part));
+        }
+        for (int i = 7; i < 16; i++) {
+            encoded.append(";WATER");
+        }
+
+        GameBoard board = new GameBoard(encoded.toString(), rules);
+        for (int x = 0; x < 6; x++) {
+            assertFalse(board.makeMove(x, 0)[1]);
+        }
+        assertFalse(board.allShipsDestroyed());
+        boolean[] lastMove = board.makeMove(6, 0);
+        assertTrue(lastMove[0]);
+        assertTrue(lastMove[1]);
+        assertTrue(board.allShipsDestroyed());
+    }
+}
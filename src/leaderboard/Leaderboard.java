@@ -0,0 +1,296 @@
+package leaderboard;
+
+// External imports
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Internal imports
+import game.Game;
+import game.GameListener;
+import stats.PlayerStats;
+import stats.PlayerStatsStore;
+
+/**
+ * This class is the live leaderboard of the server. It is fed by finished games as a {@link GameListener}: a win is worth
+ * {@link #WIN_POINTS} and a tie {@link #TIE_POINTS}. Players with the same score share a rank.
+ * <p>
+ * There is no global lock. The score of each player lives in a concurrent hash map and is changed with compute, which only locks
+ * that player's bin. The players are kept ordered by score in a concurrent skip list for top-K and neighbourhood queries, and the
+ * number of players per score is kept in a Fenwick tree of atomic counters, so the rank of a score and the score at a rank are
+ * found in O(log MAX_SCORE) without walking the skip list. While updates are in flight a query can briefly see a player at their
+ * old and new score or at neither, which is fine for a leaderboard.
+ * @inv scores != null, ranking != null, scoreCounts != null
+ */
+public class Leaderboard implements GameListener {
+    // Points for the outcome of a game
+    public static final int WIN_POINTS = 3;
+    public static final int TIE_POINTS = 1;
+
+    // The highest score that can be ranked. Higher scores are capped.
+    public static final int MAX_SCORE = (1 << 20) - 1;
+
+    // The current score of every ranked player
+    private ConcurrentHashMap<String, Integer> scores;
+
+    // All ranked players ordered by score from high to low and then by name
+    private ConcurrentSkipListSet<Key> ranking;
+
+    // Fenwick tree over the number of players per score. Index 1 is MAX_SCORE and index MAX_SCORE + 1 is score 0,
+    // so a prefix sum up to a score is the number of players with at least that score.
+    private AtomicIntegerArray scoreCounts;
+
+    /**
+     * Creates an empty leaderboard.
+     * @post ensures that scores, ranking and scoreCounts are initialised and empty
+     */
+    public Leaderboard() {
+        scores = new ConcurrentHashMap<>();
+        ranking = new ConcurrentSkipListSet<>();
+        scoreCounts = new AtomicIntegerArray(MAX_SCORE + 2);
+    }
+
+    /**
+     * Adds every player from the statistics store with the score of their recorded wins and ties.
+     * @param statsStore The statistics of all players.
+     * @pre statsStore != null
+     * @post ensures that every player in the store is ranked
+     */
+    public void load(PlayerStatsStore statsStore) {
+        for (PlayerStats stats : statsStore.getAllStats()) {
+            addPoints(stats.getName(), stats.getWins() * WIN_POINTS + stats.getTies() * TIE_POINTS);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Gives the winner {@link #WIN_POINTS} or both players {@link #TIE_POINTS} for a tie. A loser is ranked with no extra points.
+     * Bots are not ranked.
+     * @pre game.getWinnerName() != null
+     * @post ensures that both players, unless they are bots, are ranked with their new scores
+     */
+    @Override
+    public void gameEnded(Game game) {
+        String winnerName = game.getWinnerName();
+
+        for (int player = 1; player <= 2; player++) {
+            if (game.getPlayer(player).isBot()) {
+                continue;
+            }
+            String name = game.getPlayerName(player);
+
+            if (winnerName.isEmpty()) {
+                addPoints(name, TIE_POINTS);
+            } else if (name.equals(winnerName)) {
+                addPoints(name, WIN_POINTS);
+            } else {
+                addPoints(name, 0);
+            }
+        }
+    }
+
+    /**
+     * Adds points to a player's score, ranking the player if they weren't ranked yet. Only the player's own map bin is locked,
+     * so games ending for different players update the leaderboard concurrently.
+     * @param name The player's name.
+     * @param points The points to add.
+     * @pre name != null, points >= 0
+     * @post ensures that the player is ranked with their old score plus the points, capped at MAX_SCORE
+     */
+    public void addPoints(String name, int points) {
+        scores.compute(name, (key, oldScore) -> {
+            int newScore = (int) Math.min(MAX_SCORE, (oldScore == null ? 0L : oldScore) + points);
+
+            if (oldScore == null) {
+                ranking.add(new Key(newScore, name));
+                addCount(newScore, 1);
+            } else if (newScore != oldScore) {
+                ranking.add(new Key(newScore, name));
+                ranking.remove(new Key(oldScore, name));
+                addCount(newScore, 1);
+                addCount(oldScore, -1);
+            }
+
+            return newScore;
+        });
+    }
+
+    /**
+     * Getter for a player's score.
+     * @param name The player's name.
+     * @return The score, or -1 if the player isn't ranked.
+     * @pre name != null
+     */
+    public int getScore(String name) {
+        Integer score = scores.get(name);
+        return score == null ? -1 : score;
+    }
+
+    /**
+     * Getter for a player's rank.
+     * @param name The player's name.
+     * @return The rank, where 1 is the best, or 0 if the player isn't ranked.
+     * @pre name != null
+     */
+    public int getRank(String name) {
+        Integer score = scores.get(name);
+        return score == null ? 0 : rankOfScore(score);
+    }
+
+    /**
+     * Getter for the number of ranked players.
+     * @return The number of players.
+     */
+    public int size() {
+        return scores.size();
+    }
+
+    /**
+     * Finds the players with the highest scores.
+     * @param count The maximum number of players to return.
+     * @return The best players from high to low score.
+     * @pre count >= 0
+     * @post ensures that at most count entries are returned in ranking order
+     */
+    public List<LeaderboardEntry> getTop(int count) {
+        return collect(ranking.iterator(), count);
+    }
+
+    /**
+     * Finds the players around a rank: up to radius players ranked above it, followed by up to radius + 1 players starting at
+     * the first player with that rank.
+     * @param rank The rank to look around.
+     * @param radius The number of players to include on each side.
+     * @return The players around the rank from high to low score, or an empty list if nobody has that rank.
+     * @pre rank >= 1, radius >= 0
+     * @post ensures that at most 2 * radius + 1 entries are returned in ranking order
+     */
+    public List<LeaderboardEntry> getAroundRank(int rank, int radius) {
+        if (rank < 1 || rank > size()) {
+            return new ArrayList<>();
+        }
+        return around(new Key(scoreAtRank(rank), ""), radius);
+    }
+
+    /**
+     * Finds the players around a player: up to radius players above them, the player and up to radius players below them.
+     * @param name The player's name.
+     * @param radius The number of players to include on each side.
+     * @return The players around the player from high to low score, or an empty list if the player isn't ranked.
+     * @pre name != null, radius >= 0
+     * @post ensures that at most 2 * radius + 1 entries are returned in ranking order
+     */
+    public List<LeaderboardEntry> getAroundPlayer(String name, int radius) {
+        Integer score = scores.get(name);
+        if (score == null) {
+            return new ArrayList<>();
+        }
+        return around(new Key(score, name), radius);
+    }
+
+    /**
+     * Collects up to radius players before the given key and up to radius + 1 players from the key onwards.
+     */
+    private List<LeaderboardEntry> around(Key key, int radius) {
+        List<LeaderboardEntry> above = collect(ranking.headSet(key, false).descendingIterator(), radius);
+        List<LeaderboardEntry> entries = new ArrayList<>(2 * radius + 1);
+        for (int i = above.size() - 1; i >= 0; i--) {
+            entries.add(above.get(i));
+        }
+        entries.addAll(collect(ranking.tailSet(key, true).iterator(), radius + 1));
+        return entries;
+    }
+
+    /**
+     * Takes up to count players from an iterator over the ranking and looks up their ranks.
+     */
+    private List<LeaderboardEntry> collect(Iterator<Key> iterator, int count) {
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.min(count, 1024));
+        while (entries.size() < count && iterator.hasNext()) {
+            Key key = iterator.next();
+            entries.add(new LeaderboardEntry(key.name, key.score, rankOfScore(key.score)));
+        }
+        return entries;
+    }
+
+    /**
+     * Calculates the rank of a score, which is one more than the number of players with a higher score.
+     */
+    private int rankOfScore(int score) {
+        return score == MAX_SCORE ? 1 : countAtLeast(score + 1) + 1;
+    }
+
+    /**
+     * Finds the score of the player at a rank by descending the Fenwick tree.
+     * @pre rank >= 1 && rank <= size()
+     */
+    private int scoreAtRank(int rank) {
+        int position = 0;
+        int remaining = rank;
+        for (int step = Integer.highestOneBit(scoreCounts.length() - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < scoreCounts.length()) {
+                int count = scoreCounts.get(next);
+                if (count < remaining) {
+                    position = next;
+                    remaining -= count;
+                }
+            }
+        }
+        return Math.max(0, MAX_SCORE - position); // Index position + 1 holds the score
+    }
+
+    /**
+     * Counts the players with at least the given score.
+     */
+    private int countAtLeast(int score) {
+        int sum = 0;
+        for (int i = MAX_SCORE - score + 1; i > 0; i -= i & -i) {
+            sum += scoreCounts.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Changes the number of players with a score.
+     */
+    private void addCount(int score, int delta) {
+        for (int i = MAX_SCORE - score + 1; i < scoreCounts.length(); i += i & -i) {
+            scoreCounts.addAndGet(i, delta);
+        }
+    }
+
+    /**
+     * A player in the ranking, ordered by score from high to low and then by name.
+     */
+    private static class Key implements Comparable<Key> {
+        private final int score;
+        private final String name;
+
+        Key(int score, String name) {
+            this.score = score;
+            this.name = name;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            if (score != other.score) {
+                return score > other.score ? -1 : 1;
+            }
+            return name.compareTo(other.name);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && compareTo((Key) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * score + name.hashCode();
+        }
+    }
+}
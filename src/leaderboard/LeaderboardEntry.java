@@ -0,0 +1,49 @@
+package leaderboard;
+
+/**
+ * A player's position on the leaderboard at the time of a query.
+ * @inv name != null, score >= 0, rank >= 1
+ */
+public class LeaderboardEntry {
+    private final String name;
+    private final int score;
+    private final int rank;
+
+    /**
+     * Creates a leaderboard entry.
+     * @param name The player's name.
+     * @param score The player's score.
+     * @param rank The player's rank, where players with the same score share a rank.
+     * @pre name != null, score >= 0, rank >= 1
+     * @post ensures that name, score and rank are initialised
+     */
+    public LeaderboardEntry(String name, int score, int rank) {
+        this.name = name;
+        this.score = score;
+        this.rank = rank;
+    }
+
+    /**
+     * Getter for the player's name.
+     * @return The player's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for the player's score.
+     * @return The player's score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Getter for the player's rank.
+     * @return The player's rank.
+     */
+    public int getRank() {
+        return rank;
+    }
+}
@@ -0,0 +1,102 @@
+package leaderboard.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+
+// Internal imports
+import leaderboard.Leaderboard;
+import leaderboard.LeaderboardEntry;
+
+/**
+ * Tests the leaderboard queries against a brute force ranking, also after concurrent updates.
+ */
+public class LeaderboardTest {
+    private Leaderboard leaderboard;
+
+    @BeforeEach
+    void createLeaderboard() {
+        leaderboard = new Leaderboard();
+    }
+
+    @Test
+    void testRanksWithTies() {
+        leaderboard.addPoints("Albert", 9);
+        leaderboard.addPoints("Sam", 3);
+        leaderboard.addPoints("Bob", 9);
+        leaderboard.addPoints("Eve", 0);
+
+        assertEquals(1, leaderboard.getRank("Albert"));
+        assertEquals(1, leaderboard.getRank("Bob"));
+        assertEquals(3, leaderboard.getRank("Sam"));
+        assertEquals(4, leaderboard.getRank("Eve"));
+        assertEquals(0, leaderboard.getRank("Nobody"));
+
+        List<LeaderboardEntry> top = leaderboard.getTop(3);
+        assertEquals("Albert", top.get(0).getName());
+        assertEquals("Bob", top.get(1).getName());
+        assertEquals("Sam", top.get(2).getName());
+
+        // Sam overtakes both
+        leaderboard.addPoints("Sam", 7);
+        assertEquals(1, leaderboard.getRank("Sam"));
+        assertEquals(2, leaderboard.getRank("Albert"));
+        assertEquals(10, leaderboard.getScore("Sam"));
+        assertEquals(4, leaderboard.size());
+    }
+
+    @Test
+    void testAroundRankAndPlayer() {
+        for (int i = 0; i < 100; i++) {
+            leaderboard.addPoints("player" + i, i);
+        }
+
+        List<LeaderboardEntry> around = leaderboard.getAroundRank(50, 2);
+        assertEquals(5, around.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(48 + i, around.get(i).getRank());
+            assertEquals(100 - 48 - i, around.get(i).getScore());
+        }
+
+        around = leaderboard.getAroundPlayer("player99", 3);
+        assertEquals(4, around.size());
+        assertEquals("player99", around.get(0).getName());
+
+        assertTrue(leaderboard.getAroundRank(101, 2).isEmpty());
+    }
+
+    @Test
+    void testConcurrentUpdates() throws InterruptedException {
+        int threads = 8;
+        int players = 2000;
+        List<Thread> workers = new ArrayList<>();
+
+        // Every thread adds one point to every player, so every player ends with as many points as there are threads
+        // plus their own index
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < players; i++) {
+                    leaderboard.addPoints("player" + i, 1);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        for (int i = 0; i < players; i++) {
+            leaderboard.addPoints("player" + i, i);
+        }
+
+        assertEquals(players, leaderboard.size());
+        for (int i = 0; i < players; i++) {
+            assertEquals(threads + i, leaderboard.getScore("player" + i));
+            assertEquals(players - i, leaderboard.getRank("player" + i));
+        }
+        assertEquals(players, leaderboard.getTop(players + 10).size());
+    }
+}
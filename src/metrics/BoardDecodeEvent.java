@@ -0,0 +1,57 @@
+package metrics;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for decoding a board a player submitted, into a board from the board pool.
+ */
+@Name("battleship.BoardDecode")
+@Label("Board Decode")
+@Category({"Battleship", "Games"})
+@Description("A submitted board was decoded")
+@StackTrace(false)
+public class BoardDecodeEvent extends jdk.jfr.Event {
+    @Label("Game Id")
+    private int gameId;
+
+    // The player that submitted the board
+    @Label("Player")
+    private String player;
+
+    // The length of the board message
+    @Label("Message Length")
+    @DataAmount(DataAmount.BYTES)
+    private int length;
+
+    /**
+     * Starts timing a decode.
+     * @return The event, to be finished when the board has been decoded.
+     */
+    public static BoardDecodeEvent start() {
+        BoardDecodeEvent event = new BoardDecodeEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing the decode and emits the event if it is enabled in a running recording.
+     * @param gameId The game.
+     * @param player The name of the player that submitted the board.
+     * @param length The length of the board message.
+     */
+    public void finish(int gameId, String player, int length) {
+        end();
+        if (shouldCommit()) {
+            this.gameId = gameId;
+            this.player = player;
+            this.length = length;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package metrics;
+
+// External imports
+import java.net.InetAddress;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a connection the server has accepted and given a client handler.
+ */
+@Name("battleship.ConnectionAccepted")
+@Label("Connection Accepted")
+@Category({"Battleship", "Connections"})
+@Description("A client connection was accepted")
+@StackTrace(false)
+public class ConnectionAcceptedEvent extends jdk.jfr.Event {
+    // The address the client connected from
+    @Label("Address")
+    private String address;
+
+    /**
+     * Emits the event if it is enabled in a running recording, otherwise does nothing but check that.
+     * @param address The address the client connected from.
+     * @pre address != null
+     */
+    public static void emit(InetAddress address) {
+        ConnectionAcceptedEvent event = new ConnectionAcceptedEvent();
+        if (event.shouldCommit()) {
+            event.address = address.getHostAddress();
+            event.commit();
+        }
+    }
+}
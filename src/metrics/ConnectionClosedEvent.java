@@ -0,0 +1,42 @@
+package metrics;
+
+// External imports
+import java.net.InetAddress;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a client connection the server has closed, because the client left or its connection failed.
+ */
+@Name("battleship.ConnectionClosed")
+@Label("Connection Closed")
+@Category({"Battleship", "Connections"})
+@Description("A client connection was closed by the server")
+@StackTrace(false)
+public class ConnectionClosedEvent extends jdk.jfr.Event {
+    // The address the client connected from
+    @Label("Address")
+    private String address;
+
+    // The name of the player, null if the client never completed the handshake
+    @Label("Player")
+    private String player;
+
+    /**
+     * Emits the event if it is enabled in a running recording, otherwise does nothing but check that.
+     * @param address The address the client connected from.
+     * @param player The name of the player, or null.
+     * @pre address != null
+     */
+    public static void emit(InetAddress address, String player) {
+        ConnectionClosedEvent event = new ConnectionClosedEvent();
+        if (event.shouldCommit()) {
+            event.address = address.getHostAddress();
+            event.player = player;
+            event.commit();
+        }
+    }
+}
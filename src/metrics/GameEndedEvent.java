@@ -0,0 +1,64 @@
+package metrics;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a game that has ended, with the reason it ended for.
+ */
+@Name("battleship.GameEnded")
+@Label("Game Ended")
+@Category({"Battleship", "Games"})
+@Description("A started game ended")
+@StackTrace(false)
+public class GameEndedEvent extends jdk.jfr.Event {
+    // The reasons a game ends for
+    public static final String REASON_SUNK = "All ships sunk";
+    public static final String REASON_TIME_UP = "Time up";
+    public static final String REASON_QUIT = "Player quit";
+
+    @Label("Game Id")
+    private int gameId;
+
+    // One of the REASON constants
+    @Label("Reason")
+    private String reason;
+
+    // The name of the winner, empty for a tie
+    @Label("Winner")
+    private String winner;
+
+    // How long the game was played, on the clock of its scheduler
+    @Label("Game Length")
+    @Timespan(Timespan.MILLISECONDS)
+    private long gameLength;
+
+    // The number of moves, late ones included
+    @Label("Moves")
+    private int moves;
+
+    /**
+     * Emits the event if it is enabled in a running recording, otherwise does nothing but check that.
+     * @param gameId The game.
+     * @param reason One of the REASON constants.
+     * @param winner The name of the winner, empty for a tie.
+     * @param gameLength How long the game was played in milliseconds.
+     * @param moves The number of moves.
+     */
+    public static void emit(int gameId, String reason, String winner, long gameLength, int moves) {
+        GameEndedEvent event = new GameEndedEvent();
+        if (event.shouldCommit()) {
+            event.gameId = gameId;
+            event.reason = reason;
+            event.winner = winner;
+            event.gameLength = gameLength;
+            event.moves = moves;
+            event.commit();
+        }
+    }
+}
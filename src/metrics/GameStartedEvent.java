@@ -0,0 +1,55 @@
+package metrics;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a game that has been set up and whose first move is awaited.
+ */
+@Name("battleship.GameStarted")
+@Label("Game Started")
+@Category({"Battleship", "Games"})
+@Description("Both boards were set and the players were told who goes first")
+@StackTrace(false)
+public class GameStartedEvent extends jdk.jfr.Event {
+    @Label("Game Id")
+    private int gameId;
+
+    @Label("Player 1")
+    private String player1;
+
+    @Label("Player 2")
+    private String player2;
+
+    // The player that has the first move
+    @Label("First Move")
+    private String firstMove;
+
+    // The rule profile of the game
+    @Label("Rules")
+    private String rules;
+
+    /**
+     * Emits the event if it is enabled in a running recording, otherwise does nothing but check that.
+     * @param gameId The game.
+     * @param player1 The name of the first player.
+     * @param player2 The name of the second player.
+     * @param firstMove The name of the player that has the first move.
+     * @param rules The name of the rule profile.
+     */
+    public static void emit(int gameId, String player1, String player2, String firstMove, String rules) {
+        GameStartedEvent event = new GameStartedEvent();
+        if (event.shouldCommit()) {
+            event.gameId = gameId;
+            event.player1 = player1;
+            event.player2 = player2;
+            event.firstMove = firstMove;
+            event.rules = rules;
+            event.commit();
+        }
+    }
+}
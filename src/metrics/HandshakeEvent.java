@@ -0,0 +1,46 @@
+package metrics;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a handshake that put a client in a game, or in the queue for one.
+ */
+@Name("battleship.Handshake")
+@Label("Handshake Completed")
+@Category({"Battleship", "Connections"})
+@Description("A client completed the handshake and joined a game")
+@StackTrace(false)
+public class HandshakeEvent extends jdk.jfr.Event {
+    // The name the client chose
+    @Label("Player")
+    private String player;
+
+    // The rule profile of the game
+    @Label("Rules")
+    private String rules;
+
+    // The game the client joined
+    @Label("Game Id")
+    private int gameId;
+
+    /**
+     * Emits the event if it is enabled in a running recording, otherwise does nothing but check that.
+     * @param player The name the client chose.
+     * @param rules The name of the rule profile of the game.
+     * @param gameId The game the client joined.
+     */
+    public static void emit(String player, String rules, int gameId) {
+        HandshakeEvent event = new HandshakeEvent();
+        if (event.shouldCommit()) {
+            event.player = player;
+            event.rules = rules;
+            event.gameId = gameId;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package metrics;
+
+// External imports
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations that many threads can record into without locking. Values below 64 have a bucket each and
+ * larger values are grouped in 32 buckets per power of two, so every reported percentile is at most about 3% above the real one
+ * while the whole histogram is a fixed array of under 2000 counters. The unit of the values is up to the user, usually microseconds.
+ * @inv counts != null, count != null, sum != null, max != null
+ */
+public class LatencyHistogram {
+    // Values below this have a bucket of their own
+    private static final int LINEAR_BUCKETS = 64;
+
+    // The number of buckets per power of two above LINEAR_BUCKETS, as a power of two
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // Enough buckets for every positive long
+    private static final int BUCKETS = LINEAR_BUCKETS + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    // The number of values in each bucket
+    private AtomicLongArray counts;
+
+    // The number, sum and largest of all recorded values
+    private AtomicLong count;
+    private AtomicLong sum;
+    private AtomicLong max;
+
+    /**
+     * Creates an empty histogram.
+     * @post ensures that no values are recorded
+     */
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKETS);
+        count = new AtomicLong();
+        sum = new AtomicLong();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     * @param value The value, for example a duration in microseconds.
+     * @post ensures that the value is counted in its bucket, the count, the sum and the maximum
+     */
+    public void record(long value) {
+        long recorded = Math.max(0, value);
+        counts.incrementAndGet(bucket(recorded));
+        count.incrementAndGet();
+        sum.addAndGet(recorded);
+        max.accumulateAndGet(recorded, Math::max);
+    }
+
+    /**
+     * Finds the value below which the given percentage of the recorded values fall.
+     * @param percentile The percentage, for example 99 for the 99th percentile.
+     * @return The highest value of the bucket that holds the percentile, or 0 if nothing was recorded.
+     * @pre percentile >= 0 && percentile <= 100
+     */
+    public long getPercentile(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Getter for the number of recorded values.
+     * @return The number of values.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Getter for the largest recorded value.
+     * @return The maximum, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Getter for the average of the recorded values.
+     * @return The mean, or 0 if nothing was recorded.
+     */
+    public long getMean() {
+        long total = count.get();
+        return total == 0 ? 0 : sum.get() / total;
+    }
+
+    /**
+     * Describes the histogram in one line with the count, mean, median, 99th percentile and maximum.
+     * @return The description.
+     */
+    @Override
+    public String toString() {
+        return "count " + getCount() + ", mean " + getMean() + ", p50 " + getPercentile(50) + ", p99 " + getPercentile(99) +
+            ", max " + getMax();
+    }
+
+    /**
+     * Finds the bucket of a value.
+     * @pre value >= 0
+     */
+    private static int bucket(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Finds the highest value that falls in a bucket.
+     */
+    private static long highestValue(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
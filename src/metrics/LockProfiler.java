@@ -0,0 +1,157 @@
+package metrics;
+
+// External imports
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reports where the threads of the server block, so that it can be decided which locking to remove next. Two sources are
+ * combined. The locks that matter most are timed explicitly with a {@link LockTimer} each: the game's monitor in makeMove,
+ * setPlayer and setBoard, the lock of a client handler while it writes to the socket, and the lock of the console. For
+ * everything else the JVM's thread contention monitoring is turned on, which keeps the time every thread spent blocked on
+ * any monitor; the {@link #dump()} sums that per kind of thread and lists the threads that are blocked right then, with the
+ * lock and its owner. Contention monitoring only adds to the cost of a monitor that is actually contended, and the dump is
+ * only taken on demand.
+ * @inv makeMove != null, setPlayer != null, setBoard != null, socketWrites != null, console != null, threads != null
+ */
+public class LockProfiler {
+    // The profiler of this process
+    private static final LockProfiler SHARED = new LockProfiler(ManagementFactory.getThreadMXBean());
+
+    // The timed locks
+    private LockTimer makeMove;
+    private LockTimer setPlayer;
+    private LockTimer setBoard;
+    private LockTimer socketWrites;
+    private LockTimer console;
+
+    // The threads of the JVM
+    private ThreadMXBean threads;
+
+    /**
+     * Creates a profiler with nothing recorded, and turns thread contention monitoring on if the JVM supports it.
+     * @param threads The threads of the JVM.
+     * @pre threads != null
+     * @post ensures that no lock has been timed
+     */
+    public LockProfiler(ThreadMXBean threads) {
+        this.threads = threads;
+        makeMove = new LockTimer("Game monitor, makeMove");
+        setPlayer = new LockTimer("Game monitor, setPlayer");
+        setBoard = new LockTimer("Game monitor, setBoard");
+        socketWrites = new LockTimer("Client handler, socket writes");
+        console = new LockTimer("Console");
+        if (threads.isThreadContentionMonitoringSupported()) {
+            threads.setThreadContentionMonitoringEnabled(true);
+        }
+    }
+
+    /**
+     * Getter for the profiler of this process.
+     * @return The shared profiler.
+     */
+    public static LockProfiler getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Getter for the timer of the game's monitor in makeMove.
+     * @return The timer.
+     */
+    public LockTimer getMakeMove() {
+        return makeMove;
+    }
+
+    /**
+     * Getter for the timer of the game's monitor in setPlayer.
+     * @return The timer.
+     */
+    public LockTimer getSetPlayer() {
+        return setPlayer;
+    }
+
+    /**
+     * Getter for the timer of the game's monitor in setBoard.
+     * @return The timer.
+     */
+    public LockTimer getSetBoard() {
+        return setBoard;
+    }
+
+    /**
+     * Getter for the timer of the lock a client handler holds while it writes to its socket.
+     * @return The timer.
+     */
+    public LockTimer getSocketWrites() {
+        return socketWrites;
+    }
+
+    /**
+     * Getter for the timer of the console's lock.
+     * @return The timer.
+     */
+    public LockTimer getConsole() {
+        return console;
+    }
+
+    /**
+     * Describes the timed locks, the states of the threads and how long every kind of thread has been blocked. Threads are
+     * grouped by their name without a trailing number, so all client handlers are counted together, as are all timer threads.
+     * @return The description, a line per lock, group and blocked thread.
+     */
+    public String dump() {
+        StringBuilder dump = new StringBuilder("Timed locks, in microseconds:");
+        for (LockTimer timer : new LockTimer[] {makeMove, setPlayer, setBoard, socketWrites, console}) {
+            dump.append("\n  ").append(timer);
+        }
+
+        Map<Thread.State, Integer> states = new TreeMap<>();
+        Map<String, long[]> groups = new TreeMap<>(); // Threads, blocks, blocked and waited milliseconds per group
+        StringBuilder blocked = new StringBuilder();
+        for (ThreadInfo thread : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (thread == null) { // The thread ended meanwhile
+                continue;
+            }
+            states.merge(thread.getThreadState(), 1, Integer::sum);
+            long[] group = groups.computeIfAbsent(group(thread.getThreadName()), name -> new long[4]);
+            group[0]++;
+            group[1] += thread.getBlockedCount();
+            group[2] += Math.max(0, thread.getBlockedTime());
+            group[3] += Math.max(0, thread.getWaitedTime());
+            if (thread.getThreadState() == Thread.State.BLOCKED) {
+                blocked.append("\n  ").append(thread.getThreadName()).append(" on ").append(thread.getLockName())
+                    .append(" held by ").append(thread.getLockOwnerName());
+            }
+        }
+
+        dump.append("\nThreads by state: ").append(states);
+        if (threads.isThreadContentionMonitoringEnabled()) {
+            dump.append("\nBlocked and waiting per kind of thread, in milliseconds since contention monitoring was turned on:");
+        } else {
+            dump.append("\nBlocked per kind of thread, times are unknown since the JVM doesn't monitor contention:");
+        }
+        for (Map.Entry<String, long[]> group : groups.entrySet()) {
+            long[] totals = group.getValue();
+            dump.append("\n  ").append(group.getKey()).append(" (").append(totals[0]).append("): blocked ").append(totals[1])
+                .append(" times");
+            if (threads.isThreadContentionMonitoringEnabled()) {
+                dump.append(" for ").append(totals[2]).append(" ms, waited ").append(totals[3]).append(" ms");
+            }
+        }
+        if (blocked.length() > 0) {
+            dump.append("\nBlocked now:").append(blocked);
+        }
+        return dump.toString();
+    }
+
+    /**
+     * Gives the kind of a thread from its name, which is the name without a trailing number.
+     */
+    private static String group(String threadName) {
+        String group = threadName.replaceFirst("[-#\\s]*\\d+$", "");
+        return group.isEmpty() ? threadName : group;
+    }
+}
@@ -0,0 +1,96 @@
+package metrics;
+
+// External imports
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a lock of one subsystem: how long threads waited to take it, and how long they held it. The caller reads the clock
+ * before it asks for the lock and hands that time over once it has the lock:
+ * <pre>
+ * long waiting = System.nanoTime();
+ * synchronized (lock) {
+ *     long acquired = timer.acquired(waiting);
+ *     try {
+ *         ...
+ *     } finally {
+ *         timer.released(acquired);
+ *     }
+ * }
+ * </pre>
+ * Both histograms are in microseconds, so a lock that nobody else holds records a wait of 0.
+ * @inv name != null, waits != null, holds != null
+ */
+public class LockTimer {
+    // The subsystem and the lock
+    private String name;
+
+    // How long threads waited for the lock and held it, in microseconds
+    private LatencyHistogram waits;
+    private LatencyHistogram holds;
+
+    /**
+     * Creates a timer with nothing recorded.
+     * @param name The subsystem and the lock, for the dump.
+     * @pre name != null
+     * @post ensures that no wait or hold is recorded
+     */
+    public LockTimer(String name) {
+        this.name = name;
+        waits = new LatencyHistogram();
+        holds = new LatencyHistogram();
+    }
+
+    /**
+     * Records that the lock has been taken.
+     * @param waitingSince When the thread asked for the lock, from System.nanoTime().
+     * @return When the lock was taken, to be given to {@link #released(long)}.
+     * @post ensures that the wait is recorded
+     */
+    public long acquired(long waitingSince) {
+        long now = System.nanoTime();
+        waits.record(TimeUnit.NANOSECONDS.toMicros(now - waitingSince));
+        return now;
+    }
+
+    /**
+     * Records that the lock is about to be released.
+     * @param acquired When the lock was taken, as given by {@link #acquired(long)}.
+     * @post ensures that the hold is recorded
+     */
+    public void released(long acquired) {
+        holds.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - acquired));
+    }
+
+    /**
+     * Getter for the subsystem and the lock.
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for how long threads waited for the lock.
+     * @return The histogram in microseconds.
+     */
+    public LatencyHistogram getWaits() {
+        return waits;
+    }
+
+    /**
+     * Getter for how long threads held the lock.
+     * @return The histogram in microseconds.
+     */
+    public LatencyHistogram getHolds() {
+        return holds;
+    }
+
+    /**
+     * Describes the waits and holds in one line.
+     * @return The description.
+     */
+    @Override
+    public String toString() {
+        return name + ": waited " + waits + "; held " + holds;
+    }
+}
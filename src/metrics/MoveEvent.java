@@ -0,0 +1,66 @@
+package metrics;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a move in a game. Its duration is the time the game spent on the move while holding its lock:
+ * updating the board and sending the updates to the players and spectators.
+ */
+@Name("battleship.Move")
+@Label("Move")
+@Category({"Battleship", "Games"})
+@Description("A move was processed by a game")
+@StackTrace(false)
+public class MoveEvent extends jdk.jfr.Event {
+    @Label("Game Id")
+    private int gameId;
+
+    // The player whose move it was
+    @Label("Player")
+    private String player;
+
+    @Label("X")
+    private int x;
+
+    @Label("Y")
+    private int y;
+
+    // Whether the move timer made the move because the player didn't
+    @Label("Late")
+    private boolean late;
+
+    /**
+     * Starts timing a move.
+     * @return The event, to be finished when the move has been processed.
+     */
+    public static MoveEvent start() {
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing the move and emits the event if it is enabled in a running recording.
+     * @param gameId The game.
+     * @param player The name of the player whose move it was.
+     * @param x The x coordinate of the move.
+     * @param y The y coordinate of the move.
+     * @param late Whether it was a late move.
+     */
+    public void finish(int gameId, String player, int x, int y, boolean late) {
+        end();
+        if (shouldCommit()) {
+            this.gameId = gameId;
+            this.player = player;
+            this.x = x;
+            this.y = y;
+            this.late = late;
+            commit();
+        }
+    }
+}
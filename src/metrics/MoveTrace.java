@@ -0,0 +1,220 @@
+package metrics;
+
+/**
+ * The timeline of one move a client sent, from the moment its message was read to the moment the updates for it were written
+ * to the players. A trace is handed from thread to thread with the move: it is stamped by the thread that reads the message,
+ * waits with the move if the move came before the client's turn, and is finished by the thread that makes the move in the
+ * game. While the game makes the move the trace is the {@link #current()} trace of that thread, so the players that are sent
+ * the update can time how long encoding and writing it took without the move being passed to them.
+ * <p>
+ * The stages are: parse, from reading the message until the move is known; queue, from the moment the move could be made
+ * until the game's lock was taken, which includes waiting for a timer thread if the move came early; logic, making the move
+ * on the board; encode and flush, building and writing the update for every player. All times are from {@link System#nanoTime()}.
+ * <p>
+ * A trace is only used by one thread at a time, and handed on through locks or executors, so it needs no locking of its own.
+ * @inv player != null, players != null, encodeNanos != null, flushNanos != null, updates >= 0 && updates <= players.length
+ */
+public class MoveTrace {
+    // The trace of the move the game on this thread is making, if any
+    private static final ThreadLocal<MoveTrace> CURRENT = new ThreadLocal<>();
+
+    // The player and the move
+    private String player;
+    private int x;
+    private int y;
+
+    // When the message was read, when the move was parsed, when it could be made and when the game's lock was taken
+    private long arrived;
+    private long parsed;
+    private long ready;
+    private long locked;
+
+    // When the board had made the move
+    private long logicDone;
+
+    // The players that were sent the update, and how long encoding and writing it took for each
+    private String[] players = new String[2];
+    private long[] encodeNanos = new long[2];
+    private long[] flushNanos = new long[2];
+    private int updates;
+
+    /**
+     * Starts the trace of a move that has just been parsed.
+     * @param player The name of the player that sent the move.
+     * @param x The x coordinate of the move.
+     * @param y The y coordinate of the move.
+     * @param arrived When the message with the move was read.
+     * @pre player != null
+     * @post ensures that the move was parsed and could be made now, unless it has to wait for the player's turn
+     */
+    public MoveTrace(String player, int x, int y, long arrived) {
+        this.player = player;
+        this.x = x;
+        this.y = y;
+        this.arrived = arrived;
+        this.parsed = System.nanoTime();
+        this.ready = parsed;
+    }
+
+    /**
+     * Gives the trace of the move that the game on the calling thread is making.
+     * @return The trace, or null if no traced move is being made on this thread.
+     */
+    public static MoveTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Marks that the move came before the player's turn and can be made now.
+     * @post ensures that the time the move waited for its turn isn't counted
+     */
+    public void ready() {
+        ready = System.nanoTime();
+    }
+
+    /**
+     * Marks that the game's lock has been taken for the move, and makes this the current trace of the calling thread.
+     * @post ensures that current() == this
+     */
+    public void locked() {
+        locked = System.nanoTime();
+        CURRENT.set(this);
+    }
+
+    /**
+     * Marks that the board has made the move.
+     */
+    public void logicDone() {
+        logicDone = System.nanoTime();
+    }
+
+    /**
+     * Records how long building the update for a player took.
+     * @param updatedPlayer The name of the player that is sent the update.
+     * @param nanos How long it took.
+     */
+    public void encoded(String updatedPlayer, long nanos) {
+        if (updates < players.length) {
+            players[updates] = updatedPlayer;
+            encodeNanos[updates] = nanos;
+        }
+    }
+
+    /**
+     * Records how long writing the update to a player took. Follows {@link #encoded(String, long)} for the same player.
+     * @param nanos How long it took.
+     */
+    public void flushed(long nanos) {
+        if (updates < players.length) {
+            flushNanos[updates++] = nanos;
+        }
+    }
+
+    /**
+     * Finishes the trace when the game has made the move, and records it with the shared tracer.
+     * @param gameId The game the move was made in.
+     * @post ensures that current() == null and the stages are recorded
+     */
+    public void finish(int gameId) {
+        CURRENT.remove();
+        if (logicDone == 0) { // The game had ended and didn't make the move
+            return;
+        }
+        MoveTracer.getShared().record(this, gameId, System.nanoTime());
+    }
+
+    /**
+     * Getter for the x coordinate of the move.
+     * @return The x coordinate.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Getter for the y coordinate of the move.
+     * @return The y coordinate.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Getter for the name of the player that sent the move.
+     * @return The name.
+     */
+    public String getPlayer() {
+        return player;
+    }
+
+    /**
+     * Getter for the time from reading the message until the move was parsed.
+     * @return The time in nanoseconds.
+     */
+    public long getParseNanos() {
+        return parsed - arrived;
+    }
+
+    /**
+     * Getter for the time from the move being ready until the game's lock was taken.
+     * @return The time in nanoseconds.
+     */
+    public long getQueueNanos() {
+        return locked - ready;
+    }
+
+    /**
+     * Getter for the time the board took to make the move.
+     * @return The time in nanoseconds.
+     */
+    public long getLogicNanos() {
+        return logicDone - locked;
+    }
+
+    /**
+     * Getter for the number of players whose update was timed.
+     * @return The number of players, at most 2.
+     */
+    public int getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Getter for a player whose update was timed.
+     * @param update The index of the update, in the order they were sent.
+     * @return The name of the player.
+     * @pre update >= 0 && update < getUpdates()
+     */
+    public String getUpdatedPlayer(int update) {
+        return players[update];
+    }
+
+    /**
+     * Getter for the time building an update took.
+     * @param update The index of the update, in the order they were sent.
+     * @return The time in nanoseconds.
+     * @pre update >= 0 && update < getUpdates()
+     */
+    public long getEncodeNanos(int update) {
+        return encodeNanos[update];
+    }
+
+    /**
+     * Getter for the time writing an update took.
+     * @param update The index of the update, in the order they were sent.
+     * @return The time in nanoseconds.
+     * @pre update >= 0 && update < getUpdates()
+     */
+    public long getFlushNanos(int update) {
+        return flushNanos[update];
+    }
+
+    /**
+     * Gives the time from reading the message until the move had been made, without the time it waited for the player's turn.
+     * @param finished When the move had been made.
+     * @return The time in nanoseconds.
+     */
+    public long getTotalNanos(long finished) {
+        return getParseNanos() + (finished - ready);
+    }
+}
@@ -0,0 +1,229 @@
+package metrics;
+
+// External imports
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Collects the traces of the moves clients send, in a histogram per stage in microseconds, so that it can be told where the
+ * time of a slow move went: parsing, queueing for a timer thread or the game's lock, the game logic, or encoding and writing
+ * the updates. Moves that take longer than the slow move threshold are counted, the latest of them are kept with their
+ * breakdown, and at most one per sample interval is written to the log, so a burst of slow moves can't flood it.
+ * @inv parse != null, queue != null, logic != null, encode != null, flush != null, total != null, slowMoves != null,
+ * recentSlowMoves != null, slowMoveMicros >= 0
+ */
+public class MoveTracer {
+    // The threshold above which a move is slow, in milliseconds, if no other one is set with the system property
+    public static final long DEFAULT_SLOW_MOVE_MILLIS = 50;
+
+    // The system property that sets the slow move threshold in milliseconds
+    public static final String SLOW_MOVE_PROPERTY = "battleship.slowMoveMillis";
+
+    // The most slow moves written to the log per interval, and the interval in milliseconds
+    public static final long SAMPLE_INTERVAL_MILLIS = 1000;
+
+    // The number of slow moves kept with their breakdown
+    public static final int RECENT_SLOW_MOVES = 16;
+
+    // The tracer of this process
+    private static final MoveTracer SHARED = new MoveTracer(Long.getLong(SLOW_MOVE_PROPERTY, DEFAULT_SLOW_MOVE_MILLIS));
+
+    // The time of every stage of traced moves in microseconds. Encode and flush have a value for every player updated.
+    private LatencyHistogram parse;
+    private LatencyHistogram queue;
+    private LatencyHistogram logic;
+    private LatencyHistogram encode;
+    private LatencyHistogram flush;
+    private LatencyHistogram total;
+
+    // The threshold above which a move is slow in microseconds
+    private long slowMoveMicros;
+
+    // The number of slow moves, and the breakdown of the latest of them
+    private LongAdder slowMoves;
+    private Deque<String> recentSlowMoves;
+
+    // When a slow move was last written to the log, from System.nanoTime()
+    private AtomicLong lastLogged;
+
+    // Where slow moves are written, null to only keep them
+    private volatile Consumer<String> log;
+
+    /**
+     * Creates a tracer with nothing recorded.
+     * @param slowMoveMillis The threshold above which a move is slow in milliseconds.
+     * @pre slowMoveMillis >= 0
+     * @post ensures that no move is recorded and slow moves aren't written to a log
+     */
+    public MoveTracer(long slowMoveMillis) {
+        parse = new LatencyHistogram();
+        queue = new LatencyHistogram();
+        logic = new LatencyHistogram();
+        encode = new LatencyHistogram();
+        flush = new LatencyHistogram();
+        total = new LatencyHistogram();
+        slowMoveMicros = TimeUnit.MILLISECONDS.toMicros(slowMoveMillis);
+        slowMoves = new LongAdder();
+        recentSlowMoves = new ArrayDeque<>();
+        lastLogged = new AtomicLong(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(SAMPLE_INTERVAL_MILLIS));
+    }
+
+    /**
+     * Getter for the tracer of this process, whose slow move threshold is set with {@link #SLOW_MOVE_PROPERTY}.
+     * @return The shared tracer.
+     */
+    public static MoveTracer getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Setter for where slow moves are written.
+     * @param log Takes a line per slow move, or null to only keep them.
+     * @post ensures that sampled slow moves are written to log
+     */
+    public void setLog(Consumer<String> log) {
+        this.log = log;
+    }
+
+    /**
+     * Records a finished move.
+     * @param trace The trace of the move.
+     * @param gameId The game the move was made in.
+     * @param finished When the move had been made, from System.nanoTime().
+     * @pre trace != null
+     * @post ensures that every stage is recorded, and the move is kept and maybe logged if it was slow
+     */
+    public void record(MoveTrace trace, int gameId, long finished) {
+        long totalMicros = micros(trace.getTotalNanos(finished));
+        parse.record(micros(trace.getParseNanos()));
+        queue.record(micros(trace.getQueueNanos()));
+        logic.record(micros(trace.getLogicNanos()));
+        for (int i = 0; i < trace.getUpdates(); i++) {
+            encode.record(micros(trace.getEncodeNanos(i)));
+            flush.record(micros(trace.getFlushNanos(i)));
+        }
+        total.record(totalMicros);
+
+        if (totalMicros <= slowMoveMicros) {
+            return;
+        }
+        slowMoves.increment();
+        String breakdown = describe(trace, gameId, totalMicros);
+        synchronized (recentSlowMoves) {
+            if (recentSlowMoves.size() == RECENT_SLOW_MOVES) {
+                recentSlowMoves.removeFirst();
+            }
+            recentSlowMoves.addLast(breakdown);
+        }
+
+        Consumer<String> out = log;
+        long last = lastLogged.get();
+        if (out != null && finished - last >= TimeUnit.MILLISECONDS.toNanos(SAMPLE_INTERVAL_MILLIS) &&
+                lastLogged.compareAndSet(last, finished)) {
+            out.accept(breakdown);
+        }
+    }
+
+    /**
+     * Describes a slow move with the time of every stage in microseconds.
+     */
+    private static String describe(MoveTrace trace, int gameId, long totalMicros) {
+        StringBuilder description = new StringBuilder("Slow move in game ").append(gameId).append(" by ")
+            .append(trace.getPlayer()).append(" at ").append(trace.getX()).append(',').append(trace.getY())
+            .append(": ").append(totalMicros).append(" us total, parse ").append(micros(trace.getParseNanos()))
+            .append(", queue ").append(micros(trace.getQueueNanos()))
+            .append(", logic ").append(micros(trace.getLogicNanos()));
+        for (int i = 0; i < trace.getUpdates(); i++) {
+            description.append(", to ").append(trace.getUpdatedPlayer(i))
+                .append(" encode ").append(micros(trace.getEncodeNanos(i)))
+                .append(" flush ").append(micros(trace.getFlushNanos(i)));
+        }
+        return description.toString();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * Getter for the time from reading a move until it was parsed.
+     * @return The histogram in microseconds.
+     */
+    public LatencyHistogram getParse() {
+        return parse;
+    }
+
+    /**
+     * Getter for the time from a move being ready until its game's lock was taken.
+     * @return The histogram in microseconds.
+     */
+    public LatencyHistogram getQueue() {
+        return queue;
+    }
+
+    /**
+     * Getter for the time the board took to make a move.
+     * @return The histogram in microseconds.
+     */
+    public LatencyHistogram getLogic() {
+        return logic;
+    }
+
+    /**
+     * Getter for the time building an update for a player took.
+     * @return The histogram in microseconds, with a value per player updated.
+     */
+    public LatencyHistogram getEncode() {
+        return encode;
+    }
+
+    /**
+     * Getter for the time writing an update to a player took.
+     * @return The histogram in microseconds, with a value per player updated.
+     */
+    public LatencyHistogram getFlush() {
+        return flush;
+    }
+
+    /**
+     * Getter for the time from reading a move until it had been made and the updates were written.
+     * @return The histogram in microseconds.
+     */
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    /**
+     * Getter for the number of slow moves.
+     * @return The number of moves that took longer than the threshold.
+     */
+    public long getSlowMoves() {
+        return slowMoves.sum();
+    }
+
+    /**
+     * Gives the breakdown of the latest slow moves.
+     * @return A line per slow move, the oldest first.
+     */
+    public List<String> getRecentSlowMoves() {
+        synchronized (recentSlowMoves) {
+            return new ArrayList<>(recentSlowMoves);
+        }
+    }
+
+    /**
+     * Describes the stages with a line each, in microseconds, and the number of slow moves.
+     * @return The description.
+     */
+    @Override
+    public String toString() {
+        return "parse " + parse + "\nqueue " + queue + "\nlogic " + logic + "\nencode " + encode + "\nflush " + flush +
+            "\ntotal " + total + "\nslow moves (over " + slowMoveMicros + " us): " + getSlowMoves();
+    }
+}
@@ -0,0 +1,65 @@
+package metrics;
+
+// External imports
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for writing to a client that took long, because its socket buffer was full. A player is written to
+ * while the lock of its handler, and often of its game, is held, so a stall holds up the game; a spectator stalls one of the
+ * shared spectator writers. Only writes over the threshold are recorded, 20 ms unless a recording sets another one.
+ */
+@Name("battleship.OutboundStall")
+@Label("Outbound Stall")
+@Category({"Battleship", "Connections"})
+@Description("Writing to a client took longer than the threshold")
+@Threshold("20 ms")
+public class OutboundStallEvent extends jdk.jfr.Event {
+    // The kinds of clients written to
+    public static final String TARGET_PLAYER = "Player";
+    public static final String TARGET_SPECTATOR = "Spectator";
+
+    // One of the TARGET constants
+    @Label("Target")
+    private String target;
+
+    // The name of the player, null for a spectator
+    @Label("Player")
+    private String player;
+
+    // How much was written
+    @Label("Written")
+    @DataAmount(DataAmount.BYTES)
+    private long written;
+
+    /**
+     * Starts timing a write.
+     * @return The event, to be finished when the write and flush have returned.
+     */
+    public static OutboundStallEvent start() {
+        OutboundStallEvent event = new OutboundStallEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing the write and emits the event if it is enabled in a running recording and the write took longer than
+     * the threshold.
+     * @param target One of the TARGET constants.
+     * @param player The name of the player, or null.
+     * @param written How much was written, in characters for a player and in bytes for a spectator.
+     */
+    public void finish(String target, String player, long written) {
+        end();
+        if (shouldCommit()) {
+            this.target = target;
+            this.player = player;
+            this.written = written;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package metrics.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+// Internal imports
+import bot.BotPlayer;
+import game.Game;
+import game.RuleProfile;
+import metrics.BoardDecodeEvent;
+import metrics.GameEndedEvent;
+import metrics.GameStartedEvent;
+import metrics.MoveEvent;
+import server.Matchmaker;
+import tui.GameServerTUI;
+
+/**
+ * Tests that a game emits its Flight Recorder events while a recording is running, and that the events are off otherwise.
+ */
+public class FlightRecorderEventsTest {
+    // Names no other test gives its players, since every matchmaker counts game ids from the start and games of other tests
+    // may still be going on
+    private static final String FIRST = "recorded-first";
+    private static final String SECOND = "recorded-second";
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that a game between bots is recorded with its start, both board decodes, every move and its end.
+     */
+    @Test
+    void testGameIsRecorded() throws Exception {
+        Path file = directory.resolve("game.jfr");
+        Game game;
+        try (Recording recording = new Recording()) {
+            recording.enable(GameStartedEvent.class);
+            recording.enable(GameEndedEvent.class);
+            recording.enable(MoveEvent.class);
+            recording.enable(BoardDecodeEvent.class);
+            recording.start();
+
+            Matchmaker matchmaker = new Matchmaker(new GameServerTUI(), 0);
+            game = matchmaker.createGame(RuleProfile.CLASSIC);
+            CountDownLatch ended = new CountDownLatch(1);
+            game.addGameListener(endedGame -> ended.countDown());
+            new BotPlayer(FIRST, game.splitRandom(), 0).join(game);
+            new BotPlayer(SECOND, game.splitRandom(), 0).join(game);
+            assertTrue(ended.await(30, TimeUnit.SECONDS));
+            synchronized (game) { // The last move is finished once the game's lock is free, just after the game has ended
+            }
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getInt("gameId") == game.getGameId() && isOfPlayers(event))
+            .collect(Collectors.toList());
+        assertEquals(1, count(events, "battleship.GameStarted"));
+        assertEquals(2, count(events, "battleship.BoardDecode"));
+        assertEquals(game.getRecording().getMoveCount(), count(events, "battleship.Move"));
+
+        RecordedEvent gameEnded = events.stream()
+            .filter(event -> event.getEventType().getName().equals("battleship.GameEnded")).findFirst().get();
+        assertEquals(GameEndedEvent.REASON_SUNK, gameEnded.getString("reason"));
+        assertEquals(game.getWinnerName(), gameEnded.getString("winner"));
+        assertEquals(game.getRecording().getMoveCount(), gameEnded.getInt("moves"));
+        assertTrue(events.stream()
+            .filter(event -> event.getEventType().getName().equals("battleship.Move"))
+            .noneMatch(event -> event.getBoolean("late")));
+    }
+
+    /**
+     * Tests that the events are disabled without a recording, so the server only pays for checking that.
+     */
+    @Test
+    void testDisabledWithoutRecording() {
+        assertFalse(new MoveEvent().isEnabled());
+        assertFalse(new GameStartedEvent().isEnabled());
+    }
+
+    /**
+     * Tells whether the player an event names is one of the recorded game, and not of another game with the same id.
+     */
+    private static boolean isOfPlayers(RecordedEvent event) {
+        String field = event.hasField("player") ? "player" : event.hasField("player1") ? "player1" : "winner";
+        String player = event.getString(field);
+        return FIRST.equals(player) || SECOND.equals(player);
+    }
+
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).count();
+    }
+}
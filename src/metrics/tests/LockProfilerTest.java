@@ -0,0 +1,119 @@
+package metrics.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import bot.BotPlayer;
+import game.Game;
+import game.RuleProfile;
+import metrics.LockProfiler;
+import metrics.LockTimer;
+import server.Matchmaker;
+import tui.GameServerTUI;
+
+/**
+ * Tests the timing of locks and the dump of where threads block.
+ */
+public class LockProfilerTest {
+
+    /**
+     * Tests that a thread that waits for a lock held by another one records the wait, and the holder records the hold.
+     */
+    @Test
+    void testWaitIsTimed() throws InterruptedException {
+        LockTimer timer = new LockTimer("Test lock");
+        Object lock = new Object();
+        CountDownLatch held = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> {
+            long waiting = System.nanoTime();
+            synchronized (lock) {
+                long acquired = timer.acquired(waiting);
+                held.countDown();
+                sleep(20);
+                timer.released(acquired);
+            }
+        });
+        holder.start();
+        held.await();
+
+        long waiting = System.nanoTime();
+        synchronized (lock) {
+            timer.released(timer.acquired(waiting));
+        }
+        holder.join();
+
+        assertEquals(2, timer.getWaits().getCount());
+        assertEquals(2, timer.getHolds().getCount());
+        assertTrue(timer.getWaits().getMax() >= TimeUnit.MILLISECONDS.toMicros(10));
+        assertTrue(timer.getHolds().getMax() >= TimeUnit.MILLISECONDS.toMicros(20));
+    }
+
+    /**
+     * Tests that the dump has the timed locks, the thread states and the threads that are blocked with the lock's owner.
+     */
+    @Test
+    void testDumpShowsBlockedThread() throws InterruptedException {
+        LockProfiler profiler = new LockProfiler(ManagementFactory.getThreadMXBean());
+        Object lock = new Object();
+        Thread blocked = new Thread(() -> {
+            synchronized (lock) {
+            }
+        }, "Blocked-1");
+
+        String dump;
+        synchronized (lock) {
+            blocked.start();
+            while (blocked.getState() != Thread.State.BLOCKED) {
+                Thread.sleep(1);
+            }
+            dump = profiler.dump();
+        }
+        blocked.join();
+
+        assertTrue(dump.startsWith("Timed locks, in microseconds:\n  Game monitor, makeMove: waited count 0"));
+        assertTrue(dump.contains("Console: waited"));
+        assertTrue(dump.contains("BLOCKED="));
+        assertTrue(dump.contains("\n  Blocked (1): blocked 1 times"));
+        assertTrue(dump.contains("\n  Blocked-1 on java.lang.Object@"));
+        assertTrue(dump.contains(" held by " + Thread.currentThread().getName()));
+    }
+
+    /**
+     * Tests that a game between bots times the game's monitor for every player, board and move.
+     */
+    @Test
+    void testGameMonitorIsTimed() throws InterruptedException {
+        LockProfiler profiler = LockProfiler.getShared();
+        long players = profiler.getSetPlayer().getHolds().getCount();
+        long boards = profiler.getSetBoard().getHolds().getCount();
+        long moves = profiler.getMakeMove().getHolds().getCount();
+
+        Game game = new Matchmaker(new GameServerTUI(), 0).createGame(RuleProfile.CLASSIC);
+        CountDownLatch ended = new CountDownLatch(1);
+        game.addGameListener(endedGame -> ended.countDown());
+        new BotPlayer("first", game.splitRandom(), 0).join(game);
+        new BotPlayer("second", game.splitRandom(), 0).join(game);
+        assertTrue(ended.await(30, TimeUnit.SECONDS));
+        synchronized (game) { // The last move is released once the game's lock is free, just after the game has ended
+        }
+
+        assertTrue(profiler.getSetPlayer().getHolds().getCount() >= players + 2);
+        assertTrue(profiler.getSetBoard().getHolds().getCount() >= boards + 2);
+        assertTrue(profiler.getMakeMove().getHolds().getCount() >= moves + game.getRecording().getMoveCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package metrics.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import metrics.MoveTrace;
+import metrics.MoveTracer;
+
+/**
+ * Tests the tracing of moves through their stages, and the sampled log of slow moves.
+ */
+public class MoveTracerTest {
+
+    /**
+     * Tests that a finished trace is recorded in every stage of the shared tracer, with an encode and flush time per player.
+     */
+    @Test
+    void testTraceIsRecorded() {
+        MoveTracer tracer = MoveTracer.getShared();
+        long moves = tracer.getTotal().getCount();
+        long updates = tracer.getFlush().getCount();
+
+        MoveTrace trace = new MoveTrace("alice", 3, 4, System.nanoTime());
+        trace.locked();
+        assertSame(trace, MoveTrace.current());
+        trace.logicDone();
+        trace.encoded("alice", 1000);
+        trace.flushed(2000);
+        trace.encoded("bob", 1000);
+        trace.flushed(3000);
+        trace.finish(1);
+
+        assertNull(MoveTrace.current());
+        assertEquals(moves + 1, tracer.getTotal().getCount());
+        assertEquals(moves + 1, tracer.getLogic().getCount());
+        assertEquals(updates + 2, tracer.getFlush().getCount());
+        assertTrue(tracer.getFlush().getMax() >= 3);
+    }
+
+    /**
+     * Tests that a move that is never made, because its game has ended, isn't recorded.
+     */
+    @Test
+    void testUnmadeMoveIsNotRecorded() {
+        long moves = MoveTracer.getShared().getTotal().getCount();
+        MoveTrace trace = new MoveTrace("alice", 0, 0, System.nanoTime());
+        trace.locked();
+        trace.finish(1);
+        assertNull(MoveTrace.current());
+        assertEquals(moves, MoveTracer.getShared().getTotal().getCount());
+    }
+
+    /**
+     * Tests that every slow move is counted and kept with its breakdown, but only one per interval is written to the log.
+     */
+    @Test
+    void testSlowMovesAreSampled() throws InterruptedException {
+        MoveTracer tracer = new MoveTracer(0);
+        List<String> log = new ArrayList<>();
+        tracer.setLog(log::add);
+
+        for (int i = 0; i < 3; i++) {
+            MoveTrace trace = new MoveTrace("alice", i, 0, System.nanoTime());
+            trace.locked();
+            TimeUnit.MILLISECONDS.sleep(1);
+            trace.logicDone();
+            trace.encoded("bob", 1000);
+            trace.flushed(1000);
+            tracer.record(trace, 7, System.nanoTime());
+            trace.finish(7);
+        }
+
+        assertEquals(3, tracer.getSlowMoves());
+        assertEquals(3, tracer.getRecentSlowMoves().size());
+        assertEquals(1, log.size());
+        assertTrue(log.get(0).startsWith("Slow move in game 7 by alice at 0,0: "));
+        assertTrue(log.get(0).contains(", to bob encode 1 flush 1"));
+        assertTrue(tracer.getLogic().getPercentile(0) >= 1000);
+    }
+}
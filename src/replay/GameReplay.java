@@ -0,0 +1,219 @@
+package replay;
+
+// External imports
+import java.util.Arrays;
+
+// Internal imports
+import constants.GameConstants;
+import game.GameBoard;
+import game.GameRecording;
+
+/**
+ * This class replays a recorded game. It rebuilds both players' game boards from the recording and applies the recorded moves
+ * with the same scoring rules as the game: a hit is one point and sinking a ship is another point. When the replay is created it
+ * fast-forwards through the whole game once and stores a checkpoint of both boards every {@link #CHECKPOINT_INTERVAL} moves.
+ * Seeking to a move then only needs a binary search over the checkpoints and at most CHECKPOINT_INTERVAL - 1 moves to be applied.
+ * @inv recording != null, checkpointMoves != null, position >= 0 && position <= recording.getMoveCount()
+ */
+public class GameReplay {
+    // The number of moves between two checkpoints
+    public static final int CHECKPOINT_INTERVAL = 16;
+
+    // The recording that is replayed
+    private GameRecording recording;
+
+    // The move number of each checkpoint and the saved state at that move
+    private int[] checkpointMoves;
+    private GameBoard[][] checkpointBoards;
+    private int[][] checkpointPoints;
+
+    // The current state of the replay. Index 0 is player 1 and index 1 is player 2.
+    private GameBoard[] boards;
+    private int[] points;
+
+    // The number of moves that have been applied
+    private int position;
+
+    // Whether all ships of one of the boards have been destroyed at the current position
+    private boolean allShipsDestroyed;
+
+    /**
+     * Creates a replay of the given recording and builds its checkpoints by fast-forwarding through the whole game.
+     * After construction the replay is positioned at the end of the game.
+     * @param recording The recording to replay.
+     * @pre recording != null, recording.getBoard(0) != null, recording.getBoard(1) != null
+     * @post ensures that the checkpoints are built and the replay is positioned at the last move
+     */
+    public GameReplay(GameRecording recording) {
+        this.recording = recording;
+
+        int checkpointCount = recording.getMoveCount() / CHECKPOINT_INTERVAL + 1;
+        checkpointMoves = new int[checkpointCount];
+        checkpointBoards = new GameBoard[checkpointCount][];
+        checkpointPoints = new int[checkpointCount][];
+
+        reset();
+        for (int i = 0; i < checkpointCount; i++) {
+            fastForward(i * CHECKPOINT_INTERVAL);
+            checkpointMoves[i] = position;
+            checkpointBoards[i] = new GameBoard[] {new GameBoard(boards[0]), new GameBoard(boards[1])};
+            checkpointPoints[i] = points.clone();
+        }
+        fastForward(recording.getMoveCount());
+    }
+
+    /**
+     * Positions the replay right after the given number of moves have been made.
+     * @param moveNumber The number of moves to apply. 0 is the start of the game.
+     * @pre moveNumber >= 0 && moveNumber <= recording.getMoveCount()
+     * @post ensures that the boards and points are the same as in the game after moveNumber moves
+     */
+    public void seek(int moveNumber) {
+        if (moveNumber < 0 || moveNumber > recording.getMoveCount()) {
+            throw new IllegalArgumentException("Move " + moveNumber + " is not between 0 and " + recording.getMoveCount() + ".");
+        }
+
+        // Only restore a checkpoint when going backwards or when it is closer than the current position
+        if (moveNumber < position || moveNumber - position >= CHECKPOINT_INTERVAL) {
+            int index = Arrays.binarySearch(checkpointMoves, moveNumber);
+            if (index < 0) {
+                index = -index - 2; // The last checkpoint before the move
+            }
+            boards[0] = new GameBoard(checkpointBoards[index][0]);
+            boards[1] = new GameBoard(checkpointBoards[index][1]);
+            points = checkpointPoints[index].clone();
+            position = checkpointMoves[index];
+            allShipsDestroyed = boards[0].allShipsDestroyed() || boards[1].allShipsDestroyed();
+        }
+
+        fastForward(moveNumber);
+    }
+
+    /**
+     * Resets the replay to the start of the game.
+     */
+    private void reset() {
+        boards = new GameBoard[] {new GameBoard(recording.getBoard(0), recording.getRules()), new GameBoard(recording.getBoard(1), recording.getRules())};
+        points = new int[2];
+        position = 0;
+        allShipsDestroyed = false;
+    }
+
+    /**
+     * Applies the recorded moves until the given number of moves have been made.
+     * @param moveNumber The move number to stop at.
+     * @pre moveNumber >= position
+     */
+    private void fastForward(int moveNumber) {
+        while (position < moveNumber) {
+            applyMove(position);
+            position++;
+        }
+    }
+
+    /**
+     * Applies a single recorded move to the opponent's board and adds the points the same way the game does.
+     * A late move doesn't change the boards and the move that destroys all ships doesn't add points.
+     * @param index The index of the move to apply.
+     */
+    private void applyMove(int index) {
+        if (recording.isMoveLate(index)) {
+            return;
+        }
+
+        int player = recording.getMovePlayer(index);
+        boolean[] result = boards[1 - player].makeMove(recording.getMoveX(index), recording.getMoveY(index));
+
+        if (result[2]) {
+            allShipsDestroyed = true;
+        } else if (result[0]) {
+            points[player]++;
+            if (result[1]) {
+                points[player]++;
+            }
+        }
+    }
+
+    /**
+     * Prints both boards at the current position using the game board's line rendering. Water is blue,
+     * water that was shot at is white, ships are shown with an S and ships that were hit are red.
+     * @post ensures that both boards and the points are printed to the terminal
+     */
+    public void printBoards() {
+        System.out.println("Game " + recording.getGameId() + " after move " + position + " of " + recording.getMoveCount());
+
+        for (int player = 0; player < 2; player++) {
+            System.out.println(recording.getPlayerName(player) + " (" + points[player] + " points)");
+            printBoard(boards[player]);
+        }
+    }
+
+    /**
+     * Prints a single board.
+     * @param gameBoard The board to print.
+     */
+    private void printBoard(GameBoard gameBoard) {
+        String[][] board = gameBoard.getBoard();
+
+        for (int y = 0; y < board[0].length; y++) {
+            for (int x = 0; x < board.length; x++) {
+                String field = board[x][y];
+
+                if (field.equals(GameConstants.FIELD_TYPE_WATER)) {
+                    gameBoard.printBoardLine("blue", 1);
+                } else if (field.equals(GameConstants.FIELD_TYPE_WATER_HIT)) {
+                    gameBoard.printBoardLine("white", 1);
+                } else if (field.endsWith(GameConstants.FIELD_TYPE_HIT_EXTENSION)) {
+                    gameBoard.printBoardLine("ship-hit", 1);
+                } else {
+                    gameBoard.printBoardLine("ship", 1);
+                }
+            }
+            gameBoard.printBoardLine("newLine", 1);
+        }
+    }
+
+    /**
+     * Getter for the replayed recording.
+     * @return The recording.
+     */
+    public GameRecording getRecording() {
+        return recording;
+    }
+
+    /**
+     * Getter for the number of moves applied.
+     * @return The current position in the replay.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Getter for a player's board at the current position.
+     * @param player 0 for player 1 and 1 for player 2.
+     * @return The board.
+     * @pre player == 0 || player == 1
+     */
+    public GameBoard getBoard(int player) {
+        return boards[player];
+    }
+
+    /**
+     * Getter for a player's points at the current position.
+     * @param player 0 for player 1 and 1 for player 2.
+     * @return The points.
+     * @pre player == 0 || player == 1
+     */
+    public int getPoints(int player) {
+        return points[player];
+    }
+
+    /**
+     * Getter for whether one of the boards has no ships left at the current position.
+     * @return Whether all ships of one of the players are destroyed.
+     */
+    public boolean getAllShipsDestroyed() {
+        return allShipsDestroyed;
+    }
+}
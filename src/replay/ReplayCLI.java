@@ -0,0 +1,129 @@
+package replay;
+
+// External imports
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Internal imports
+import constants.GameConstants;
+import game.GameRecording;
+import game.ReplayArchive;
+import tui.TerminalColors;
+
+/**
+ * Command line tool for replaying recorded games. It can print both boards of one game at a given move or replay a whole
+ * directory of recordings in parallel on all available cores and print the result of each game.
+ * <p>
+ * Usage: <br>
+ * {@code ReplayCLI <file> [move]} prints the boards of the recording after the given move, or after the last move.<br>
+ * {@code ReplayCLI --batch [directory]} replays every recording in the directory, by default the server's replay directory, which
+ * is set with the same system property as for the server.
+ */
+public class ReplayCLI {
+    public static final String USAGE_MESSAGE = "Usage: ReplayCLI <file> [move] | ReplayCLI --batch [directory]";
+    public static final String BATCH_OPTION = "--batch";
+
+    /**
+     * Parses the arguments and either prints a single game or replays a batch of games.
+     * @param args The arguments as described in the class description.
+     * @post ensures that the requested replay is printed or the usage is shown for invalid arguments
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println(ReplayCLI.USAGE_MESSAGE);
+            return;
+        }
+
+        try {
+            if (args[0].equals(ReplayCLI.BATCH_OPTION)) {
+                File directory = new File(args.length >= 2 ? args[1] :
+                    System.getProperty(ReplayArchive.DIRECTORY_PROPERTY, GameConstants.REPLAY_DIRECTORY).trim());
+                replayBatch(directory, Runtime.getRuntime().availableProcessors());
+            } else {
+                GameReplay replay = new GameReplay(GameRecording.load(new File(args[0])));
+                if (args.length >= 2) {
+                    replay.seek(Integer.parseInt(args[1]));
+                }
+                replay.printBoards();
+            }
+        } catch (IOException e) {
+            System.out.println(TerminalColors.RED_BOLD + "Could not read the recording: " + e.getMessage() + TerminalColors.RESET);
+        } catch (IllegalArgumentException e) { // Also catches NumberFormatException
+            System.out.println(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            System.out.println(ReplayCLI.USAGE_MESSAGE);
+        }
+    }
+
+    /**
+     * Replays every recording in a directory on a pool with one thread per core and prints a summary line for each game
+     * in the order of the file names.
+     * @param directory The directory with the recordings.
+     * @param threads The number of threads to replay on.
+     * @return The number of games that were replayed successfully.
+     * @pre directory != null, threads > 0
+     * @post ensures that every recording is replayed and its summary is printed
+     */
+    public static int replayBatch(File directory, int threads) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(GameRecording.FILE_EXTENSION));
+        if (files == null) {
+            System.out.println(TerminalColors.RED_BOLD + directory + " is not a directory." + TerminalColors.RESET);
+            return 0;
+        }
+        Arrays.sort(files);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<String>> summaries = new ArrayList<>();
+
+        for (File file : files) {
+            summaries.add(pool.submit(() -> summarise(file)));
+        }
+
+        int replayed = 0;
+        for (int i = 0; i < files.length; i++) {
+            try {
+                System.out.println(summaries.get(i).get());
+                replayed++;
+            } catch (ExecutionException e) {
+                System.out.println(TerminalColors.RED_BOLD + files[i].getName() + ": " + e.getCause().getMessage() + TerminalColors.RESET);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        pool.shutdown();
+
+        System.out.println("Replayed " + replayed + " of " + files.length + " games.");
+        return replayed;
+    }
+
+    /**
+     * Replays a single recording to the end and describes its result.
+     * @param file The recording.
+     * @return A line with the game id, the players, the points and the recorded winner.
+     * @throws IOException if the recording can't be read.
+     */
+    private static String summarise(File file) throws IOException {
+        GameRecording recording = GameRecording.load(file);
+        GameReplay replay = new GameReplay(recording);
+
+        String winner = recording.getWinnerName();
+        if (winner == null) {
+            winner = "unknown";
+        } else if (winner.isEmpty()) {
+            winner = "tie";
+        }
+
+        return "Game " + recording.getGameId() + ": " +
+            recording.getPlayerName(0) + " " + replay.getPoints(0) + " - " +
+            replay.getPoints(1) + " " + recording.getPlayerName(1) +
+            " after " + recording.getMoveCount() + " moves, winner: " + winner +
+            (recording.getWinType() ? "" : " (forfeit)");
+    }
+}
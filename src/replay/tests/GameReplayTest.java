@@ -0,0 +1,133 @@
+package replay.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.io.IOException;
+
+// Internal imports
+import constants.GameConstants;
+import game.Game;
+import game.GameBoard;
+import game.GameRecording;
+import replay.GameReplay;
+import tui.GameServerTUI;
+
+/**
+ * Tests that a recorded game survives saving and loading and that seeking in the replay gives the same boards and
+ * points as playing the moves one by one.
+ */
+public class GameReplayTest {
+    private static final String FIRST_PLAYER_NAME = "Albert";
+    private static final String SECOND_PLAYER_NAME = "Sam";
+    private static final String ENCODED_BOARD = "b;WATER;BATTLESHIP_FRONT;BATTLESHIP_FRONT_MID;BATTLESHIP_BACK_MID;BATTLESHIP_BACK;WATER;WATER;SUPER_PATROL_FRONT;SUPER_PATROL_BACK;WATER;WATER;SUPER_PATROL_FRONT;SUPER_PATROL_BACK;WATER;WATER;WATER;WATER;WATER;WATER;PATROL;WATER;WATER;WATER;WATER;WATER;WATER;WATER;WATER;SUPER_PATROL_FRONT;SUPER_PATROL_BACK;WATER;PATROL;WATER;WATER;WATER;SUPER_PATROL_FRONT;SUPER_PATROL_BACK;WATER;WATER;WATER;WATER;SUPER_PATROL_FRONT;SUPER_PATROL_BACK;WATER;WATER;WATER;DESTROYER_FRONT;DESTROYER_MID;DESTROYER_BACK;PATROL;WATER;WATER;PATROL;WATER;WATER;WATER;BATTLESHIP_FRONT;BATTLESHIP_FRONT_MID;BATTLESHIP_BACK_MID;BATTLESHIP_BACK;WATER;WATER;DESTROYER_FRONT;DESTROYER_MID;DESTROYER_BACK;WATER;WATER;DESTROYER_FRONT;DESTROYER_MID;DESTROYER_BACK;SUPER_PATROL_FRONT;SUPER_PATROL_BACK;WATER;WATER;PATROL;CARRIER_FRONT;CARRIER_FRONT_MID;CARRIER_MID;CARRIER_BACK_MID;CARRIER_BACK;WATER;WATER;WATER;WATER;WATER;PATROL;WATER;WATER;WATER;WATER;WATER;WATER;WATER;WATER;WATER;PATROL;WATER;WATER;PATROL;WATER;WATER;WATER;DESTROYER_FRONT;DESTROYER_MID;DESTROYER_BACK;DESTROYER_FRONT;DESTROYER_MID;DESTROYER_BACK;WATER;WATER;WATER;WATER;WATER;PATROL;WATER;WATER;WATER;WATER;WATER;WATER;WATER;CARRIER_FRONT;CARRIER_FRONT_MID;CARRIER_MID;CARRIER_BACK_MID;CARRIER_BACK;WATER;BATTLESHIP_FRONT;BATTLESHIP_FRONT_MID;BATTLESHIP_BACK_MID;BATTLESHIP_BACK;WATER;WATER;WATER;WATER;WATER;WATER;WATER;PATROL;WATER;WATER;WATER;WATER;SUPER_PATROL_FRONT;SUPER_PATROL_BACK;WATER;SUPER_PATROL_FRONT;SUPER_PATROL_BACK;WATER;WATER";
+
+    @TempDir
+    File directory;
+
+    private GameRecording recording;
+
+    /**
+     * Records a game where player 1 shoots at every field of player 2's board row by row and player 2 only makes late moves.
+     */
+    @BeforeEach
+    void recordGame() {
+        recording = new GameRecording(1);
+        recording.setPlayerName(0, GameReplayTest.FIRST_PLAYER_NAME);
+        recording.setPlayerName(1, GameReplayTest.SECOND_PLAYER_NAME);
+        recording.setBoard(0, GameReplayTest.ENCODED_BOARD);
+        recording.setBoard(1, GameReplayTest.ENCODED_BOARD);
+
+        for (int y = 0; y < GameConstants.BOARD_SIZE_Y; y++) {
+            for (int x = 0; x < GameConstants.BOARD_SIZE_X; x++) {
+                recording.addMove(0, x, y, false);
+                if (x % 5 == 0) {
+                    recording.addMove(1, 0, 0, true);
+                }
+            }
+        }
+        recording.setResult(GameReplayTest.FIRST_PLAYER_NAME, true);
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        GameRecording loaded = GameRecording.load(recording.save(directory));
+
+        assertEquals(recording.getGameId(), loaded.getGameId());
+        assertEquals(GameReplayTest.FIRST_PLAYER_NAME, loaded.getPlayerName(0));
+        assertEquals(GameReplayTest.SECOND_PLAYER_NAME, loaded.getPlayerName(1));
+        assertEquals(GameReplayTest.ENCODED_BOARD, loaded.getBoard(1));
+        assertEquals(GameReplayTest.FIRST_PLAYER_NAME, loaded.getWinnerName());
+        assertEquals(recording.getMoveCount(), loaded.getMoveCount());
+
+        for (int i = 0; i < recording.getMoveCount(); i++) {
+            assertEquals(recording.getMoveX(i), loaded.getMoveX(i));
+            assertEquals(recording.getMoveY(i), loaded.getMoveY(i));
+            assertEquals(recording.getMovePlayer(i), loaded.getMovePlayer(i));
+            assertEquals(recording.isMoveLate(i), loaded.isMoveLate(i));
+        }
+    }
+
+    @Test
+    void testSeekMatchesPlayingMoves() {
+        GameReplay replay = new GameReplay(recording);
+        assertEquals(recording.getMoveCount(), replay.getPosition());
+        assertTrue(replay.getAllShipsDestroyed());
+
+        // Play the moves one by one on a separate board and compare with seeking backwards and forwards
+        GameBoard board = new GameBoard(GameReplayTest.ENCODED_BOARD);
+        int points = 0;
+        int[] order = {0, 40, 7, 150, 33, 33, 1, recording.getMoveCount()};
+
+        for (int move = 0; move <= recording.getMoveCount(); move++) {
+            if (move > 0 && !recording.isMoveLate(move - 1)) {
+                boolean[] result = board.makeMove(recording.getMoveX(move - 1), recording.getMoveY(move - 1));
+                if (!result[2] && result[0]) {
+                    points += result[1] ? 2 : 1;
+                }
+            }
+
+            for (int target : order) {
+                if (target == move) {
+                    replay.seek(target);
+                    assertEquals(move, replay.getPosition());
+                    assertEquals(points, replay.getPoints(0));
+                    assertEquals(0, replay.getPoints(1));
+                    for (int x = 0; x < GameConstants.BOARD_SIZE_X; x++) {
+                        for (int y = 0; y < GameConstants.BOARD_SIZE_Y; y++) {
+                            assertEquals(board.getBoard()[x][y], replay.getBoard(1).getBoard()[x][y]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that a move that doesn't fit in a packed move is refused instead of being recorded on another field.
+     */
+    @Test
+    void testUnpackableMoveIsRefused() {
+        int moves = recording.getMoveCount();
+        assertThrows(IllegalArgumentException.class, () -> recording.addMove(0, GameRecording.MAX_COORDINATE + 1, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> recording.addMove(0, 0, -1, false));
+        assertThrows(IllegalArgumentException.class, () -> recording.addMove(2, 0, 0, false));
+        assertEquals(moves, recording.getMoveCount());
+    }
+
+    /**
+     * Tests that a game refuses a move off its board before anything is recorded, so the replay only has moves on the board.
+     */
+    @Test
+    void testGameDoesNotRecordMoveOffBoard() {
+        Game game = new Game(new GameServerTUI(), 1);
+
+        assertThrows(IllegalArgumentException.class, () -> game.makeMove(GameConstants.BOARD_SIZE_X, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> game.makeMove(99, 99, false));
+        assertEquals(0, game.getRecording().getMoveCount());
+    }
+}
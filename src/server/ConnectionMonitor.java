@@ -0,0 +1,145 @@
+package server;
+
+// External imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds connections that have gone quiet and closes them, so that a half-open connection doesn't keep its handler thread
+ * blocked in a read and its seat in a game taken forever. All connections are checked by one sweep on a shared scheduler
+ * thread, instead of a timer for every connection.
+ * <p>
+ * A client that sends a heartbeat is expected to keep sending a message at least every idle timeout, and a client that
+ * connects is expected to send its first message within the first message timeout. Clients that never send a heartbeat
+ * are never closed for being quiet once they have sent a message, since older clients can be quiet for a long time.
+ * Closing the socket makes the handler's reading thread stop, which gives up the seat or holds it for a client with a session.
+ * @inv handlers != null, reaped != null, idleTimeout > 0, firstMessageTimeout > 0
+ */
+public class ConnectionMonitor {
+    // How long a client that sends heartbeats may be quiet, if no other timeout is given
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 15000;
+
+    // How long a new connection may take to send its first message
+    public static final long DEFAULT_FIRST_MESSAGE_TIMEOUT_MILLIS = 30000;
+
+    // How often the connections are checked
+    public static final long DEFAULT_SWEEP_INTERVAL_MILLIS = 1000;
+
+    // The thread that checks the connections of every monitor
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Connections");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The handlers of the connections that are open
+    private Set<GameClientHandler> handlers;
+
+    // How long a client that sends heartbeats and a new connection may be quiet in milliseconds
+    private long idleTimeout;
+    private long firstMessageTimeout;
+
+    // The number of connections that were closed for being quiet
+    private AtomicInteger reaped;
+
+    // The sweep that is scheduled
+    private ScheduledFuture<?> sweep;
+
+    /**
+     * Creates a monitor with the default timeouts that checks the connections every second.
+     * @post ensures that the connections are checked every second
+     */
+    public ConnectionMonitor() {
+        this(DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_FIRST_MESSAGE_TIMEOUT_MILLIS, DEFAULT_SWEEP_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates a monitor.
+     * @param idleTimeout How long a client that sends heartbeats may be quiet in milliseconds.
+     * @param firstMessageTimeout How long a new connection may take to send its first message in milliseconds.
+     * @param sweepInterval How often the connections are checked in milliseconds.
+     * @pre idleTimeout > 0, firstMessageTimeout > 0, sweepInterval > 0
+     * @post ensures that the connections are checked every sweep interval
+     */
+    public ConnectionMonitor(long idleTimeout, long firstMessageTimeout, long sweepInterval) {
+        this.idleTimeout = idleTimeout;
+        this.firstMessageTimeout = firstMessageTimeout;
+        handlers = ConcurrentHashMap.newKeySet();
+        reaped = new AtomicInteger();
+        sweep = SCHEDULER.scheduleWithFixedDelay(this::sweep, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts checking the connection of a client.
+     * @param handler The handler of the client.
+     * @pre handler != null
+     * @post ensures that the connection is closed if it goes quiet
+     */
+    public void add(GameClientHandler handler) {
+        handlers.add(handler);
+    }
+
+    /**
+     * Stops checking the connection of a client, because it has been closed.
+     * @param handler The handler of the client.
+     * @pre handler != null
+     */
+    public void remove(GameClientHandler handler) {
+        handlers.remove(handler);
+    }
+
+    /**
+     * Closes the connections that have been quiet for too long. The handlers are only read, never locked, so a handler that is
+     * stuck writing to a dead connection can't hold up the sweep, and closing its socket frees it.
+     * @post ensures that every connection that was quiet for too long is closed and counted
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        for (GameClientHandler handler : handlers) {
+            if (handler.isIdle(now, idleTimeout, firstMessageTimeout)) {
+                handlers.remove(handler);
+                reaped.incrementAndGet();
+                handler.reap();
+            }
+        }
+    }
+
+    /**
+     * Stops checking the connections.
+     * @post ensures that no more connections are closed
+     */
+    public void stop() {
+        sweep.cancel(false);
+    }
+
+    /**
+     * Getter for the handlers of the connections that are open.
+     * @return A copy of the handlers, in no particular order.
+     */
+    public List<GameClientHandler> getHandlers() {
+        return new ArrayList<>(handlers);
+    }
+
+    /**
+     * Getter for the number of connections that are checked.
+     * @return The number of connections.
+     */
+    public int size() {
+        return handlers.size();
+    }
+
+    /**
+     * Getter for the number of connections that were closed for being quiet.
+     * @return The number of connections.
+     */
+    public int getReaped() {
+        return reaped.get();
+    }
+}
@@ -0,0 +1,96 @@
+package server;
+
+// External imports
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * How far a server that is draining has come: how many games were going on when the drain started, how many waiting players
+ * were sent to reconnect to the next instance of the server, and how many games had to be ended because the drain timed out.
+ * @inv startTime > 0, gamesAtStart >= 0, playersRedirected != null, gamesEndedEarly >= 0
+ */
+public class DrainProgress {
+    // When the drain started, from System.nanoTime()
+    private long startTime;
+
+    // The number of games that were going on when the drain started
+    private int gamesAtStart;
+
+    // The number of players that were told to reconnect, either waiting for an opponent or sending their handshake late
+    private AtomicInteger playersRedirected;
+
+    // The number of games that were still going on when the drain timed out
+    private volatile int gamesEndedEarly;
+
+    /**
+     * Starts measuring a drain.
+     * @param gamesAtStart The number of games going on.
+     * @pre gamesAtStart >= 0
+     * @post ensures that no player has been redirected and no game ended early
+     */
+    public DrainProgress(int gamesAtStart) {
+        this.startTime = System.nanoTime();
+        this.gamesAtStart = gamesAtStart;
+        this.playersRedirected = new AtomicInteger();
+    }
+
+    /**
+     * Counts a player that was told to reconnect.
+     * @post ensures that the number of redirected players is one higher
+     */
+    public void playerRedirected() {
+        playersRedirected.incrementAndGet();
+    }
+
+    /**
+     * Records how many games were still going on when the drain timed out, and are ended as if their time were up.
+     * @param games The number of games.
+     * @pre games >= 0
+     */
+    public void gamesEndedEarly(int games) {
+        gamesEndedEarly = games;
+    }
+
+    /**
+     * Getter for how long the drain has taken so far.
+     * @return The time in milliseconds.
+     */
+    public long getElapsed() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Getter for the number of games that were going on when the drain started.
+     * @return The number of games.
+     */
+    public int getGamesAtStart() {
+        return gamesAtStart;
+    }
+
+    /**
+     * Getter for the number of players that were told to reconnect.
+     * @return The number of players.
+     */
+    public int getPlayersRedirected() {
+        return playersRedirected.get();
+    }
+
+    /**
+     * Getter for the number of games that had to be ended because the drain timed out.
+     * @return The number of games, 0 while the drain is going on.
+     */
+    public int getGamesEndedEarly() {
+        return gamesEndedEarly;
+    }
+
+    /**
+     * Describes the progress in one line for the terminal view.
+     * @param gamesLeft The number of games that are still going on.
+     * @return The description.
+     * @pre gamesLeft >= 0
+     */
+    public String describe(int gamesLeft) {
+        return "Draining for " + TimeUnit.MILLISECONDS.toSeconds(getElapsed()) + " s: " + gamesLeft + " of " + gamesAtStart +
+            " games left, " + getPlayersRedirected() + " players sent to reconnect, " + gamesEndedEarly + " games ended early";
+    }
+}
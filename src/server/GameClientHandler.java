@@ -1,19 +1,35 @@
 package server;
 
 // External imports
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.net.Socket;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import exceptions.ClientUnavailableException;
 // Internal imports
 import exceptions.ProtocolException;
 import game.Game;
+import game.GameScheduler;
+import game.Player;
+import game.RuleProfile;
+import game.RuleProfiles;
+import leaderboard.Leaderboard;
+import leaderboard.LeaderboardEntry;
+import metrics.ConnectionClosedEvent;
+import metrics.HandshakeEvent;
+import metrics.LockProfiler;
+import metrics.LockTimer;
+import metrics.MoveTrace;
+import metrics.OutboundStallEvent;
 import tui.GameServerTUI;
 import tui.TerminalColors;
 
@@ -22,57 +38,126 @@ import tui.TerminalColors;
  * This class listens and writes messages. So it also implements the server protocol that makes sure all communication is by the protocol.
  * Furthermore, it handles the messages which means that it communicates with the game instance this client is a part of. Both the game calls methods
  * from this class and this class calls method of game. Hence it is a middle man between the client and the game. 
- * @inv socket != null, game != null, view != null
+ * @inv socket != null, view != null
  */
-public class GameClientHandler implements Runnable, ServerProtocol {
+public class GameClientHandler implements Runnable, ServerProtocol, Player {
     public static final String HANDSHAKE_EXCEPTION_MSG = "Client didn't provide name in the handshake."; 
     public static final String MOVE_EXCEPTION_MSG = "Client didn't provide correct x and y values.";
+    public static final String LEADERBOARD_EXCEPTION_MSG = "Client didn't provide a correct leaderboard request.";
+    public static final String WATCH_EXCEPTION_MSG = "Client didn't provide a correct game id to watch.";
+    public static final String SYNC_EXCEPTION_MSG = "Client didn't provide a correct game version to sync from.";
+    public static final String RESUME_EXCEPTION_MSG = "Client didn't provide a session token to resume.";
+    public static final String FLOOD_EXCEPTION_MSG = "Client sent too many messages.";
+    public static final String DEFERRED_EXCEPTION_MSG = "Client sent too many moves ahead of its turn.";
+
+    // How many messages a client may send per second once it has used up its burst
+    public static final double MESSAGES_PER_SECOND = 50;
+    public static final int MESSAGE_BURST = 100;
+
+    // The most moves a client may send ahead of its turn, which wait until it is their move
+    public static final int MAX_DEFERRED_MOVES = 4;
+
+    // The most leaderboard entries sent in one message
+    public static final int MAX_LEADERBOARD_ENTRIES = 100;
 
     // The socket input and output streams    
-    private BufferedReader in;
+    private LineReader in;
     private BufferedWriter out;
 
-    // The client socket
-    private Socket socket;
+    // The client socket, volatile since the connection monitor reads it without a lock
+    private volatile Socket socket;
+
+    // When the last message was read, from System.currentTimeMillis(), and whether any message has been read
+    private volatile long lastRead;
+    private volatile boolean messageRead;
+
+    // Whether the client sends heartbeats, after which it is disconnected if it goes quiet
+    private volatile boolean heartbeats;
+
+    // Limits how many messages the client may send
+    private TokenBucket messageLimit = new TokenBucket(MESSAGES_PER_SECOND, MESSAGE_BURST);
     
     // Player's name
     private String name;
 
-    // The game that this player is participating in
+    // The game that this player is participating in. Null until the client has sent its handshake.
     private Game game;
     
     // The terminal view of this server
     private GameServerTUI view;
 
-    // Re-usable task variable that is used for player move timer
-    private TimerTask task;
+    // The server that accepted this client
+    private GameServer server;
+
+    // Makes a late move when the turn timeout passes, and makes the first move the client sent ahead once it is their move.
+    // Both run on the scheduler of the game. Null until the client has had a move.
+    private ScheduledFuture<?> moveTimer;
+    private ScheduledFuture<?> deferredMove;
+
+    // The game this client watches and the spectator that writes it to the client. Null if the client isn't watching.
+    private Game watchedGame;
+    private Spectator spectator;
+
+    // The token of the resumable session of this client, null if the client hasn't asked for one
+    private String sessionToken;
+
+    // Whether the connection has dropped and the seat is held for the client to come back
+    private boolean suspended;
+
+    // The messages for the client while its connection is down, sent when it comes back
+    private List<String> pending = new ArrayList<>();
+
+    // Gives up the seat when the grace period has passed, null unless the connection has dropped
+    private ScheduledFuture<?> graceTimeout;
+
+    // When the move of this client must be made, from the clock of the game's scheduler, 0 if it isn't this client's move
+    private long moveDeadline;
 
-    // Re-usable timer variable for scheduling the player move timer task
-    private Timer timer;
+    // The time that was left for the move when the connection dropped, 0 if it wasn't this client's move
+    private long pausedMoveTime;
+
+    // Whether the game of this client is over, after which the client is in the lobby until it joins its next game
+    private boolean over;
+
+    // A rematch game that was declined before this client had joined it, null if there is none
+    private Game declinedRematch;
+
+    // The moves the client sent before it was their move, as x and y, made in order one per turn
+    private Deque<MoveTrace> deferredMoves = new ArrayDeque<>();
+
+    // The reading thread while it handles messages the client sent back to back, whose replies are only flushed at the end
+    private Thread batchThread;
+
+    // The session this connection has resumed, after which this thread reads the connection for that session's handler
+    private GameClientHandler resumedSession;
 
     public GameClientHandler() {
         
     }
 
     /**
-     * Constructs a new GameClientHandler. Opens the BufferedWriter and BufferedReader.
+     * Constructs a new GameClientHandler. Opens the BufferedWriter and LineReader, which reads messages up to the longest board
+     * message of the server's rule profiles, or of the classic rules without a server.
+     * The client is given a game by the server once it has sent its handshake.
      * @param socket The client socket.
-     * @param game The game instance.
+     * @param server The server that accepted the client.
      * @param view the terminal view of the server for displaying messages and prompting questions.
-     * @pre socket != null, game != null, view != null
-     * @post ensures that IO is established through the given socket. Also ensures that socket, game and view are initialised. 
+     * @pre socket != null, server != null, view != null
+     * @post ensures that IO is established through the given socket. Also ensures that socket, server and view are initialised. 
      * Also ensures that the user is informed if IO through socket fails. 
 	 */
-    public GameClientHandler(Socket socket, Game game, GameServerTUI view) {
+    public GameClientHandler(Socket socket, GameServer server, GameServerTUI view) {
         try {
 
             out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            int maxFrameLength = server != null ? server.getMaxFrameLength() : RuleProfile.CLASSIC.getMaxBoardMessageLength();
+            in = new LineReader(socket.getInputStream(), maxFrameLength);
             this.socket = socket;
-            this.game = game;
+            this.server = server;
             this.view = view;
+            this.lastRead = System.currentTimeMillis();
         } catch (IOException e) {
-            view.showMessage("Game "+ game.getGameId() + ", player: " + name + " is having an IO problem creating input and output streams.");
+            view.showMessage("A new client is having an IO problem creating input and output streams.");
             exit();
         
         }
@@ -81,72 +166,182 @@ public class GameClientHandler implements Runnable, ServerProtocol {
     /**
 	 * Thread that continuously listens to client input and forwards the input to the
 	 * {@link #handleCommand(String)} method.
-     * @pre in != null, view != null, game != null
+     * @pre in != null, view != null
      * @post ensures that messages from client are read and informs user if reading goes wrong
 	 */
 	@Override
 	public void run() {
         String input;
+        LineReader reader = in; // The connection read by this thread, in changes when the connection drops or is replaced
         
 		try {
-            input = in.readLine();
+            input = reader.readLine();
             
             while (input != null) {
             
-                handleCommand(input);
+                long arrived = System.nanoTime(); // Moves are traced from here
+                batch(reader.hasLine());
+                lastRead = System.currentTimeMillis();
+                messageRead = true;
+                if (!messageLimit.tryAcquire()) {
+                    if (server != null) {
+                        server.connectionFlooded();
+                    }
+                    throw new ProtocolException(GameClientHandler.FLOOD_EXCEPTION_MSG);
+                }
+                handleCommand(input, arrived);
             
-                if (in == null) {
+                if (in != reader) { // The client has disconnected or this connection has resumed another session
                     break;
                 }
             
-                input = in.readLine();
+                input = reader.readLine();
+            }
+
+            if (input == null && in == reader) { // The client closed the connection
+                suspend();
             }
         } catch (IOException e) {
-            view.showMessage("Game "+ game.getGameId() + ", player: " + name + " is having an IO problem reading input.");
+            if (in != reader || suspend()) { // The connection has been replaced, or the seat is held for the client to come back
+                return;
+            }
+            view.showMessage(describe() + " is having an IO problem reading input.");
             exit();
         } catch (ProtocolException pe) {
-            view.showMessage("Game "+ game.getGameId() + ", player: " + name + pe.getMessage());
+            view.showMessage(describe() + pe.getMessage());
+            try {
+                sendMessage(ProtocolMessages.PROTOCOL_ERROR + ProtocolMessages.DELIMITER + pe.getMessage());
+            } catch (ClientUnavailableException e) { // The client is disconnected either way
+            }
             exit();
         }
+
+        if (resumedSession != null) { // This thread goes on reading for the handler of the resumed session
+            resumedSession.run();
+        }
+    }
+
+    /**
+     * Describes this client for messages in the terminal view.
+     * @return The game and name of the player, or only the name if the client isn't in a game.
+     */
+    private String describe() {
+        return game == null ? "Player: " + name : "Game "+ game.getGameId() + ", player: " + name;
     }
 
     /**
      * Handles client sent input and calls the respective methods to handle the task related to the message.
      * @param input the String input to handle.
      * @throws ProtocolException when the input provided by client doesnt abide the protocol.
-     * @pre input != null, game != null
+     * @pre input != null
      * @pre ensures that given correct input protocol message the respective handler methods are called. Also
      * informs the user if the protocol message is just partly correct.
      */
     public void handleCommand(String input) throws ProtocolException {
+        handleCommand(input, System.nanoTime());
+    }
+
+    /**
+     * Handles client sent input like {@link #handleCommand(String)}, for input that was read at a given time.
+     * @param input the String input to handle.
+     * @param arrived When the input was read, from System.nanoTime(), from which a move is traced.
+     * @throws ProtocolException when the input provided by client doesnt abide the protocol.
+     * @pre input != null
+     */
+    public void handleCommand(String input, long arrived) throws ProtocolException {
         
         if (input.split(";")[0].equals(ProtocolMessages.HANDSHAKE)) { // Client sends handshake
             
             try {
-                String playerName = input.split(";")[1];
-                handleHello(playerName);
+                String[] split = input.split(";");
+                handleHello(split[1], split.length >= 3 ? split[2] : null);
             } catch (ArrayIndexOutOfBoundsException e) {
                 throw new ProtocolException(GameClientHandler.HANDSHAKE_EXCEPTION_MSG);
             }
 
 		} else if (input.split(";")[0].equals(ProtocolMessages.CLIENTBOARD)) { // Client sends their game board 
             
-            clientBoard(input);
+            if (game != null) { // A board is only accepted after the handshake
+                clientBoard(input);
+            }
 
-        } else if (input.split(";")[0].equals(ProtocolMessages.MOVE)) { // Client makes a move
+        } else if (input.split(";")[0].equals(ProtocolMessages.MOVE)) { // Client makes a move, which waits if it isn't their move yet
 
-            if (game.getCurrentMove().equals(name)) { // Makes sure that a client can't make a move when it's not their move
+            int x;
+            int y;
+            try {
+                x = Integer.parseInt(input.split(";")[1]);
+                y = Integer.parseInt(input.split(";")[2]);
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                throw new ProtocolException(GameClientHandler.MOVE_EXCEPTION_MSG);
+            }
+            handleMove(x, y, arrived);
 
-                try {
-                    int x = Integer.parseInt(input.split(";")[1]);
-                    int y = Integer.parseInt(input.split(";")[2]);
-                    move(x, y);
-                } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
-                    throw new ProtocolException(GameClientHandler.MOVE_EXCEPTION_MSG);
-                }
-            
+        } else if (input.split(";")[0].equals(ProtocolMessages.LEADERBOARD)) { // Client asks for the best players
+
+            try {
+                topPlayers(Integer.parseInt(input.split(";")[1]));
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                throw new ProtocolException(GameClientHandler.LEADERBOARD_EXCEPTION_MSG);
+            }
+
+        } else if (input.split(";")[0].equals(ProtocolMessages.LEADERBOARD_RANK)) { // Client asks for the rank of a player, by default their own
+
+            String[] split = input.split(";");
+            playerRank(split.length >= 2 ? split[1] : name);
+
+        } else if (input.split(";")[0].equals(ProtocolMessages.LEADERBOARD_AROUND)) { // Client asks for the players around a rank
+
+            try {
+                int rank = Integer.parseInt(input.split(";")[1]);
+                int radius = Integer.parseInt(input.split(";")[2]);
+                playersAroundRank(rank, radius);
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                throw new ProtocolException(GameClientHandler.LEADERBOARD_EXCEPTION_MSG);
             }
 
+        } else if (input.split(";")[0].equals(ProtocolMessages.WATCH)) { // Client asks to watch a live game
+
+            try {
+                watch(Integer.parseInt(input.split(";")[1]));
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                throw new ProtocolException(GameClientHandler.WATCH_EXCEPTION_MSG);
+            }
+
+        } else if (input.split(";")[0].equals(ProtocolMessages.SYNC)) { // Client asks for the state of its game
+
+            String[] split = input.split(";");
+            try {
+                sync(split.length >= 2 ? Integer.parseInt(split[1]) : 0);
+            } catch (NumberFormatException e) {
+                throw new ProtocolException(GameClientHandler.SYNC_EXCEPTION_MSG);
+            }
+
+        } else if (input.equals(ProtocolMessages.HEARTBEAT)) { // Client shows that it is still there
+
+            heartbeat();
+
+        } else if (input.equals(ProtocolMessages.SESSION)) { // Client asks for a resumable session
+
+            openSession();
+
+        } else if (input.split(";")[0].equals(ProtocolMessages.RESUME)) { // Client comes back on a new connection
+
+            try {
+                resume(input.split(";")[1]);
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new ProtocolException(GameClientHandler.RESUME_EXCEPTION_MSG);
+            }
+
+        } else if (input.equals(ProtocolMessages.REMATCH)) { // Client in the lobby asks to play its last opponent again
+
+            rematch();
+
+        } else if (input.split(";")[0].equals(ProtocolMessages.REQUEUE)) { // Client in the lobby asks for a new opponent
+
+            String[] split = input.split(";");
+            requeue(split.length >= 2 ? split[1] : null);
+
         } else if (input.equals(ProtocolMessages.EXIT)) { // Client sends message that they are exiting the game
 
             exit();
@@ -157,29 +352,151 @@ public class GameClientHandler implements Runnable, ServerProtocol {
 
     
     /**
-     * This method is called by the game when it's this clients move. It creates a 30 second timer and if
-     * the respective client doesn't send their move in time, then this timer makes the 
+     * {@inheritDoc}
+     * This method is called by the game when it's this clients move. It creates a timer for the turn timeout of the
+     * rules of the game and if the respective client doesn't send their move in time, then this timer makes the 
      * move for them. The move is marked as late so even though it includes valid
      * coordinates, they are not actually taken into account by the game.
+     * While the connection of the client is down the timer isn't started until the client comes back.
      * @pre game != null
-     * @post ensures that a 30 seconds timer is set in which time the client must make a move and cancel this timer.
+     * @post ensures that a timer is set in which time the client must make a move and cancel this timer.
      * If the timer runs out it makes a late move on behalf of the client.
      */
-    public void makeMove() {    
-        timer = new Timer("Timer");
-        task = new TimerTask() {
-            public void run() {
-                game.makeMove(0, 0, true);
+    @Override
+    public synchronized void makeMove() {    
+        long delay = game.getRules().getTurnTimeout(); // 30 seconds with the classic rules
+        if (suspended) {
+            pausedMoveTime = delay;
+        } else {
+            startMoveTimer(delay);
+        }
+    }
+
+    /**
+     * Starts the timer that makes a late move for the client when it runs out. The timer runs on the scheduler of the game, so
+     * that a move doesn't cost a thread and a game on a virtual clock times out its moves on that clock.
+     * @param delay The time the client has for the move in milliseconds.
+     * @pre game != null, the caller holds the lock of this handler
+     */
+    private void startMoveTimer(long delay) {
+        Game timedGame = game; // The client may have moved on to its next game by the time the timer runs out
+        GameScheduler scheduler = timedGame.getScheduler();
+        moveDeadline = scheduler.currentTimeMillis() + delay;
+        moveTimer = scheduler.schedule(() -> {
+            synchronized (this) {
+                if (moveDeadline == 0) { // The client made the move just in time
+                    return;
+                }
+                moveDeadline = 0;
             }
-        };
+            timedGame.makeMove(0, 0, true);
+        }, delay, TimeUnit.MILLISECONDS);
 
-        long delay = 30000L; // 30 seconds
-        timer.schedule(task, delay);
+        if (!deferredMoves.isEmpty()) { // The client sent this move ahead, it is made on the timer thread outside the game's lock
+            deferredMoves.peek().ready();
+            deferredMove = scheduler.schedule(this::makeDeferredMove, 0, TimeUnit.MILLISECONDS);
+        }
     }
 
+    /**
+     * Stops the move timer because the move of the client is being made, or the client is leaving the game.
+     * @pre the caller holds the lock of this handler
+     * @post ensures that moveDeadline == 0 and that the timer won't make a late move
+     */
+    private void stopMoveTimer() {
+        if (moveTimer != null) {
+            moveTimer.cancel(false);
+        }
+        if (deferredMove != null) {
+            deferredMove.cancel(false);
+        }
+        moveDeadline = 0;
+    }
 
     /**
-     * Sends a String message to the client.
+     * Makes a move of the client, or keeps it until it is the client's move. Clients may send their handshake, board and first
+     * move back to back without waiting for the replies, so a move that arrives before the game has been set up, or before the
+     * opponent has moved, waits. Moves that wait are made in the order they arrived, one per turn, and a move that arrives
+     * while others wait goes after them. Whether it is the client's move is decided by its move timer under the lock of this
+     * handler, so a move can't be made twice or race with the late move of the timer.
+     * @param x X coordinate of the move.
+     * @param y Y coordinate of the move.
+     * @param arrived When the message with the move was read, from System.nanoTime().
+     * @throws ProtocolException if the move is off the board of the game, or {@link #MAX_DEFERRED_MOVES} moves are already waiting.
+     * @post ensures that the move is made if it is the client's move and no other moves wait, otherwise that it waits
+     */
+    private void handleMove(int x, int y, long arrived) throws ProtocolException {
+        Game movedGame = game;
+        RuleProfile rules = movedGame != null ? movedGame.getRules() : RuleProfile.CLASSIC;
+        if (x < 0 || x >= rules.getWidth() || y < 0 || y >= rules.getHeight()) { // Off the board, or on another field than meant
+            throw new ProtocolException(GameClientHandler.MOVE_EXCEPTION_MSG);
+        }
+
+        MoveTrace trace = new MoveTrace(name, x, y, arrived);
+        synchronized (this) {
+            if (over) { // Moves after the end of the game are ignored
+                return;
+            }
+            if (moveDeadline == 0 || !deferredMoves.isEmpty()) {
+                if (deferredMoves.size() >= GameClientHandler.MAX_DEFERRED_MOVES) {
+                    throw new ProtocolException(GameClientHandler.DEFERRED_EXCEPTION_MSG);
+                }
+                deferredMoves.add(trace);
+                return;
+            }
+            stopMoveTimer();
+        }
+        game.makeMove(x, y, false, trace);
+    }
+
+    /**
+     * Makes the first move the client sent ahead of its turn, now that it is the client's move.
+     * @pre game != null
+     * @post ensures that the first waiting move is made if it is still the client's move
+     */
+    private void makeDeferredMove() {
+        MoveTrace deferred;
+        Game movedGame;
+        synchronized (this) {
+            if (moveDeadline == 0 || deferredMoves.isEmpty()) { // The game has moved on meanwhile
+                return;
+            }
+            deferred = deferredMoves.poll();
+            movedGame = game;
+            stopMoveTimer();
+        }
+        movedGame.makeMove(deferred.getX(), deferred.getY(), false, deferred);
+    }
+
+    /**
+     * Starts or ends a batch of messages that the client sent back to back. Replies to the messages of a batch are written
+     * without flushing, so that they go out together at the end of the batch instead of in a packet each.
+     * @param more Whether another message of the client has already been read after the one that is about to be handled.
+     * @post ensures that replies are flushed unless more messages follow right away
+     */
+    private synchronized void batch(boolean more) {
+        if (more) {
+            batchThread = Thread.currentThread();
+            return;
+        }
+        batchThread = null;
+        if (!suspended && out != null) {
+            try {
+                OutboundStallEvent stall = OutboundStallEvent.start();
+                out.flush();
+                stall.finish(OutboundStallEvent.TARGET_PLAYER, name, 0);
+            } catch (IOException e) { // The reading thread finds out that the connection has dropped
+            }
+        }
+    }
+
+
+    /**
+     * Sends a String message to the client. While the connection of a client with a session is down the message is kept
+     * until the client comes back, and if writing fails for such a client its connection is taken to be down.
+     * Synchronized because the game and the thread of this client both send messages. How long senders wait for the lock and
+     * hold it while writing is timed as the socket writes of the lock profiler. Once the client watches a game the spectator
+     * writers own the socket, so the message is queued behind the frames of the game instead of being written in between.
      * @param message The message to send to the client.
      * @throws ClientUnavailableException
      * @pre message != null, out != null
@@ -187,17 +504,266 @@ public class GameClientHandler implements Runnable, ServerProtocol {
      * the user if the sending fails.
      */
     private void sendMessage(String message) throws ClientUnavailableException  {
-        if (out != null) {
+        LockTimer timer = LockProfiler.getShared().getSocketWrites();
+        long waiting = System.nanoTime();
+        synchronized (this) {
+            long acquired = timer.acquired(waiting);
             try {
+                writeMessage(message);
+            } finally {
+                timer.released(acquired);
+            }
+        }
+    }
+
+    /**
+     * Writes a message, see {@link #sendMessage(String)}.
+     * @pre the caller holds the lock of this handler
+     */
+    private void writeMessage(String message) throws ClientUnavailableException  {
+        if (spectator != null) { // Dropped spectators are disconnected, so a message that is refused is lost with the connection
+            spectator.send((message + "\n").getBytes(StandardCharsets.UTF_8));
+        } else if (suspended) {
+            pending.add(message);
+        } else if (out != null) {
+            try {
+                OutboundStallEvent stall = OutboundStallEvent.start(); // Only recorded if the socket holds up the write
                 out.write(message);
                 out.newLine();
-                out.flush();
+                if (Thread.currentThread() != batchThread) { // Replies within a batch are flushed at its end
+                    out.flush();
+                }
+                stall.finish(OutboundStallEvent.TARGET_PLAYER, name, message.length() + 1);
             } catch (IOException e) {
-                throw new ClientUnavailableException("Error while writing to a client.");
+                if (suspend()) {
+                    pending.add(message);
+                } else {
+                    throw new ClientUnavailableException("Error while writing to a client.");
+                }
             }
         } 
     }
 
+    /**
+     * {@inheritDoc}
+     * @pre view != null
+     * @post ensures that the client is expected to keep sending messages and that an attempt is made at answering the heartbeat
+     */
+    @Override
+    public void heartbeat() {
+        heartbeats = true;
+        try {
+            sendMessage(ProtocolMessages.HEARTBEAT);
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+        }
+    }
+
+    /**
+     * Used by the connection monitor to find connections that have gone quiet. Doesn't take a lock, so that a handler stuck in
+     * a write can't hold up the monitor.
+     * @param now The current time from System.currentTimeMillis().
+     * @param idleTimeout How long a client that sends heartbeats may be quiet in milliseconds.
+     * @param firstMessageTimeout How long a new connection may take to send its first message in milliseconds.
+     * @return Whether the connection is open and has been quiet for too long.
+     */
+    boolean isIdle(long now, long idleTimeout, long firstMessageTimeout) {
+        if (socket == null) { // Closed, or the seat is held for a client whose connection dropped
+            return false;
+        }
+        if (heartbeats) {
+            return now - lastRead > idleTimeout;
+        }
+        return !messageRead && now - lastRead > firstMessageTimeout;
+    }
+
+    /**
+     * Closes the connection of a client that has gone quiet. The reading thread of this client then stops, which gives up its seat
+     * or holds it if the client has a session, like any other dropped connection.
+     * @post ensures that an attempt is made at closing the socket
+     */
+    void reap() {
+        Socket reapedSocket = socket;
+        try {
+            if (reapedSocket != null) {
+                reapedSocket.close();
+            }
+        } catch (IOException e) {
+            view.showMessage(name + "'s thread is having an IO problem disconnecting.");
+        }
+        view.showMessage(describe() + " went quiet and was disconnected.");
+    }
+
+    /**
+     * {@inheritDoc}
+     * A session can only be opened once the client has a game.
+     * @pre server != null, view != null
+     * @post ensures that an attempt is made at sending the token to the client, or telling it that it has no game
+     */
+    @Override
+    public void openSession() {
+        try {
+            synchronized (this) {
+                if (game != null && sessionToken == null) {
+                    sessionToken = server.getSessions().open(this);
+                }
+            }
+            sendMessage(sessionToken == null ?
+                ProtocolMessages.GAME_NOT_FOUND :
+                ProtocolMessages.SESSION + ProtocolMessages.DELIMITER + sessionToken);
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The connection is handed to the client handler of the session, and this thread goes on reading it for that handler.
+     * @pre token != null, server != null, view != null
+     * @post ensures that the session is resumed on this connection, or that the client is told there is no such session
+     */
+    @Override
+    public void resume(String token) {
+        if (game != null || watchedGame != null) { // This connection is already in use
+            return;
+        }
+
+        GameClientHandler session = server.getSessions().get(token);
+        if (session != null && session.takeOver(socket, in, out)) {
+            server.getConnections().remove(this);
+            resumedSession = session;
+            in = null; // Makes the reading loop of this handler stop, so that this thread can read for the session
+            out = null;
+            socket = null;
+            return;
+        }
+
+        try {
+            sendMessage(ProtocolMessages.GAME_NOT_FOUND);
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+        }
+    }
+
+    /**
+     * Called when the connection of the client drops. A client with a session keeps its seat for the grace period: the move
+     * timer is paused and messages are kept until the client comes back. The socket is closed, but not the reader, since the
+     * reading thread may be holding its lock.
+     * @return True if the seat is held, false if the client has no session or its game is over.
+     * @post ensures that the seat is held for the grace period if the client has a session
+     */
+    private synchronized boolean suspend() {
+        if (suspended) {
+            return true;
+        }
+        if (sessionToken == null || over) {
+            return false;
+        }
+
+        suspended = true;
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            view.showMessage(name + "'s thread is having an IO problem disconnecting.");
+        }
+        in = null;
+        out = null;
+        socket = null;
+
+        if (moveDeadline != 0) { // Pauses the move timer
+            long left = moveDeadline - game.getScheduler().currentTimeMillis();
+            stopMoveTimer();
+            pausedMoveTime = Math.max(1, left);
+        }
+
+        SessionRegistry sessions = server.getSessions();
+        graceTimeout = sessions.suspend(this::abandon, game.getScheduler());
+        view.showMessage(describe() + " lost the connection, the seat is held for " + sessions.getGracePeriod() / 1000 + " seconds.");
+        return true;
+    }
+
+    /**
+     * Gives the held seat of this client a new connection. If the old connection hasn't been found to be down yet, it is closed
+     * and its reading thread stops. The client is sent the resume message with its game id, followed by the messages that were
+     * kept while it was away. The move timer goes on with the time that was left.
+     * @param newSocket The socket of the new connection.
+     * @param newIn The reader of the new connection.
+     * @param newOut The writer of the new connection.
+     * @return True if the session was resumed, false if the game is over and the client was already told so.
+     * @pre newSocket != null, newIn != null, newOut != null
+     * @post ensures that the client is connected through the new connection if the session was resumed
+     */
+    synchronized boolean takeOver(Socket newSocket, LineReader newIn, BufferedWriter newOut) {
+        if (over && !suspended) {
+            return false;
+        }
+
+        if (suspended) {
+            graceTimeout.cancel(false);
+            suspended = false;
+        } else if (socket != null) {
+            try {
+                socket.close(); // Makes the reading thread of the old connection stop
+            } catch (IOException e) {
+                view.showMessage(name + "'s thread is having an IO problem disconnecting.");
+            }
+        }
+        socket = newSocket;
+        in = newIn;
+        out = newOut;
+        lastRead = System.currentTimeMillis();
+        messageRead = true;
+        server.getConnections().add(this);
+        server.getSessions().resumed();
+        view.showMessage(describe() + " resumed the session on a new connection.");
+
+        List<String> messages = new ArrayList<>(pending);
+        pending.clear();
+        try {
+            sendMessage(ProtocolMessages.RESUME + ProtocolMessages.DELIMITER + game.getGameId());
+            for (String message : messages) {
+                sendMessage(message);
+            }
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+        }
+
+        if (pausedMoveTime > 0 && !suspended) { // Goes on with the move timer
+            startMoveTimer(pausedMoveTime);
+            pausedMoveTime = 0;
+        }
+        if (over && !suspended) {
+            server.getSessions().close(sessionToken);
+        }
+        return true;
+    }
+
+    /**
+     * Gives up the seat of a client that didn't come back within the grace period, which makes it lose the game.
+     * @post ensures that the session is closed and the game has ended
+     */
+    private void abandon() {
+        synchronized (this) {
+            if (!suspended) { // The client came back just in time
+                return;
+            }
+            suspended = false;
+            pending.clear();
+        }
+
+        server.getSessions().close(sessionToken);
+        server.getSessions().abandoned();
+        server.getConnections().remove(this);
+        view.showMessage(describe() + " didn't come back in time.");
+        server.leaveQueue(this);
+        game.endGame(false, name, null);
+    }
+
 
     /**
      * Getter for this player's name
@@ -205,6 +771,7 @@ public class GameClientHandler implements Runnable, ServerProtocol {
      * @pre name != null
      * @post ensures that the client's name is returned
      */
+    @Override
     public String getName() {
         return this.name;
     }
@@ -221,9 +788,14 @@ public class GameClientHandler implements Runnable, ServerProtocol {
 	private void shutdown() {
         if (in != null && out != null && socket != null) {
             try {
-                if (!game.getGameStarted()) {
+                if (server != null) {
+                    server.leaveQueue(this);
+                    server.getConnections().remove(this);
+                }
+                if (game != null && !game.getGameStarted()) {
                     game.endGame(false, name, null);
                 }
+                ConnectionClosedEvent.emit(socket.getInetAddress(), name);
                 in.close();
                 out.close();
                 socket.close();
@@ -247,6 +819,15 @@ public class GameClientHandler implements Runnable, ServerProtocol {
         return socket;
     }
 
+    /**
+     * {@inheritDoc}
+     * The client is connected until its socket has been shut down.
+     */
+    @Override
+    public synchronized boolean isConnected() {
+        return socket != null || suspended;
+    }
+
     /**
      * {@inheritDoc}
      * @pre playerName != null, game != null, view != null
@@ -254,17 +835,54 @@ public class GameClientHandler implements Runnable, ServerProtocol {
      */
 	@Override
 	public void handleHello(String playerName) {
-        if (game.isValidPlayerName(playerName)) { // If the name provided by the client is not taken by the opponent
+        handleHello(playerName, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A client that chose a profile gets the rules of its game with the handshake, so it knows the board size and fleet.
+     * Clients that don't choose one get the plain handshake they have always got.
+     * @pre playerName != null, server != null, view != null
+     * @post ensures that client is notified if they chose the same name as the opponents or an unknown profile, if not then
+     * sends back handshake to them.
+     */
+    @Override
+    public void handleHello(String playerName, String profileName) {
+        if (game != null) { // The client is already in a game
+            return;
+        }
+
+        RuleProfiles ruleProfiles = server.getRuleProfiles();
+        RuleProfile rules = profileName == null ? ruleProfiles.getDefault() : ruleProfiles.get(profileName);
+        if (rules == null) { // The server doesn't offer the profile
+            rulesNotFound(ruleProfiles.getNames());
+            return;
+        }
+
+        Game newGame = server.findGame(this, playerName, rules);
+
+        if (newGame != null) { // If the name provided by the client is not taken by the opponent
             
             try {
                 this.name = playerName;
-				sendMessage(ProtocolMessages.HANDSHAKE);
+                this.game = newGame;
+                if (server != null) {
+                    server.gameJoined(false);
+                }
+				sendMessage(profileName == null ?
+                    ProtocolMessages.HANDSHAKE :
+                    ProtocolMessages.HANDSHAKE + ProtocolMessages.DELIMITER + rules.describe());
                 game.setPlayer(this);
+                HandshakeEvent.emit(playerName, rules.getName(), newGame.getGameId());
 			} catch (ClientUnavailableException e) {
                 view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
                 shutdown();
 			}
         
+        } else if (server.isDraining()) { // If the server is shutting down
+
+            server.redirect(this);
+
         } else {  // If the name is already taken by the opponent
         
             nameExists();
@@ -272,6 +890,214 @@ public class GameClientHandler implements Runnable, ServerProtocol {
         }
 	}
 
+    /**
+     * {@inheritDoc}
+     * The client keeps its connection, thread and buffers. If the client has to wait for the opponent, the game it waits in
+     * is remembered until it is declined, in case that happens before the client has joined it.
+     * @pre server != null, view != null
+     * @post ensures that the client has joined the rematch, or is told that it was declined and is still in the lobby
+     */
+    @Override
+    public void rematch() {
+        Game finished;
+        synchronized (this) {
+            if (!inLobby()) {
+                return;
+            }
+            finished = game;
+            game = null; // Out of the lobby while the rematch is found, so that it isn't asked for twice
+        }
+
+        Game next = server.findRematch(this, name, finished, declined -> rematchDeclined(finished, declined));
+        try {
+            synchronized (this) {
+                if (next == null || next == declinedRematch) { // The opponent has left, or didn't wait
+                    declinedRematch = null;
+                    game = finished;
+                    sendMessage(ProtocolMessages.REMATCH_DECLINED);
+                    return;
+                }
+                leaveLobby(next);
+                sendMessage(ProtocolMessages.REMATCH + ProtocolMessages.DELIMITER + next.getRules().describe());
+            }
+            server.gameJoined(true);
+            next.setPlayer(this);
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+        }
+    }
+
+    /**
+     * Puts the client back in the lobby because the opponent didn't ask for the rematch, and tells it so. Called on the
+     * matchmaker thread.
+     * @param finished The game that the rematch was asked for.
+     * @param declined The game the client waited in.
+     * @post ensures that the client is in the lobby and told so, or that the rematch won't be joined
+     */
+    private void rematchDeclined(Game finished, Game declined) {
+        try {
+            synchronized (this) {
+                if (game != declined) { // The client hasn't joined the game yet
+                    declinedRematch = declined;
+                    return;
+                }
+                game = finished;
+                over = true;
+                sendMessage(ProtocolMessages.REMATCH_DECLINED);
+            }
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The client keeps its connection, thread and buffers, and the name it chose in its handshake.
+     * @pre server != null, view != null
+     * @post ensures that the client has joined its next game, or is told why not and is still in the lobby
+     */
+    @Override
+    public void requeue(String profileName) {
+        RuleProfile rules;
+        synchronized (this) {
+            if (!inLobby()) {
+                return;
+            }
+            rules = profileName == null ? game.getRules() : server.getRuleProfiles().get(profileName);
+        }
+        if (rules == null) { // The server doesn't offer the profile
+            rulesNotFound(server.getRuleProfiles().getNames());
+            return;
+        }
+
+        Game next = server.findGame(this, name, rules);
+        if (next == null) {
+            if (server.isDraining()) {
+                server.redirect(this);
+            } else { // The waiting opponent has the same name
+                nameExists();
+            }
+            return;
+        }
+
+        try {
+            synchronized (this) {
+                leaveLobby(next);
+                sendMessage(ProtocolMessages.HANDSHAKE + ProtocolMessages.DELIMITER + rules.describe());
+            }
+            server.gameJoined(true);
+            next.setPlayer(this);
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+        }
+    }
+
+    /**
+     * Seats the client in a game that was made for it, such as a game of a tournament it entered. Only a client in the lobby
+     * can be seated; it is told the rules of the game like after asking for a new opponent, and then submits its board.
+     * @param next The game.
+     * @return Whether the client was seated, false if it isn't in the lobby because it is in another game or has left.
+     * @pre next != null, server != null, view != null
+     * @post ensures that the client has joined the game if it was in the lobby
+     */
+    public boolean seat(Game next) {
+        try {
+            synchronized (this) {
+                if (!inLobby()) {
+                    return false;
+                }
+                leaveLobby(next);
+                sendMessage(ProtocolMessages.HANDSHAKE + ProtocolMessages.DELIMITER + next.getRules().describe());
+            }
+            server.gameJoined(true);
+            next.setPlayer(this);
+            return true;
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+            return false;
+        }
+    }
+
+    /**
+     * Getter for whether the client is in the lobby, see {@link #inLobby()}.
+     * @return Whether the client is in the lobby.
+     */
+    public synchronized boolean isInLobby() {
+        return inLobby();
+    }
+
+    /**
+     * Getter for whether the client is in the lobby: its game is over and it is still connected.
+     * @return Whether the client may ask for a rematch or a new opponent.
+     * @pre the caller holds the lock of this handler
+     */
+    private boolean inLobby() {
+        return over && game != null && !suspended && socket != null;
+    }
+
+    /**
+     * Takes the client out of the lobby into its next game, and forgets what was left of the game that ended. The session of
+     * the game that ended has already been closed.
+     * @param next The next game.
+     * @pre next != null, the caller holds the lock of this handler
+     * @post ensures that game == next, that the client's game isn't over and that no move is timed or waits
+     */
+    private void leaveLobby(Game next) {
+        stopMoveTimer();
+        pausedMoveTime = 0;
+        deferredMoves.clear();
+        sessionToken = null;
+        over = false;
+        game = next;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Sends the reconnect message and closes the socket. The reading thread of this client then exits, which also takes the
+     * client out of the game it was waiting in. The reader isn't closed here since the reading thread holds its lock.
+     * @pre view != null
+     * @post ensures that an attempt is made at telling the client to reconnect and that the client is disconnected
+     */
+    @Override
+    public void reconnect() {
+        Socket reconnectingSocket = socket;
+        synchronized (this) {
+            if (sessionToken != null) { // The seat isn't held, the client is to come back to the next server
+                server.getSessions().close(sessionToken);
+                sessionToken = null;
+            }
+        }
+        try {
+            sendMessage(ProtocolMessages.RECONNECT);
+            if (reconnectingSocket != null) {
+                reconnectingSocket.close(); // Makes the reading thread of this client exit
+            }
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+        } catch (IOException e) {
+            view.showMessage(name + "'s thread is having an IO problem disconnecting.");
+        }
+    }
+
+    /**
+     * Tells the client that the profile it chose isn't offered, followed by the names of the profiles that are.
+     * @param names The names of the offered profiles.
+     * @pre names != null, view != null
+     * @post ensures that an attempt is made at sending the offered profiles to the client
+     */
+    private void rulesNotFound(List<String> names) {
+        try {
+            sendMessage(ProtocolMessages.RULES_NOT_FOUND + ProtocolMessages.DELIMITER + String.join(ProtocolMessages.DELIMITER, names));
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+        }
+    }
+
     /**
      * {@inheritDoc}
      * @pre view != null
@@ -304,12 +1130,20 @@ public class GameClientHandler implements Runnable, ServerProtocol {
 
     /**
      * {@inheritDoc}
+     * A board sent from the lobby is ignored, since the game it would go to is over.
      * @pre encodededBoard != null, game != null
-     * @post ensures that the client sent encdode board is set in the game 
+     * @post ensures that the client sent encdode board is set in the game unless the game is over
      */
     @Override
 	public void clientBoard(String encodedBoard) {
-        game.setBoard(encodedBoard, name);
+        Game boardGame;
+        synchronized (this) {
+            if (over) {
+                return;
+            }
+            boardGame = game;
+        }
+        boardGame.setBoard(encodedBoard, name);
     }
     
     /**
@@ -333,12 +1167,22 @@ public class GameClientHandler implements Runnable, ServerProtocol {
 
     /**
      * {@inheritDoc}
-     * @pre x >= 0 && x < 15, y >= 0 && y < 10, timer != null, game != null
-     * @post ensures that the move timer is canceled and a move is made in the game.
+     * A move that is off the board of the game is ignored.
+     * @pre game != null
+     * @post ensures that the move timer is canceled and a move is made in the game, if the move is on the board.
      */
     @Override
     public void move(int x, int y) {
-        timer.cancel(); // Cancels the timer that's set before each move.
+        RuleProfile rules = game.getRules();
+        if (x < 0 || x >= rules.getWidth() || y < 0 || y >= rules.getHeight()) { // Off the board
+            return;
+        }
+        synchronized (this) {
+            if (moveDeadline == 0) { // It isn't this client's move, or the timer has made it late meanwhile
+                return;
+            }
+            stopMoveTimer();
+        }
         game.makeMove(x, y, false);
     }
 
@@ -349,8 +1193,10 @@ public class GameClientHandler implements Runnable, ServerProtocol {
      */
 	@Override
 	public void update(int x, int y, boolean isHit, boolean isSunk, boolean isLate, String lastPlayerName, String nextPlayerName) {
+        MoveTrace trace = MoveTrace.current(); // The trace of the move, if the client that made it is traced
+        long start = trace != null ? System.nanoTime() : 0;
         try {
-			sendMessage(
+			String message =
 			    ProtocolMessages.UPDATE + 
 			    ProtocolMessages.DELIMITER + 
 			    String.valueOf(x) +
@@ -365,8 +1211,15 @@ public class GameClientHandler implements Runnable, ServerProtocol {
 			    ProtocolMessages.DELIMITER +
 			    lastPlayerName +
 			    ProtocolMessages.DELIMITER +
-			    nextPlayerName
-			);
+			    nextPlayerName;
+            if (trace != null) {
+                long encoded = System.nanoTime();
+                trace.encoded(name, encoded - start);
+                sendMessage(message);
+                trace.flushed(System.nanoTime() - encoded);
+            } else {
+                sendMessage(message);
+            }
 		} catch (ClientUnavailableException e) {
             view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
             shutdown();
@@ -382,6 +1235,13 @@ public class GameClientHandler implements Runnable, ServerProtocol {
 	@Override
 	public void gameOver(String playerName, boolean winType) {
         try {
+            synchronized (this) {
+                over = true;
+                deferredMoves.clear();
+                if (sessionToken != null && !suspended) { // A client that is away keeps its session to get the result
+                    server.getSessions().close(sessionToken);
+                }
+            }
 			sendMessage(ProtocolMessages.GAMEOVER+ProtocolMessages.DELIMITER+playerName+ProtocolMessages.DELIMITER+winType);
 		} catch (ClientUnavailableException e) {
             view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
@@ -391,12 +1251,157 @@ public class GameClientHandler implements Runnable, ServerProtocol {
 
     /**
      * {@inheritDoc}
-     * @pre game != null
+     * At most {@link #MAX_LEADERBOARD_ENTRIES} players are sent.
+     * @pre server != null, view != null
+     * @post ensures that an attempt is made at sending the best players to the client
+     */
+    @Override
+    public void topPlayers(int count) {
+        int limit = Math.max(0, Math.min(count, GameClientHandler.MAX_LEADERBOARD_ENTRIES));
+        sendLeaderboard(ProtocolMessages.LEADERBOARD, server.getLeaderboard().getTop(limit));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The rank is 0 if the player isn't on the leaderboard.
+     * @pre playerName != null, server != null, view != null
+     * @post ensures that an attempt is made at sending the player's rank and score to the client
+     */
+    @Override
+    public void playerRank(String playerName) {
+        Leaderboard leaderboard = server.getLeaderboard();
+        try {
+            sendMessage(
+                ProtocolMessages.LEADERBOARD_RANK +
+                ProtocolMessages.DELIMITER +
+                playerName +
+                ProtocolMessages.DELIMITER +
+                leaderboard.getRank(playerName) +
+                ProtocolMessages.DELIMITER +
+                Math.max(0, leaderboard.getScore(playerName))
+            );
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * At most {@link #MAX_LEADERBOARD_ENTRIES} players are sent.
+     * @pre server != null, view != null
+     * @post ensures that an attempt is made at sending the players around the rank to the client
+     */
+    @Override
+    public void playersAroundRank(int rank, int radius) {
+        int limit = Math.max(0, Math.min(radius, GameClientHandler.MAX_LEADERBOARD_ENTRIES / 2));
+        sendLeaderboard(ProtocolMessages.LEADERBOARD_AROUND, server.getLeaderboard().getAroundRank(rank, limit));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Once the client is watching, the messages of the game are written by the shared spectator writers directly to the socket,
+     * and so are the replies to the client, starting with the reply to this message. If the client can't keep up it is
+     * disconnected.
+     * @pre server != null, socket != null, view != null
+     * @post ensures that the client watches the game, or is told that the game doesn't exist
+     */
+    @Override
+    public void watch(int gameId) {
+        Game watchedGame = server.getGame(gameId);
+        Socket watchingSocket = socket;
+
+        try {
+            if (watchedGame == null || watchingSocket == null) {
+                sendMessage(ProtocolMessages.GAME_NOT_FOUND + ProtocolMessages.DELIMITER + gameId);
+                return;
+            }
+
+            Spectator watching = new Spectator(new BufferedOutputStream(watchingSocket.getOutputStream()), () -> {
+                try {
+                    watchingSocket.close(); // Makes the reading thread of this client exit
+                } catch (IOException e) {
+                    view.showMessage(name + "'s thread is having an IO problem disconnecting a slow spectator.");
+                }
+            });
+            synchronized (this) {
+                out.flush(); // Replies of the batch so far go out before the spectator writers take over the socket
+                spectator = watching;
+                this.watchedGame = watchedGame;
+            }
+            sendMessage(
+                ProtocolMessages.WATCH +
+                ProtocolMessages.DELIMITER +
+                gameId +
+                ProtocolMessages.DELIMITER +
+                watchedGame.getPlayerName(1) +
+                ProtocolMessages.DELIMITER +
+                watchedGame.getPlayerName(2) +
+                ProtocolMessages.DELIMITER +
+                watchedGame.getRules().describe()
+            );
+            watchedGame.addSpectator(watching);
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+        } catch (IOException e) {
+            view.showMessage(TerminalColors.RED_BOLD + "Error while starting to send a game to a spectator." + TerminalColors.RESET);
+            shutdown();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @post ensures that the client is sent the state of its game, or is told that it has no game going on
+     */
+    @Override
+    public void sync(int knownVersion) {
+        Game syncedGame = game != null ? game : watchedGame;
+        String state = syncedGame == null ? null : syncedGame.getBoardState(knownVersion);
+
+        try {
+            sendMessage(state == null ? ProtocolMessages.GAME_NOT_FOUND : state);
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+        }
+    }
+
+    /**
+     * Sends leaderboard entries to the client as the command followed by the rank, name and score of every entry.
+     * @param command The protocol message to send.
+     * @param entries The entries to send.
+     * @pre command != null, entries != null, view != null
+     * @post ensures that an attempt is made at sending the entries to the client
+     */
+    private void sendLeaderboard(String command, List<LeaderboardEntry> entries) {
+        StringBuilder message = new StringBuilder(command);
+        for (LeaderboardEntry entry : entries) {
+            message.append(ProtocolMessages.DELIMITER).append(entry.getRank())
+                .append(ProtocolMessages.DELIMITER).append(entry.getName())
+                .append(ProtocolMessages.DELIMITER).append(entry.getScore());
+        }
+
+        try {
+            sendMessage(message.toString());
+        } catch (ClientUnavailableException e) {
+            view.showMessage(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            shutdown();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
      * @post ensures that game is informed of exitting and the communication is shut down with client
      */
 	@Override
 	public void exit() {
-        game.endGame(false, name, null);
+        if (sessionToken != null) {
+            server.getSessions().close(sessionToken);
+        }
+        if (game != null) {
+            game.endGame(false, name, null);
+        }
 		shutdown();
 	}
 
@@ -0,0 +1,107 @@
+package server;
+
+// External imports
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Internal imports
+import game.Game;
+import game.GameListener;
+
+/**
+ * The games that are going on, by their id and by the names of their players. Games are added when they start and removed when
+ * they end, so the registry is only touched twice per game and never while a client connects. Both maps are concurrent hash
+ * maps, so lookups don't take a lock and updates only lock a single bin, which lets the registry hold many thousands of games
+ * without the client handler threads waiting on each other.
+ * <p>
+ * Names are only unique within a game, so two games going on at the same time can have a player with the same name. A lookup
+ * by name gives the game of that name that started last, and the game that ended first doesn't remove the other one.
+ * @inv gamesById != null, gamesByPlayer != null
+ */
+public class GameRegistry implements GameListener {
+    // The games that have started and not yet ended by their id
+    private ConcurrentHashMap<Integer, Game> gamesById;
+
+    // The same games by the names of both of their players
+    private ConcurrentHashMap<String, Game> gamesByPlayer;
+
+    /**
+     * Creates an empty registry.
+     * @post ensures that no game can be found
+     */
+    public GameRegistry() {
+        gamesById = new ConcurrentHashMap<>();
+        gamesByPlayer = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @post ensures that the game can be found by its id and by the names of its players
+     */
+    @Override
+    public void gameStarted(Game game) {
+        gamesById.put(game.getGameId(), game);
+        for (int player = 1; player <= 2; player++) {
+            gamesByPlayer.put(game.getPlayerName(player), game);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @post ensures that the game can no longer be found by its id or by the names of its players
+     */
+    @Override
+    public void gameEnded(Game game) {
+        gamesById.remove(game.getGameId());
+        for (int player = 1; player <= 2; player++) {
+            gamesByPlayer.remove(game.getPlayerName(player), game); // Leaves a later game of a player with the same name
+        }
+    }
+
+    /**
+     * Finds a game that is going on by its id.
+     * @param gameId The id of the game.
+     * @return The game, or null if no game with that id is going on.
+     */
+    public Game getGame(int gameId) {
+        return gamesById.get(gameId);
+    }
+
+    /**
+     * Finds the game a player is playing in.
+     * @param playerName The name of the player.
+     * @return The game that started last of the games going on with a player with that name, or null if there is none.
+     * @pre playerName != null
+     */
+    public Game getGameOfPlayer(String playerName) {
+        return gamesByPlayer.get(playerName);
+    }
+
+    /**
+     * Gives the games that are going on. Games that start or end while the list is made may or may not be in it.
+     * @return A new list of the games.
+     */
+    public List<Game> getGames() {
+        return new ArrayList<>(gamesById.values());
+    }
+
+    /**
+     * Getter for the number of games that are going on.
+     * @return The number of games.
+     */
+    public int size() {
+        return gamesById.size();
+    }
+
+    /**
+     * Ends every game that is going on as if its time were up, so the player with the most points wins. Used when the server
+     * shuts down, so that the results are still recorded.
+     * @post ensures that every game that was going on has ended
+     */
+    public void endAll() {
+        for (Game game : gamesById.values()) {
+            game.timeUp();
+        }
+    }
+}
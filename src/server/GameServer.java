@@ -1,40 +1,138 @@
 package server;
 
 // External imports
+import java.io.File;
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.net.StandardSocketOptions;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 // Internal imports
+import constants.GameConstants;
 import exceptions.ServerSocketException;
 import game.Game;
+import game.GameBoardPool;
+import game.Player;
+import game.ReplayArchive;
+import game.RuleProfile;
+import game.RuleProfiles;
+import leaderboard.Leaderboard;
+import metrics.ConnectionAcceptedEvent;
+import metrics.LockProfiler;
+import metrics.MoveTracer;
+import stats.PlayerStatsStore;
+import tournament.ClientEntrant;
+import tournament.EliminationBracket;
+import tournament.Entrant;
+import tournament.Tournament;
 import tui.GameServerTUI;
 import tui.TerminalColors;
 
 /**
- * This class represents the game server that accepts clients and matches them up for a game. 
- * @inv view != null, gameId >= 0
+ * This class represents the game server that accepts clients and matches them up for a game. Clients are matched when they
+ * send their handshake, so a client that connects to watch a game never takes a seat in one. The server also keeps the games
+ * that are going on in a {@link GameRegistry}, so spectators can find them by id and they can be ended when the server shuts down.
+ * @inv view != null, matchmaker != null, games != null
  */
 public class GameServer implements Runnable {
     public static final String SERVER_START_MESSAGE = TerminalColors.BLUE_BOLD + "Welcome to the Battleship game server!" + TerminalColors.RESET;
     public static final String SERVER_LISTENING_FOR_CONNECTIONS_MESSAGE = TerminalColors.BLUE_BOLD + "Listening for player connections..." + TerminalColors.RESET; 
     public static final String SERVER_NEW_CLIENT_MESSAGE = TerminalColors.GREEN_BOLD + "New client connected!" + TerminalColors.RESET;
 
+    // The commands that can be typed in the terminal of the server
+    public static final String LOCKS_COMMAND = "locks";
+    public static final String MOVES_COMMAND = "moves";
+    public static final String TOURNAMENT_COMMAND = "tournament";
+    public static final String CONSOLE_HELP_MESSAGE = "Commands: " + LOCKS_COMMAND + " shows where threads block on locks, " +
+        MOVES_COMMAND + " shows the move latency by stage, " + TOURNAMENT_COMMAND + " [name] enters every client in the lobby " +
+        "in an elimination tournament.";
+
+    // How often a source address may connect once it has used up its burst, and the most addresses that are tracked
+    public static final double CONNECTIONS_PER_SECOND = 5;
+    public static final int CONNECTION_BURST = 20;
+    public static final int MAX_TRACKED_ADDRESSES = 100000;
+
+    // How long a drain waits for games to end on top of the longest game duration, and how often it reports its progress
+    public static final long DRAIN_GRACE_MILLIS = 10000;
+    public static final long DRAIN_REPORT_MILLIS = 1000;
+
+    // The system property that binds the server socket with SO_REUSEPORT, so that the next instance of the server can listen on
+    // the same port while this one drains. Only for restarts, since otherwise a second server on the port takes half the clients.
+    public static final String REUSE_PORT_PROPERTY = "battleship.reusePort";
+
+    // How long the shutdown waits for the recordings of the games it ended to be written
+    public static final long REPLAY_FLUSH_MILLIS = 10000;
+
     // Server socket for the game server
     private ServerSocket serverSocket;
 
-    // Re-usable variable used to check whether someone is connected and waiting for an opponent
-    private GameClientHandler clientWaitingForGame;
+    // Pairs up clients for games and adds bots when nobody turns up
+    private Matchmaker matchmaker;
+
+    // The games that have started and not yet ended by their id and by player
+    private GameRegistry games;
 
     // The terminal view of this server
     private GameServerTUI view;
 
-    // The id of the last game. 
-    private int gameCount; 
-
     // The port number on which server is hosted.
     private int port;
 
+    // The archive finished games are recorded in, null if they aren't recorded
+    private ReplayArchive replays;
+
+    // The statistics of all players, updated whenever a game ends. Null if they aren't kept or the stats file couldn't be read.
+    private PlayerStatsStore statsStore;
+
+    // The live leaderboard of all players, fed by finished games
+    private Leaderboard leaderboard;
+
+    // The rule profiles clients can choose from in their handshake
+    private RuleProfiles ruleProfiles;
+
+    // The most bytes a client message may have, which is the longest board message of the rule profiles
+    private int maxFrameLength;
+
+    // The resumable sessions of clients whose connection may drop
+    private SessionRegistry sessions;
+
+    // Closes the connections that have gone quiet
+    private ConnectionMonitor connections;
+
+    // Limits how often every source address may connect
+    private RateLimiter<InetAddress> connectionLimiter;
+
+    // The number of clients that were disconnected for sending too many messages
+    private AtomicInteger floodedConnections;
+
+    // The number of connections that were accepted, and the number of games people joined, of which how many from the lobby
+    private AtomicInteger acceptedConnections;
+    private AtomicInteger joinedGames;
+    private AtomicInteger lobbyGames;
+
+    // The number of tournaments that were started from the console
+    private AtomicInteger tournaments = new AtomicInteger();
+
+    // The progress of the drain, null until the server starts draining
+    private volatile DrainProgress drainProgress;
+
+    // Counted down once the server socket has been set up, after which the terminal is free for commands
+    private CountDownLatch listening = new CountDownLatch(1);
+
+    // Whether the server has been shut down, after which no server socket is set up
+    private boolean stopped;
+
 
     /**
      * Getter for the server socket
@@ -46,26 +144,45 @@ public class GameServer implements Runnable {
     }
 
     /**
-     * Starts the server on a new thread.
+     * Starts the server on a new thread. When the process is asked to stop, for example with SIGTERM during a deploy, the server
+     * drains before it exits, see {@link #drain()}.
      * @param args May include the server port,
      * @post ensures that a new GameServer isntance is created
      */
     public static void main(String[] args) {
-        new GameServer(args);
+        GameServer server = new GameServer(args);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::drain, "Drain"));
+        server.runConsole();
     }
 
     /**
      * Checks whether a server port was provided, if it was and it's a valid number, sets that as the port.
      * If however the port provided is an invalid number it sets it to the default 8888 port.
      * If no port is provided the sets the port to 0 which will indicate the {@link #setup()} that it needs
-     * to prompt the user for a port. Also initialises the gameCount (which is basically id of games) to 0
-     * and starts a new TUI.
-     * @param args May include the server port.
+     * to prompt the user for a port. The second argument is how many seconds a client waits for an opponent before
+     * it plays against a bot, 0 for never. The third is how many seconds the seat of a client with a session is held when its
+     * connection drops. Also creates the matchmaker
+     * and starts a new TUI. The player statistics are loaded from the stats file set with the system property of
+     * {@link PlayerStatsStore} and used to build the leaderboard. Finished games are recorded in the replay archive set with
+     * the system properties of {@link ReplayArchive}.
+     * @param args May include the server port, the bot wait in seconds and the session grace period in seconds.
      * @post ensures that the view is initialised and that the game server thread is called. As well as
      * that a check is made for whether the main method passed a valid port number. If it did and the port is actual number, that 
      * number is used, but if a non number value is passed the port is set to 0. 
      */
     public GameServer(String[] args) {
+        this(args, PlayerStatsStore.fileFromProperties(), ReplayArchive.fromProperties());
+    }
+
+    /**
+     * Creates a server like {@link #GameServer(String[])} whose player statistics are kept in the given file and whose
+     * finished games are recorded in the given archive.
+     * @param args May include the server port, the bot wait in seconds and the session grace period in seconds.
+     * @param statsFile The file the player statistics are loaded from and persisted in, null to not keep them.
+     * @param replays The archive the games are recorded in, null to not record them.
+     * @post ensures that the view is initialised and that the game server thread is called
+     */
+    public GameServer(String[] args, File statsFile, ReplayArchive replays) {
         if (args.length >= 1) { 
             
             try {
@@ -81,17 +198,81 @@ public class GameServer implements Runnable {
         }
         view = new GameServerTUI();
         view.showMessage(GameServer.SERVER_START_MESSAGE);
+        MoveTracer.getShared().setLog(message -> view.showMessage(TerminalColors.YELLOW_BOLD + message + TerminalColors.RESET));
+
+        if (statsFile == null) {
+            view.showMessage(TerminalColors.BLUE_BOLD + "Player statistics are not kept." + TerminalColors.RESET);
+        } else {
+            try {
+                statsStore = new PlayerStatsStore(statsFile, view);
+            } catch (IOException e) {
+                view.showMessage(TerminalColors.RED_BOLD + "Could not load player statistics, they won't be kept. " + TerminalColors.RESET);
+            }
+        }
+
+        leaderboard = new Leaderboard();
+        if (statsStore != null) {
+            leaderboard.load(statsStore);
+        }
         
-        gameCount = 0;
+        long botWait = Matchmaker.DEFAULT_BOT_WAIT_MILLIS;
+        if (args.length >= 2) {
+            try {
+                botWait = TimeUnit.SECONDS.toMillis(Integer.parseInt(args[1]));
+            } catch (NumberFormatException e) {
+                view.showMessage(TerminalColors.RED_BOLD + "The bot wait is not a number, using the default. " + TerminalColors.RESET);
+            }
+        }
+
+        try {
+            ruleProfiles = RuleProfiles.load(new File(GameConstants.RULE_PROFILES_FILE));
+        } catch (IOException | IllegalArgumentException e) {
+            view.showMessage(TerminalColors.RED_BOLD + "Could not load the rule profiles, only the classic rules are offered. " +
+                e.getMessage() + TerminalColors.RESET);
+            ruleProfiles = new RuleProfiles();
+        }
+        for (String name : ruleProfiles.getNames()) {
+            maxFrameLength = Math.max(maxFrameLength, ruleProfiles.get(name).getMaxBoardMessageLength());
+        }
+
+        long gracePeriod = SessionRegistry.DEFAULT_GRACE_MILLIS;
+        if (args.length >= 3) {
+            try {
+                gracePeriod = TimeUnit.SECONDS.toMillis(Math.max(1, Integer.parseInt(args[2])));
+            } catch (NumberFormatException e) {
+                view.showMessage(TerminalColors.RED_BOLD + "The session grace period is not a number, using the default. " + TerminalColors.RESET);
+            }
+        }
+        sessions = new SessionRegistry(gracePeriod);
+        connections = new ConnectionMonitor();
+        connectionLimiter = new RateLimiter<>(CONNECTIONS_PER_SECOND, CONNECTION_BURST, MAX_TRACKED_ADDRESSES);
+        floodedConnections = new AtomicInteger();
+        acceptedConnections = new AtomicInteger();
+        joinedGames = new AtomicInteger();
+        lobbyGames = new AtomicInteger();
+
+        matchmaker = new Matchmaker(view, botWait, ruleProfiles.getDefault());
+        this.replays = replays;
+        matchmaker.setReplayArchive(replays);
+        if (replays == null) {
+            view.showMessage(TerminalColors.BLUE_BOLD + "Games are not recorded for replays." + TerminalColors.RESET);
+        }
+        if (statsStore != null) {
+            matchmaker.addGameListener(statsStore);
+        }
+        matchmaker.addGameListener(leaderboard);
+
+        games = new GameRegistry();
+        matchmaker.addGameListener(games);
+
         new Thread(this).start();
     }
 
     /**
-     * Server's loop for listening for new client connections. To pair up clients for games it uses a simple
-     * approach whereby first client connected waits until someone else connects and then they are paired for a game.
-     * Then next client that connects again waits for an opponent and so forth.
+     * Server's loop for listening for new client connections. Every client gets its own client handler thread which
+     * asks {@link #findGame(GameClientHandler, String)} for a game once the client has sent its handshake.
      * @pre view != null
-     * @post ensures that new client connections are accepted and they are added to games. 
+     * @post ensures that new client connections are accepted and their client handlers are started. 
      */
 	@Override
 	public void run() {
@@ -100,42 +281,35 @@ public class GameServer implements Runnable {
         while(openNewSocket) {
             try {
                 setup(); // Establishes a server socket
-
-                Game game = new Game(view, gameCount); // Initialises the first game
+                listening.countDown();
 
                 while (true) {
 
                     view.showMessage(GameServer.SERVER_LISTENING_FOR_CONNECTIONS_MESSAGE);
                     Socket socket = serverSocket.accept(); // Listens for new clients
-                    view.showMessage(GameServer.SERVER_NEW_CLIENT_MESSAGE);
-                    
-                    if (clientWaitingForGame == null) { // If nobody is waiting for an opponent
-                        
-                        gameCount++; // Increments the gameCount so next game has unique id
-                        game = new Game(view, gameCount);
-                        
-                        // Creates and starts a new client handler
-                        GameClientHandler handler = new GameClientHandler(socket, game, view);
-                        new Thread(handler).start();
-                        
-                        // Indicates that someone is waiting for a game
-                        clientWaitingForGame = handler;
-                    
-                    } else { // If somebody is waiting for an opponent
-
-                        // Creates amd starts a new client handler
-                        GameClientHandler handler = new GameClientHandler(socket, game, view);
-                        new Thread(handler).start();
-
-                        // Indicates that nobody is waiting for a game
-                        clientWaitingForGame = null;
+                    if (!connectionLimiter.tryAcquire(socket.getInetAddress())) { // Refused before it costs a thread
+                        socket.close();
+                        continue;
                     }
+                    view.showMessage(GameServer.SERVER_NEW_CLIENT_MESSAGE);
+                    acceptedConnections.incrementAndGet();
+                    ConnectionAcceptedEvent.emit(socket.getInetAddress());
+
+                    // Creates and starts a new client handler. Keepalive also finds dead connections of clients without heartbeats, if slowly.
+                    socket.setKeepAlive(true);
+                    GameClientHandler handler = new GameClientHandler(socket, this, view);
+                    connections.add(handler);
+                    new Thread(handler, "ClientHandler-" + acceptedConnections.get()).start();
 
                 }
 
             } catch (IOException ie) {
             
-                view.showMessage(TerminalColors.RED_BOLD + "An IO occured listening to new clients. " + TerminalColors.RESET);
+                if (isDraining()) { // The drain closed the server socket
+                    view.showMessage(TerminalColors.BLUE_BOLD + "Stopped listening for player connections." + TerminalColors.RESET);
+                } else {
+                    view.showMessage(TerminalColors.RED_BOLD + "An IO occured listening to new clients. " + TerminalColors.RESET);
+                }
                 openNewSocket = false;
             
             } catch (ServerSocketException e) {
@@ -148,7 +322,187 @@ public class GameServer implements Runnable {
 
 
     /**
-     * Sets up a server socket on a specific port that is either given by the user or is prompted. 
+     * Finds a game for a client that has sent its handshake, see {@link Matchmaker#findGame(Player, String)}.
+     * @param player The client handler of the client.
+     * @param playerName The name the client sent in the handshake.
+     * @return The game the client is added to, or null if the waiting opponent already has that name.
+     * @pre player != null, playerName != null
+     * @post ensures that the client is either waiting in a new game or paired with the waiting client
+     */
+    public Game findGame(GameClientHandler player, String playerName) {
+        return matchmaker.findGame(player, playerName);
+    }
+
+    /**
+     * Finds a game with the given rules for a client that has sent its handshake, see {@link Matchmaker#findGame(Player, String, RuleProfile)}.
+     * @param player The client handler of the client.
+     * @param playerName The name the client sent in the handshake.
+     * @param rules The rules the client chose.
+     * @return The game the client is added to, or null if the waiting opponent already has that name.
+     * @pre player != null, playerName != null, rules != null
+     * @post ensures that the client is either waiting in a new game or paired with a waiting client with the same rules
+     */
+    public Game findGame(GameClientHandler player, String playerName, RuleProfile rules) {
+        return matchmaker.findGame(player, playerName, rules);
+    }
+
+    /**
+     * Finds a rematch for a client in the lobby, see {@link Matchmaker#findRematch(Player, String, Game, Consumer)}.
+     * @param player The client handler of the client.
+     * @param playerName The name of the client.
+     * @param finished The game of the client that has ended.
+     * @param declined Called with the game the client waits in if the rematch is declined.
+     * @return The game the client is added to, or null if the opponent has left or the server is draining.
+     * @pre player != null, playerName != null, finished != null, declined != null
+     * @post ensures that the client is either waiting for the rematch or paired with its opponent
+     */
+    public Game findRematch(GameClientHandler player, String playerName, Game finished, Consumer<Game> declined) {
+        return matchmaker.findRematch(player, playerName, finished, declined);
+    }
+
+    /**
+     * Counts a game that a client has joined, to compare with the connections that were accepted: clients that play their
+     * next game from the lobby don't connect again.
+     * @param fromLobby Whether the client joined from the lobby instead of with a handshake.
+     * @post ensures that the game is counted
+     */
+    public void gameJoined(boolean fromLobby) {
+        joinedGames.incrementAndGet();
+        if (fromLobby) {
+            lobbyGames.incrementAndGet();
+        }
+    }
+
+    /**
+     * Getter for the number of connections that were accepted, not counting those refused for connecting too often.
+     * @return The number of connections.
+     */
+    public int getAcceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    /**
+     * Getter for the number of games that clients have joined.
+     * @return The number of games, counted once for every client in them.
+     */
+    public int getJoinedGames() {
+        return joinedGames.get();
+    }
+
+    /**
+     * Getter for the number of games that clients have joined from the lobby, without connecting again.
+     * @return The number of games, counted once for every client in them.
+     */
+    public int getLobbyGames() {
+        return lobbyGames.get();
+    }
+
+    /**
+     * Called when a client disconnects. If the client was waiting for an opponent, the next client starts a new game instead.
+     * @param player The client handler of the client.
+     * @pre player != null
+     * @post ensures that the client is no longer waiting for an opponent
+     */
+    public void leaveQueue(GameClientHandler player) {
+        matchmaker.leaveQueue(player);
+    }
+
+    /**
+     * Finds a game that is going on.
+     * @param gameId The id of the game.
+     * @return The game, or null if no game with that id is going on.
+     */
+    public Game getGame(int gameId) {
+        return games.getGame(gameId);
+    }
+
+    /**
+     * Getter for the games that are going on.
+     * @return The registry of the games by id and by player.
+     */
+    public GameRegistry getGameRegistry() {
+        return games;
+    }
+
+    /**
+     * Reads commands from the terminal once the server socket has been set up, so they don't get in the way of the question
+     * for the port, and answers them until the terminal has no more input.
+     * @pre view != null
+     * @post ensures that every command typed has been answered
+     */
+    public void runConsole() {
+        try {
+            listening.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        String command;
+        while ((command = view.getCommand()) != null) {
+            if (!command.isEmpty()) {
+                handleConsoleCommand(command);
+            }
+        }
+    }
+
+    /**
+     * Answers a command typed in the terminal of the server by showing what it asks for.
+     * @param command The command, {@link #LOCKS_COMMAND} for the lock contention, {@link #MOVES_COMMAND} for the move latency
+     * or {@link #TOURNAMENT_COMMAND} followed by an optional name to start a tournament. Anything else shows the commands.
+     * @pre command != null, view != null
+     * @post ensures that the answer is shown in the view
+     */
+    public void handleConsoleCommand(String command) {
+        String[] words = command.trim().split("\\s+", 2);
+        if (command.equalsIgnoreCase(LOCKS_COMMAND)) {
+            view.showMessage(LockProfiler.getShared().dump());
+        } else if (command.equalsIgnoreCase(MOVES_COMMAND)) {
+            view.showMessage("Move latency by stage in microseconds:\n" + MoveTracer.getShared());
+        } else if (words[0].equalsIgnoreCase(TOURNAMENT_COMMAND)) {
+            startTournament(words.length == 2 ? words[1] : TOURNAMENT_COMMAND + "-" + (tournaments.get() + 1));
+        } else {
+            view.showMessage(CONSOLE_HELP_MESSAGE);
+        }
+    }
+
+    /**
+     * Starts an elimination tournament of the default rules between the clients that are in the lobby, which are seeded by their
+     * rank on the leaderboard. A client that is in a game or has left by the time its game of a round is made doesn't show up.
+     * Clients are only entered once, so two clients with the same name can't both enter.
+     * @param name The name of the tournament in messages.
+     * @return The tournament, or null if fewer than two clients are in the lobby.
+     * @pre name != null, view != null
+     * @post ensures that the first round is started if at least two clients are in the lobby
+     */
+    public Tournament startTournament(String name) {
+        List<Entrant> entrants = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (GameClientHandler handler : connections.getHandlers()) {
+            if (handler.isInLobby() && names.add(handler.getName())) {
+                entrants.add(new ClientEntrant(handler));
+            }
+        }
+        if (entrants.size() < 2) {
+            view.showMessage(TerminalColors.RED_BOLD + "A tournament needs at least two clients in the lobby, there are " +
+                entrants.size() + ". " + TerminalColors.RESET);
+            return null;
+        }
+
+        entrants.sort(Comparator.comparingInt(entrant -> { // Unranked players are seeded last
+            int rank = leaderboard.getRank(entrant.getName());
+            return rank == 0 ? Integer.MAX_VALUE : rank;
+        }));
+        Tournament tournament = new Tournament(name, new EliminationBracket(entrants), matchmaker, ruleProfiles.getDefault(), view);
+        tournaments.incrementAndGet();
+        view.showMessage("Tournament " + name + ": " + entrants.size() + " clients entered.");
+        tournament.start();
+        return tournament;
+    }
+
+    /**
+     * Sets up a server socket on a specific port that is either given by the user or is prompted. If the reuse port property is
+     * set and the platform supports it, the socket is bound with SO_REUSEPORT, so that the next instance of the server, started
+     * with the property as well, can listen on the same port while this one drains.
      * @throws ServerSocketException
      * @throws ExitProgram if socket can't be created on the specific port.
      * @pre view != null
@@ -164,7 +518,23 @@ public class GameServer implements Runnable {
             }
 
             try {
-				serverSocket = new ServerSocket(port);
+				ServerSocket socket = new ServerSocket();
+                if (Boolean.getBoolean(REUSE_PORT_PROPERTY)) {
+                    if (socket.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)) {
+                        socket.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+                    } else {
+                        view.showMessage(TerminalColors.RED_BOLD + "This platform can't share the port with the next server. " +
+                            TerminalColors.RESET);
+                    }
+                }
+                socket.bind(new InetSocketAddress(port));
+                synchronized (this) {
+                    if (stopped) { // Shut down before it was listening
+                        socket.close();
+                        throw new ServerSocketException("The server was shut down before it started listening.");
+                    }
+                    serverSocket = socket;
+                }
                 view.showMessage(TerminalColors.GREEN_BOLD + "Server started on port " + port + TerminalColors.RESET);
 			} catch (IOException e) {
 				throw new ServerSocketException("There was a problem establishing the server socket.");
@@ -174,13 +544,221 @@ public class GameServer implements Runnable {
     }
 
     /**
-     * Closes the server socket
-     * @pre serverSocket != null
-     * @post ensures that an attempt is made at closing the socket.
+     * Getter for the player statistics.
+     * @return The statistics store, or null if no statistics are kept or they couldn't be loaded.
+     * @post ensures that the statistics store is returned
+     */
+    public PlayerStatsStore getStatsStore() {
+        return statsStore;
+    }
+
+    /**
+     * Getter for the matchmaker.
+     * @return The matchmaker that pairs up clients.
+     */
+    public Matchmaker getMatchmaker() {
+        return matchmaker;
+    }
+
+    /**
+     * Getter for the resumable sessions.
+     * @return The session registry.
+     */
+    public SessionRegistry getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Getter for the connection monitor.
+     * @return The monitor that closes connections that have gone quiet.
+     */
+    public ConnectionMonitor getConnections() {
+        return connections;
+    }
+
+    /**
+     * Getter for the limiter of connections by source address.
+     * @return The limiter, which counts the refused connections.
+     */
+    public RateLimiter<InetAddress> getConnectionLimiter() {
+        return connectionLimiter;
+    }
+
+    /**
+     * Counts a client that was disconnected for sending too many messages.
+     * @post ensures that the number of flooded connections is one higher
+     */
+    public void connectionFlooded() {
+        floodedConnections.incrementAndGet();
+    }
+
+    /**
+     * Getter for the number of clients that were disconnected for sending too many messages.
+     * @return The number of clients.
+     */
+    public int getFloodedConnections() {
+        return floodedConnections.get();
+    }
+
+    /**
+     * Getter for the rule profiles clients can choose from.
+     * @return The rule profiles.
+     */
+    public RuleProfiles getRuleProfiles() {
+        return ruleProfiles;
+    }
+
+    /**
+     * Getter for the most bytes a client message may have, see {@link RuleProfile#getMaxBoardMessageLength()}.
+     * @return The length of the longest board message of the rule profiles.
+     */
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    /**
+     * Getter for the leaderboard.
+     * @return The live leaderboard.
+     * @post ensures that the leaderboard is returned
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Drains the server with a timeout of the longest game duration of the rule profiles plus {@link #DRAIN_GRACE_MILLIS},
+     * so that every game that is going on can finish, see {@link #drain(long)}.
+     * @post ensures that the server has drained and shut down
+     */
+    public void drain() {
+        long longestGame = 0;
+        for (String name : ruleProfiles.getNames()) {
+            longestGame = Math.max(longestGame, ruleProfiles.get(name).getGameDuration());
+        }
+        drain(longestGame + DRAIN_GRACE_MILLIS);
+    }
+
+    /**
+     * Shuts the server down without cutting off games. The server socket is closed first, so that new clients connect to the next
+     * instance of the server listening on the same port. Players waiting for an opponent, and players that send their handshake
+     * from now on, are told to reconnect. The games that are going on are played to the end, with the progress shown every
+     * {@link #DRAIN_REPORT_MILLIS}. Games that are still going on when the timeout passes are ended as if their time were up,
+     * so their results are still recorded. Finally the server is shut down. A second call returns right away.
+     * @param timeout How long to wait for the games to end in milliseconds.
+     * @post ensures that the server has drained and shut down
+     */
+    public void drain(long timeout) {
+        DrainProgress progress;
+        synchronized (this) {
+            if (drainProgress != null) {
+                return;
+            }
+            progress = new DrainProgress(games.size());
+            drainProgress = progress;
+        }
+
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            view.showMessage(TerminalColors.RED_BOLD + "Could not close the server socket. " + TerminalColors.RESET);
+        }
+        for (Player player : matchmaker.drain()) {
+            redirect(player);
+        }
+
+        // Paired players that are still setting up their boards have at least one report interval to start their game
+        long deadline = System.currentTimeMillis() + timeout;
+        do {
+            view.showMessage(progress.describe(games.size()));
+            try {
+                Thread.sleep(DRAIN_REPORT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        } while (games.size() > 0 && System.currentTimeMillis() < deadline);
+
+        progress.gamesEndedEarly(games.size());
+        view.showMessage(progress.describe(games.size()));
+        shutdownServer();
+    }
+
+    /**
+     * Tells a player to reconnect because the server is draining, and counts it in the drain progress.
+     * @param player The player, that is waiting for an opponent or has just sent its handshake.
+     * @pre player != null, the server is draining
+     * @post ensures that the player is told to reconnect
+     */
+    public void redirect(Player player) {
+        drainProgress.playerRedirected();
+        player.reconnect();
+    }
+
+    /**
+     * Getter for whether the server is draining.
+     * @return True once the drain has started.
+     */
+    public boolean isDraining() {
+        return drainProgress != null;
+    }
+
+    /**
+     * Getter for the progress of the drain.
+     * @return The progress, or null if the server isn't draining.
+     */
+    public DrainProgress getDrainProgress() {
+        return drainProgress;
+    }
+
+    /**
+     * Ends the games that are going on as if their time were up, waits until their recordings have been written, closes the
+     * server socket and writes the remaining player statistics to the stats file. Also reports how long clients waited for their
+     * games.
+     * @pre view != null
+     * @post ensures that every game has ended and an attempt is made at closing the socket and saving the statistics.
      */
     public void shutdownServer()  {
+        view.showMessage("Ending " + games.size() + " games that are going on.");
+        games.endAll();
+        if (replays != null) {
+            try {
+                if (!replays.flush(REPLAY_FLUSH_MILLIS)) {
+                    view.showMessage(TerminalColors.RED_BOLD + "Not every game recording was saved in time. " + TerminalColors.RESET);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        view.showMessage("Time to first game in milliseconds: " + matchmaker.getTimeToFirstGame());
+        view.showMessage("Sessions: " + sessions);
+        view.showMessage("Connections closed for being quiet: " + connections.getReaped() + ", refused for connecting too often: " +
+            connectionLimiter.getRejected() + ", closed for sending too many messages: " + floodedConnections);
+        view.showMessage("Connections accepted: " + acceptedConnections + " for " + joinedGames + " games joined, " + lobbyGames +
+            " of them from the lobby (" + String.format("%.2f", (double) acceptedConnections.get() / Math.max(1, joinedGames.get())) +
+            " connections per game).");
+        view.showMessage("Game boards: " + GameBoardPool.getShared() + ".");
+        view.showMessage("Move latency by stage in microseconds:\n" + MoveTracer.getShared());
+        connections.stop();
+
+        if (statsStore != null) {
+            try {
+                statsStore.close();
+            } catch (IOException e) {
+                view.showMessage(TerminalColors.RED_BOLD + "Could not save player statistics. " + TerminalColors.RESET);
+            }
+        }
+
+        ServerSocket socket;
+        synchronized (this) {
+            stopped = true;
+            socket = serverSocket;
+        }
         try {
-			serverSocket.close();
+            if (socket != null) {
+                socket.close();
+            }
 		} catch (IOException e) {
 			System.exit(0);
 		}
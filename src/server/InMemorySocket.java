@@ -0,0 +1,223 @@
+package server;
+
+// External imports
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+
+/**
+ * One end of a connection that lives in memory, for tests and simulations that run clients and client handlers without the
+ * network. The two ends are made together by {@link #pair()}; what is written to one end is read from the other, and closing
+ * either end makes the other read the end of the stream and fail to write, like a TCP connection that is closed. Writes never
+ * block, so a test can let a client handler write its replies on the test's own thread and read them afterwards.
+ * <p>
+ * Only what the server uses of a socket is supported: the streams, the read timeout, the address and closing.
+ * @inv incoming != null, outgoing != null, address != null
+ */
+public class InMemorySocket extends Socket {
+    // The bytes the other end has written to this end, and those this end writes to the other end
+    private Pipe incoming;
+    private Pipe outgoing;
+
+    // The address the other end appears to connect from
+    private InetAddress address;
+
+    // How long a read waits for data in milliseconds, 0 for ever
+    private volatile int readTimeout;
+
+    // Whether this end has been closed
+    private volatile boolean closed;
+
+    private InMemorySocket(Pipe incoming, Pipe outgoing, InetAddress address) {
+        this.incoming = incoming;
+        this.outgoing = outgoing;
+        this.address = address;
+    }
+
+    /**
+     * Makes a connection from the loopback address.
+     * @return The two ends of the connection, the first for the client and the second for the server.
+     */
+    public static InMemorySocket[] pair() {
+        return pair(InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Makes a connection.
+     * @param clientAddress The address the client appears to connect from.
+     * @return The two ends of the connection, the first for the client and the second for the server.
+     * @pre clientAddress != null
+     */
+    public static InMemorySocket[] pair(InetAddress clientAddress) {
+        Pipe toServer = new Pipe();
+        Pipe toClient = new Pipe();
+        return new InMemorySocket[] {
+            new InMemorySocket(toClient, toServer, InetAddress.getLoopbackAddress()),
+            new InMemorySocket(toServer, toClient, clientAddress)
+        };
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        checkOpen();
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                return incoming.read(bytes, offset, length, readTimeout);
+            }
+
+            @Override
+            public int available() {
+                return incoming.available();
+            }
+
+            @Override
+            public void close() {
+                InMemorySocket.this.close();
+            }
+        };
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        checkOpen();
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                if (closed) {
+                    throw new SocketException("Socket closed");
+                }
+                outgoing.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() {
+                InMemorySocket.this.close();
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * Closes both directions, so that the other end reads the end of the stream and can't write anymore.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        incoming.close();
+        outgoing.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    @Override
+    public InetAddress getInetAddress() {
+        return address;
+    }
+
+    @Override
+    public void setSoTimeout(int timeout) {
+        readTimeout = timeout;
+    }
+
+    @Override
+    public int getSoTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Does nothing, a connection in memory can't go dead without being closed.
+     */
+    @Override
+    public void setKeepAlive(boolean on) {
+    }
+
+    private void checkOpen() throws SocketException {
+        if (closed) {
+            throw new SocketException("Socket is closed");
+        }
+    }
+
+    /**
+     * The bytes going one way through the connection. Unbounded, so that writing never waits for the reader.
+     */
+    private static class Pipe {
+        private byte[] buffer = new byte[256];
+        private int position;
+        private int limit;
+        private boolean closed;
+
+        synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+            if (closed) {
+                throw new SocketException("Connection reset");
+            }
+            if (limit + length > buffer.length) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position); // Drops what has been read
+                limit -= position;
+                position = 0;
+                if (limit + length > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, limit + length));
+                }
+            }
+            System.arraycopy(bytes, offset, buffer, limit, length);
+            limit += length;
+            notifyAll();
+        }
+
+        synchronized int read(byte[] bytes, int offset, int length, int timeout) throws IOException {
+            long deadline = System.currentTimeMillis() + timeout;
+            while (position == limit && !closed) {
+                long wait = timeout == 0 ? 0 : deadline - System.currentTimeMillis();
+                if (timeout != 0 && wait <= 0) {
+                    throw new SocketTimeoutException("Read timed out");
+                }
+                try {
+                    wait(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SocketException("Interrupted while reading");
+                }
+            }
+            if (position == limit) { // Closed
+                return -1;
+            }
+            int read = Math.min(length, limit - position);
+            System.arraycopy(buffer, position, bytes, offset, read);
+            position += read;
+            return read;
+        }
+
+        synchronized int available() {
+            return limit - position;
+        }
+
+        synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+    }
+}
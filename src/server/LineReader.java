@@ -0,0 +1,137 @@
+package server;
+
+// External imports
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Internal imports
+import exceptions.ProtocolException;
+
+/**
+ * Reads the messages of a client line by line, like {@link java.io.BufferedReader#readLine()}, but with a bound on the length
+ * of a line. A BufferedReader keeps growing its line until it sees a line break, so a client that never sends one makes the
+ * server allocate without end. This reader fails as soon as a line is longer than the maximum frame length instead, having
+ * buffered no more than that. Bytes are read into one buffer per connection that is reused for every line, starts small and
+ * only grows up to the maximum frame length for connections that send long lines, such as boards. Lines end with a line feed,
+ * a carriage return or both, and are decoded as UTF-8.
+ * @inv in != null, buffer != null, 0 <= position <= limit <= buffer.length <= maxFrameLength + 1
+ */
+public class LineReader implements Closeable {
+    // The size of the buffer of a new connection, enough for every message but the board
+    public static final int INITIAL_BUFFER_SIZE = 256;
+
+    // The stream of the connection
+    private InputStream in;
+
+    // The most bytes a line may have, without its line break
+    private int maxFrameLength;
+
+    // The bytes that have been read, of which those from position up to limit haven't been returned yet
+    private byte[] buffer;
+    private int position;
+    private int limit;
+
+    // Whether the last line ended with a carriage return, so that a line feed right after it belongs to the same line break
+    private boolean skipLineFeed;
+
+    /**
+     * Creates a reader for the stream of a connection.
+     * @param in The stream.
+     * @param maxFrameLength The most bytes a line may have, without its line break.
+     * @pre in != null, maxFrameLength > 0
+     */
+    public LineReader(InputStream in, int maxFrameLength) {
+        this.in = in;
+        this.maxFrameLength = maxFrameLength;
+        this.buffer = new byte[Math.min(INITIAL_BUFFER_SIZE, maxFrameLength + 1)];
+    }
+
+    /**
+     * Reads the next line, waiting for it if it hasn't been sent yet.
+     * @return The line without its line break, or null if the connection was closed. A line that was cut off by the end of the
+     * connection is returned as it is, like a BufferedReader does.
+     * @throws IOException if reading from the connection fails.
+     * @throws ProtocolException if the line is longer than the maximum frame length, after which the reader can't be used.
+     * @post ensures that no more than the maximum frame length plus one bytes are buffered
+     */
+    public String readLine() throws IOException, ProtocolException {
+        int scan = position;
+        while (true) {
+            for (; scan < limit; scan++) {
+                byte b = buffer[scan];
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (b == '\n') {
+                        position++;
+                        continue;
+                    }
+                }
+                if (b == '\n' || b == '\r') {
+                    String line = new String(buffer, position, scan - position, StandardCharsets.UTF_8);
+                    position = scan + 1;
+                    skipLineFeed = b == '\r';
+                    return line;
+                }
+                if (scan - position >= maxFrameLength) {
+                    throw new ProtocolException("Client sent a message longer than " + maxFrameLength + " bytes.");
+                }
+            }
+
+            if (position > 0) { // Moves the start of the line to the front, so that the buffer only grows for long lines
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                limit -= position;
+                scan -= position;
+                position = 0;
+            }
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, maxFrameLength + 1));
+            }
+
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                if (limit == position) {
+                    return null;
+                }
+                String line = new String(buffer, position, limit - position, StandardCharsets.UTF_8);
+                position = limit;
+                return line;
+            }
+            limit += read;
+        }
+    }
+
+    /**
+     * Checks whether a whole line has already been read from the connection, so that {@link #readLine()} returns it without
+     * waiting. Used to handle the messages a client sent back to back as one batch.
+     * @return Whether a line break is buffered.
+     */
+    public boolean hasLine() {
+        int start = skipLineFeed && position < limit && buffer[position] == '\n' ? position + 1 : position;
+        for (int i = start; i < limit; i++) {
+            if (buffer[i] == '\n' || buffer[i] == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Getter for the size of the buffer, which only grows for connections that send long lines.
+     * @return The size in bytes.
+     */
+    public int getBufferSize() {
+        return buffer.length;
+    }
+
+    /**
+     * Closes the stream of the connection.
+     * @throws IOException if closing the stream fails.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
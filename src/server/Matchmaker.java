@@ -0,0 +1,496 @@
+package server;
+
+// External imports
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Internal imports
+import bot.BotPlayer;
+import game.Game;
+import game.GameListener;
+import game.GameScheduler;
+import game.Player;
+import game.RandomService;
+import game.ReplayArchive;
+import game.RuleProfile;
+import metrics.LatencyHistogram;
+import tui.GameServerTUI;
+
+/**
+ * This class pairs up players for games. The first player waits until someone else sends a handshake and then they are paired
+ * for a game. Then the next player again waits for an opponent and so forth. Players are only paired with players that chose the
+ * same {@link RuleProfile}, so every profile has its own waiting player. If nobody turns up within the bot wait deadline,
+ * the waiting player is given a {@link BotPlayer} as opponent instead. Bots cost no socket and no thread, so a server can run
+ * many bot games next to the games between people.
+ * <p>
+ * <p>
+ * Players whose game has ended can also ask for a rematch against the same opponent. The first to ask waits in a new game
+ * with the same rules until the other one asks too, for at most the rematch wait. Against a bot the rematch starts right away.
+ * <p>
+ * The matchmaker also measures the time to first game: the time from a person joining a game until the game starts.
+ * @inv view != null, defaultRules != null, randomService != null, scheduler != null, listeners != null, waiting != null, rematches != null, timeToFirstGame != null, gameCount >= 0
+ */
+public class Matchmaker implements GameListener {
+    // How long a player waits for an opponent before a bot is added, if no other deadline is given
+    public static final long DEFAULT_BOT_WAIT_MILLIS = 30000;
+
+    // How long a player waits for the opponent of its last game to ask for a rematch too
+    public static final long DEFAULT_REMATCH_WAIT_MILLIS = 30000;
+
+    // The name of every bot starts with this, followed by a number
+    public static final String BOT_NAME_PREFIX = "Bot-";
+
+    // The thread that adds bots to games when their deadline passes
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Matchmaker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The terminal view of the server
+    private GameServerTUI view;
+
+    // Listeners that are added to every new game
+    private List<GameListener> listeners;
+
+    // How long a player waits before a bot is added, 0 or less for never
+    private long botWait;
+
+    // The rules of players that don't choose any
+    private RuleProfile defaultRules;
+
+    // The player that is waiting for an opponent for every rule profile. Profiles without a waiting player aren't in the map.
+    private Map<RuleProfile, Waiting> waiting;
+
+    // The players waiting for a rematch, by the game that they want to play again
+    private Map<Game, Rematch> rematches;
+
+    // How long a player waits for a rematch before it is declined in milliseconds
+    private long rematchWait;
+
+    // Whether the server is draining, after which no more players are paired
+    private boolean draining;
+
+    // Where the random decisions of the games and bots come from
+    private RandomService randomService;
+
+    // The clock and timers of the games
+    private GameScheduler scheduler;
+
+    // Where the games are recorded for replays, null if they aren't
+    private ReplayArchive replays;
+
+    // The id of the last game
+    private int gameCount;
+
+    // The number of bots that have been created, used for their names
+    private int botCount;
+
+    // The time from a person joining a game until the game starts, in milliseconds
+    private LatencyHistogram timeToFirstGame;
+
+    /**
+     * A player waiting for an opponent, their game and their name.
+     */
+    private static class Waiting {
+        private Player player;
+        private Game game;
+        private String playerName;
+
+        Waiting(Player player, Game game, String playerName) {
+            this.player = player;
+            this.game = game;
+            this.playerName = playerName;
+        }
+    }
+
+    /**
+     * A player waiting in a new game for the opponent of its last game to ask for a rematch, and what to do if it doesn't.
+     */
+    private static class Rematch {
+        private Waiting waiting;
+        private Player opponent;
+        private Consumer<Game> declined;
+
+        Rematch(Waiting waiting, Player opponent, Consumer<Game> declined) {
+            this.waiting = waiting;
+            this.opponent = opponent;
+            this.declined = declined;
+        }
+    }
+
+    /**
+     * Creates a matchmaker whose players play with the classic rules unless they choose others.
+     * @param view The terminal view of the server.
+     * @param botWait How long a player waits for an opponent before a bot is added in milliseconds, 0 or less to never add bots.
+     * @pre view != null
+     * @post ensures that nobody is waiting and no game has been created
+     */
+    public Matchmaker(GameServerTUI view, long botWait) {
+        this(view, botWait, RuleProfile.CLASSIC);
+    }
+
+    /**
+     * Creates a matchmaker.
+     * @param view The terminal view of the server.
+     * @param botWait How long a player waits for an opponent before a bot is added in milliseconds, 0 or less to never add bots.
+     * @param defaultRules The rules of players that don't choose any.
+     * @pre view != null, defaultRules != null
+     * @post ensures that nobody is waiting and no game has been created
+     */
+    public Matchmaker(GameServerTUI view, long botWait, RuleProfile defaultRules) {
+        this.view = view;
+        this.botWait = botWait;
+        this.defaultRules = defaultRules;
+        waiting = new HashMap<>();
+        rematches = new HashMap<>();
+        rematchWait = DEFAULT_REMATCH_WAIT_MILLIS;
+        randomService = RandomService.fast();
+        scheduler = GameScheduler.system();
+        listeners = new CopyOnWriteArrayList<>();
+        listeners.add(this);
+        timeToFirstGame = new LatencyHistogram();
+        gameCount = 0;
+    }
+
+    /**
+     * Sets where the random decisions of the games and bots created from now on come from, for example a
+     * {@link game.SeededRandomService} to play games that can be reproduced.
+     * @param randomService The random service.
+     * @pre randomService != null
+     * @post ensures that games created from now on get their random generator from the service
+     */
+    public synchronized void setRandomService(RandomService randomService) {
+        this.randomService = randomService;
+    }
+
+    /**
+     * Sets the clock and timers of the games created from now on, for example a {@link game.VirtualScheduler} to play games
+     * whose timeouts a test controls. The timers of the matchmaker itself, for bots and rematches, keep the wall clock.
+     * @param scheduler The scheduler.
+     * @pre scheduler != null
+     * @post ensures that games created from now on keep their time with the scheduler
+     */
+    public synchronized void setScheduler(GameScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Sets where the games created from now on are recorded for replays when they end.
+     * @param replays The archive of the recordings, null to not record the games.
+     * @post ensures that games created from now on save their recording in the archive, unless it is null
+     */
+    public synchronized void setReplayArchive(ReplayArchive replays) {
+        this.replays = replays;
+    }
+
+    /**
+     * Sets how long a player waits for the opponent of its last game to ask for a rematch too.
+     * @param rematchWait The wait in milliseconds.
+     * @pre rematchWait > 0
+     * @post ensures that rematches asked for from now on wait at most this long
+     */
+    public synchronized void setRematchWait(long rematchWait) {
+        this.rematchWait = rematchWait;
+    }
+
+    /**
+     * Adds a listener to every game created from now on.
+     * @param listener The listener.
+     * @pre listener != null
+     * @post ensures that the listener is informed about every new game
+     */
+    public void addGameListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Finds a game with the default rules for a player, see {@link #findGame(Player, String, RuleProfile)}.
+     * @param player The player.
+     * @param playerName The name of the player.
+     * @return The game the player is added to, or null if the waiting opponent already has that name or the matchmaker is draining.
+     * @pre player != null, playerName != null
+     * @post ensures that the player is either waiting in a new game or paired with the waiting player, unless the matchmaker is draining
+     */
+    public Game findGame(Player player, String playerName) {
+        return findGame(player, playerName, defaultRules);
+    }
+
+    /**
+     * Finds a game for a player. The player either waits in a new game or is paired with the player that is waiting for a game
+     * with the same rules. This method is synchronized because client handler threads call it concurrently. A player that
+     * waited for this player to ask for a rematch has its rematch declined, since this player has gone elsewhere.
+     * @param player The player.
+     * @param playerName The name of the player.
+     * @param rules The rules the player wants to play with.
+     * @return The game the player is added to, or null if the waiting opponent already has that name or the matchmaker is draining.
+     * @pre player != null, playerName != null, rules != null
+     * @post ensures that the player is either waiting in a new game or paired with the waiting player, unless the matchmaker is draining
+     */
+    public synchronized Game findGame(Player player, String playerName, RuleProfile rules) {
+        if (draining) { // No more games are started
+            return null;
+        }
+        declineRematches(player);
+
+        Waiting opponent = waiting.get(rules);
+
+        if (opponent == null) { // If nobody is waiting for an opponent
+
+            Game game = newGame(rules);
+            waiting.put(rules, new Waiting(player, game, playerName)); // Indicates that someone is waiting for a game
+
+            if (botWait > 0) {
+                SCHEDULER.schedule(() -> addBot(game), botWait, TimeUnit.MILLISECONDS);
+            }
+            return game;
+
+        } else if (!opponent.playerName.equals(playerName)) { // If somebody with another name is waiting for an opponent
+
+            waiting.remove(rules); // Indicates that nobody is waiting for a game
+            return opponent.game;
+
+        } else { // The waiting player already has that name
+            return null;
+        }
+    }
+
+    /**
+     * Creates a game with the default rules for a player against a bot right away, without waiting for an opponent.
+     * @param moveDelay How long the bot waits before each move in milliseconds.
+     * @return The game. The player still has to join it and submit a board, the bot has already done so.
+     * @post ensures that a new game with a bot in it is returned
+     */
+    public Game findBotGame(long moveDelay) {
+        return findBotGame(moveDelay, defaultRules);
+    }
+
+    /**
+     * Creates a game for a player against a bot right away, without waiting for an opponent.
+     * @param moveDelay How long the bot waits before each move in milliseconds.
+     * @param rules The rules of the game.
+     * @return The game. The player still has to join it and submit a board, the bot has already done so.
+     * @pre rules != null
+     * @post ensures that a new game with a bot in it is returned
+     */
+    public Game findBotGame(long moveDelay, RuleProfile rules) {
+        Game game;
+        String botName;
+        synchronized (this) {
+            game = newGame(rules);
+            botName = BOT_NAME_PREFIX + ++botCount;
+        }
+        new BotPlayer(botName, game.splitRandom(), moveDelay).join(game);
+        return game;
+    }
+
+    /**
+     * Finds a rematch for a player whose game has ended, against the opponent of that game. If the opponent has already asked
+     * for the rematch, the player is added to the game the opponent waits in. Otherwise the player waits in a new game with the
+     * same rules until the opponent asks too; if it leaves, goes elsewhere or doesn't ask within the rematch wait, the rematch is
+     * declined on the matchmaker thread. Against a bot the rematch is a new game with a bot of the same name, right away.
+     * @param player The player.
+     * @param playerName The name of the player.
+     * @param finished The game that has ended, which the player played in.
+     * @param declined Called with the game the player waits in if the rematch is declined, never while a lock is held.
+     * @return The game the player is added to, or null if the opponent has left or the matchmaker is draining.
+     * @pre player != null, playerName != null, finished != null, declined != null, the game is over
+     * @post ensures that the player is either waiting for the rematch in a new game or paired with the opponent
+     */
+    public Game findRematch(Player player, String playerName, Game finished, Consumer<Game> declined) {
+        Player opponent = finished.getPlayer(1) == player ? finished.getPlayer(2) : finished.getPlayer(1);
+        if (opponent == null) {
+            return null;
+        }
+        if (opponent.isBot()) {
+            Game game;
+            synchronized (this) {
+                if (draining) {
+                    return null;
+                }
+                game = newGame(finished.getRules());
+            }
+            new BotPlayer(opponent.getName(), game.splitRandom(), BotPlayer.DEFAULT_MOVE_DELAY_MILLIS).join(game);
+            return game;
+        }
+
+        synchronized (this) {
+            if (draining) {
+                return null;
+            }
+            Rematch asked = rematches.get(finished);
+            if (asked != null && asked.waiting.player == opponent) { // The opponent already waits for this player
+                rematches.remove(finished);
+                return asked.waiting.game;
+            }
+            if (!opponent.isConnected()) {
+                return null;
+            }
+
+            Game game = newGame(finished.getRules());
+            Rematch rematch = new Rematch(new Waiting(player, game, playerName), opponent, declined);
+            rematches.put(finished, rematch);
+            SCHEDULER.schedule(() -> {
+                synchronized (this) {
+                    if (!rematches.remove(finished, rematch)) { // The opponent asked in time
+                        return;
+                    }
+                }
+                declined.accept(game);
+            }, rematchWait, TimeUnit.MILLISECONDS);
+            return game;
+        }
+    }
+
+    /**
+     * Declines the rematches that wait for a player, because it has left or gone elsewhere. The waiting players are told so on
+     * the matchmaker thread, since the caller may hold locks.
+     * @param player The player.
+     * @pre the caller holds the lock of this matchmaker
+     * @post ensures that nobody waits for a rematch against the player
+     */
+    private void declineRematches(Player player) {
+        for (Iterator<Rematch> iterator = rematches.values().iterator(); iterator.hasNext();) {
+            Rematch rematch = iterator.next();
+            if (rematch.opponent == player) {
+                iterator.remove();
+                SCHEDULER.execute(() -> rematch.declined.accept(rematch.waiting.game));
+            }
+        }
+    }
+
+    /**
+     * Creates a game that isn't offered to waiting players, for example for a tournament that pairs its players itself. The game
+     * gets the next id and the listeners like every other game.
+     * @param rules The rules of the game.
+     * @return The game, which nobody has joined yet.
+     * @pre rules != null
+     * @post ensures that a new game with a new id is returned
+     */
+    public synchronized Game createGame(RuleProfile rules) {
+        return newGame(rules);
+    }
+
+    /**
+     * Called when a player leaves. If the player was waiting for an opponent, the next player starts a new game instead. If it
+     * was waiting for a rematch it no longer does, and a player that waited for a rematch against it has its rematch declined.
+     * @param player The player.
+     * @pre player != null
+     * @post ensures that the player is no longer waiting for an opponent or a rematch, and nobody waits for a rematch against it
+     */
+    public synchronized void leaveQueue(Player player) {
+        waiting.values().removeIf(opponent -> opponent.player == player);
+        rematches.values().removeIf(rematch -> rematch.waiting.player == player);
+        declineRematches(player);
+    }
+
+    /**
+     * Stops pairing players, because the server is shutting down. Games that have already been paired go on.
+     * @return The players that were waiting for an opponent or a rematch, who are no longer waiting.
+     * @post ensures that nobody is waiting and {@link #findGame(Player, String, RuleProfile)} no longer pairs anyone
+     */
+    public synchronized List<Player> drain() {
+        draining = true;
+        List<Player> players = new ArrayList<>();
+        for (Waiting opponent : waiting.values()) {
+            players.add(opponent.player);
+        }
+        waiting.clear();
+        for (Rematch rematch : rematches.values()) {
+            players.add(rematch.waiting.player);
+        }
+        rematches.clear();
+        return players;
+    }
+
+    /**
+     * Getter for whether the matchmaker has stopped pairing players.
+     * @return True once {@link #drain()} has been called.
+     */
+    public synchronized boolean isDraining() {
+        return draining;
+    }
+
+    /**
+     * Gives the player waiting in a game a bot as opponent, unless somebody else has joined the game in the meantime.
+     * @param game The game the player was waiting in when the deadline was set.
+     */
+    private void addBot(Game game) {
+        String botName;
+        synchronized (this) {
+            Waiting opponent = waiting.get(game.getRules());
+            if (opponent == null || opponent.game != game) { // An opponent has turned up or the player has left
+                return;
+            }
+            botName = BOT_NAME_PREFIX + ++botCount;
+            if (botName.equals(opponent.playerName)) {
+                botName = BOT_NAME_PREFIX + ++botCount;
+            }
+            waiting.remove(game.getRules());
+        }
+
+        view.showMessage("Game " + game.getGameId() + ": no opponent turned up, adding " + botName + ".");
+        new BotPlayer(botName, game.splitRandom(), BotPlayer.DEFAULT_MOVE_DELAY_MILLIS).join(game);
+    }
+
+    /**
+     * Creates a game with the next id and the listeners.
+     * @pre the caller holds the lock of this matchmaker
+     */
+    private Game newGame(RuleProfile rules) {
+        gameCount++; // Increments the gameCount so next game has unique id
+        Game game = new Game(view, gameCount, rules, randomService, scheduler);
+        game.setReplayArchive(replays);
+        for (GameListener listener : listeners) {
+            game.addGameListener(listener);
+        }
+        return game;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Records how long the people in the game waited for it to start.
+     * @post ensures that the time to first game of every person in the game is recorded
+     */
+    @Override
+    public void gameStarted(Game game) {
+        long now = System.nanoTime();
+        for (int player = 1; player <= 2; player++) {
+            if (!game.getPlayer(player).isBot()) {
+                timeToFirstGame.record(TimeUnit.NANOSECONDS.toMillis(now - game.getJoinTime(player)));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Does nothing, the matchmaker is done with a game once it has started.
+     */
+    @Override
+    public void gameEnded(Game game) {
+    }
+
+    /**
+     * Getter for the time from a person joining a game until the game starts.
+     * @return The histogram of times in milliseconds.
+     */
+    public LatencyHistogram getTimeToFirstGame() {
+        return timeToFirstGame;
+    }
+
+    /**
+     * Getter for the number of games that have been created.
+     * @return The id of the last game.
+     */
+    public synchronized int getGameCount() {
+        return gameCount;
+    }
+}
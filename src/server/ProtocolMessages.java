@@ -18,4 +18,21 @@ public class ProtocolMessages {
     public static final String UPDATE = "u";
     public static final String GAMEOVER = "g";
     public static final String EXIT = "e";
+    public static final String LEADERBOARD = "l";
+    public static final String LEADERBOARD_RANK = "lr";
+    public static final String LEADERBOARD_AROUND = "la";
+    public static final String WATCH = "w";
+    public static final String GAME_NOT_FOUND = "gn";
+    public static final String SYNC = "y";
+    public static final String BOARD_STATE = "bs";
+    public static final String BOARD_DELTA = "bd";
+    public static final String RULES_NOT_FOUND = "rn";
+    public static final String RECONNECT = "rc";
+    public static final String SESSION = "ss";
+    public static final String RESUME = "rs";
+    public static final String HEARTBEAT = "hb";
+    public static final String PROTOCOL_ERROR = "pe";
+    public static final String REMATCH = "rm";
+    public static final String REMATCH_DECLINED = "rd";
+    public static final String REQUEUE = "q";
 }
@@ -0,0 +1,140 @@
+package server;
+
+// External imports
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets by key, for example to limit how often every source address may connect. A bucket is only the time at which it
+ * is full again, see {@link TokenBucket}, so taking a token is one map lookup and one compare and set without a lock.
+ * <p>
+ * The number of buckets is bounded. When there are too many, buckets that are full are thrown away first, which changes nothing
+ * since a new bucket is full as well. If that isn't enough, because many keys are busy at once, other buckets are thrown away
+ * too, which gives their keys a new burst. Only one thread evicts at a time and the others go on without waiting.
+ * @inv buckets != null, interval > 0, tolerance >= 0, maxKeys > 0
+ */
+public class RateLimiter<K> {
+    // The share of the maximum number of keys that is kept after an eviction, so that evictions are rare
+    private static final double EVICT_TO = 0.9;
+
+    // The buckets by key, each the time at which it is full again from System.nanoTime()
+    private ConcurrentHashMap<K, AtomicLong> buckets;
+
+    // The time between two tokens in nanoseconds, and how far a bucket may be ahead of now
+    private long interval;
+    private long tolerance;
+
+    // The most buckets that are kept
+    private int maxKeys;
+
+    // Whether a thread is evicting buckets
+    private AtomicBoolean evicting;
+
+    // The number of refused events and the number of buckets that were thrown away while they weren't full
+    private AtomicLong rejected;
+    private AtomicLong evictedBusy;
+
+    /**
+     * Creates a limiter without buckets.
+     * @param perSecond The number of events allowed per second for every key once its burst is used up.
+     * @param burst The number of events allowed at once for every key.
+     * @param maxKeys The most keys that are kept.
+     * @pre perSecond > 0, burst >= 1, maxKeys > 0
+     * @post ensures that every key has a full bucket
+     */
+    public RateLimiter(double perSecond, int burst, int maxKeys) {
+        this.interval = TokenBucket.interval(perSecond);
+        this.tolerance = interval * (burst - 1);
+        this.maxKeys = maxKeys;
+        buckets = new ConcurrentHashMap<>();
+        evicting = new AtomicBoolean();
+        rejected = new AtomicLong();
+        evictedBusy = new AtomicLong();
+    }
+
+    /**
+     * Takes a token from the bucket of a key if there is one.
+     * @param key The key, for example a source address.
+     * @return Whether the event is allowed.
+     * @pre key != null
+     */
+    public boolean tryAcquire(K key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    /**
+     * Takes a token from the bucket of a key if there is one, at a given time.
+     * @param key The key.
+     * @param now The current time from System.nanoTime().
+     * @return Whether the event is allowed.
+     * @pre key != null
+     * @post ensures that refused events are counted
+     */
+    public boolean tryAcquire(K key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE / 2));
+            if (buckets.size() > maxKeys) {
+                evict(now);
+            }
+        }
+
+        if (TokenBucket.tryAcquire(bucket, now, interval, tolerance)) {
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Throws buckets away until there are at most {@link #EVICT_TO} of the maximum, full buckets first.
+     * @param now The current time from System.nanoTime().
+     */
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) { // Another thread is evicting
+            return;
+        }
+        try {
+            int target = (int) (maxKeys * EVICT_TO);
+            for (Iterator<AtomicLong> iterator = buckets.values().iterator(); iterator.hasNext() && buckets.size() > target; ) {
+                if (iterator.next().get() <= now) { // Full, so throwing it away changes nothing
+                    iterator.remove();
+                }
+            }
+            for (Iterator<Map.Entry<K, AtomicLong>> iterator = buckets.entrySet().iterator(); iterator.hasNext() && buckets.size() > target; ) {
+                iterator.next();
+                iterator.remove();
+                evictedBusy.incrementAndGet();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Getter for the number of keys that have a bucket.
+     * @return The number of keys.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Getter for the number of events that were refused.
+     * @return The number of events.
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Getter for the number of buckets that were thrown away while they weren't full, because too many keys were busy.
+     * @return The number of buckets.
+     */
+    public long getEvictedBusy() {
+        return evictedBusy.get();
+    }
+}
@@ -12,6 +12,15 @@ public interface ServerProtocol {
     * @param playerName The name submitted by the client in the handshake.
     */
    public void handleHello(String playerName);
+
+   /**
+    * Handles a handshake in which the client also chooses the rule profile of its game. The client is only paired with
+    * clients that chose the same profile. If the server doesn't offer the profile the client is told which profiles it
+    * does offer, and may send another handshake.
+    * @param playerName The name submitted by the client in the handshake.
+    * @param profileName The name of the rule profile, or null for the default profile.
+    */
+   public void handleHello(String playerName, String profileName);
    
    /**
     * When client tries to connect but in handshake includes the same name as the opponent.
@@ -70,6 +79,75 @@ public interface ServerProtocol {
     */
    public void gameOver(String playerName, boolean winType);
 
+   /**
+    * Sends the client the best players on the leaderboard as their rank, name and score.
+    * @param count The number of players requested.
+    */
+   public void topPlayers(int count);
+
+   /**
+    * Sends the client the rank and score of a player on the leaderboard.
+    * @param playerName The name of the player to look up.
+    */
+   public void playerRank(String playerName);
+
+   /**
+    * Sends the client the players ranked around a given rank as their rank, name and score.
+    * @param rank The rank to look around.
+    * @param radius The number of players requested on each side of the rank.
+    */
+   public void playersAroundRank(int rank, int radius);
+
+   /**
+    * Lets the client watch a game that is going on. The client is sent the game id and both player names, followed by
+    * the state of the game, every update and the game over message of the game. If no such game is going on the client is told that instead.
+    * @param gameId The id of the game to watch.
+    */
+   public void watch(int gameId);
+
+   /**
+    * Sends the client the state of the game it plays or watches in one message, so that it can catch up after joining late
+    * or reconnecting. If the client knows a version of the game that is still recent, only what changed since that version is sent.
+    * @param knownVersion The last version of the game the client has seen, or 0 if it knows nothing.
+    */
+   public void sync(int knownVersion);
+
+   /**
+    * Answers a heartbeat of the client with a heartbeat. From its first heartbeat on, the client is expected to send a message
+    * at least every idle timeout of the server, and is disconnected if it doesn't.
+    */
+   public void heartbeat();
+
+   /**
+    * Opens a resumable session for a client that has a game, best right after the handshake. The client is sent a token, with which
+    * it can take its seat back on a new connection if its connection drops. If the client has no game it is told that instead.
+    */
+   public void openSession();
+
+   /**
+    * Resumes a session on a new connection. The client is sent the resume message with its game id and the messages it missed,
+    * after which it can ask for the state of the game with {@link #sync(int)}. If the session is unknown or has expired
+    * the client is told that no game was found.
+    * @param token The token of the session.
+    */
+   public void resume(String token);
+
+   /**
+    * Asks for a rematch against the opponent of the game that just ended, on the same connection. The client has to be in the
+    * lobby, which it is from the game over message until it joins its next game. Once both have asked, or right away against a
+    * bot, they play a new game with the same rules: the client is sent the rematch message and the game goes on like after a
+    * handshake. If the opponent has left, goes elsewhere or doesn't ask in time, the client is told that the rematch was
+    * declined and stays in the lobby.
+    */
+   public void rematch();
+
+   /**
+    * Puts a client in the lobby back in the queue for a new opponent, without a new connection or handshake. The client is
+    * sent the handshake with the rules of its next game, which are the rules of the game that ended unless it chose a profile.
+    * @param profileName The name of the rule profile to play with next, or null for the rules of the game that ended.
+    */
+   public void requeue(String profileName);
+
    /**
     * When of the players wish to exit this method informs the game about it and
     * shuts down communication with the client.
@@ -0,0 +1,179 @@
+package server;
+
+// External imports
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Internal imports
+import game.GameScheduler;
+
+/**
+ * The resumable sessions of clients that are in a game. A client that asks for a session gets a token that can't be guessed.
+ * When its connection drops the client handler holds its seat for the grace period, and a client that connects again on a new
+ * socket sends the token to take the seat back. The registry also counts how often connections dropped and how often they were
+ * resumed, so the forfeits that were prevented can be seen.
+ * @inv sessions != null, random != null, gracePeriod > 0
+ */
+public class SessionRegistry {
+    // How long a seat is held for a client whose connection dropped, if no other grace period is given
+    public static final long DEFAULT_GRACE_MILLIS = 60000;
+
+    // The number of random bytes in a token
+    public static final int TOKEN_BYTES = 16;
+
+    // The client handlers by their token
+    private ConcurrentHashMap<String, GameClientHandler> sessions;
+
+    // Makes the tokens
+    private SecureRandom random;
+
+    // How long a seat is held in milliseconds
+    private long gracePeriod;
+
+    // How often a session was opened, a connection dropped, a session was resumed and a seat was given up after the grace period
+    private AtomicInteger opened;
+    private AtomicInteger suspended;
+    private AtomicInteger resumed;
+    private AtomicInteger abandoned;
+
+    /**
+     * Creates a registry without sessions.
+     * @param gracePeriod How long a seat is held for a client whose connection dropped in milliseconds.
+     * @pre gracePeriod > 0
+     * @post ensures that there are no sessions
+     */
+    public SessionRegistry(long gracePeriod) {
+        this.gracePeriod = gracePeriod;
+        sessions = new ConcurrentHashMap<>();
+        random = new SecureRandom();
+        opened = new AtomicInteger();
+        suspended = new AtomicInteger();
+        resumed = new AtomicInteger();
+        abandoned = new AtomicInteger();
+    }
+
+    /**
+     * Opens a session for a client.
+     * @param handler The client handler that holds the seat of the client.
+     * @return The token with which the client can resume the session.
+     * @pre handler != null
+     * @post ensures that the handler can be found by the token
+     */
+    public String open(GameClientHandler handler) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        String token;
+        do {
+            random.nextBytes(bytes);
+            token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        } while (sessions.putIfAbsent(token, handler) != null);
+        opened.incrementAndGet();
+        return token;
+    }
+
+    /**
+     * Finds the client handler of a session.
+     * @param token The token of the session.
+     * @return The client handler, or null if there is no session with that token.
+     * @pre token != null
+     */
+    public GameClientHandler get(String token) {
+        return sessions.get(token);
+    }
+
+    /**
+     * Closes a session, after which it can no longer be resumed.
+     * @param token The token of the session.
+     * @pre token != null
+     * @post ensures that the session can no longer be found
+     */
+    public void close(String token) {
+        sessions.remove(token);
+    }
+
+    /**
+     * Counts a dropped connection and gives the client the grace period to come back. The grace period runs on the clock of the
+     * client's game, like its move timer.
+     * @param abandon Gives up the seat, run when the grace period has passed.
+     * @param scheduler The scheduler of the client's game.
+     * @return The scheduled task, which is cancelled when the client comes back.
+     * @pre abandon != null, scheduler != null
+     */
+    public ScheduledFuture<?> suspend(Runnable abandon, GameScheduler scheduler) {
+        suspended.incrementAndGet();
+        return scheduler.schedule(abandon, gracePeriod, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Counts a session that was resumed on a new connection.
+     */
+    public void resumed() {
+        resumed.incrementAndGet();
+    }
+
+    /**
+     * Counts a seat that was given up because the client didn't come back within the grace period.
+     */
+    public void abandoned() {
+        abandoned.incrementAndGet();
+    }
+
+    /**
+     * Getter for how long a seat is held.
+     * @return The grace period in milliseconds.
+     */
+    public long getGracePeriod() {
+        return gracePeriod;
+    }
+
+    /**
+     * Getter for the number of sessions that are open.
+     * @return The number of sessions.
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Getter for the number of sessions that were opened.
+     * @return The number of sessions.
+     */
+    public int getOpened() {
+        return opened.get();
+    }
+
+    /**
+     * Getter for the number of connections that dropped while their client had a session.
+     * @return The number of dropped connections.
+     */
+    public int getSuspended() {
+        return suspended.get();
+    }
+
+    /**
+     * Getter for the number of sessions that were resumed on a new connection.
+     * @return The number of resumed sessions.
+     */
+    public int getResumed() {
+        return resumed.get();
+    }
+
+    /**
+     * Getter for the number of seats that were given up because the client didn't come back in time.
+     * @return The number of forfeits.
+     */
+    public int getAbandoned() {
+        return abandoned.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return opened + " sessions opened, " + suspended + " connections dropped, " + resumed + " resumed, " + abandoned + " forfeited";
+    }
+}
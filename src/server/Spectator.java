@@ -0,0 +1,193 @@
+package server;
+
+// External imports
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Internal imports
+import metrics.OutboundStallEvent;
+
+/**
+ * Represents one client watching a game. Messages for the spectator are queued as already encoded frames that are shared with
+ * every other spectator of the game, and written to the client by a small pool of writer threads shared by all spectators of
+ * the server. A spectator that can't keep up and lets {@link #MAX_QUEUED_FRAMES} frames pile up is dropped, so a slow
+ * spectator never slows down the players or the other spectators. Since the writes block, a spectator whose socket stops
+ * taking data would hold its writer thread for good, so a write that takes longer than the write timeout drops the spectator
+ * as well: its connection is closed by onDrop, which makes the blocked write fail and frees the writer.
+ * @inv out != null, queue != null, onDrop != null, writeTimeoutNanos > 0
+ */
+public class Spectator {
+    // The number of frames that may wait for a spectator before it is dropped
+    public static final int MAX_QUEUED_FRAMES = 64;
+
+    // How long writing the queued frames to a spectator may take before it is dropped, and how often that is checked
+    public static final long WRITE_TIMEOUT_MILLIS = 2000;
+    public static final long WRITE_CHECK_MILLIS = 100;
+
+    // Writer threads shared by all spectators
+    private static final ExecutorService WRITERS = Executors.newFixedThreadPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors()),
+        runnable -> {
+            Thread thread = new Thread(runnable, "SpectatorWriter");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
+    // The spectators a writer thread is writing to right now, at most one per writer
+    private static final Set<Spectator> WRITING = ConcurrentHashMap.newKeySet();
+
+    // Drops the spectators whose writes have taken longer than their write timeout
+    private static final ScheduledExecutorService DEADLINES = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SpectatorDeadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        DEADLINES.scheduleWithFixedDelay(Spectator::dropStalled, WRITE_CHECK_MILLIS, WRITE_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // The stream to the client
+    private OutputStream out;
+
+    // Frames waiting to be written
+    private ArrayBlockingQueue<byte[]> queue;
+
+    // Whether a writer thread has been asked to drain the queue
+    private AtomicBoolean scheduled;
+
+    // Whether the spectator has been dropped
+    private volatile boolean dropped;
+
+    // Called once when the spectator is dropped, for example to close the connection
+    private Runnable onDrop;
+
+    // How long a write may take before the spectator is dropped in nanoseconds
+    private long writeTimeoutNanos;
+
+    // When the writer started writing the queued frames, from System.nanoTime(), only read while the spectator is writing
+    private volatile long writeStarted;
+
+    /**
+     * Creates a spectator that writes to the given stream with the default write timeout.
+     * @param out The stream to the client. It should be buffered since it is only flushed after the queue is drained.
+     * @param onDrop Called once when the spectator is dropped because it is too slow or its stream fails. It should close the
+     * connection, so that a write that is blocked fails.
+     * @pre out != null, onDrop != null
+     * @post ensures that the spectator is ready to receive frames
+     */
+    public Spectator(OutputStream out, Runnable onDrop) {
+        this(out, onDrop, WRITE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a spectator that writes to the given stream.
+     * @param out The stream to the client. It should be buffered since it is only flushed after the queue is drained.
+     * @param onDrop Called once when the spectator is dropped because it is too slow or its stream fails. It should close the
+     * connection, so that a write that is blocked fails.
+     * @param writeTimeoutMillis How long writing the queued frames may take before the spectator is dropped.
+     * @pre out != null, onDrop != null, writeTimeoutMillis > 0
+     * @post ensures that the spectator is ready to receive frames
+     */
+    public Spectator(OutputStream out, Runnable onDrop, long writeTimeoutMillis) {
+        this.out = out;
+        this.onDrop = onDrop;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        queue = new ArrayBlockingQueue<>(MAX_QUEUED_FRAMES);
+        scheduled = new AtomicBoolean(false);
+    }
+
+    /**
+     * Queues a frame for the spectator without blocking. The frame must not be changed afterwards since it is shared.
+     * @param frame The encoded message including its line ending.
+     * @return False if the spectator has been dropped, either before or because its queue is full.
+     * @pre frame != null
+     * @post ensures that the frame is queued and a writer is scheduled, or that the spectator is dropped
+     */
+    public boolean send(byte[] frame) {
+        if (dropped) {
+            return false;
+        }
+        if (!queue.offer(frame)) { // The spectator is too slow
+            drop();
+            return false;
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            WRITERS.execute(this::drain);
+        }
+        return true;
+    }
+
+    /**
+     * Writes all queued frames and flushes once. If frames were queued after the queue was seen empty, another drain is scheduled.
+     * The spectator is dropped if this takes longer than the write timeout.
+     */
+    private void drain() {
+        writeStarted = System.nanoTime();
+        WRITING.add(this);
+        try {
+            OutboundStallEvent stall = OutboundStallEvent.start();
+            long written = 0;
+            byte[] frame = queue.poll();
+            while (frame != null && !dropped) {
+                out.write(frame);
+                written += frame.length;
+                frame = queue.poll();
+            }
+            out.flush();
+            stall.finish(OutboundStallEvent.TARGET_SPECTATOR, null, written);
+        } catch (IOException e) {
+            drop();
+        } finally {
+            WRITING.remove(this);
+            scheduled.set(false);
+            if (!queue.isEmpty() && !dropped && scheduled.compareAndSet(false, true)) {
+                WRITERS.execute(this::drain);
+            }
+        }
+    }
+
+    /**
+     * Drops the spectators whose writes have taken longer than their write timeout. Runs on the deadline thread.
+     */
+    private static void dropStalled() {
+        long now = System.nanoTime();
+        for (Spectator spectator : WRITING) {
+            if (now - spectator.writeStarted > spectator.writeTimeoutNanos) {
+                spectator.drop();
+            }
+        }
+    }
+
+    /**
+     * Drops the spectator. Queued frames are discarded and onDrop is called once.
+     * @post ensures that no more frames are written to the spectator
+     */
+    public void drop() {
+        synchronized (this) {
+            if (dropped) {
+                return;
+            }
+            dropped = true;
+        }
+        queue.clear();
+        onDrop.run();
+    }
+
+    /**
+     * Getter for whether the spectator has been dropped.
+     * @return Whether the spectator has been dropped.
+     */
+    public boolean isDropped() {
+        return dropped;
+    }
+}
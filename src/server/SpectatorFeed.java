@@ -0,0 +1,82 @@
+package server;
+
+// External imports
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The list of spectators of one game. Every message for the spectators is encoded once into an immutable frame that is
+ * handed to all of them, so the cost of publishing to many spectators is one encoding plus one queue offer per spectator.
+ * Spectators that are dropped are removed from the list.
+ * @inv spectators != null
+ */
+public class SpectatorFeed {
+    // The spectators of the game. Copy on write since spectators join rarely and messages are published often.
+    private CopyOnWriteArrayList<Spectator> spectators;
+
+    /**
+     * Creates an empty feed.
+     * @post ensures that there are no spectators
+     */
+    public SpectatorFeed() {
+        spectators = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Adds a spectator to the feed.
+     * @param spectator The spectator to add.
+     * @pre spectator != null
+     * @post ensures that the spectator receives every following message
+     */
+    public void add(Spectator spectator) {
+        spectators.add(spectator);
+    }
+
+    /**
+     * Encodes a protocol message once and queues it for every spectator.
+     * @param parts The parts of the message, which are joined with the protocol delimiter.
+     * @pre parts.length > 0
+     * @post ensures that every spectator that keeps up receives the message and that dropped spectators are removed
+     */
+    public void publish(Object... parts) {
+        if (spectators.isEmpty()) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                message.append(ProtocolMessages.DELIMITER);
+            }
+            message.append(parts[i]);
+        }
+        message.append('\n');
+        byte[] frame = message.toString().getBytes(StandardCharsets.UTF_8);
+
+        boolean anyDropped = false;
+        for (Spectator spectator : spectators) {
+            if (!spectator.send(frame)) {
+                anyDropped = true;
+            }
+        }
+        if (anyDropped) {
+            spectators.removeIf(Spectator::isDropped);
+        }
+    }
+
+    /**
+     * Removes all spectators without dropping their connections, for example when the game has ended.
+     * @post ensures that there are no spectators
+     */
+    public void clear() {
+        spectators.clear();
+    }
+
+    /**
+     * Getter for the number of spectators.
+     * @return The number of spectators.
+     */
+    public int size() {
+        return spectators.size();
+    }
+}
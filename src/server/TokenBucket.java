@@ -0,0 +1,87 @@
+package server;
+
+// External imports
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket that allows a burst of events and then a steady rate, without a lock. Instead of a number of tokens the
+ * bucket keeps the time at which it will be full again: every event pushes that time one interval further, and an event is
+ * refused if that would push it more than the burst beyond now. This needs a single compare and set per event, and a bucket
+ * whose time has passed is full, so it can be thrown away and made again without changing anything.
+ * @inv interval > 0, tolerance >= 0, fullAt != null
+ */
+public class TokenBucket {
+    // The time between two tokens in nanoseconds
+    private long interval;
+
+    // How far the bucket may be ahead of now, which is the burst minus one interval
+    private long tolerance;
+
+    // The time at which the bucket is full again, from System.nanoTime()
+    private AtomicLong fullAt;
+
+    /**
+     * Creates a full bucket.
+     * @param perSecond The number of events allowed per second once the burst is used up.
+     * @param burst The number of events allowed at once.
+     * @pre perSecond > 0, burst >= 1
+     * @post ensures that the bucket is full
+     */
+    public TokenBucket(double perSecond, int burst) {
+        this(interval(perSecond), burst);
+    }
+
+    /**
+     * Creates a full bucket.
+     * @param interval The time between two tokens in nanoseconds, see {@link #interval(double)}.
+     * @param burst The number of events allowed at once.
+     * @pre interval > 0, burst >= 1
+     * @post ensures that the bucket is full
+     */
+    public TokenBucket(long interval, int burst) {
+        this.interval = interval;
+        this.tolerance = interval * (burst - 1);
+        this.fullAt = new AtomicLong(Long.MIN_VALUE / 2);
+    }
+
+    /**
+     * Converts a rate to the time between two tokens.
+     * @param perSecond The number of events per second.
+     * @return The time between two tokens in nanoseconds.
+     * @pre perSecond > 0
+     */
+    public static long interval(double perSecond) {
+        return Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+    }
+
+    /**
+     * Takes a token if there is one.
+     * @return Whether the event is allowed.
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(fullAt, System.nanoTime(), interval, tolerance);
+    }
+
+    /**
+     * Takes a token from a bucket that is kept as the time at which it is full again, as {@link RateLimiter} does.
+     * @param fullAt The time at which the bucket is full again, updated if a token is taken.
+     * @param now The current time from System.nanoTime().
+     * @param interval The time between two tokens in nanoseconds.
+     * @param tolerance The burst minus one, times the interval.
+     * @return Whether the event is allowed.
+     * @pre fullAt != null
+     */
+    static boolean tryAcquire(AtomicLong fullAt, long now, long interval, long tolerance) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            if (next - now > tolerance + interval) { // The burst is used up
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+// Internal imports
+import server.ConnectionMonitor;
+import server.GameClientHandler;
+import server.ProtocolMessages;
+import tui.GameServerTUI;
+
+/**
+ * Tests that quiet connections are closed and connections that send heartbeats are kept, over loopback sockets.
+ */
+public class ConnectionMonitorTest {
+    private static final long TIMEOUT = 200;
+    private static final long SWEEP_INTERVAL = 20;
+
+    /**
+     * Tests that a connection that never sends a message is closed and a connection that sends heartbeats isn't.
+     */
+    @Test
+    void testReap() throws IOException, InterruptedException {
+        ConnectionMonitor monitor = new ConnectionMonitor(TIMEOUT, TIMEOUT, SWEEP_INTERVAL);
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            Socket quiet = new Socket("localhost", serverSocket.getLocalPort());
+            startHandler(serverSocket.accept(), monitor);
+            Socket alive = new Socket("localhost", serverSocket.getLocalPort());
+            startHandler(serverSocket.accept(), monitor);
+
+            PrintWriter aliveOut = new PrintWriter(alive.getOutputStream(), true);
+            BufferedReader aliveIn = new BufferedReader(new InputStreamReader(alive.getInputStream()));
+            for (int i = 0; i < 10; i++) {
+                aliveOut.println(ProtocolMessages.HEARTBEAT);
+                assertEquals(ProtocolMessages.HEARTBEAT, aliveIn.readLine());
+                Thread.sleep(TIMEOUT / 4);
+            }
+
+            quiet.setSoTimeout(10000);
+            assertNull(new BufferedReader(new InputStreamReader(quiet.getInputStream())).readLine()); // Closed by the server
+            assertEquals(1, monitor.getReaped());
+            assertEquals(1, monitor.size());
+
+            // The client that sent heartbeats goes quiet too
+            alive.setSoTimeout(10000);
+            assertNull(aliveIn.readLine());
+            assertEquals(2, monitor.getReaped());
+
+            quiet.close();
+            alive.close();
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    /**
+     * Starts a handler for an accepted connection and lets the monitor check it.
+     */
+    private static void startHandler(Socket socket, ConnectionMonitor monitor) {
+        GameClientHandler handler = new GameClientHandler(socket, null, new GameServerTUI());
+        monitor.add(handler);
+        new Thread(handler).start();
+    }
+}
@@ -34,7 +34,7 @@ public class GameClientHandlerTest {
 
     @BeforeEach
     void setupServer() {
-        server = new GameServer(new String[]{String.valueOf(GameClientHandlerTest.PORT)});
+        server = new GameServer(new String[]{String.valueOf(GameClientHandlerTest.PORT)}, null, null);
     }
 
     @AfterEach
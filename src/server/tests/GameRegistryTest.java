@@ -0,0 +1,54 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.util.Random;
+
+// Internal imports
+import bot.BotPlayer;
+import game.Game;
+import server.GameRegistry;
+import server.Matchmaker;
+import tui.GameServerTUI;
+
+/**
+ * Tests finding the games that are going on by id and by player.
+ */
+public class GameRegistryTest {
+    // Long enough that no move is made during the test
+    private static final long MOVE_DELAY = 60000;
+
+    /**
+     * Tests that games can be found while they are going on and no longer once they have ended, also when two games
+     * have a player with the same name.
+     */
+    @Test
+    void testLookup() {
+        Matchmaker matchmaker = new Matchmaker(new GameServerTUI(), 0);
+        GameRegistry registry = new GameRegistry();
+        matchmaker.addGameListener(registry);
+
+        Game first = matchmaker.findBotGame(MOVE_DELAY);
+        new BotPlayer("player", new Random(), MOVE_DELAY).join(first);
+        assertSame(first, registry.getGame(first.getGameId()));
+        assertSame(first, registry.getGameOfPlayer("player"));
+        assertSame(first, registry.getGameOfPlayer(first.getPlayerName(1)));
+
+        Game second = matchmaker.findBotGame(MOVE_DELAY);
+        new BotPlayer("player", new Random(), MOVE_DELAY).join(second);
+        assertEquals(2, registry.size());
+        assertSame(second, registry.getGameOfPlayer("player"));
+
+        first.timeUp();
+        assertNull(registry.getGame(first.getGameId()));
+        assertSame(second, registry.getGameOfPlayer("player")); // The game that ended first leaves the other game
+
+        registry.endAll();
+        assertEquals(0, registry.size());
+        assertNull(registry.getGameOfPlayer("player"));
+        assertEquals(0, registry.getGames().size());
+    }
+}
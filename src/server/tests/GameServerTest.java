@@ -29,7 +29,7 @@ public class GameServerTest {
     @BeforeAll
     public static void setUpServer() {
         System.setOut(new PrintStream(outContent));
-        server = new GameServer(new String[]{String.valueOf(GameServerTest.PORT)}); 
+        server = new GameServer(new String[]{String.valueOf(GameServerTest.PORT)}, null, null); 
     }
 
     @Test
@@ -37,6 +37,8 @@ public class GameServerTest {
         // Asserts that the actual output in terminal indicates that server was started without any exceptions
         assertEquals(
             GameServer.SERVER_START_MESSAGE+"\n" + 
+            TerminalColors.BLUE_BOLD + "Player statistics are not kept." + TerminalColors.RESET + "\n" +
+            TerminalColors.BLUE_BOLD + "Games are not recorded for replays." + TerminalColors.RESET + "\n" +
             TerminalColors.GREEN_BOLD + "Server started on port " + GameServerTest.PORT + TerminalColors.RESET+"\n" +
             GameServer.SERVER_LISTENING_FOR_CONNECTIONS_MESSAGE+"\n" +
             GameServer.SERVER_NEW_CLIENT_MESSAGE +"\n" +
@@ -0,0 +1,200 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Internal imports
+import constants.GameConstants;
+import exceptions.ProtocolException;
+import game.RuleProfile;
+import server.GameClientHandler;
+import server.LineReader;
+import server.ProtocolMessages;
+import tui.GameServerTUI;
+
+/**
+ * Tests that client messages are framed by line breaks and that a message without an end can't make the server allocate
+ * without bound.
+ */
+public class LineReaderTest {
+    private static final long GIGABYTE = 1L << 30;
+
+    /**
+     * Tests that every kind of line break ends a line, also when lines arrive one byte at a time.
+     */
+    @Test
+    void testLineBreaks() throws IOException, ProtocolException {
+        String text = "h;Ann\nm;1;2\r\nhb\r\r\u00fc;\u20ac\nlast";
+        for (InputStream stream : new InputStream[] {stream(text), new OneByteStream(stream(text))}) {
+            LineReader reader = new LineReader(stream, 20);
+            assertEquals("h;Ann", reader.readLine());
+            assertEquals("m;1;2", reader.readLine());
+            assertEquals("hb", reader.readLine());
+            assertEquals("", reader.readLine());
+            assertEquals("\u00fc;\u20ac", reader.readLine());
+            assertEquals("last", reader.readLine()); // Cut off by the end of the connection
+            assertNull(reader.readLine());
+        }
+    }
+
+    /**
+     * Tests that a line of the maximum length is read, a longer one is refused, and that the buffer only grows for long lines.
+     */
+    @Test
+    void testMaxFrameLength() throws IOException, ProtocolException {
+        int max = 1000;
+        char[] longest = new char[max];
+        Arrays.fill(longest, 'x');
+        String lines = "hb\n".repeat(1000) + new String(longest) + "\n" + new String(longest) + "x\n";
+
+        LineReader reader = new LineReader(stream(lines), max);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("hb", reader.readLine());
+        }
+        assertEquals(LineReader.INITIAL_BUFFER_SIZE, reader.getBufferSize());
+        assertEquals(max, reader.readLine().length());
+        assertThrows(ProtocolException.class, reader::readLine);
+        assertTrue(reader.getBufferSize() <= max + 1);
+    }
+
+    /**
+     * Tests that a board of only the longest field type of its rule profile, hit, fits exactly in a frame.
+     */
+    @Test
+    void testBoardFits() throws IOException, ProtocolException {
+        for (RuleProfile rules : new RuleProfile[] {RuleProfile.CLASSIC, RuleProfile.parse("large;64;64;30000;300000;12x1,8x4,2x30")}) {
+            String longest = GameConstants.FIELD_TYPE_WATER;
+            for (int length : rules.getShipLengths()) {
+                for (int part = 0; part < length; part++) {
+                    String fieldType = RuleProfile.fieldType(length, part);
+                    longest = fieldType.length() > longest.length() ? fieldType : longest;
+                }
+            }
+            StringBuilder board = new StringBuilder(ProtocolMessages.CLIENTBOARD);
+            for (int i = 0; i < rules.getFieldCount(); i++) {
+                board.append(ProtocolMessages.DELIMITER).append(longest).append(GameConstants.FIELD_TYPE_HIT_EXTENSION);
+            }
+            assertEquals(board.length(), rules.getMaxBoardMessageLength());
+            LineReader reader = new LineReader(stream(board + "\n"), rules.getMaxBoardMessageLength());
+            assertEquals(board.toString(), reader.readLine());
+        }
+    }
+
+    /**
+     * Tests that a stream of four gigabytes without a line break is refused after the maximum frame length, without reading
+     * or buffering the rest.
+     */
+    @Test
+    void testEndlessLine() {
+        int max = RuleProfile.CLASSIC.getMaxBoardMessageLength();
+        EndlessStream endless = new EndlessStream(4 * GIGABYTE);
+        LineReader reader = new LineReader(endless, max);
+
+        assertThrows(ProtocolException.class, reader::readLine);
+        assertTrue(endless.sent <= max + 1, endless.sent + " bytes read");
+        assertTrue(reader.getBufferSize() <= max + 1);
+    }
+
+    /**
+     * Tests that a client streaming a gigabyte without a line break over a socket is told about the protocol error and
+     * disconnected, long before it has sent the gigabyte.
+     */
+    @Test
+    void testEndlessLineOverSocket() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0);
+                Socket client = new Socket("localhost", serverSocket.getLocalPort())) {
+            new Thread(new GameClientHandler(serverSocket.accept(), null, new GameServerTUI())).start();
+
+            OutputStream out = client.getOutputStream();
+            byte[] chunk = new byte[64 * 1024];
+            Arrays.fill(chunk, (byte) 'x');
+            long sent = 0;
+            try {
+                while (sent < GIGABYTE) {
+                    out.write(chunk);
+                    sent += chunk.length;
+                }
+            } catch (IOException e) { // The server closed the connection
+            }
+            assertTrue(sent < GIGABYTE, sent + " bytes sent");
+
+            client.setSoTimeout(10000);
+            BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+            assertTrue(in.readLine().startsWith(ProtocolMessages.PROTOCOL_ERROR + ProtocolMessages.DELIMITER));
+        }
+    }
+
+    /**
+     * Gives a stream of the UTF-8 bytes of a text.
+     */
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A stream that gives at most one byte per read, like a connection that is slow to send.
+     */
+    private static class OneByteStream extends InputStream {
+        private InputStream in;
+
+        OneByteStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return in.read(b, off, Math.min(len, 1));
+        }
+    }
+
+    /**
+     * A stream of a number of bytes without a line break, that counts how many were read.
+     */
+    private static class EndlessStream extends InputStream {
+        private long size;
+        private long sent;
+
+        EndlessStream(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            if (sent == size) {
+                return -1;
+            }
+            sent++;
+            return 'x';
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (sent == size) {
+                return -1;
+            }
+            int count = (int) Math.min(len, size - sent);
+            Arrays.fill(b, off, off + count, (byte) 'x');
+            sent += count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import constants.GameConstants;
+import game.BoardGenerator;
+import server.GameClientHandler;
+import server.GameServer;
+import server.ProtocolMessages;
+
+/**
+ * Tests the lobby, in which clients whose game has ended ask for a rematch or a new opponent without connecting again.
+ */
+public class LobbyTest {
+    // The time between the moves of a client, which keeps it under the message limit of the server over several games
+    private static final long MOVE_INTERVAL_MILLIS = 1000 / ((long) GameClientHandler.MESSAGES_PER_SECOND - 10);
+
+    @TempDir
+    File directory;
+
+    private GameServer server;
+    private BoardGenerator boards;
+
+    /**
+     * A client that plays by the protocol and knows the board of its opponent, so that its games end quickly.
+     */
+    private static class TestClient implements AutoCloseable {
+        private String name;
+        private Socket socket;
+        private BufferedReader in;
+        private BufferedWriter out;
+        private String board;
+
+        TestClient(String name, int port) throws IOException, InterruptedException {
+            this.name = name;
+            for (int attempt = 0; socket == null; attempt++) {
+                try {
+                    socket = new Socket("localhost", port);
+                } catch (IOException e) {
+                    if (attempt == 100) {
+                        throw e;
+                    }
+                    Thread.sleep(50);
+                }
+            }
+            socket.setSoTimeout(10000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
+        }
+
+        void send(String message) throws IOException {
+            out.write(message);
+            out.newLine();
+            out.flush();
+        }
+
+        /**
+         * Reads messages until one with the given command, which is returned.
+         */
+        String expect(String command) throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    throw new IOException(name + " was disconnected while waiting for " + command);
+                }
+            } while (!line.split(ProtocolMessages.DELIMITER)[0].equals(command));
+            return line;
+        }
+
+        /**
+         * Sends a new board, whose ship fields the opponent shoots at.
+         */
+        void sendBoard(String board) throws IOException {
+            this.board = board;
+            send(board);
+        }
+
+        /**
+         * Plays the game until it is over, shooting at the ship fields of the opponent in order, and returns the winner.
+         */
+        String play(String opponentBoard) throws IOException, InterruptedException {
+            String[] fields = opponentBoard.split(ProtocolMessages.DELIMITER);
+            int next = 1;
+            while (true) {
+                String[] message = in.readLine().split(ProtocolMessages.DELIMITER);
+                String nextPlayer;
+                if (message[0].equals(ProtocolMessages.SETUP)) {
+                    nextPlayer = message[1];
+                } else if (message[0].equals(ProtocolMessages.UPDATE)) {
+                    nextPlayer = message[7];
+                } else if (message[0].equals(ProtocolMessages.GAMEOVER)) {
+                    return message[1];
+                } else {
+                    continue;
+                }
+                while (next < fields.length && fields[next].equals(GameConstants.FIELD_TYPE_WATER)) {
+                    next++;
+                }
+                if (nextPlayer.equals(name) && next < fields.length) { // After the last ship the game over message follows
+                    int field = next++ - 1;
+                    Thread.sleep(MOVE_INTERVAL_MILLIS);
+                    send(ProtocolMessages.MOVE + ProtocolMessages.DELIMITER + (field % GameConstants.BOARD_SIZE_X) +
+                        ProtocolMessages.DELIMITER + (field / GameConstants.BOARD_SIZE_X));
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        server = new GameServer(new String[] {String.valueOf(port), "0"}, new File(directory, "player-stats.dat"), null);
+        boards = new BoardGenerator(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.shutdownServer();
+    }
+
+    /**
+     * Tests that two clients play a game, a rematch and another rematch on the connections they opened for the first game.
+     */
+    @Test
+    void testRematch() throws Exception {
+        int port = waitForPort();
+        try (TestClient alice = new TestClient("alice", port); TestClient bob = new TestClient("bob", port)) {
+            alice.send("h;alice");
+            alice.expect(ProtocolMessages.HANDSHAKE);
+            bob.send("h;bob");
+            bob.expect(ProtocolMessages.HANDSHAKE);
+            playGame(alice, bob);
+
+            for (int rematch = 0; rematch < 2; rematch++) {
+                alice.send(ProtocolMessages.REMATCH);
+                alice.expect(ProtocolMessages.REMATCH);
+                bob.send(ProtocolMessages.REMATCH);
+                bob.expect(ProtocolMessages.REMATCH);
+                assertEquals("n;bob", alice.expect(ProtocolMessages.ENEMYNAME));
+                assertEquals("n;alice", bob.expect(ProtocolMessages.ENEMYNAME));
+                playGame(alice, bob);
+            }
+        }
+        assertEquals(2, server.getAcceptedConnections());
+        assertEquals(6, server.getJoinedGames());
+        assertEquals(4, server.getLobbyGames());
+    }
+
+    /**
+     * Tests that a client waiting for a rematch is told that it was declined when the opponent goes back in the queue, and that it
+     * can then go back in the queue too and play the opponent again that way.
+     */
+    @Test
+    void testRequeueDeclinesRematch() throws Exception {
+        int port = waitForPort();
+        try (TestClient alice = new TestClient("alice", port); TestClient bob = new TestClient("bob", port)) {
+            alice.send("h;alice");
+            alice.expect(ProtocolMessages.HANDSHAKE);
+            bob.send("h;bob");
+            bob.expect(ProtocolMessages.HANDSHAKE);
+            playGame(alice, bob);
+
+            alice.send(ProtocolMessages.REMATCH);
+            alice.expect(ProtocolMessages.REMATCH);
+            bob.send(ProtocolMessages.REQUEUE);
+            assertTrue(bob.expect(ProtocolMessages.HANDSHAKE).startsWith("h;"));
+            alice.expect(ProtocolMessages.REMATCH_DECLINED);
+
+            alice.send(ProtocolMessages.REQUEUE);
+            alice.expect(ProtocolMessages.HANDSHAKE);
+            assertEquals("n;alice", bob.expect(ProtocolMessages.ENEMYNAME));
+            playGame(alice, bob);
+        }
+        assertEquals(2, server.getAcceptedConnections());
+        assertEquals(3, server.getLobbyGames()); // Alice joined the rematch game before it was declined
+    }
+
+    /**
+     * Tests that a rematch is declined when the opponent doesn't ask in time, or has disconnected.
+     */
+    @Test
+    void testRematchDeclined() throws Exception {
+        int port = waitForPort();
+        server.getMatchmaker().setRematchWait(200);
+        try (TestClient alice = new TestClient("alice", port)) {
+            try (TestClient bob = new TestClient("bob", port)) {
+                alice.send("h;alice");
+                alice.expect(ProtocolMessages.HANDSHAKE);
+                bob.send("h;bob");
+                bob.expect(ProtocolMessages.HANDSHAKE);
+                playGame(alice, bob);
+
+                alice.send(ProtocolMessages.REMATCH);
+                alice.expect(ProtocolMessages.REMATCH);
+                alice.expect(ProtocolMessages.REMATCH_DECLINED); // Bob didn't ask
+            }
+
+            alice.send(ProtocolMessages.REMATCH); // Bob has left
+            alice.expect(ProtocolMessages.REMATCH_DECLINED);
+        }
+    }
+
+    /**
+     * Sends both boards and plays the game out on two threads.
+     */
+    private void playGame(TestClient alice, TestClient bob) throws Exception {
+        alice.sendBoard(boards.nextBoard());
+        bob.sendBoard(boards.nextBoard());
+        CompletableFuture<String> aliceResult = CompletableFuture.supplyAsync(() -> play(alice, bob.board));
+        CompletableFuture<String> bobResult = CompletableFuture.supplyAsync(() -> play(bob, alice.board));
+        String winner = aliceResult.get(30, TimeUnit.SECONDS);
+        assertEquals(winner, bobResult.get(30, TimeUnit.SECONDS));
+        assertTrue(winner.equals("alice") || winner.equals("bob"));
+    }
+
+    private static String play(TestClient client, String opponentBoard) {
+        try {
+            return client.play(opponentBoard);
+        } catch (IOException | InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Waits for the server to listen and gives its port.
+     */
+    private int waitForPort() throws InterruptedException {
+        for (int attempt = 0; server.getServerSocket() == null; attempt++) {
+            if (attempt == 100) {
+                throw new AssertionError("The server doesn't listen");
+            }
+            Thread.sleep(50);
+        }
+        return server.getServerSocket().getLocalPort();
+    }
+}
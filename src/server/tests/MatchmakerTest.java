@@ -0,0 +1,100 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import bot.BotPlayer;
+import game.Game;
+import game.Player;
+import server.Matchmaker;
+import tui.GameServerTUI;
+
+/**
+ * Tests pairing players and adding bots when nobody turns up.
+ */
+public class MatchmakerTest {
+    private static final long BOT_WAIT = 50;
+
+    /**
+     * A client that plays like a bot but counts as a person.
+     */
+    private static class TestClient extends BotPlayer {
+        TestClient(String name) {
+            super(name, new Random(), 0);
+        }
+
+        @Override
+        public boolean isBot() {
+            return false;
+        }
+    }
+
+    /**
+     * Tests that two players are paired in the same game and that a player can't be paired with someone of the same name.
+     */
+    @Test
+    void testPairing() {
+        Matchmaker matchmaker = new Matchmaker(new GameServerTUI(), 0);
+        TestClient first = new TestClient("first");
+        Game game = matchmaker.findGame(first, first.getName());
+
+        assertNull(matchmaker.findGame(new TestClient("first"), "first"));
+        assertSame(game, matchmaker.findGame(new TestClient("second"), "second"));
+        assertEquals(1, matchmaker.getGameCount());
+    }
+
+    /**
+     * Tests that draining hands back the waiting player and stops pairing players.
+     */
+    @Test
+    void testDrain() {
+        Matchmaker matchmaker = new Matchmaker(new GameServerTUI(), 0);
+        TestClient waiting = new TestClient("waiting");
+        matchmaker.findGame(waiting, waiting.getName());
+
+        List<Player> players = matchmaker.drain();
+        assertEquals(1, players.size());
+        assertSame(waiting, players.get(0));
+        assertTrue(matchmaker.isDraining());
+        assertNull(matchmaker.findGame(new TestClient("late"), "late"));
+        assertEquals(1, matchmaker.getGameCount());
+    }
+
+    /**
+     * Tests that a waiting player gets a bot after the deadline and that the time to first game is recorded.
+     */
+    @Test
+    void testBotBackfill() throws InterruptedException {
+        Matchmaker matchmaker = new Matchmaker(new GameServerTUI(), BOT_WAIT);
+        TestClient client = new TestClient("player");
+        long queued = System.nanoTime();
+        Game game = matchmaker.findGame(client, client.getName());
+        client.join(game);
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (game.getPlayerName(2) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(game.getPlayer(2).isBot());
+
+        while (matchmaker.getTimeToFirstGame().getCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, matchmaker.getTimeToFirstGame().getCount());
+        // The deadline is set when the player is queued, the time to first game counts from when the player joins just after
+        long joinDelay = TimeUnit.NANOSECONDS.toMillis(game.getJoinTime(1) - queued);
+        assertTrue(matchmaker.getTimeToFirstGame().getMax() >= BOT_WAIT - 1 - joinDelay);
+
+        // The next player waits in a new game
+        Game next = matchmaker.findGame(new TestClient("next"), "next");
+        assertTrue(next != game);
+    }
+}
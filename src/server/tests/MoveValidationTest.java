@@ -0,0 +1,99 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+
+// Internal imports
+import server.GameClientHandler;
+import server.GameServer;
+import server.InMemorySocket;
+import server.ProtocolMessages;
+import tui.GameServerTUI;
+
+/**
+ * Tests that a client handler refuses moves that are off the board or not numbers with a protocol error and disconnects
+ * the client, instead of letting the move reach the board.
+ */
+public class MoveValidationTest {
+    private static final String MOVE_ERROR = ProtocolMessages.PROTOCOL_ERROR + ProtocolMessages.DELIMITER +
+        GameClientHandler.MOVE_EXCEPTION_MSG;
+
+    @TempDir
+    File directory;
+
+    private GameServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        server = new GameServer(new String[] {String.valueOf(port), "0"}, new File(directory, "player-stats.dat"), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.shutdownServer();
+    }
+
+    /**
+     * Tests moves outside the classic board of 15 by 10, also those whose field would fall on another field of the board.
+     */
+    @Test
+    void testOutOfRangeMoves() throws IOException {
+        for (String move : new String[] {"m;99;99", "m;15;0", "m;0;10", "m;-1;0", "m;0;-1"}) {
+            assertEquals(MOVE_ERROR, sendAfterHandshake(move), move);
+        }
+    }
+
+    /**
+     * Tests moves whose coordinates are missing or not numbers.
+     */
+    @Test
+    void testNonNumericMoves() throws IOException {
+        for (String move : new String[] {"m;a;b", "m;1", "m", "m;1;2.5"}) {
+            assertEquals(MOVE_ERROR, sendAfterHandshake(move), move);
+        }
+    }
+
+    /**
+     * Tests that a move on the board is kept until it is the client's move, without an error.
+     */
+    @Test
+    void testMoveOnBoardIsAccepted() throws IOException {
+        assertEquals(ProtocolMessages.HEARTBEAT, sendAfterHandshake("m;14;9\n" + ProtocolMessages.HEARTBEAT));
+    }
+
+    /**
+     * Connects a client whose handler runs on its own thread, sends the handshake and then the given messages.
+     * @return The first reply after the handshake. After a protocol error the client must have been disconnected.
+     */
+    private String sendAfterHandshake(String messages) throws IOException {
+        InMemorySocket[] connection = InMemorySocket.pair();
+        connection[0].setSoTimeout(5000);
+        new Thread(new GameClientHandler(connection[1], server, new GameServerTUI())).start();
+
+        OutputStream out = connection[0].getOutputStream();
+        BufferedReader in = new BufferedReader(new InputStreamReader(connection[0].getInputStream(), StandardCharsets.UTF_8));
+        out.write(("h;alice\n" + messages + "\n").getBytes(StandardCharsets.UTF_8));
+        assertEquals(ProtocolMessages.HANDSHAKE, in.readLine());
+
+        String reply = in.readLine();
+        if (reply.startsWith(ProtocolMessages.PROTOCOL_ERROR + ProtocolMessages.DELIMITER)) {
+            assertNull(in.readLine()); // Disconnected
+        }
+        connection[0].close();
+        return reply;
+    }
+}
@@ -0,0 +1,112 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+// Internal imports
+import constants.GameConstants;
+import game.BoardGenerator;
+import server.GameServer;
+import server.ProtocolMessages;
+
+/**
+ * Tests that clients can send their handshake, board and first move back to back, before the game has been set up.
+ */
+public class PipelineTest {
+    @TempDir
+    File directory;
+
+    /**
+     * Tests that both players' pipelined first moves are made in turn, on time, although neither was their move when it arrived.
+     */
+    @Test
+    void testPipelinedFirstMoves() throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        GameServer server = new GameServer(new String[] {String.valueOf(port), "0"}, new File(directory, "player-stats.dat"), null);
+        BoardGenerator boards = new BoardGenerator(1);
+        String aliceBoard = boards.nextBoard();
+        String bobBoard = boards.nextBoard();
+
+        try (Socket alice = connect(port); Socket bob = connect(port)) {
+            // The board comes before the opponent has joined, and the moves miss so that the turn goes over
+            send(alice, "h;alice\n" + aliceBoard + "\n" + missOn(bobBoard) + "\n");
+            send(bob, "h;bob\n" + bobBoard + "\n" + missOn(aliceBoard) + "\n");
+
+            for (Socket client : new Socket[] {alice, bob}) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+                String[] first = readUpdate(in);
+                String[] second = readUpdate(in);
+                assertEquals("false", first[5]); // Not late
+                assertEquals("false", second[5]);
+                assertNotEquals(first[6], second[6]); // Both players have moved
+            }
+        } finally {
+            server.shutdownServer();
+        }
+    }
+
+    /**
+     * Connects to the server, waiting for it to listen.
+     */
+    private static Socket connect(int port) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                Socket socket = new Socket("localhost", port);
+                socket.setSoTimeout(10000);
+                return socket;
+            } catch (IOException e) {
+                if (attempt == 100) {
+                    throw new AssertionError("The server doesn't listen", e);
+                }
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    /**
+     * Gives a move at the first field of a classic board that has no ship.
+     */
+    private static String missOn(String board) {
+        String[] fields = board.split(ProtocolMessages.DELIMITER);
+        int field = 0;
+        while (!fields[field + 1].equals(GameConstants.FIELD_TYPE_WATER)) {
+            field++;
+        }
+        return ProtocolMessages.MOVE + ProtocolMessages.DELIMITER + (field % GameConstants.BOARD_SIZE_X) +
+            ProtocolMessages.DELIMITER + (field / GameConstants.BOARD_SIZE_X);
+    }
+
+    /**
+     * Sends messages in one write.
+     */
+    private static void send(Socket socket, String messages) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(messages.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Reads messages until an update, which is returned split into its parts.
+     */
+    private static String[] readUpdate(BufferedReader in) throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+        } while (!line.startsWith(ProtocolMessages.UPDATE + ProtocolMessages.DELIMITER));
+        return line.split(ProtocolMessages.DELIMITER);
+    }
+}
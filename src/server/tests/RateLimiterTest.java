@@ -0,0 +1,73 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import server.RateLimiter;
+import server.TokenBucket;
+
+/**
+ * Tests the token buckets that limit connections by address and messages by connection.
+ */
+public class RateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Tests that a key gets its burst, is then refused, and gets a token back every interval.
+     */
+    @Test
+    void testBurstAndRate() {
+        RateLimiter<String> limiter = new RateLimiter<>(10, 5, 100);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("a", now));
+        }
+        assertFalse(limiter.tryAcquire("a", now));
+        assertTrue(limiter.tryAcquire("b", now)); // Every key has its own bucket
+
+        assertTrue(limiter.tryAcquire("a", now + SECOND / 10));
+        assertFalse(limiter.tryAcquire("a", now + SECOND / 10));
+        for (int i = 0; i < 5; i++) { // Full again after the whole burst has been refilled
+            assertTrue(limiter.tryAcquire("a", now + SECOND));
+        }
+        assertEquals(2, limiter.getRejected());
+    }
+
+    /**
+     * Tests that the number of keys stays bounded and that full buckets are thrown away before busy ones.
+     */
+    @Test
+    void testEviction() {
+        RateLimiter<Integer> limiter = new RateLimiter<>(1, 1, 1000);
+        long now = System.nanoTime();
+        for (int key = 0; key < 10000; key++) {
+            limiter.tryAcquire(key, now + key * SECOND); // Every earlier bucket is full again by the time of the next key
+        }
+        assertTrue(limiter.size() <= 1000);
+        assertEquals(0, limiter.getEvictedBusy());
+
+        for (int key = 0; key < 10000; key++) {
+            limiter.tryAcquire(-key - 1, now); // All busy at once
+        }
+        assertTrue(limiter.size() <= 1000);
+        assertTrue(limiter.getEvictedBusy() > 0);
+    }
+
+    /**
+     * Tests a single bucket.
+     */
+    @Test
+    void testTokenBucket() {
+        TokenBucket bucket = new TokenBucket(0.001, 3);
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+}
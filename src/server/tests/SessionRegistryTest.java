@@ -0,0 +1,62 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import game.GameScheduler;
+import server.GameClientHandler;
+import server.SessionRegistry;
+
+/**
+ * Tests opening, finding and closing resumable sessions.
+ */
+public class SessionRegistryTest {
+    private static final long GRACE_PERIOD = 50;
+
+    /**
+     * Tests that every session gets its own token and can be found until it is closed.
+     */
+    @Test
+    void testOpenAndClose() {
+        SessionRegistry sessions = new SessionRegistry(GRACE_PERIOD);
+        GameClientHandler first = new GameClientHandler();
+        GameClientHandler second = new GameClientHandler();
+
+        String firstToken = sessions.open(first);
+        String secondToken = sessions.open(second);
+        assertNotEquals(firstToken, secondToken);
+        assertEquals(22, firstToken.length()); // 16 random bytes
+        assertSame(first, sessions.get(firstToken));
+        assertSame(second, sessions.get(secondToken));
+
+        sessions.close(firstToken);
+        assertNull(sessions.get(firstToken));
+        assertEquals(1, sessions.size());
+        assertEquals(2, sessions.getOpened());
+    }
+
+    /**
+     * Tests that the seat is given up after the grace period unless it is cancelled.
+     */
+    @Test
+    void testGracePeriod() throws InterruptedException {
+        SessionRegistry sessions = new SessionRegistry(GRACE_PERIOD);
+        CountDownLatch abandoned = new CountDownLatch(1);
+
+        sessions.suspend(abandoned::countDown, GameScheduler.system()).cancel(false);
+        sessions.resumed();
+        sessions.suspend(abandoned::countDown, GameScheduler.system());
+
+        assertTrue(abandoned.await(10, TimeUnit.SECONDS));
+        assertEquals(2, sessions.getSuspended());
+        assertEquals(1, sessions.getResumed());
+    }
+}
@@ -0,0 +1,276 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import constants.GameConstants;
+import exceptions.ProtocolException;
+import game.BoardGenerator;
+import game.RuleProfile;
+import game.VirtualScheduler;
+import server.GameClientHandler;
+import server.GameServer;
+import server.InMemorySocket;
+import server.ProtocolMessages;
+import server.SessionRegistry;
+import tui.GameServerTUI;
+
+/**
+ * Drops the connection of a client with a session in the middle of a game and brings it back on a new connection, over
+ * connections in memory and on a virtual clock. The move timer and the grace period only run out when the test advances the
+ * clock, so it can tell exactly how much of the move time was left when the client came back.
+ */
+public class SessionResumeTest {
+    private static final long TURN_TIMEOUT = RuleProfile.CLASSIC.getTurnTimeout();
+
+    @TempDir
+    File directory;
+
+    private GameServer server;
+    private VirtualScheduler scheduler;
+    private BoardGenerator boards;
+
+    /**
+     * A client connected in memory. Its messages are handled on the test thread until its connection drops, after which every
+     * connection it makes is read by the thread of its handler like a socket of the server.
+     */
+    private class MemoryClient {
+        private String name;
+        private InMemorySocket socket;
+        private GameClientHandler handler;
+        private BufferedReader in;
+        private String board;
+        private boolean reading;
+
+        MemoryClient(String name) throws IOException {
+            this.name = name;
+            connect();
+        }
+
+        /**
+         * Opens a new connection with a handler of its own.
+         */
+        void connect() throws IOException {
+            InMemorySocket[] connection = InMemorySocket.pair();
+            connection[0].setSoTimeout(5000); // A reply that never comes fails the test instead of hanging it
+            socket = connection[0];
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            handler = new GameClientHandler(connection[1], server, new GameServerTUI());
+            reading = false;
+        }
+
+        /**
+         * Sends a message, which is handled on the test thread unless the handler reads the connection itself.
+         */
+        void send(String message) throws IOException, ProtocolException {
+            if (reading) {
+                socket.getOutputStream().write((message + "\n").getBytes(StandardCharsets.UTF_8));
+            } else {
+                handler.handleCommand(message);
+            }
+        }
+
+        /**
+         * Reads replies until one with the given command, which is returned.
+         */
+        String expect(String command) throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    throw new IOException(name + " was disconnected while waiting for " + command);
+                }
+            } while (!line.split(ProtocolMessages.DELIMITER)[0].equals(command));
+            return line;
+        }
+
+        /**
+         * Reads the replies that have been written so far.
+         */
+        List<String> drain() throws IOException {
+            List<String> lines = new ArrayList<>();
+            while (in.ready()) {
+                lines.add(in.readLine());
+            }
+            return lines;
+        }
+
+        /**
+         * Shoots at the first field of the opponent's board that is water, or that is part of a ship.
+         */
+        void shoot(String opponentBoard, boolean water) throws IOException, ProtocolException {
+            String[] fields = opponentBoard.split(ProtocolMessages.DELIMITER);
+            int field = 1;
+            while (fields[field].equals(GameConstants.FIELD_TYPE_WATER) != water) {
+                field++;
+            }
+            send(ProtocolMessages.MOVE + ProtocolMessages.DELIMITER + ((field - 1) % GameConstants.BOARD_SIZE_X) +
+                ProtocolMessages.DELIMITER + ((field - 1) / GameConstants.BOARD_SIZE_X));
+        }
+
+        /**
+         * Closes the connection from the client's end, and waits until the handler has found it closed and holds the seat.
+         */
+        void drop() throws InterruptedException {
+            if (!reading) {
+                new Thread(handler).start();
+            }
+            int suspended = server.getSessions().getSuspended();
+            socket.close();
+            long deadline = System.currentTimeMillis() + 10000;
+            while (server.getSessions().getSuspended() == suspended) {
+                assertTrue(System.currentTimeMillis() < deadline, "The seat of " + name + " wasn't held");
+                Thread.sleep(1);
+            }
+        }
+
+        /**
+         * Connects again and sends the token of the session, after which the new connection is read by its handler.
+         */
+        void resume(String token) throws IOException, ProtocolException {
+            connect();
+            new Thread(handler).start();
+            reading = true;
+            send(ProtocolMessages.RESUME + ProtocolMessages.DELIMITER + token);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        server = new GameServer(new String[] {String.valueOf(port), "0"}, new File(directory, "player-stats.dat"), null);
+        scheduler = new VirtualScheduler(TimeUnit.DAYS.toMillis(1));
+        server.getMatchmaker().setScheduler(scheduler);
+        boards = new BoardGenerator(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.shutdownServer();
+    }
+
+    /**
+     * Tests that a client that comes back gets the updates of the moves the opponent made while it was away in order, and that
+     * its move timer is paused while it is away and goes on with the time that was left when it comes back.
+     */
+    @Test
+    void testResumeReplaysUpdatesAndContinuesMoveTime() throws Exception {
+        MemoryClient[] players = startGame();
+        MemoryClient first = players[0];
+        MemoryClient second = players[1];
+        String token = openSession(first);
+
+        first.shoot(second.board, true); // Misses, so it is the second player's move
+        first.expect(ProtocolMessages.UPDATE);
+        second.expect(ProtocolMessages.UPDATE);
+        first.drop();
+
+        second.shoot(first.board, false); // Hits, so the second player moves again and then misses
+        second.shoot(first.board, true);
+        List<String> updates = new ArrayList<>();
+        updates.add(second.expect(ProtocolMessages.UPDATE));
+        updates.add(second.expect(ProtocolMessages.UPDATE));
+
+        scheduler.advance(TURN_TIMEOUT); // The first player's move timer doesn't run while it is away
+        assertTrue(second.drain().isEmpty());
+
+        first.resume(token);
+        int gameId = server.getMatchmaker().getGameCount();
+        assertEquals(ProtocolMessages.RESUME + ProtocolMessages.DELIMITER + gameId, first.in.readLine());
+        assertEquals(updates, List.of(first.in.readLine(), first.in.readLine()));
+        awaitHeartbeat(first); // The move timer has been started again once the heartbeat is answered
+
+        scheduler.advance(TURN_TIMEOUT / 3);
+        first.drop();
+        scheduler.advance(TURN_TIMEOUT);
+        assertTrue(second.drain().isEmpty());
+
+        first.resume(token);
+        assertEquals(ProtocolMessages.RESUME + ProtocolMessages.DELIMITER + gameId, first.in.readLine());
+        awaitHeartbeat(first);
+        long left = TURN_TIMEOUT - TURN_TIMEOUT / 3;
+        scheduler.advance(left - 1);
+        assertTrue(second.drain().isEmpty());
+        scheduler.advance(1);
+        String lateMove = ProtocolMessages.UPDATE + ";0;0;false;false;true;" + first.name + ";" + second.name;
+        assertEquals(lateMove, second.expect(ProtocolMessages.UPDATE));
+        assertEquals(lateMove, first.expect(ProtocolMessages.UPDATE));
+        assertEquals(2, server.getSessions().getResumed());
+    }
+
+    /**
+     * Tests that the opponent wins once a client has been away for the grace period, and that the session can't be resumed
+     * after that.
+     */
+    @Test
+    void testOpponentWinsAfterGracePeriod() throws Exception {
+        MemoryClient[] players = startGame();
+        MemoryClient first = players[0];
+        MemoryClient second = players[1];
+        String token = openSession(first);
+
+        first.drop();
+        scheduler.advance(SessionRegistry.DEFAULT_GRACE_MILLIS - 1);
+        assertTrue(second.drain().isEmpty());
+        scheduler.advance(1);
+        assertEquals(ProtocolMessages.GAMEOVER + ";" + second.name + ";false", second.expect(ProtocolMessages.GAMEOVER));
+        assertEquals(1, server.getSessions().getAbandoned());
+
+        first.resume(token);
+        assertEquals(ProtocolMessages.GAME_NOT_FOUND, first.in.readLine());
+    }
+
+    /**
+     * Starts a game between two clients.
+     * @return The client that has the first move and the other one.
+     */
+    private MemoryClient[] startGame() throws Exception {
+        MemoryClient alice = new MemoryClient("alice");
+        MemoryClient bob = new MemoryClient("bob");
+        alice.send("h;alice");
+        alice.expect(ProtocolMessages.HANDSHAKE);
+        bob.send("h;bob");
+        bob.expect(ProtocolMessages.HANDSHAKE);
+        alice.board = boards.nextBoard();
+        bob.board = boards.nextBoard();
+        alice.send(alice.board);
+        bob.send(bob.board);
+        assertEquals(1, scheduler.runDue()); // Sets up the game
+
+        String firstName = alice.expect(ProtocolMessages.SETUP).split(ProtocolMessages.DELIMITER)[1];
+        bob.expect(ProtocolMessages.SETUP);
+        return firstName.equals("alice") ? new MemoryClient[] {alice, bob} : new MemoryClient[] {bob, alice};
+    }
+
+    /**
+     * Asks for a session for the client and gives its token.
+     */
+    private static String openSession(MemoryClient client) throws Exception {
+        client.send(ProtocolMessages.SESSION);
+        return client.expect(ProtocolMessages.SESSION).split(ProtocolMessages.DELIMITER)[1];
+    }
+
+    /**
+     * Sends a heartbeat and waits for the answer, after which the messages sent before it have been handled.
+     */
+    private static void awaitHeartbeat(MemoryClient client) throws Exception {
+        client.send(ProtocolMessages.HEARTBEAT);
+        assertEquals(ProtocolMessages.HEARTBEAT, client.in.readLine());
+    }
+}
@@ -0,0 +1,143 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Internal imports
+import server.ProtocolMessages;
+import server.Spectator;
+import server.SpectatorFeed;
+
+/**
+ * Tests the fan-out of game messages to spectators without sockets: every spectator receives the same frames in order,
+ * and a spectator whose stream blocks is dropped without holding up the others for longer than its write timeout.
+ */
+public class SpectatorFeedTest {
+    private static final int SPECTATORS = 100;
+
+    SpectatorFeed feed;
+
+    @BeforeEach
+    void setupFeed() {
+        feed = new SpectatorFeed();
+    }
+
+    /**
+     * Tests that every spectator receives every published frame in order.
+     */
+    @Test
+    void testFanOut() throws InterruptedException {
+        ByteArrayOutputStream[] outputs = new ByteArrayOutputStream[SPECTATORS];
+        for (int i = 0; i < SPECTATORS; i++) {
+            outputs[i] = new ByteArrayOutputStream();
+            feed.add(new Spectator(outputs[i], () -> {}));
+        }
+
+        feed.publish(ProtocolMessages.UPDATE, 1, 2, true, false, "Albert");
+        feed.publish(ProtocolMessages.UPDATE, 3, 4, false, false, "Sam");
+
+        String expected = "u;1;2;true;false;Albert\nu;3;4;false;false;Sam\n";
+        long deadline = System.currentTimeMillis() + 5000;
+        for (ByteArrayOutputStream output : outputs) {
+            while (output.size() < expected.length() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            synchronized (output) {
+                assertEquals(expected, new String(output.toByteArray(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(SPECTATORS, feed.size());
+    }
+
+    /**
+     * Tests that a spectator that never reads is dropped once its queue is full while a fast spectator gets every frame.
+     */
+    @Test
+    void testSlowSpectatorIsDropped() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger drops = new AtomicInteger();
+        OutputStream blocked = new OutputStream() {
+            @Override
+            public void write(int b) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ByteArrayOutputStream fast = new ByteArrayOutputStream();
+
+        Spectator slow = new Spectator(blocked, drops::incrementAndGet);
+        feed.add(slow);
+        feed.add(new Spectator(fast, () -> {}));
+
+        // The fast spectator catches up after every frame, so only the slow one can fill its queue
+        int frames = Spectator.MAX_QUEUED_FRAMES + 2;
+        for (int i = 0; i < frames; i++) {
+            feed.publish(ProtocolMessages.UPDATE, i);
+            awaitEnding(fast, "u;" + i + "\n");
+        }
+
+        assertTrue(slow.isDropped());
+        assertEquals(1, drops.get());
+        assertEquals(1, feed.size());
+
+        release.countDown();
+        assertTrue(new String(fast.toByteArray(), StandardCharsets.UTF_8).endsWith("u;" + (frames - 1) + "\n"));
+    }
+
+    /**
+     * Tests that spectators whose writes block until their connection is closed are dropped after the write timeout, so that
+     * they don't keep every writer thread and a spectator behind them still gets its frames.
+     */
+    @Test
+    void testStalledWritesAreDropped() throws InterruptedException {
+        int stalledSpectators = 2 * Math.max(2, Runtime.getRuntime().availableProcessors()); // More than there are writers
+        CountDownLatch drops = new CountDownLatch(stalledSpectators);
+        for (int i = 0; i < stalledSpectators; i++) {
+            CountDownLatch closed = new CountDownLatch(1);
+            OutputStream stalled = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    try {
+                        closed.await(); // Like a socket whose buffer is full until it is closed
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IOException("Socket closed");
+                }
+            };
+            feed.add(new Spectator(stalled, () -> {
+                closed.countDown();
+                drops.countDown();
+            }, 50));
+        }
+        ByteArrayOutputStream fast = new ByteArrayOutputStream();
+        feed.add(new Spectator(fast, () -> {}));
+
+        feed.publish(ProtocolMessages.UPDATE, 1);
+        assertTrue(drops.await(10, TimeUnit.SECONDS));
+        awaitEnding(fast, "u;1\n");
+        assertEquals("u;1\n", new String(fast.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Waits up to five seconds for the output to end with the given text.
+     */
+    private void awaitEnding(ByteArrayOutputStream output, String ending) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!new String(output.toByteArray(), StandardCharsets.UTF_8).endsWith(ending) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import constants.GameConstants;
+import exceptions.ProtocolException;
+import game.BoardGenerator;
+import game.RuleProfile;
+import game.VirtualScheduler;
+import server.GameClientHandler;
+import server.GameServer;
+import server.InMemorySocket;
+import server.ProtocolMessages;
+
+/**
+ * Plays complete games through client handlers on a virtual clock, over connections in memory. The test thread hands every
+ * message of a client to its handler and runs the timers of the games itself, so turn timeouts and game time limits happen
+ * the moment the clock is advanced and thousands of games take no longer than their moves.
+ */
+public class VirtualTimeTest {
+    // The number of games played, a third of each kind
+    private static final int GAMES = 3000;
+
+    @TempDir
+    File directory;
+
+    private GameServer server;
+    private VirtualScheduler scheduler;
+    private BoardGenerator boards;
+
+    /**
+     * A client connected in memory whose messages are handled on the test thread, which reads the replies after each one.
+     */
+    private class MemoryClient {
+        private String name;
+        private GameClientHandler handler;
+        private BufferedReader in;
+        private String board;
+
+        MemoryClient(String name) throws IOException {
+            this.name = name;
+            InMemorySocket[] connection = InMemorySocket.pair();
+            connection[0].setSoTimeout(1000); // A reply that never comes fails the test instead of hanging it
+            in = new BufferedReader(new InputStreamReader(connection[0].getInputStream()));
+            handler = new GameClientHandler(connection[1], server, new tui.GameServerTUI());
+        }
+
+        void send(String message) throws ProtocolException {
+            handler.handleCommand(message);
+        }
+
+        /**
+         * Reads replies until one with the given command, which is returned.
+         */
+        String expect(String command) throws IOException {
+            List<String> lines = readUntil(command);
+            return lines.get(lines.size() - 1);
+        }
+
+        /**
+         * Reads replies up to and including the first one with the given command.
+         */
+        List<String> readUntil(String command) throws IOException {
+            List<String> lines = new ArrayList<>();
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    throw new IOException(name + " was disconnected while waiting for " + command);
+                }
+                lines.add(line);
+            } while (!line.split(ProtocolMessages.DELIMITER)[0].equals(command));
+            return lines;
+        }
+
+        /**
+         * Reads the replies that have been written so far.
+         */
+        List<String> drain() throws IOException {
+            List<String> lines = new ArrayList<>();
+            while (in.ready()) {
+                lines.add(in.readLine());
+            }
+            return lines;
+        }
+
+        /**
+         * Shoots at the ship fields of the opponent in order, which sinks them all on one turn since a hit gives another move.
+         */
+        void sinkAll(String opponentBoard) throws ProtocolException {
+            String[] fields = opponentBoard.split(ProtocolMessages.DELIMITER);
+            for (int field = 1; field < fields.length; field++) {
+                if (!fields[field].equals(GameConstants.FIELD_TYPE_WATER)) {
+                    send(ProtocolMessages.MOVE + ProtocolMessages.DELIMITER + ((field - 1) % GameConstants.BOARD_SIZE_X) +
+                        ProtocolMessages.DELIMITER + ((field - 1) / GameConstants.BOARD_SIZE_X));
+                }
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        server = new GameServer(new String[] {String.valueOf(port), "0"}, new File(directory, "player-stats.dat"), null);
+        scheduler = new VirtualScheduler(TimeUnit.DAYS.toMillis(1));
+        server.getMatchmaker().setScheduler(scheduler);
+        boards = new BoardGenerator(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.shutdownServer();
+    }
+
+    /**
+     * Plays games that are won by sinking every ship, games in which the first player lets its turn time out before the other
+     * one wins, and games in which nobody moves until the time limit ends them in a tie.
+     */
+    @Test
+    void testThousandsOfGames() throws Exception {
+        RuleProfile rules = RuleProfile.CLASSIC;
+        long start = System.nanoTime();
+        long virtualStart = scheduler.currentTimeMillis();
+        int lateMoves = 0;
+
+        for (int i = 0; i < GAMES; i++) {
+            MemoryClient alice = new MemoryClient("alice");
+            MemoryClient bob = new MemoryClient("bob");
+            alice.send("h;alice");
+            alice.expect(ProtocolMessages.HANDSHAKE);
+            bob.send("h;bob");
+            bob.expect(ProtocolMessages.HANDSHAKE);
+            alice.board = boards.nextBoard();
+            bob.board = boards.nextBoard();
+            alice.send(alice.board);
+            bob.send(bob.board);
+            assertEquals(1, scheduler.runDue()); // Sets up the game
+
+            String firstName = alice.expect(ProtocolMessages.SETUP).split(ProtocolMessages.DELIMITER)[1];
+            bob.expect(ProtocolMessages.SETUP);
+            MemoryClient first = firstName.equals("alice") ? alice : bob;
+            MemoryClient second = first == alice ? bob : alice;
+
+            String result;
+            if (i % 3 == 0) { // Won on the first turn
+                first.sinkAll(second.board);
+                result = ProtocolMessages.GAMEOVER + ";" + first.name + ";true";
+            } else if (i % 3 == 1) { // The first turn times out, then the other player wins
+                scheduler.advance(rules.getTurnTimeout());
+                assertEquals(ProtocolMessages.UPDATE + ";0;0;false;false;true;" + first.name + ";" + second.name,
+                    second.expect(ProtocolMessages.UPDATE));
+                second.sinkAll(first.board);
+                result = ProtocolMessages.GAMEOVER + ";" + second.name + ";true";
+            } else { // Every turn times out until the time is up
+                scheduler.advance(rules.getGameDuration());
+                result = ProtocolMessages.GAMEOVER + ";;true";
+            }
+            for (String line : alice.readUntil(ProtocolMessages.GAMEOVER)) {
+                if (line.startsWith(ProtocolMessages.UPDATE + ProtocolMessages.DELIMITER) && line.contains(";true;")) {
+                    lateMoves++;
+                }
+                if (line.startsWith(ProtocolMessages.GAMEOVER + ProtocolMessages.DELIMITER)) {
+                    assertEquals(result, line);
+                }
+            }
+            assertEquals(result, bob.expect(ProtocolMessages.GAMEOVER));
+
+            alice.send(ProtocolMessages.EXIT);
+            bob.send(ProtocolMessages.EXIT);
+            assertEquals(0, scheduler.runDue());
+        }
+
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long virtualMillis = scheduler.currentTimeMillis() - virtualStart;
+        assertTrue(lateMoves >= GAMES / 3 * (rules.getGameDuration() / rules.getTurnTimeout()));
+        assertTrue(virtualMillis > wallMillis * 100, virtualMillis + " ms of game time took " + wallMillis + " ms");
+    }
+
+    /**
+     * Tests that moves a client sends ahead of its turn are made on the virtual clock once it is their move, and that the turn
+     * timeout of the move after them starts only then.
+     */
+    @Test
+    void testDeferredMovesOnVirtualClock() throws Exception {
+        MemoryClient alice = new MemoryClient("alice");
+        MemoryClient bob = new MemoryClient("bob");
+        alice.send("h;alice");
+        bob.send("h;bob");
+        alice.board = boards.nextBoard();
+        bob.board = boards.nextBoard();
+        alice.send(alice.board);
+        bob.send(bob.board);
+        alice.send("m;0;0"); // Before the game has been set up
+        bob.send("m;0;0");
+        scheduler.runDue();
+
+        String firstName = alice.expect(ProtocolMessages.SETUP).split(ProtocolMessages.DELIMITER)[1];
+        String update = alice.expect(ProtocolMessages.UPDATE);
+        assertTrue(update.startsWith(ProtocolMessages.UPDATE + ";0;0;"));
+        assertFalse(update.contains(";true;" + firstName)); // Not late
+
+        scheduler.advance(RuleProfile.CLASSIC.getTurnTimeout() - 1);
+        assertTrue(alice.drain().stream().noneMatch(line -> line.contains(";true;"))); // No late move yet
+    }
+
+    /**
+     * Tests that boards sent from the lobby after a game has ended don't start that game again.
+     */
+    @Test
+    void testBoardsFromLobbyAreIgnored() throws Exception {
+        MemoryClient alice = new MemoryClient("alice");
+        MemoryClient bob = new MemoryClient("bob");
+        alice.send("h;alice");
+        bob.send("h;bob");
+        alice.send(boards.nextBoard());
+        bob.send(boards.nextBoard());
+        assertEquals(1, scheduler.runDue());
+        scheduler.advance(RuleProfile.CLASSIC.getGameDuration());
+        alice.expect(ProtocolMessages.GAMEOVER);
+        bob.expect(ProtocolMessages.GAMEOVER);
+
+        alice.send(boards.nextBoard());
+        bob.send(boards.nextBoard());
+        assertEquals(0, scheduler.runDue()); // No game is set up
+        assertTrue(alice.drain().isEmpty());
+        assertTrue(bob.drain().isEmpty());
+    }
+}
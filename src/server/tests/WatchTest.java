@@ -0,0 +1,102 @@
+package server.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import bot.BotPlayer;
+import game.Game;
+import game.GameListener;
+import game.RuleProfile;
+import server.GameClientHandler;
+import server.GameServer;
+import server.InMemorySocket;
+import server.ProtocolMessages;
+import tui.GameServerTUI;
+
+/**
+ * Tests that a client watching a game gets the replies to its own messages on the same connection as the frames of the game,
+ * each one whole and in the order they were sent.
+ */
+public class WatchTest {
+    @TempDir
+    File directory;
+
+    private GameServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        server = new GameServer(new String[] {String.valueOf(port), "0"}, new File(directory, "player-stats.dat"), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.shutdownServer();
+    }
+
+    /**
+     * Tests that a heartbeat sent right behind the watch message is answered after the watch reply and the state of the game,
+     * although the replies of a batch are otherwise only flushed at its end.
+     */
+    @Test
+    void testRepliesFollowGameFrames() throws Exception {
+        Game game = startedGame();
+
+        InMemorySocket[] connection = InMemorySocket.pair();
+        connection[0].setSoTimeout(5000);
+        new Thread(new GameClientHandler(connection[1], server, new GameServerTUI())).start();
+        OutputStream out = connection[0].getOutputStream();
+        BufferedReader in = new BufferedReader(new InputStreamReader(connection[0].getInputStream(), StandardCharsets.UTF_8));
+
+        out.write((ProtocolMessages.WATCH + ProtocolMessages.DELIMITER + game.getGameId() + "\n" + ProtocolMessages.HEARTBEAT +
+            "\n").getBytes(StandardCharsets.UTF_8));
+        assertTrue(in.readLine().startsWith(ProtocolMessages.WATCH + ProtocolMessages.DELIMITER + game.getGameId() +
+            ProtocolMessages.DELIMITER));
+        assertTrue(in.readLine().startsWith(ProtocolMessages.BOARD_STATE + ProtocolMessages.DELIMITER));
+        assertEquals(ProtocolMessages.HEARTBEAT, in.readLine());
+
+        out.write((ProtocolMessages.SYNC + ProtocolMessages.DELIMITER + "0\n" + ProtocolMessages.HEARTBEAT + "\n")
+            .getBytes(StandardCharsets.UTF_8));
+        assertTrue(in.readLine().startsWith(ProtocolMessages.BOARD_STATE + ProtocolMessages.DELIMITER));
+        assertEquals(ProtocolMessages.HEARTBEAT, in.readLine());
+        connection[0].close();
+    }
+
+    /**
+     * Starts a game of the server between two bots that never move, so that its state doesn't change while it is watched.
+     */
+    private Game startedGame() throws InterruptedException {
+        Game game = server.getMatchmaker().createGame(RuleProfile.CLASSIC);
+        CountDownLatch started = new CountDownLatch(1);
+        game.addGameListener(new GameListener() {
+            @Override
+            public void gameStarted(Game startedGame) {
+                started.countDown();
+            }
+
+            @Override
+            public void gameEnded(Game endedGame) {
+            }
+        });
+        new BotPlayer("first", game.splitRandom(), TimeUnit.DAYS.toMillis(1)).join(game);
+        new BotPlayer("second", game.splitRandom(), TimeUnit.DAYS.toMillis(1)).join(game);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        return game;
+    }
+}
@@ -0,0 +1,159 @@
+package simulation;
+
+// External imports
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Internal imports
+import bot.TargetingEngine;
+import game.BoardGenerator;
+import game.GameBoard;
+import game.RuleProfile;
+import game.SeededRandom;
+import game.SeededRandomService;
+
+/**
+ * Plays games between two bots directly on game boards, without a server or network, to see how a {@link RuleProfile} plays out.
+ * The rules are those of {@link game.Game}: a hit gives another shot and earns a point, sinking a ship earns another point,
+ * whoever destroys all ships of the opponent first wins, and when the time limit is reached the player with the most points
+ * wins. Since bots don't think, every move is assumed to take a fixed time.
+ * <p>
+ * The games are split over a fork/join pool. Every game gets its own {@link SeededRandom} seeded from the simulation seed and
+ * the number of the game like the games of a {@link SeededRandomService}, so the same seed gives the same statistics no matter how many threads are used.
+ * @inv games >= 0, moveMillis > 0, rules != null
+ */
+public class GameSimulator {
+    // Below this number of games a task plays them itself instead of splitting them up
+    private static final int GAMES_PER_TASK = 256;
+
+    // The number of games to play
+    private long games;
+
+    // The seed from which the seed of every game is derived
+    private long seed;
+
+    // How long every move is assumed to take in milliseconds
+    private long moveMillis;
+
+    // The rules the games are played with
+    private RuleProfile rules;
+
+    /**
+     * Creates a simulator with the classic rules.
+     * @param games The number of games to play.
+     * @param seed The seed from which the seed of every game is derived.
+     * @param moveMillis How long every move is assumed to take in milliseconds.
+     * @pre games >= 0, moveMillis > 0
+     * @post ensures that the simulator is ready to run
+     */
+    public GameSimulator(long games, long seed, long moveMillis) {
+        this(games, seed, moveMillis, RuleProfile.CLASSIC);
+    }
+
+    /**
+     * Creates a simulator.
+     * @param games The number of games to play.
+     * @param seed The seed from which the seed of every game is derived.
+     * @param moveMillis How long every move is assumed to take in milliseconds.
+     * @param rules The rules the games are played with, including the time limit.
+     * @pre games >= 0, moveMillis > 0, rules != null
+     * @post ensures that the simulator is ready to run
+     */
+    public GameSimulator(long games, long seed, long moveMillis, RuleProfile rules) {
+        this.games = games;
+        this.seed = seed;
+        this.moveMillis = moveMillis;
+        this.rules = rules;
+    }
+
+    /**
+     * Plays all games on a new fork/join pool.
+     * @param parallelism The number of threads to play on.
+     * @return The statistics of all games.
+     * @pre parallelism > 0
+     * @post ensures that every game is played once and the pool is shut down
+     */
+    public SimulationStats run(int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new SimulationTask(0, games));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays one game and counts it.
+     * @param index The number of the game, from which its seed is derived.
+     * @param stats The statistics the game is counted in.
+     * @pre index >= 0, stats != null
+     * @post ensures that the game is counted in the statistics
+     */
+    public void playGame(long index, SimulationStats stats) {
+        Random random = new SeededRandom(SeededRandomService.gameSeed(seed, index));
+        BoardGenerator generator = new BoardGenerator(random, rules);
+        GameBoard[] boards = {new GameBoard(generator.nextBoard(), rules), new GameBoard(generator.nextBoard(), rules)};
+        TargetingEngine[] engines = {new TargetingEngine(random, rules), new TargetingEngine(random, rules)};
+        int[] points = new int[2];
+        long maxMoves = rules.getGameDuration() / moveMillis;
+
+        int shooter = 0; // The engines are interchangeable, so player 0 always makes the first move
+        int moves = 0;
+        while (moves < maxMoves) {
+            int shot = engines[shooter].nextShot();
+            int x = shot % rules.getWidth();
+            int y = shot / rules.getWidth();
+            boolean[] result = boards[1 - shooter].makeMove(x, y);
+            engines[shooter].recordShot(x, y, result[0], result[1]);
+            moves++;
+
+            if (result[2]) { // All ships destroyed
+                stats.addGame(moves, shooter, false);
+                return;
+            }
+            if (result[0]) {
+                points[shooter] += result[1] ? 2 : 1;
+            } else {
+                shooter = 1 - shooter;
+            }
+        }
+
+        // The time limit was reached
+        stats.addGame(moves, points[0] > points[1] ? 0 : points[0] < points[1] ? 1 : -1, true);
+    }
+
+    /**
+     * Plays a range of games, splitting it in halves until it is small enough.
+     */
+    private class SimulationTask extends RecursiveTask<SimulationStats> {
+        private static final long serialVersionUID = 1L;
+
+        // The first game and the game after the last one
+        private long from;
+        private long to;
+
+        SimulationTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                SimulationStats stats = new SimulationStats(rules.getFieldCount());
+                for (long index = from; index < to; index++) {
+                    playGame(index, stats);
+                }
+                return stats;
+            }
+
+            long middle = (from + to) >>> 1;
+            SimulationTask second = new SimulationTask(middle, to);
+            second.fork();
+            SimulationStats stats = new SimulationTask(from, middle).compute();
+            stats.merge(second.join());
+            return stats;
+        }
+    }
+}
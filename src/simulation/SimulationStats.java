@@ -0,0 +1,182 @@
+package simulation;
+
+// External imports
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Aggregate statistics of simulated games: how many games the player that shot first won, lost or tied, how many games reached
+ * the time limit and how many moves every game took. Statistics of separately simulated parts can be merged, and since merging
+ * only adds up counts the result doesn't depend on how the games were split up.
+ * @inv games >= 0, firstMoverWins >= 0, secondMoverWins >= 0, ties >= 0, timeLimitReached >= 0, lengths != null
+ */
+public class SimulationStats {
+    // The number of games and how they ended, seen from the player that made the first move
+    private long games;
+    private long firstMoverWins;
+    private long secondMoverWins;
+    private long ties;
+
+    // The number of games that ended because the time limit was reached
+    private long timeLimitReached;
+
+    // The number of games that took each number of moves, counting the moves of both players
+    private long[] lengths;
+
+    /**
+     * Creates empty statistics.
+     * @param fieldCount The number of fields of a board, which limits the number of moves of a player.
+     * @pre fieldCount > 0
+     * @post ensures that no game is counted
+     */
+    public SimulationStats(int fieldCount) {
+        lengths = new long[2 * fieldCount + 1];
+    }
+
+    /**
+     * Counts a game.
+     * @param moves The number of moves of both players.
+     * @param winner 0 if the first mover won, 1 if the second mover won and -1 for a tie.
+     * @param timeLimit Whether the game ended because the time limit was reached.
+     * @pre 0 <= moves <= 2 * fieldCount, -1 <= winner <= 1
+     * @post ensures that the game is counted
+     */
+    public void addGame(int moves, int winner, boolean timeLimit) {
+        games++;
+        lengths[moves]++;
+        if (winner == 0) {
+            firstMoverWins++;
+        } else if (winner == 1) {
+            secondMoverWins++;
+        } else {
+            ties++;
+        }
+        if (timeLimit) {
+            timeLimitReached++;
+        }
+    }
+
+    /**
+     * Adds the games counted in other statistics to these.
+     * @param other The other statistics.
+     * @pre other != null, other has the same field count
+     * @post ensures that these statistics count the games of both
+     */
+    public void merge(SimulationStats other) {
+        games += other.games;
+        firstMoverWins += other.firstMoverWins;
+        secondMoverWins += other.secondMoverWins;
+        ties += other.ties;
+        timeLimitReached += other.timeLimitReached;
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] += other.lengths[i];
+        }
+    }
+
+    /**
+     * Finds the number of moves that the given share of games did not exceed.
+     * @param percentile The percentile between 0 and 100.
+     * @return The number of moves, or 0 if no game was counted.
+     * @pre 0 <= percentile <= 100
+     */
+    public int getLengthPercentile(double percentile) {
+        long rank = (long) Math.ceil(games * percentile / 100);
+        long seen = 0;
+        for (int moves = 0; moves < lengths.length; moves++) {
+            seen += lengths[moves];
+            if (seen >= rank && seen > 0) {
+                return moves;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Calculates the mean number of moves per game.
+     * @return The mean, or 0 if no game was counted.
+     */
+    public double getMeanLength() {
+        long moves = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            moves += i * lengths[i];
+        }
+        return games == 0 ? 0 : (double) moves / games;
+    }
+
+    /**
+     * Writes the statistics as CSV with the columns section, key and value. The summary section has one row per statistic and
+     * the length section has one row per number of moves that at least one game took, with the number of such games.
+     * @param writer Where the CSV is written to.
+     * @throws IOException If writing fails.
+     * @pre writer != null
+     * @post ensures that the statistics are written, the writer is not closed
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write("section,key,value\n");
+        writeRow(writer, "summary", "games", Long.toString(games));
+        writeRow(writer, "summary", "first_mover_wins", Long.toString(firstMoverWins));
+        writeRow(writer, "summary", "second_mover_wins", Long.toString(secondMoverWins));
+        writeRow(writer, "summary", "ties", Long.toString(ties));
+        writeRow(writer, "summary", "time_limit_reached", Long.toString(timeLimitReached));
+        writeRow(writer, "summary", "first_mover_win_rate", Double.toString(getFirstMoverWinRate()));
+        writeRow(writer, "summary", "tie_rate", Double.toString(getTieRate()));
+        writeRow(writer, "summary", "mean_moves", Double.toString(getMeanLength()));
+        writeRow(writer, "summary", "p50_moves", Integer.toString(getLengthPercentile(50)));
+        writeRow(writer, "summary", "p90_moves", Integer.toString(getLengthPercentile(90)));
+        writeRow(writer, "summary", "p99_moves", Integer.toString(getLengthPercentile(99)));
+        for (int moves = 0; moves < lengths.length; moves++) {
+            if (lengths[moves] > 0) {
+                writeRow(writer, "length", Integer.toString(moves), Long.toString(lengths[moves]));
+            }
+        }
+    }
+
+    /**
+     * Writes one row of CSV.
+     */
+    private static void writeRow(Writer writer, String section, String key, String value) throws IOException {
+        writer.write(section + "," + key + "," + value + "\n");
+    }
+
+    /**
+     * Getter for the share of games won by the player that made the first move.
+     * @return The share between 0 and 1, or 0 if no game was counted.
+     */
+    public double getFirstMoverWinRate() {
+        return games == 0 ? 0 : (double) firstMoverWins / games;
+    }
+
+    /**
+     * Getter for the share of games that ended in a tie.
+     * @return The share between 0 and 1, or 0 if no game was counted.
+     */
+    public double getTieRate() {
+        return games == 0 ? 0 : (double) ties / games;
+    }
+
+    /**
+     * Getter for the number of games.
+     * @return The number of games.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Getter for the number of games that reached the time limit.
+     * @return The number of games.
+     */
+    public long getTimeLimitReached() {
+        return timeLimitReached;
+    }
+
+    /**
+     * Getter for the number of games that took a number of moves.
+     * @param moves The number of moves of both players.
+     * @return The number of games.
+     * @pre 0 <= moves <= 2 * fieldCount
+     */
+    public long getLengthCount(int moves) {
+        return lengths[moves];
+    }
+}
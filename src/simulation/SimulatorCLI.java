@@ -0,0 +1,69 @@
+package simulation;
+
+// External imports
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+// Internal imports
+import constants.GameConstants;
+import game.RuleProfile;
+import game.RuleProfiles;
+import tui.TerminalColors;
+
+/**
+ * Command line tool for simulating games between bots and writing their statistics as CSV.
+ * <p>
+ * Usage: {@code SimulatorCLI <games> <seed> <csv file> [move millis] [threads] [rule profile]} plays the games on the given number
+ * of threads, by default all available cores, assuming every move takes the given time, by default {@link #DEFAULT_MOVE_MILLIS}.
+ * The rule profile is one of those in the server's rule profile file, by default its default profile.
+ */
+public class SimulatorCLI {
+    public static final String USAGE_MESSAGE = "Usage: SimulatorCLI <games> <seed> <csv file> [move millis] [threads] [rule profile]";
+
+    // How long a move is assumed to take if no time is given, which makes the classic time limit end games after 150 moves
+    public static final long DEFAULT_MOVE_MILLIS = 2000;
+
+    /**
+     * Parses the arguments, runs the simulation and writes the statistics.
+     * @param args The arguments as described in the class description.
+     * @post ensures that the statistics are written or the usage is shown for invalid arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println(SimulatorCLI.USAGE_MESSAGE);
+            return;
+        }
+
+        try {
+            long games = Long.parseLong(args[0]);
+            long seed = Long.parseLong(args[1]);
+            long moveMillis = args.length >= 4 ? Long.parseLong(args[3]) : DEFAULT_MOVE_MILLIS;
+            int threads = args.length >= 5 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+            if (games < 0 || moveMillis <= 0 || threads <= 0) {
+                throw new IllegalArgumentException("The number of games can't be negative and the move time and threads must be positive.");
+            }
+            RuleProfiles ruleProfiles = RuleProfiles.load(new File(GameConstants.RULE_PROFILES_FILE));
+            RuleProfile rules = args.length >= 6 ? ruleProfiles.get(args[5]) : ruleProfiles.getDefault();
+            if (rules == null) {
+                throw new IllegalArgumentException("There is no rule profile " + args[5] + ", choose one of " + ruleProfiles.getNames() + ".");
+            }
+
+            long start = System.nanoTime();
+            SimulationStats stats = new GameSimulator(games, seed, moveMillis, rules).run(threads);
+            long millis = (System.nanoTime() - start) / 1000000;
+
+            try (Writer writer = new FileWriter(args[2])) {
+                stats.writeCsv(writer);
+            }
+            System.out.println(String.format("Simulated %d games in %d ms: first mover won %.2f%%, ties %.2f%%, mean %.1f moves.",
+                games, millis, stats.getFirstMoverWinRate() * 100, stats.getTieRate() * 100, stats.getMeanLength()));
+        } catch (IOException e) {
+            System.out.println(TerminalColors.RED_BOLD + "Could not read the rule profiles or write the statistics: " + e.getMessage() + TerminalColors.RESET);
+        } catch (IllegalArgumentException e) { // Also catches NumberFormatException
+            System.out.println(TerminalColors.RED_BOLD + e.getMessage() + TerminalColors.RESET);
+            System.out.println(SimulatorCLI.USAGE_MESSAGE);
+        }
+    }
+}
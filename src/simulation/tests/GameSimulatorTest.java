@@ -0,0 +1,62 @@
+package simulation.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.StringWriter;
+
+// Internal imports
+import game.RuleProfile;
+import simulation.GameSimulator;
+import simulation.SimulationStats;
+
+/**
+ * Tests that simulations are deterministic and that their statistics add up.
+ */
+public class GameSimulatorTest {
+    private static final long SEED = 42;
+    private static final int GAMES = 1000;
+
+    /**
+     * Tests that the same seed gives the same CSV no matter how many threads are used, and that another seed doesn't.
+     */
+    @Test
+    void testDeterministicPerSeed() throws IOException {
+        String single = csv(new GameSimulator(GAMES, SEED, 2000).run(1));
+        String parallel = csv(new GameSimulator(GAMES, SEED, 2000).run(4));
+        String other = csv(new GameSimulator(GAMES, SEED + 1, 2000).run(4));
+
+        assertEquals(single, parallel);
+        assertTrue(!single.equals(other));
+    }
+
+    /**
+     * Tests that every game is counted once and that a short time limit ends every game by points.
+     */
+    @Test
+    void testStatistics() {
+        SimulationStats stats = new GameSimulator(GAMES, SEED, 2000).run(2);
+        assertEquals(GAMES, stats.getGames());
+        assertTrue(stats.getFirstMoverWinRate() + stats.getTieRate() <= 1);
+
+        long counted = 0;
+        for (int moves = 0; moves <= 300; moves++) {
+            counted += stats.getLengthCount(moves);
+        }
+        assertEquals(GAMES, counted);
+
+        // With a move every second and a limit of 20 seconds every game stops after 20 moves
+        RuleProfile quick = new RuleProfile("quick", 15, 10, new int[] {5, 4, 3, 2, 1}, new int[] {2, 3, 5, 8, 10}, 30000, 20000);
+        SimulationStats limited = new GameSimulator(GAMES, SEED, 1000, quick).run(2);
+        assertEquals(GAMES, limited.getTimeLimitReached());
+        assertEquals(GAMES, limited.getLengthCount(20));
+    }
+
+    private static String csv(SimulationStats stats) throws IOException {
+        StringWriter writer = new StringWriter();
+        stats.writeCsv(writer);
+        return writer.toString();
+    }
+}
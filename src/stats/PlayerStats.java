@@ -0,0 +1,131 @@
+package stats;
+
+/**
+ * An immutable snapshot of a single player's statistics over all the games they have played on this server.
+ * @inv name != null, all counters >= 0
+ */
+public class PlayerStats {
+    private final String name;
+    private final int gamesPlayed;
+    private final int wins;
+    private final int losses;
+    private final int ties;
+    private final int forfeits;
+    private final long shots;
+    private final long hits;
+    private final long totalDuration;
+
+    /**
+     * Creates a snapshot of a player's statistics.
+     * @param name The player's name.
+     * @param gamesPlayed The number of games played.
+     * @param wins The number of games won.
+     * @param losses The number of games lost, including forfeits.
+     * @param ties The number of games that ended in a tie.
+     * @param forfeits The number of games the player quit.
+     * @param shots The number of shots fired.
+     * @param hits The number of shots that hit a ship.
+     * @param totalDuration The sum of the durations of all games in milliseconds.
+     * @pre name != null, all counters >= 0
+     * @post ensures that all fields are initialised
+     */
+    public PlayerStats(String name, int gamesPlayed, int wins, int losses, int ties, int forfeits, long shots, long hits, long totalDuration) {
+        this.name = name;
+        this.gamesPlayed = gamesPlayed;
+        this.wins = wins;
+        this.losses = losses;
+        this.ties = ties;
+        this.forfeits = forfeits;
+        this.shots = shots;
+        this.hits = hits;
+        this.totalDuration = totalDuration;
+    }
+
+    /**
+     * Getter for the player's name.
+     * @return The player's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for the number of games played.
+     * @return The number of games played.
+     */
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * Getter for the number of games won.
+     * @return The number of games won.
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * Getter for the number of games lost, including forfeits.
+     * @return The number of games lost, including forfeits.
+     */
+    public int getLosses() {
+        return losses;
+    }
+
+    /**
+     * Getter for the number of games that ended in a tie.
+     * @return The number of games that ended in a tie.
+     */
+    public int getTies() {
+        return ties;
+    }
+
+    /**
+     * Getter for the number of games the player quit.
+     * @return The number of games the player quit.
+     */
+    public int getForfeits() {
+        return forfeits;
+    }
+
+    /**
+     * Getter for the number of shots fired.
+     * @return The number of shots fired.
+     */
+    public long getShots() {
+        return shots;
+    }
+
+    /**
+     * Getter for the number of shots that hit a ship.
+     * @return The number of shots that hit a ship.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Getter for the share of shots that hit a ship.
+     * @return The hit rate between 0 and 1, or 0 if no shots were fired.
+     */
+    public double getHitRate() {
+        return shots == 0 ? 0 : (double) hits / shots;
+    }
+
+    /**
+     * Getter for the average length of the player's games.
+     * @return The average game length in milliseconds, or 0 if no games were played.
+     */
+    public long getAverageGameLength() {
+        return gamesPlayed == 0 ? 0 : totalDuration / gamesPlayed;
+    }
+
+    /**
+     * Getter for the sum of the lengths of all the player's games.
+     * @return The total length in milliseconds.
+     */
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+}
@@ -0,0 +1,384 @@
+package stats;
+
+// External imports
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import constants.GameConstants;
+import game.Game;
+import game.GameListener;
+import tui.GameServerTUI;
+import tui.TerminalColors;
+
+/**
+ * This class keeps the statistics of every player that has finished a game on this server. It is informed about finished
+ * games as a {@link GameListener}. The statistics are kept in memory as columns of primitive arrays, one row per player, and the
+ * rows are found through an open addressing hash table of ints. That way a million players cost a few dozen megabytes without
+ * an object per player besides their name, and a lookup is a hash and a few array reads.
+ * Changes are persisted write-behind: a background thread writes a snapshot of all rows to the stats file every
+ * {@link #FLUSH_INTERVAL_SECONDS} seconds if anything changed, and once more when the store is closed.
+ * @inv table != null, names != null, size >= 0, table.length is a power of two
+ */
+public class PlayerStatsStore implements GameListener {
+    // Identifies a stats file and the version of its format. Version 1 stored names with writeUTF, which can't write names
+    // of over 65535 bytes.
+    private static final int MAGIC = 0x42535053; // "BSPS"
+    private static final int VERSION = 2;
+
+    // How often changed statistics are written to the file
+    public static final long FLUSH_INTERVAL_SECONDS = 5;
+
+    // The system property with the stats file, empty to not keep statistics
+    public static final String FILE_PROPERTY = "battleship.statsFile";
+
+    // The number of rows that are allocated at first
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Open addressing hash table with linear probing. Holds row + 1 of a player, or 0 for an empty slot.
+    private int[] table;
+
+    // The statistics columns. Row i of every column belongs to the player names[i].
+    private String[] names;
+    private int[] gamesPlayed;
+    private int[] wins;
+    private int[] losses;
+    private int[] ties;
+    private int[] forfeits;
+    private long[] shots;
+    private long[] hits;
+    private long[] totalDuration;
+
+    // The number of players
+    private int size;
+
+    // Whether there are changes that haven't been written to the file yet
+    private boolean dirty;
+
+    // The file the statistics are persisted in
+    private File file;
+
+    // The background thread that writes changes to the file
+    private ScheduledExecutorService flusher;
+
+    /**
+     * Creates the store, loads the statistics from the given file if it exists and starts the write-behind thread.
+     * @param file The file to persist the statistics in.
+     * @param view The server's TUI, told when the write-behind thread can't write the file.
+     * @throws IOException if the file exists but can't be read.
+     * @pre file != null, view != null
+     * @post ensures that all statistics from the file are loaded and that changes are written back periodically
+     */
+    public PlayerStatsStore(File file, GameServerTUI view) throws IOException {
+        this.file = file;
+        allocate(INITIAL_CAPACITY);
+
+        if (file.exists()) {
+            load();
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PlayerStatsWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (IOException e) {
+                view.showMessage(TerminalColors.RED_BOLD + "Could not write player statistics: " + e.getMessage() + TerminalColors.RESET);
+            }
+        }, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Gives the stats file that is set with the system property, or the stats file of {@link GameConstants} without it.
+     * @return The stats file, or null if the property is empty and no statistics are kept.
+     * @post ensures that the stats file of the system property is returned, or null if statistics are switched off
+     */
+    public static File fileFromProperties() {
+        String file = System.getProperty(FILE_PROPERTY, GameConstants.STATS_FILE).trim();
+        return file.isEmpty() ? null : new File(file);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Adds the result of the game to the statistics of both players. Bots have no statistics.
+     * @pre game.getWinnerName() != null
+     * @post ensures that the statistics of both players, unless they are bots, include the game
+     */
+    @Override
+    public void gameEnded(Game game) {
+        String winnerName = game.getWinnerName();
+        boolean tie = winnerName.isEmpty();
+
+        for (int player = 1; player <= 2; player++) {
+            if (game.getPlayer(player).isBot()) {
+                continue;
+            }
+            String name = game.getPlayerName(player);
+            boolean won = name.equals(winnerName);
+            boolean forfeited = !game.getWinType() && !won;
+
+            recordGame(name, won, tie, forfeited, game.getShots(player), game.getHits(player), game.getDuration());
+        }
+    }
+
+    /**
+     * Adds a single game to a player's statistics. A game that is not won and not a tie counts as a loss.
+     * @param name The player's name.
+     * @param won Whether the player won.
+     * @param tie Whether the game was a tie.
+     * @param forfeited Whether the player quit the game.
+     * @param gameShots The shots the player fired in the game.
+     * @param gameHits The shots of the player that hit a ship.
+     * @param duration The length of the game in milliseconds.
+     * @pre name != null, gameShots >= gameHits >= 0, duration >= 0
+     * @post ensures that the player's statistics include the game
+     */
+    public synchronized void recordGame(String name, boolean won, boolean tie, boolean forfeited, int gameShots, int gameHits, long duration) {
+        int row = findOrAddRow(name);
+
+        gamesPlayed[row]++;
+        if (won) {
+            wins[row]++;
+        } else if (tie) {
+            ties[row]++;
+        } else {
+            losses[row]++;
+        }
+        if (forfeited) {
+            forfeits[row]++;
+        }
+        shots[row] += gameShots;
+        hits[row] += gameHits;
+        totalDuration[row] += duration;
+
+        dirty = true;
+    }
+
+    /**
+     * Looks up a player's statistics.
+     * @param name The player's name.
+     * @return A snapshot of the player's statistics, or null if the player hasn't finished a game.
+     * @pre name != null
+     * @post ensures that the current statistics of the player are returned
+     */
+    public synchronized PlayerStats getStats(String name) {
+        int row = findRow(name);
+        if (row < 0) {
+            return null;
+        }
+        return new PlayerStats(
+            names[row], gamesPlayed[row], wins[row], losses[row], ties[row], forfeits[row], shots[row], hits[row], totalDuration[row]
+        );
+    }
+
+    /**
+     * Takes a snapshot of the statistics of every player, for example to build a leaderboard at startup.
+     * @return The statistics of all players in the order they were first added.
+     * @post ensures that a snapshot of all players' statistics is returned
+     */
+    public synchronized List<PlayerStats> getAllStats() {
+        List<PlayerStats> all = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            all.add(new PlayerStats(
+                names[row], gamesPlayed[row], wins[row], losses[row], ties[row], forfeits[row], shots[row], hits[row], totalDuration[row]
+            ));
+        }
+        return all;
+    }
+
+    /**
+     * Getter for the number of players with statistics.
+     * @return The number of players.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Writes all statistics to the file if anything has changed since the last write. A snapshot of the rows is copied while
+     * holding the lock and written after releasing it, to a temporary file that then replaces the stats file.
+     * @throws IOException if the file can't be written.
+     * @post ensures that the file contains all statistics recorded before the call
+     */
+    public void flush() throws IOException {
+        String[] names;
+        int[][] intColumns;
+        long[][] longColumns;
+        int size;
+
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            size = this.size;
+            names = Arrays.copyOf(this.names, size);
+            intColumns = new int[][] {
+                Arrays.copyOf(gamesPlayed, size), Arrays.copyOf(wins, size), Arrays.copyOf(losses, size),
+                Arrays.copyOf(ties, size), Arrays.copyOf(forfeits, size)
+            };
+            longColumns = new long[][] {Arrays.copyOf(shots, size), Arrays.copyOf(hits, size), Arrays.copyOf(totalDuration, size)};
+            dirty = false;
+        }
+
+        File temporary = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(size);
+            for (int row = 0; row < size; row++) {
+                byte[] name = names[row].getBytes(StandardCharsets.UTF_8);
+                out.writeInt(name.length);
+                out.write(name);
+                for (int[] column : intColumns) {
+                    out.writeInt(column[row]);
+                }
+                for (long[] column : longColumns) {
+                    out.writeLong(column[row]);
+                }
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            throw e;
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Stops the write-behind thread and writes any remaining changes.
+     * @throws IOException if the file can't be written.
+     * @post ensures that all statistics are written to the file
+     */
+    public void close() throws IOException {
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * Reads all rows from the stats file, also from a file of an older version.
+     * @throws IOException if the file can't be read or is not a stats file.
+     */
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int version = in.readInt() == MAGIC ? in.readByte() : -1;
+            if (version < 1 || version > VERSION) {
+                throw new IOException(file.getName() + " is not a player statistics file.");
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name;
+                if (version == 1) {
+                    name = in.readUTF();
+                } else {
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    name = new String(bytes, StandardCharsets.UTF_8);
+                }
+                int row = findOrAddRow(name);
+                gamesPlayed[row] = in.readInt();
+                wins[row] = in.readInt();
+                losses[row] = in.readInt();
+                ties[row] = in.readInt();
+                forfeits[row] = in.readInt();
+                shots[row] = in.readLong();
+                hits[row] = in.readLong();
+                totalDuration[row] = in.readLong();
+            }
+        }
+    }
+
+    /**
+     * Finds the row of a player.
+     * @param name The player's name.
+     * @return The row, or -1 if the player has no row.
+     */
+    private int findRow(String name) {
+        int mask = table.length - 1;
+        for (int slot = hash(name) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            if (names[table[slot] - 1].equals(name)) {
+                return table[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the row of a player and adds an empty row if the player has none.
+     * @param name The player's name.
+     * @return The row of the player.
+     */
+    private int findOrAddRow(String name) {
+        int mask = table.length - 1;
+        int slot = hash(name) & mask;
+        for (; table[slot] != 0; slot = (slot + 1) & mask) {
+            if (names[table[slot] - 1].equals(name)) {
+                return table[slot] - 1;
+            }
+        }
+
+        if (size == names.length) { // The columns are full, so grow them and rehash, which also changes the free slot
+            allocate(names.length * 2);
+            return findOrAddRow(name);
+        }
+
+        int row = size++;
+        names[row] = name;
+        table[slot] = row + 1;
+        return row;
+    }
+
+    /**
+     * Grows the columns to the given number of rows and rebuilds the hash table at twice that size,
+     * which keeps the table at most half full.
+     * @param capacity The number of rows.
+     */
+    private void allocate(int capacity) {
+        names = names == null ? new String[capacity] : Arrays.copyOf(names, capacity);
+        gamesPlayed = gamesPlayed == null ? new int[capacity] : Arrays.copyOf(gamesPlayed, capacity);
+        wins = wins == null ? new int[capacity] : Arrays.copyOf(wins, capacity);
+        losses = losses == null ? new int[capacity] : Arrays.copyOf(losses, capacity);
+        ties = ties == null ? new int[capacity] : Arrays.copyOf(ties, capacity);
+        forfeits = forfeits == null ? new int[capacity] : Arrays.copyOf(forfeits, capacity);
+        shots = shots == null ? new long[capacity] : Arrays.copyOf(shots, capacity);
+        hits = hits == null ? new long[capacity] : Arrays.copyOf(hits, capacity);
+        totalDuration = totalDuration == null ? new long[capacity] : Arrays.copyOf(totalDuration, capacity);
+
+        table = new int[capacity * 2];
+        int mask = table.length - 1;
+        for (int row = 0; row < size; row++) {
+            int slot = hash(names[row]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = row + 1;
+        }
+    }
+
+    /**
+     * Spreads the bits of the name's hash code so that similar names don't end up in neighbouring slots.
+     */
+    private static int hash(String name) {
+        int h = name.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,130 @@
+package stats.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+// Internal imports
+import stats.PlayerStats;
+import stats.PlayerStatsStore;
+import tui.GameServerTUI;
+
+/**
+ * Tests recording games in the player statistics store, growing its index and persisting it to a file.
+ */
+public class PlayerStatsStoreTest {
+    private static final String FIRST_PLAYER_NAME = "Albert";
+    private static final String SECOND_PLAYER_NAME = "Sam";
+
+    @TempDir
+    File directory;
+
+    private PlayerStatsStore store;
+
+    @BeforeEach
+    void createStore() throws IOException {
+        store = new PlayerStatsStore(new File(directory, "stats.dat"), new GameServerTUI());
+    }
+
+    @AfterEach
+    void closeStore() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void testRecordGame() {
+        assertNull(store.getStats(PlayerStatsStoreTest.FIRST_PLAYER_NAME));
+
+        store.recordGame(PlayerStatsStoreTest.FIRST_PLAYER_NAME, true, false, false, 40, 30, 60000);
+        store.recordGame(PlayerStatsStoreTest.FIRST_PLAYER_NAME, false, true, false, 20, 5, 300000);
+        store.recordGame(PlayerStatsStoreTest.FIRST_PLAYER_NAME, false, false, true, 20, 5, 30000);
+
+        PlayerStats stats = store.getStats(PlayerStatsStoreTest.FIRST_PLAYER_NAME);
+        assertEquals(3, stats.getGamesPlayed());
+        assertEquals(1, stats.getWins());
+        assertEquals(1, stats.getTies());
+        assertEquals(1, stats.getLosses());
+        assertEquals(1, stats.getForfeits());
+        assertEquals(0.5, stats.getHitRate());
+        assertEquals(130000, stats.getAverageGameLength());
+        assertNull(store.getStats(PlayerStatsStoreTest.SECOND_PLAYER_NAME));
+    }
+
+    @Test
+    void testManyPlayers() {
+        int players = 100000;
+        for (int i = 0; i < players; i++) {
+            store.recordGame("player" + i, i % 2 == 0, false, false, i, i / 2, i);
+        }
+
+        assertEquals(players, store.size());
+        for (int i = 0; i < players; i += 997) {
+            PlayerStats stats = store.getStats("player" + i);
+            assertEquals(i % 2 == 0 ? 1 : 0, stats.getWins());
+            assertEquals(i, stats.getShots());
+        }
+    }
+
+    @Test
+    void testPersistence() throws IOException {
+        store.recordGame(PlayerStatsStoreTest.FIRST_PLAYER_NAME, true, false, false, 40, 30, 60000);
+        store.recordGame(PlayerStatsStoreTest.SECOND_PLAYER_NAME, false, false, false, 35, 20, 60000);
+        store.close();
+
+        store = new PlayerStatsStore(new File(directory, "stats.dat"), new GameServerTUI());
+        assertEquals(2, store.size());
+        assertEquals(1, store.getStats(PlayerStatsStoreTest.FIRST_PLAYER_NAME).getWins());
+        assertEquals(1, store.getStats(PlayerStatsStoreTest.SECOND_PLAYER_NAME).getLosses());
+        assertEquals(20, store.getStats(PlayerStatsStoreTest.SECOND_PLAYER_NAME).getHits());
+    }
+
+    /**
+     * Tests that a name of over 65535 bytes, more than writeUTF can write, is persisted and doesn't keep the players after
+     * it from being written.
+     */
+    @Test
+    void testLongNamePersistence() throws IOException {
+        String longName = "\u00e9".repeat(40000); // 80000 bytes in UTF-8
+        store.recordGame(longName, true, false, false, 40, 30, 60000);
+        store.recordGame(PlayerStatsStoreTest.SECOND_PLAYER_NAME, false, false, false, 35, 20, 60000);
+        store.close();
+
+        store = new PlayerStatsStore(new File(directory, "stats.dat"), new GameServerTUI());
+        assertEquals(2, store.size());
+        assertEquals(1, store.getStats(longName).getWins());
+        assertEquals(1, store.getStats(PlayerStatsStoreTest.SECOND_PLAYER_NAME).getLosses());
+    }
+
+    /**
+     * Tests that a stats file of version 1, whose names were written with writeUTF, can still be loaded.
+     */
+    @Test
+    void testLoadVersion1() throws IOException {
+        store.close();
+        File file = new File(directory, "old-stats.dat");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(0x42535053);
+            out.writeByte(1);
+            out.writeInt(1);
+            out.writeUTF(PlayerStatsStoreTest.FIRST_PLAYER_NAME);
+            for (int games : new int[] {3, 2, 1, 0, 0}) { // Played, won, lost, tied, forfeited
+                out.writeInt(games);
+            }
+            for (long total : new long[] {60, 30, 90000}) { // Shots, hits, duration
+                out.writeLong(total);
+            }
+        }
+
+        store = new PlayerStatsStore(file, new GameServerTUI());
+        PlayerStats stats = store.getStats(PlayerStatsStoreTest.FIRST_PLAYER_NAME);
+        assertEquals(3, stats.getGamesPlayed());
+        assertEquals(2, stats.getWins());
+        assertEquals(30, stats.getHits());
+    }
+}
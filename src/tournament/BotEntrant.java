@@ -0,0 +1,59 @@
+package tournament;
+
+// External imports
+import java.util.Random;
+
+// Internal imports
+import bot.BotPlayer;
+import game.Game;
+
+/**
+ * An entrant that plays every game of a tournament as a new {@link BotPlayer}, for example to fill up a tournament or to load
+ * test one. Bots always show up.
+ * @inv name != null, random != null, moveDelay >= 0
+ */
+public class BotEntrant implements Entrant {
+    // The name of the bot in every game
+    private String name;
+
+    // Gives every game's bot its own random generator
+    private Random random;
+
+    // How long the bot waits before each move in milliseconds
+    private long moveDelay;
+
+    /**
+     * Creates a bot entrant.
+     * @param name The name, unique within the tournament.
+     * @param seed The seed from which the random generator of every game's bot is derived.
+     * @param moveDelay How long the bot waits before each move in milliseconds.
+     * @pre name != null, moveDelay >= 0
+     */
+    public BotEntrant(String name, long seed, long moveDelay) {
+        this.name = name;
+        this.random = new Random(seed);
+        this.moveDelay = moveDelay;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @post ensures that a new bot has joined the game with a board
+     */
+    @Override
+    public boolean join(Game game) {
+        long seed;
+        synchronized (this) {
+            seed = random.nextLong();
+        }
+        new BotPlayer(name, new Random(seed), moveDelay).join(game);
+        return true;
+    }
+}
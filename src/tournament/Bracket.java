@@ -0,0 +1,37 @@
+package tournament;
+
+// External imports
+import java.util.List;
+
+/**
+ * Decides who meets whom in every round of a tournament and who ends up where. The entrants are given in the order of their
+ * seed, the first being the strongest. A {@link Tournament} asks for a round, plays it and hands the decided pairings back
+ * before it asks for the next one, always holding its lock, so brackets need no locking of their own.
+ */
+public interface Bracket {
+
+    /**
+     * Pairs the entrants for the next round.
+     * @return The pairings, or null if the tournament is over.
+     */
+    public List<Pairing> nextRound();
+
+    /**
+     * Takes in the results of the round that was returned by {@link #nextRound()} last.
+     * @param round The pairings of the round, all decided.
+     * @pre every pairing of the round is decided
+     */
+    public void roundEnded(List<Pairing> round);
+
+    /**
+     * Ranks the entrants by how well they have done so far.
+     * @return The entrants, the best first.
+     */
+    public List<Entrant> getStandings();
+
+    /**
+     * Describes the format of the bracket for messages in the terminal view.
+     * @return The name of the format.
+     */
+    public String getFormat();
+}
@@ -0,0 +1,47 @@
+package tournament;
+
+// Internal imports
+import game.Game;
+import server.GameClientHandler;
+
+/**
+ * An entrant that is a client connected to the server. The client enters under the name of its handshake and is seated from
+ * the lobby, so it has to be in the lobby, with its last game over, whenever a round of the tournament starts. A client that
+ * is in another game or has left by then doesn't show up.
+ * @inv name != null, client != null
+ */
+public class ClientEntrant implements Entrant {
+    // The name the client chose in its handshake
+    private String name;
+
+    // The handler of the client's connection
+    private GameClientHandler client;
+
+    /**
+     * Creates an entrant for a client.
+     * @param client The handler of the client, which has sent its handshake.
+     * @pre client != null, client.getName() != null
+     * @post ensures that the entrant has the name of the client
+     */
+    public ClientEntrant(GameClientHandler client) {
+        this.name = client.getName();
+        this.client = client;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @post ensures that the client has joined the game if it was in the lobby
+     */
+    @Override
+    public boolean join(Game game) {
+        return client.seat(game);
+    }
+}
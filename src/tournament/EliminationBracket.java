@@ -0,0 +1,141 @@
+package tournament;
+
+// External imports
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single elimination bracket: the winner of every pairing goes on and the loser is out, until one entrant is left. The
+ * bracket has a power of two slots, filled in the usual seeding order so that the best seeds only meet late, for example
+ * 1-8, 4-5, 2-7 and 3-6 for eight slots. When there are fewer entrants than slots, the empty slots go to the best seeds as
+ * byes in the first round. A draw is won by the better seed, and when neither entrant shows up the next opponent gets a bye.
+ * @inv slots != null, seeds != null, eliminatedIn != null
+ */
+public class EliminationBracket implements Bracket {
+    // The entrants that are still in, in bracket order, null for a slot without an entrant
+    private List<Entrant> slots;
+
+    // The seed of every entrant, 0 being the best
+    private Map<Entrant, Integer> seeds;
+
+    // The round in which every entrant that is out lost
+    private Map<Entrant, Integer> eliminatedIn;
+
+    // The number of rounds that have been paired
+    private int round;
+
+    /**
+     * Creates a bracket.
+     * @param entrants The entrants in the order of their seed.
+     * @pre entrants != null, !entrants.isEmpty(), the names of the entrants are unique
+     * @post ensures that the first round pairs the best seed with the worst
+     */
+    public EliminationBracket(List<Entrant> entrants) {
+        seeds = new HashMap<>();
+        for (int seed = 0; seed < entrants.size(); seed++) {
+            seeds.put(entrants.get(seed), seed);
+        }
+        eliminatedIn = new HashMap<>();
+
+        int size = entrants.size() == 1 ? 1 : Integer.highestOneBit(entrants.size() - 1) * 2;
+        slots = new ArrayList<>(size);
+        for (int seed : seedingOrder(size)) {
+            slots.add(seed < entrants.size() ? entrants.get(seed) : null);
+        }
+    }
+
+    /**
+     * Gives the seeds in bracket order, such that seed s meets seed size - 1 - s in the first round and the best seeds are as
+     * far apart as possible.
+     * @param size The number of slots.
+     * @return The seed of every slot.
+     * @pre size is a power of two
+     */
+    public static int[] seedingOrder(int size) {
+        int[] order = {0};
+        while (order.length < size) {
+            int[] next = new int[order.length * 2];
+            for (int i = 0; i < order.length; i++) {
+                next[2 * i] = order[i];
+                next[2 * i + 1] = next.length - 1 - order[i];
+            }
+            order = next;
+        }
+        return order;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Neighbouring slots meet, and the tournament is over once one slot is left.
+     */
+    @Override
+    public List<Pairing> nextRound() {
+        if (slots.size() <= 1) {
+            return null;
+        }
+        round++;
+        List<Pairing> pairings = new ArrayList<>(slots.size() / 2);
+        for (int table = 0; table < slots.size() / 2; table++) {
+            pairings.add(new Pairing(table, slots.get(2 * table), slots.get(2 * table + 1)));
+        }
+        return pairings;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Whoever goes on takes the slot of the pairing in the next round.
+     */
+    @Override
+    public void roundEnded(List<Pairing> pairings) {
+        List<Entrant> next = new ArrayList<>(pairings.size());
+        for (Pairing pairing : pairings) {
+            Entrant winner = winner(pairing);
+            next.add(winner);
+            for (Entrant entrant : new Entrant[] {pairing.getFirst(), pairing.getSecond()}) {
+                if (entrant != null && entrant != winner) {
+                    eliminatedIn.put(entrant, round);
+                }
+            }
+        }
+        slots = next;
+    }
+
+    /**
+     * Decides who goes on from a pairing.
+     * @param pairing The decided pairing.
+     * @return The winner, the better seed after a draw, or null if nobody goes on.
+     */
+    private Entrant winner(Pairing pairing) {
+        if (pairing.isBye()) {
+            return pairing.getFirst() != null ? pairing.getFirst() : pairing.getSecond();
+        }
+        if (pairing.isDraw()) {
+            return seeds.get(pairing.getFirst()) < seeds.get(pairing.getSecond()) ? pairing.getFirst() : pairing.getSecond();
+        }
+        return pairing.getWinner();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Entrants that are still in come first, then those that lost later before those that lost earlier, and the better seed
+     * first among those that lost in the same round.
+     */
+    @Override
+    public List<Entrant> getStandings() {
+        List<Entrant> standings = new ArrayList<>(seeds.keySet());
+        standings.sort(Comparator.comparingInt((Entrant entrant) -> -eliminatedIn.getOrDefault(entrant, Integer.MAX_VALUE))
+            .thenComparingInt(seeds::get));
+        return standings;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getFormat() {
+        return "single elimination";
+    }
+}
@@ -0,0 +1,26 @@
+package tournament;
+
+// Internal imports
+import game.Game;
+
+/**
+ * Someone registered for a {@link Tournament}. For every game of the tournament the entrant is asked to take a seat, after
+ * which it plays the game as a {@link game.Player} and submits a board like in any other game.
+ */
+public interface Entrant {
+
+    /**
+     * Getter for the entrant's name, which is unique within the tournament.
+     * @return The name.
+     */
+    public String getName();
+
+    /**
+     * Takes a seat in a game of the tournament.
+     * @param game The game, which nobody or only the opponent has joined yet.
+     * @return Whether the entrant showed up. An entrant that shows up but doesn't submit a board before the check-in timeout
+     * of the tournament loses the game all the same.
+     * @pre game != null
+     */
+    public boolean join(Game game);
+}
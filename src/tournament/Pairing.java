@@ -0,0 +1,149 @@
+package tournament;
+
+// Internal imports
+import game.Game;
+
+/**
+ * Two entrants that meet in a round of a tournament, and the result once it is known. An entrant can be missing, in which case
+ * the other one has a bye and wins without playing. The result is decided once, either by the game or because an entrant
+ * didn't show up, and is guarded by the lock of the tournament.
+ * @inv table >= 0
+ */
+public class Pairing {
+    // The number of the pairing within its round
+    private int table;
+
+    // The entrants, either of which is null for a bye
+    private Entrant first;
+    private Entrant second;
+
+    // The game they play, null for a bye
+    private Game game;
+
+    // Whether the result is known, the winner or null for a draw or when nobody won, and whether the game was a draw
+    private boolean decided;
+    private Entrant winner;
+    private boolean draw;
+
+    // Whether each entrant didn't show up
+    private boolean firstAbsent;
+    private boolean secondAbsent;
+
+    /**
+     * Creates a pairing without a result.
+     * @param table The number of the pairing within its round.
+     * @param first The first entrant or null.
+     * @param second The second entrant or null.
+     * @pre table >= 0
+     */
+    public Pairing(int table, Entrant first, Entrant second) {
+        this.table = table;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Sets the game of the pairing.
+     * @param game The game.
+     */
+    void setGame(Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Records the result of the game. Called by the tournament while it holds its lock.
+     * @param winner The winner or null for a draw.
+     * @post ensures that the pairing is decided
+     */
+    public void decide(Entrant winner) {
+        this.decided = true;
+        this.winner = winner;
+        this.draw = winner == null;
+    }
+
+    /**
+     * Records that one or both entrants didn't show up, or the missing entrant of a bye. Whoever did show up wins.
+     * @param firstAbsent Whether the first entrant didn't show up.
+     * @param secondAbsent Whether the second entrant didn't show up.
+     * @post ensures that the pairing is decided
+     */
+    public void decideNoShow(boolean firstAbsent, boolean secondAbsent) {
+        this.decided = true;
+        this.firstAbsent = firstAbsent;
+        this.secondAbsent = secondAbsent;
+        this.winner = firstAbsent ? (secondAbsent ? null : second) : first;
+    }
+
+    /**
+     * Getter for the number of the pairing within its round.
+     * @return The table number.
+     */
+    public int getTable() {
+        return table;
+    }
+
+    /**
+     * Getter for the first entrant.
+     * @return The entrant or null.
+     */
+    public Entrant getFirst() {
+        return first;
+    }
+
+    /**
+     * Getter for the second entrant.
+     * @return The entrant or null.
+     */
+    public Entrant getSecond() {
+        return second;
+    }
+
+    /**
+     * Getter for whether an entrant is missing, so that there is no game.
+     * @return Whether the pairing is a bye.
+     */
+    public boolean isBye() {
+        return first == null || second == null;
+    }
+
+    /**
+     * Getter for the game of the pairing.
+     * @return The game, or null for a bye or before the round has started.
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Getter for whether the result is known.
+     * @return Whether the pairing is decided.
+     */
+    public boolean isDecided() {
+        return decided;
+    }
+
+    /**
+     * Getter for the winner.
+     * @return The winner, or null for a draw, when nobody showed up or before the pairing is decided.
+     */
+    public Entrant getWinner() {
+        return winner;
+    }
+
+    /**
+     * Getter for whether the game was played to a draw.
+     * @return Whether the game ended in a tie.
+     */
+    public boolean isDraw() {
+        return draw;
+    }
+
+    /**
+     * Checks whether an entrant of this pairing didn't show up for its game.
+     * @param entrant The entrant.
+     * @return Whether the entrant is one of this pairing's and was absent.
+     */
+    public boolean isAbsent(Entrant entrant) {
+        return (entrant == first && firstAbsent) || (entrant == second && secondAbsent);
+    }
+}
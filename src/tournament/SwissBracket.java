@@ -0,0 +1,190 @@
+package tournament;
+
+// External imports
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A Swiss bracket: nobody is knocked out, every round entrants meet others with the same score or close to it, and nobody
+ * meets the same opponent twice if that can be avoided. A win and a bye are worth {@link #WIN_POINTS}, a draw
+ * {@link #DRAW_POINTS} and a loss nothing. With an odd number of entrants the lowest ranked entrant that hasn't had a bye yet
+ * gets one. An entrant that doesn't show up for a game loses it and is withdrawn from the rounds after it.
+ * <p>
+ * Pairing is greedy: going down the standings, every entrant that isn't paired yet meets the first one below it that it hasn't
+ * met before. That takes linear time in the usual case, and only falls back to a rematch when every remaining entrant is one.
+ * @inv entrants != null, seeds != null, points != null, opponents != null, rounds >= 0
+ */
+public class SwissBracket implements Bracket {
+    // What a win and a bye, and a draw are worth
+    public static final int WIN_POINTS = 2;
+    public static final int DRAW_POINTS = 1;
+
+    // The entrants in the order of their seed
+    private List<Entrant> entrants;
+
+    // The seed of every entrant, 0 being the best
+    private Map<Entrant, Integer> seeds;
+
+    // The points of every entrant
+    private Map<Entrant, Integer> points;
+
+    // The opponents every entrant has met
+    private Map<Entrant, Set<Entrant>> opponents;
+
+    // The entrants that have had a bye and those that have been withdrawn for not showing up
+    private Set<Entrant> byes;
+    private Set<Entrant> withdrawn;
+
+    // The number of rounds to play and the number that have been paired
+    private int rounds;
+    private int round;
+
+    /**
+     * Creates a bracket with as many rounds as a single elimination bracket of the same entrants would have, which is enough to
+     * leave a single entrant that has won every game.
+     * @param entrants The entrants in the order of their seed.
+     * @pre entrants != null, !entrants.isEmpty(), the names of the entrants are unique
+     */
+    public SwissBracket(List<Entrant> entrants) {
+        this(entrants, 32 - Integer.numberOfLeadingZeros(Math.max(1, entrants.size() - 1)));
+    }
+
+    /**
+     * Creates a bracket.
+     * @param entrants The entrants in the order of their seed.
+     * @param rounds The number of rounds to play.
+     * @pre entrants != null, !entrants.isEmpty(), the names of the entrants are unique, rounds >= 0
+     */
+    public SwissBracket(List<Entrant> entrants, int rounds) {
+        this.entrants = new ArrayList<>(entrants);
+        this.rounds = entrants.size() < 2 ? 0 : rounds;
+        seeds = new HashMap<>();
+        points = new HashMap<>();
+        opponents = new HashMap<>();
+        for (int seed = 0; seed < entrants.size(); seed++) {
+            seeds.put(entrants.get(seed), seed);
+            points.put(entrants.get(seed), 0);
+            opponents.put(entrants.get(seed), new HashSet<>());
+        }
+        byes = new HashSet<>();
+        withdrawn = new HashSet<>();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Pairing> nextRound() {
+        if (round == rounds) {
+            return null;
+        }
+        round++;
+
+        List<Entrant> order = getStandings();
+        order.removeAll(withdrawn);
+        List<Pairing> pairings = new ArrayList<>(order.size() / 2 + 1);
+
+        Entrant bye = null;
+        if (order.size() % 2 == 1) { // The lowest ranked entrant without a bye sits out
+            for (int i = order.size() - 1; i >= 0 && bye == null; i--) {
+                if (!byes.contains(order.get(i))) {
+                    bye = order.get(i);
+                }
+            }
+            bye = bye == null ? order.get(order.size() - 1) : bye;
+            order.remove(bye);
+        }
+
+        boolean[] paired = new boolean[order.size()];
+        for (int i = 0; i < order.size(); i++) {
+            if (paired[i]) {
+                continue;
+            }
+            Entrant entrant = order.get(i);
+            int opponent = -1;
+            for (int j = i + 1; j < order.size(); j++) {
+                if (!paired[j]) {
+                    if (opponent == -1) { // A rematch if nobody else is left
+                        opponent = j;
+                    }
+                    if (!opponents.get(entrant).contains(order.get(j))) {
+                        opponent = j;
+                        break;
+                    }
+                }
+            }
+            paired[i] = true;
+            paired[opponent] = true;
+            pairings.add(new Pairing(pairings.size(), entrant, order.get(opponent)));
+        }
+
+        if (bye != null) {
+            pairings.add(new Pairing(pairings.size(), bye, null));
+        }
+        return pairings;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void roundEnded(List<Pairing> pairings) {
+        for (Pairing pairing : pairings) {
+            if (pairing.isBye()) {
+                byes.add(pairing.getFirst());
+                points.merge(pairing.getFirst(), WIN_POINTS, Integer::sum);
+                continue;
+            }
+
+            Entrant first = pairing.getFirst();
+            Entrant second = pairing.getSecond();
+            opponents.get(first).add(second);
+            opponents.get(second).add(first);
+            if (pairing.isDraw()) {
+                points.merge(first, DRAW_POINTS, Integer::sum);
+                points.merge(second, DRAW_POINTS, Integer::sum);
+            } else if (pairing.getWinner() != null) {
+                points.merge(pairing.getWinner(), WIN_POINTS, Integer::sum);
+            }
+            for (Entrant entrant : new Entrant[] {first, second}) {
+                if (pairing.isAbsent(entrant)) {
+                    withdrawn.add(entrant);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * By points, and by seed among entrants with the same points.
+     */
+    @Override
+    public List<Entrant> getStandings() {
+        List<Entrant> standings = new ArrayList<>(entrants);
+        standings.sort(Comparator.comparingInt((Entrant entrant) -> -points.get(entrant)).thenComparingInt(seeds::get));
+        return standings;
+    }
+
+    /**
+     * Getter for the points of an entrant.
+     * @param entrant The entrant.
+     * @return The points so far.
+     * @pre entrant is one of the entrants of the bracket
+     */
+    public int getPoints(Entrant entrant) {
+        return points.get(entrant);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getFormat() {
+        return "Swiss";
+    }
+}
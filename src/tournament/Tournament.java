@@ -0,0 +1,336 @@
+package tournament;
+
+// External imports
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import game.Game;
+import game.GameListener;
+import game.RuleProfile;
+import metrics.LatencyHistogram;
+import server.Matchmaker;
+import tui.GameServerTUI;
+
+/**
+ * Runs a tournament of registered entrants on top of ordinary games. The {@link Bracket} decides who meets whom; every round
+ * all games are created at once through the matchmaker, so they get ids and listeners like every other game, and all of them
+ * run at the same time. The tournament listens to its games and records every result as the game ends. When the last game of
+ * a round has ended the next round is paired and started right away on the tournament thread, so rounds follow each other
+ * without waiting on a clock.
+ * <p>
+ * Byes are decided without a game. An entrant that doesn't take its seat, or that hasn't submitted a board when the check-in
+ * timeout of the round passes, loses by forfeit, and the game is forfeited so that an opponent who did turn up is told so.
+ * <p>
+ * Games call {@link #gameEnded(Game)} while they hold their own lock, so the tournament never calls into a game while it holds
+ * its own lock: the lock order is game, then tournament.
+ * @inv name != null, bracket != null, matchmaker != null, rules != null, view != null, games != null, roundStartDelays != null
+ */
+public class Tournament implements GameListener {
+    // How long entrants have to take their seat and submit a board in every round, if no other timeout is given
+    public static final long DEFAULT_CHECK_IN_MILLIS = 60000;
+
+    // The thread that pairs and starts the rounds and checks who turned up, shared by all tournaments
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Tournament");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The name of the tournament in messages
+    private String name;
+
+    // Decides the pairings and the standings
+    private Bracket bracket;
+
+    // Creates the games
+    private Matchmaker matchmaker;
+
+    // The rules every game is played with
+    private RuleProfile rules;
+
+    // The terminal view of the server
+    private GameServerTUI view;
+
+    // How long entrants have to take their seat and submit a board in milliseconds
+    private long checkInTimeout;
+
+    // The pairings of the round that is being played, null before the first round
+    private List<Pairing> current;
+
+    // The pairing of every game of the current round that hasn't ended yet
+    private Map<Game, Pairing> games;
+
+    // The number of rounds that have started
+    private int round;
+
+    // When the last game of the previous round ended, from System.nanoTime()
+    private long roundEndedAt;
+
+    // The time from the end of a round until all games of the next round have been started, in milliseconds
+    private LatencyHistogram roundStartDelays;
+
+    // Counted down once the tournament is over
+    private CountDownLatch finished;
+
+    /**
+     * Creates a tournament with the default check-in timeout.
+     * @param name The name of the tournament in messages.
+     * @param bracket The bracket with the registered entrants.
+     * @param matchmaker The matchmaker that creates the games.
+     * @param rules The rules every game is played with.
+     * @param view The terminal view of the server.
+     * @pre name != null, bracket != null, matchmaker != null, rules != null, view != null
+     */
+    public Tournament(String name, Bracket bracket, Matchmaker matchmaker, RuleProfile rules, GameServerTUI view) {
+        this(name, bracket, matchmaker, rules, view, DEFAULT_CHECK_IN_MILLIS);
+    }
+
+    /**
+     * Creates a tournament.
+     * @param name The name of the tournament in messages.
+     * @param bracket The bracket with the registered entrants.
+     * @param matchmaker The matchmaker that creates the games.
+     * @param rules The rules every game is played with.
+     * @param view The terminal view of the server.
+     * @param checkInTimeout How long entrants have to take their seat and submit a board in every round in milliseconds.
+     * @pre name != null, bracket != null, matchmaker != null, rules != null, view != null, checkInTimeout > 0
+     * @post ensures that no round has started
+     */
+    public Tournament(String name, Bracket bracket, Matchmaker matchmaker, RuleProfile rules, GameServerTUI view, long checkInTimeout) {
+        this.name = name;
+        this.bracket = bracket;
+        this.matchmaker = matchmaker;
+        this.rules = rules;
+        this.view = view;
+        this.checkInTimeout = checkInTimeout;
+        games = new HashMap<>();
+        roundStartDelays = new LatencyHistogram();
+        finished = new CountDownLatch(1);
+    }
+
+    /**
+     * Starts the first round on the tournament thread.
+     * @post ensures that the first round is started
+     */
+    public void start() {
+        SCHEDULER.execute(this::nextRound);
+    }
+
+    /**
+     * Hands the results of the round that has ended to the bracket and starts the next round, or finishes the tournament if
+     * the bracket has no more rounds. The pairings and games are made while holding the lock; the entrants take their seats
+     * after it has been released, since that calls into the games, spread over all cores.
+     * @post ensures that the next round has started or the tournament is over
+     */
+    private void nextRound() {
+        List<Pairing> pairings;
+        int started;
+        long previousRoundEndedAt;
+        synchronized (this) {
+            previousRoundEndedAt = roundEndedAt; // The games of the new round may end before they have all been started
+            if (current != null) {
+                bracket.roundEnded(current);
+            }
+            pairings = bracket.nextRound();
+            if (pairings == null) {
+                List<Entrant> standings = bracket.getStandings();
+                view.showMessage("Tournament " + name + ": over after " + round + " rounds, won by " +
+                    (standings.isEmpty() ? "nobody" : standings.get(0).getName()) + ".");
+                finished.countDown();
+                return;
+            }
+
+            round++;
+            current = pairings;
+            for (Pairing pairing : pairings) {
+                if (pairing.isBye()) {
+                    pairing.decideNoShow(pairing.getFirst() == null, pairing.getSecond() == null);
+                } else {
+                    Game game = matchmaker.createGame(rules);
+                    game.addGameListener(this);
+                    pairing.setGame(game);
+                    games.put(game, pairing);
+                }
+            }
+            started = games.size();
+            view.showMessage("Tournament " + name + ": round " + round + " started with " + started + " games and " +
+                (pairings.size() - started) + " byes.");
+        }
+
+        pairings.parallelStream().filter(pairing -> !pairing.isBye()).forEach(pairing -> { // Seats the games on all cores
+            boolean firstShowed = pairing.getFirst().join(pairing.getGame());
+            boolean secondShowed = pairing.getSecond().join(pairing.getGame());
+            if (!firstShowed || !secondShowed) {
+                noShow(pairing, !firstShowed, !secondShowed);
+            }
+        });
+
+        synchronized (this) {
+            if (previousRoundEndedAt != 0) {
+                roundStartDelays.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - previousRoundEndedAt));
+            }
+            if (started == 0) { // Only byes
+                roundEnded();
+                return;
+            }
+        }
+        int checkedRound = round;
+        SCHEDULER.schedule(() -> checkIn(pairings, checkedRound), checkInTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Records the result of a tournament game. Results of games that were already decided, because an entrant didn't show up
+     * in time, are ignored.
+     * @post ensures that the pairing of the game is decided
+     */
+    @Override
+    public void gameEnded(Game game) {
+        String winnerName = game.getWinnerName();
+        synchronized (this) {
+            Pairing pairing = games.get(game);
+            if (pairing == null || pairing.isDecided()) {
+                return;
+            }
+            Entrant winner = null;
+            if (pairing.getFirst().getName().equals(winnerName)) {
+                winner = pairing.getFirst();
+            } else if (pairing.getSecond().getName().equals(winnerName)) {
+                winner = pairing.getSecond();
+            }
+            pairing.decide(winner);
+            gameDecided(game);
+        }
+    }
+
+    /**
+     * Decides the games of a round that haven't started when the check-in timeout passes: whoever hasn't submitted a board
+     * didn't show up. The games are looked at without holding the lock of the tournament.
+     * @param pairings The pairings of the round.
+     * @param checkedRound The number of the round.
+     */
+    private void checkIn(List<Pairing> pairings, int checkedRound) {
+        List<Pairing> open = new ArrayList<>();
+        synchronized (this) {
+            if (round != checkedRound) {
+                return;
+            }
+            for (Pairing pairing : pairings) {
+                if (!pairing.isDecided()) {
+                    open.add(pairing);
+                }
+            }
+        }
+
+        for (Pairing pairing : open) {
+            Game game = pairing.getGame();
+            if (!game.getGameStarted()) {
+                noShow(pairing, !game.hasBoard(pairing.getFirst().getName()), !game.hasBoard(pairing.getSecond().getName()));
+            }
+        }
+    }
+
+    /**
+     * Decides a pairing because one or both entrants didn't show up, and forfeits the game for them.
+     * @param pairing The pairing.
+     * @param firstAbsent Whether the first entrant didn't show up.
+     * @param secondAbsent Whether the second entrant didn't show up.
+     * @post ensures that the pairing is decided unless it already was
+     */
+    private void noShow(Pairing pairing, boolean firstAbsent, boolean secondAbsent) {
+        synchronized (this) {
+            if (pairing.isDecided()) {
+                return;
+            }
+            pairing.decideNoShow(firstAbsent, secondAbsent);
+            gameDecided(pairing.getGame());
+        }
+        view.showMessage("Tournament " + name + ": " + (firstAbsent ? pairing.getFirst().getName() + " " : "") +
+            (secondAbsent ? pairing.getSecond().getName() + " " : "") + "didn't show up in game " + pairing.getGame().getGameId() + ".");
+        if (firstAbsent) {
+            pairing.getGame().forfeit(pairing.getFirst().getName());
+        }
+        if (secondAbsent) {
+            pairing.getGame().forfeit(pairing.getSecond().getName());
+        }
+    }
+
+    /**
+     * Counts a game of the current round as decided and starts the next round once every game is.
+     * @param game The game.
+     * @pre the caller holds the lock of this tournament
+     */
+    private void gameDecided(Game game) {
+        games.remove(game);
+        if (games.isEmpty()) {
+            roundEnded();
+        }
+    }
+
+    /**
+     * Starts the next round on the tournament thread, since this may be called by a game that holds its lock.
+     * @pre the caller holds the lock of this tournament, every pairing of the current round is decided
+     */
+    private void roundEnded() {
+        roundEndedAt = System.nanoTime();
+        SCHEDULER.execute(this::nextRound);
+    }
+
+    /**
+     * Waits until the tournament is over.
+     * @param timeout How long to wait.
+     * @param unit The unit of the timeout.
+     * @return Whether the tournament is over.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public boolean awaitFinish(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    /**
+     * Getter for whether the tournament is over.
+     * @return Whether the last round has ended.
+     */
+    public boolean isFinished() {
+        return finished.getCount() == 0;
+    }
+
+    /**
+     * Ranks the entrants by how well they have done so far, see {@link Bracket#getStandings()}.
+     * @return The entrants, the best first.
+     */
+    public synchronized List<Entrant> getStandings() {
+        return bracket.getStandings();
+    }
+
+    /**
+     * Getter for the number of rounds that have started.
+     * @return The number of rounds.
+     */
+    public synchronized int getRound() {
+        return round;
+    }
+
+    /**
+     * Getter for the pairings of the round that is being played, or of the last round once the tournament is over.
+     * @return A copy of the pairings, empty before the first round.
+     */
+    public synchronized List<Pairing> getCurrentRound() {
+        return current == null ? new ArrayList<>() : new ArrayList<>(current);
+    }
+
+    /**
+     * Getter for the time from the end of a round until all games of the next round had been started.
+     * @return The histogram of times in milliseconds.
+     */
+    public LatencyHistogram getRoundStartDelays() {
+        return roundStartDelays;
+    }
+}
@@ -0,0 +1,198 @@
+package tournament.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Internal imports
+import game.Game;
+import tournament.EliminationBracket;
+import tournament.Entrant;
+import tournament.Pairing;
+import tournament.SwissBracket;
+
+/**
+ * Tests the pairings and standings of the brackets, without playing games.
+ */
+public class BracketTest {
+    /**
+     * An entrant that is never asked to play here.
+     */
+    private static class TestEntrant implements Entrant {
+        private String name;
+
+        TestEntrant(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean join(Game game) {
+            return true;
+        }
+    }
+
+    /**
+     * Tests the seeding order, in which the best seeds meet as late as possible.
+     */
+    @Test
+    void testSeedingOrder() {
+        assertArrayEquals(new int[] {0}, EliminationBracket.seedingOrder(1));
+        assertArrayEquals(new int[] {0, 7, 3, 4, 1, 6, 2, 5}, EliminationBracket.seedingOrder(8));
+    }
+
+    /**
+     * Tests that the best seeds get the byes, that the better seed wins every game here and goes on, and that the tournament
+     * ends with the best seed after the right number of rounds.
+     */
+    @Test
+    void testElimination() {
+        List<Entrant> entrants = entrants(13);
+        EliminationBracket bracket = new EliminationBracket(entrants);
+
+        List<Pairing> first = bracket.nextRound();
+        assertEquals(8, first.size());
+        int byes = 0;
+        for (Pairing pairing : first) {
+            if (pairing.isBye()) {
+                byes++;
+                assertTrue(seed(pairing.getFirst()) < 3); // Seeds 0, 1 and 2 sit out
+            }
+        }
+        assertEquals(3, byes);
+
+        int rounds = 0;
+        for (List<Pairing> round = first; round != null; round = bracket.nextRound()) {
+            rounds++;
+            for (Pairing pairing : round) {
+                decideBySeed(pairing);
+            }
+            bracket.roundEnded(round);
+        }
+        assertEquals(4, rounds);
+        assertSame(entrants.get(0), bracket.getStandings().get(0));
+        assertSame(entrants.get(1), bracket.getStandings().get(1)); // Lost the final
+    }
+
+    /**
+     * Tests that an entrant whose opponent doesn't show up goes on, and that nobody goes on when neither shows up.
+     */
+    @Test
+    void testEliminationNoShows() {
+        List<Entrant> entrants = entrants(4);
+        EliminationBracket bracket = new EliminationBracket(entrants);
+        List<Pairing> round = bracket.nextRound(); // 0-3 and 1-2
+        round.get(0).decideNoShow(true, false); // Seed 0 is absent, seed 3 goes on
+        round.get(1).decideNoShow(true, true); // Nobody goes on
+        bracket.roundEnded(round);
+
+        List<Pairing> last = bracket.nextRound();
+        assertEquals(1, last.size());
+        assertTrue(last.get(0).isBye());
+        assertSame(entrants.get(3), last.get(0).getSecond() == null ? last.get(0).getFirst() : last.get(0).getSecond());
+    }
+
+    /**
+     * Tests that Swiss pairings avoid rematches, give every bye to a different entrant and rank by points.
+     */
+    @Test
+    void testSwiss() {
+        List<Entrant> entrants = entrants(7);
+        SwissBracket bracket = new SwissBracket(entrants);
+        Set<String> met = new HashSet<>();
+        Set<Entrant> byes = new HashSet<>();
+
+        int rounds = 0;
+        for (List<Pairing> round = bracket.nextRound(); round != null; round = bracket.nextRound()) {
+            rounds++;
+            assertEquals(4, round.size());
+            for (Pairing pairing : round) {
+                if (pairing.isBye()) {
+                    assertTrue(byes.add(pairing.getFirst()));
+                } else {
+                    int a = seed(pairing.getFirst());
+                    int b = seed(pairing.getSecond());
+                    assertTrue(met.add(Math.min(a, b) + "-" + Math.max(a, b)), "Rematch " + a + "-" + b);
+                }
+                decideBySeed(pairing);
+            }
+            bracket.roundEnded(round);
+        }
+        assertEquals(3, rounds);
+        assertSame(entrants.get(0), bracket.getStandings().get(0));
+        assertEquals(3 * SwissBracket.WIN_POINTS, bracket.getPoints(entrants.get(0)));
+    }
+
+    /**
+     * Tests that a draw is worth a point to both and that an entrant that doesn't show up isn't paired again.
+     */
+    @Test
+    void testSwissDrawsAndWithdrawals() {
+        List<Entrant> entrants = entrants(4);
+        SwissBracket bracket = new SwissBracket(entrants, 3);
+
+        List<Pairing> round = bracket.nextRound();
+        round.get(0).decide(null); // A draw
+        round.get(1).decideNoShow(false, true);
+        Entrant absent = round.get(1).getSecond();
+        bracket.roundEnded(round);
+        assertEquals(SwissBracket.DRAW_POINTS, bracket.getPoints(round.get(0).getFirst()));
+        assertEquals(SwissBracket.DRAW_POINTS, bracket.getPoints(round.get(0).getSecond()));
+
+        for (List<Pairing> next = bracket.nextRound(); next != null; next = bracket.nextRound()) {
+            for (Pairing pairing : next) {
+                assertFalse(pairing.getFirst() == absent || pairing.getSecond() == absent);
+                decideBySeed(pairing);
+            }
+            bracket.roundEnded(next);
+        }
+        assertEquals(0, bracket.getPoints(absent));
+        assertSame(absent, bracket.getStandings().get(3));
+    }
+
+    /**
+     * Tests that a single entrant wins without playing.
+     */
+    @Test
+    void testSingleEntrant() {
+        List<Entrant> entrants = entrants(1);
+        assertNull(new EliminationBracket(entrants).nextRound());
+        assertNull(new SwissBracket(entrants).nextRound());
+    }
+
+    private static List<Entrant> entrants(int count) {
+        List<Entrant> entrants = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entrants.add(new TestEntrant(String.valueOf(i)));
+        }
+        return entrants;
+    }
+
+    private static int seed(Entrant entrant) {
+        return Integer.parseInt(entrant.getName());
+    }
+
+    /**
+     * Decides a pairing for the better seed, or for the entrant that is there for a bye.
+     */
+    private static void decideBySeed(Pairing pairing) {
+        if (pairing.isBye()) { // Decided like the tournament does
+            pairing.decideNoShow(pairing.getFirst() == null, pairing.getSecond() == null);
+        } else {
+            pairing.decide(seed(pairing.getFirst()) < seed(pairing.getSecond()) ? pairing.getFirst() : pairing.getSecond());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package tournament.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import constants.GameConstants;
+import exceptions.ProtocolException;
+import game.BoardGenerator;
+import game.RuleProfile;
+import game.VirtualScheduler;
+import server.GameClientHandler;
+import server.GameServer;
+import server.InMemorySocket;
+import server.ProtocolMessages;
+import tournament.ClientEntrant;
+import tournament.EliminationBracket;
+import tournament.Entrant;
+import tournament.Tournament;
+import tui.GameServerTUI;
+
+/**
+ * Tests that clients connected to the server can enter a tournament, and are seated in its games from the lobby.
+ */
+public class ClientEntrantTest {
+    @TempDir
+    File directory;
+
+    private GameServer server;
+    private VirtualScheduler scheduler;
+    private BoardGenerator boards;
+
+    /**
+     * A client connected in memory whose messages are handled on the test thread.
+     */
+    private class MemoryClient {
+        private String name;
+        private GameClientHandler handler;
+        private BufferedReader in;
+        private String board;
+
+        MemoryClient(String name) throws IOException {
+            this.name = name;
+            InMemorySocket[] connection = InMemorySocket.pair();
+            connection[0].setSoTimeout(5000); // A reply that never comes fails the test instead of hanging it
+            in = new BufferedReader(new InputStreamReader(connection[0].getInputStream()));
+            handler = new GameClientHandler(connection[1], server, new GameServerTUI());
+        }
+
+        void send(String message) throws ProtocolException {
+            handler.handleCommand(message);
+        }
+
+        /**
+         * Reads replies until one with the given command, which is returned.
+         */
+        String expect(String command) throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    throw new IOException(name + " was disconnected while waiting for " + command);
+                }
+            } while (!line.split(ProtocolMessages.DELIMITER)[0].equals(command));
+            return line;
+        }
+
+        /**
+         * Submits a new board for the game the client is in.
+         */
+        void submitBoard() throws ProtocolException {
+            board = boards.nextBoard();
+            send(board);
+        }
+
+        /**
+         * Shoots at the ship fields of the opponent in order, which sinks them all on one turn since a hit gives another move.
+         */
+        void sinkAll(String opponentBoard) throws ProtocolException {
+            String[] fields = opponentBoard.split(ProtocolMessages.DELIMITER);
+            for (int field = 1; field < fields.length; field++) {
+                if (!fields[field].equals(GameConstants.FIELD_TYPE_WATER)) {
+                    send(ProtocolMessages.MOVE + ProtocolMessages.DELIMITER + ((field - 1) % GameConstants.BOARD_SIZE_X) +
+                        ProtocolMessages.DELIMITER + ((field - 1) / GameConstants.BOARD_SIZE_X));
+                }
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        server = new GameServer(new String[] {String.valueOf(port), "0"}, new File(directory, "player-stats.dat"), null);
+        scheduler = new VirtualScheduler(TimeUnit.DAYS.toMillis(1));
+        server.getMatchmaker().setScheduler(scheduler);
+        boards = new BoardGenerator(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.shutdownServer();
+    }
+
+    /**
+     * Tests that two clients in the lobby are seated in the final of a tournament, play it like any other game, and that the
+     * winner wins the tournament.
+     */
+    @Test
+    void testClientsPlayTournament() throws Exception {
+        MemoryClient[] lobby = playedTie();
+        MemoryClient alice = lobby[0];
+        MemoryClient bob = lobby[1];
+
+        Entrant aliceEntrant = new ClientEntrant(alice.handler);
+        Entrant bobEntrant = new ClientEntrant(bob.handler);
+        Tournament tournament = new Tournament("weekend", new EliminationBracket(Arrays.asList(aliceEntrant, bobEntrant)),
+            server.getMatchmaker(), RuleProfile.CLASSIC, new GameServerTUI(), TimeUnit.SECONDS.toMillis(30));
+        tournament.start();
+        playFinal(alice, bob, tournament);
+    }
+
+    /**
+     * Tests that the server starts a tournament of the clients in the lobby, and leaves out a client that is waiting for an
+     * opponent.
+     */
+    @Test
+    void testServerEntersClientsInLobby() throws Exception {
+        MemoryClient[] lobby = playedTie();
+        MemoryClient carol = new MemoryClient("carol");
+        carol.send("h;carol"); // Waits for an opponent
+        carol.expect(ProtocolMessages.HANDSHAKE);
+        for (MemoryClient client : Arrays.asList(lobby[0], lobby[1], carol)) {
+            server.getConnections().add(client.handler);
+        }
+
+        Tournament tournament = server.startTournament("weekend");
+        playFinal(lobby[0], lobby[1], tournament);
+        assertEquals(2, tournament.getStandings().size());
+    }
+
+    /**
+     * Tests that no tournament is started with fewer than two clients in the lobby.
+     */
+    @Test
+    void testTournamentNeedsTwoClients() throws Exception {
+        MemoryClient alice = new MemoryClient("alice");
+        alice.send("h;alice");
+        alice.expect(ProtocolMessages.HANDSHAKE);
+        server.getConnections().add(alice.handler);
+
+        assertNull(server.startTournament("weekend"));
+    }
+
+    /**
+     * Plays a first game between alice and bob that ends in a tie when its time is up, after which both clients are in the lobby.
+     * @return alice and bob.
+     */
+    private MemoryClient[] playedTie() throws Exception {
+        MemoryClient alice = new MemoryClient("alice");
+        MemoryClient bob = new MemoryClient("bob");
+        alice.send("h;alice");
+        alice.expect(ProtocolMessages.HANDSHAKE);
+        bob.send("h;bob");
+        bob.expect(ProtocolMessages.HANDSHAKE);
+
+        alice.submitBoard();
+        bob.submitBoard();
+        scheduler.runDue();
+        scheduler.advance(RuleProfile.CLASSIC.getGameDuration());
+        assertEquals(ProtocolMessages.GAMEOVER + ";;true", alice.expect(ProtocolMessages.GAMEOVER));
+        assertEquals(ProtocolMessages.GAMEOVER + ";;true", bob.expect(ProtocolMessages.GAMEOVER));
+        return new MemoryClient[] {alice, bob};
+    }
+
+    /**
+     * Plays the final of a tournament between alice and bob, which the one with the first move wins on their first turn, and
+     * checks that the winner wins the tournament.
+     */
+    private void playFinal(MemoryClient alice, MemoryClient bob, Tournament tournament) throws Exception {
+        assertEquals(ProtocolMessages.HANDSHAKE + ProtocolMessages.DELIMITER + RuleProfile.CLASSIC.describe(),
+            alice.expect(ProtocolMessages.HANDSHAKE));
+        assertEquals(ProtocolMessages.ENEMYNAME + ";bob", alice.expect(ProtocolMessages.ENEMYNAME)); // Both have been seated
+        assertEquals(ProtocolMessages.ENEMYNAME + ";alice", bob.expect(ProtocolMessages.ENEMYNAME));
+        alice.submitBoard();
+        bob.submitBoard();
+        scheduler.runDue(); // Sets up the game
+
+        String firstName = alice.expect(ProtocolMessages.SETUP).split(ProtocolMessages.DELIMITER)[1];
+        bob.expect(ProtocolMessages.SETUP);
+        MemoryClient first = firstName.equals("alice") ? alice : bob;
+        MemoryClient second = first == alice ? bob : alice;
+        first.sinkAll(second.board);
+        assertEquals(ProtocolMessages.GAMEOVER + ";" + first.name + ";true", second.expect(ProtocolMessages.GAMEOVER));
+
+        assertTrue(tournament.awaitFinish(10, TimeUnit.SECONDS));
+        assertEquals(first.name, tournament.getStandings().get(0).getName());
+    }
+
+    /**
+     * Tests that a client that is still in a game can't be seated, so it doesn't show up.
+     */
+    @Test
+    void testClientInGameIsNotSeated() throws Exception {
+        MemoryClient alice = new MemoryClient("alice");
+        alice.send("h;alice");
+        alice.expect(ProtocolMessages.HANDSHAKE);
+
+        assertFalse(new ClientEntrant(alice.handler).join(server.getMatchmaker().createGame(RuleProfile.CLASSIC)));
+    }
+}
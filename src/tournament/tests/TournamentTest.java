@@ -0,0 +1,170 @@
+package tournament.tests;
+
+// External imports
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Internal imports
+import game.Game;
+import game.Player;
+import game.RuleProfile;
+import server.Matchmaker;
+import tournament.BotEntrant;
+import tournament.Bracket;
+import tournament.EliminationBracket;
+import tournament.Entrant;
+import tournament.Pairing;
+import tournament.SwissBracket;
+import tournament.Tournament;
+import tui.GameServerTUI;
+
+/**
+ * Tests tournaments played out by bots, including entrants that don't show up.
+ */
+public class TournamentTest {
+    private static final long CHECK_IN_TIMEOUT = 300;
+
+    /**
+     * An entrant that never takes its seat.
+     */
+    private static class AbsentEntrant implements Entrant {
+        @Override
+        public String getName() {
+            return "absent";
+        }
+
+        @Override
+        public boolean join(Game game) {
+            return false;
+        }
+    }
+
+    /**
+     * An entrant that takes its seat but never submits a board, and remembers how the game ended for it.
+     */
+    private static class SilentEntrant implements Entrant, Player {
+        private volatile String winner;
+
+        @Override
+        public String getName() {
+            return "silent";
+        }
+
+        @Override
+        public boolean join(Game game) {
+            game.setPlayer(this);
+            return true;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void enemyName(String playerName) {
+        }
+
+        @Override
+        public void gameSetup(String playerName) {
+        }
+
+        @Override
+        public void makeMove() {
+        }
+
+        @Override
+        public void update(int x, int y, boolean isHit, boolean isSunk, boolean isLate, String lastPlayerName, String nextPlayerName) {
+        }
+
+        @Override
+        public void gameOver(String playerName, boolean winType) {
+            winner = playerName;
+        }
+    }
+
+    /**
+     * Tests that a single elimination tournament plays every round and ends with one entrant that won all its games.
+     */
+    @Test
+    void testElimination() throws InterruptedException {
+        List<Entrant> entrants = bots(16);
+        Tournament tournament = tournament(new EliminationBracket(entrants));
+
+        tournament.start();
+        assertTrue(tournament.awaitFinish(60, TimeUnit.SECONDS));
+        assertEquals(4, tournament.getRound());
+
+        List<Pairing> last = tournament.getCurrentRound();
+        assertEquals(1, last.size());
+        assertTrue(last.get(0).isDecided());
+        Entrant champion = tournament.getStandings().get(0);
+        assertTrue(champion == last.get(0).getFirst() || champion == last.get(0).getSecond());
+        if (last.get(0).getWinner() != null) { // Not a draw
+            assertSame(last.get(0).getWinner(), champion);
+        }
+        assertEquals(3, tournament.getRoundStartDelays().getCount());
+    }
+
+    /**
+     * Tests that a Swiss tournament plays its rounds with a bye every round for an odd number of entrants.
+     */
+    @Test
+    void testSwiss() throws InterruptedException {
+        List<Entrant> entrants = bots(9);
+        SwissBracket bracket = new SwissBracket(entrants);
+        Tournament tournament = tournament(bracket);
+
+        tournament.start();
+        assertTrue(tournament.awaitFinish(60, TimeUnit.SECONDS));
+        assertEquals(4, tournament.getRound());
+
+        int points = 0;
+        for (Entrant entrant : entrants) {
+            points += bracket.getPoints(entrant);
+        }
+        assertEquals(4 * 5 * SwissBracket.WIN_POINTS, points); // Four games and a bye every round, a draw shares the points
+    }
+
+    /**
+     * Tests that entrants that don't take their seat or don't submit a board in time lose, and that their opponents go on.
+     */
+    @Test
+    void testNoShows() throws InterruptedException {
+        List<Entrant> entrants = bots(4);
+        AbsentEntrant absent = new AbsentEntrant();
+        SilentEntrant silent = new SilentEntrant();
+        entrants.add(absent); // Meets seed 3
+        entrants.add(silent); // Meets seed 2
+        Tournament tournament = tournament(new EliminationBracket(entrants));
+
+        tournament.start();
+        assertTrue(tournament.awaitFinish(60, TimeUnit.SECONDS));
+
+        List<Entrant> standings = tournament.getStandings();
+        assertTrue(standings.indexOf(absent) >= 4);
+        assertTrue(standings.indexOf(silent) >= 4);
+        assertNotNull(silent.winner); // Told that the game is over
+        assertFalse(silent.winner.equals(silent.getName()));
+    }
+
+    private static Tournament tournament(Bracket bracket) {
+        return new Tournament("test", bracket, new Matchmaker(new GameServerTUI(), 0), RuleProfile.CLASSIC, new GameServerTUI(),
+            CHECK_IN_TIMEOUT);
+    }
+
+    private static List<Entrant> bots(int count) {
+        List<Entrant> entrants = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entrants.add(new BotEntrant("bot" + i, i, 0));
+        }
+        return entrants;
+    }
+}
@@ -1,8 +1,13 @@
 package tui;
 
 // External imports
+import java.io.PrintStream;
 import java.util.Scanner;
 
+// Internal imports
+import metrics.LockProfiler;
+import metrics.LockTimer;
+
 /**
  * This class is a TUI for the game server. Is prompts questions to the user and displays messages.
  * @inv scanner != null
@@ -19,13 +24,33 @@ public class GameServerTUI {
     }
 
 	/**
-     * Simple method to more easily display messages in terminal
+     * Simple method to more easily display messages in terminal. All threads of the server print through the lock of the
+     * console, how long they wait for it and hold it is timed as the console of the lock profiler.
      * @param message The message to be displayed.
      * @pre message != null
      * @post ensures that a message on a new line is printed
      */
     public void showMessage(String message) {
-        System.out.println(message);
+        LockTimer timer = LockProfiler.getShared().getConsole();
+        PrintStream out = System.out;
+        long waiting = System.nanoTime();
+        synchronized (out) { // The lock println takes, taken here first so the wait for it can be timed
+            long acquired = timer.acquired(waiting);
+            out.println(message);
+            timer.released(acquired);
+        }
+    }
+
+    /**
+     * Reads a command the user types in the terminal, waiting until a line has been entered.
+     * @return The command without surrounding spaces, or null if the terminal has no more input.
+     * @pre in != null
+     */
+    public String getCommand() {
+        if (!in.hasNextLine()) {
+            return null;
+        }
+        return in.nextLine().trim();
     }
 
 	/**
@@ -49,6 +49,16 @@ public class GameServerTUITest {
         outContent.reset();
     }
 
+    @Test
+    void testGetCommand() {
+        System.setIn(new ByteArrayInputStream(("  locks \n").getBytes())); // Prepares the input
+        GameServerTUI console = new GameServerTUI();
+
+        assertEquals("locks", console.getCommand());
+        assertEquals(null, console.getCommand());
+        outContent.reset();
+    }
+
     @AfterAll
 	static void restoreStream() {
         System.setOut(originalOut);